@@ -0,0 +1,38 @@
+package com.todoapp.cluster;
+
+import com.todoapp.event.TaskEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes invalidations only once the change is committed, so another
+ * instance never reloads the state from before it.
+ */
+@Component
+public class ClusterInvalidationPublisher {
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        invalidationBus.publish(Invalidation.tasks(event.userId()));
+    }
+
+    public void publishAfterCommit(Invalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidationBus.publish(invalidation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidationBus.publish(invalidation);
+            }
+        });
+    }
+}
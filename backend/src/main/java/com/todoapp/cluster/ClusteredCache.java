@@ -0,0 +1,13 @@
+package com.todoapp.cluster;
+
+/**
+ * An in-process cache that has to drop entries when another instance changes
+ * the underlying data. Implementations are found by type and receive every
+ * invalidation that arrives over the bus.
+ */
+public interface ClusteredCache {
+
+    void invalidate(Invalidation invalidation);
+
+    void invalidateAll();
+}
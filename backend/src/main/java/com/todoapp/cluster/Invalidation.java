@@ -0,0 +1,30 @@
+package com.todoapp.cluster;
+
+/**
+ * A message telling other instances that something they may have cached
+ * changed. {@code userId} is ignored for {@link Type#ALL}.
+ */
+public record Invalidation(Type type, long userId) {
+
+    public enum Type {
+        TASKS,
+        PRINCIPAL,
+        ALL,
+        // Appended last: the ordinal goes over the wire.
+        LIST_ACCESS
+    }
+
+    public static final Invalidation ALL = new Invalidation(Type.ALL, 0);
+
+    public static Invalidation tasks(long userId) {
+        return new Invalidation(Type.TASKS, userId);
+    }
+
+    public static Invalidation principal(long userId) {
+        return new Invalidation(Type.PRINCIPAL, userId);
+    }
+
+    public static Invalidation listAccess(long userId) {
+        return new Invalidation(Type.LIST_ACCESS, userId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.todoapp.cluster;
+
+import com.todoapp.dto.InvalidationBusStatsDTO;
+
+/**
+ * Broadcasts invalidations to the other instances. Local caches are kept
+ * current by the task events themselves, so publishing never invalidates
+ * anything on this instance.
+ */
+public interface InvalidationBus {
+
+    void publish(Invalidation invalidation);
+
+    InvalidationBusStatsDTO stats();
+}
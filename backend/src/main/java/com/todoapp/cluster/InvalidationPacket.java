@@ -0,0 +1,78 @@
+package com.todoapp.cluster;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One datagram on the bus. Every sender numbers its packets from 1 with no
+ * holes, heartbeats included, so a receiver notices a lost packet as soon as
+ * the next one arrives. A restarted instance gets a new sender id and starts
+ * over at 1.
+ *
+ * <pre>
+ * short magic | byte version | long senderId | long sequence | short count | count x (byte type, long userId)
+ * </pre>
+ */
+record InvalidationPacket(long senderId, long sequence, List<Invalidation> invalidations) {
+
+    private static final short MAGIC = 0x7D1A;
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 2 + 1 + 8 + 8 + 2;
+    private static final int ENTRY_BYTES = 1 + 8;
+    private static final Invalidation.Type[] TYPES = Invalidation.Type.values();
+
+    // Keeps a datagram under the 1472 bytes that fit an Ethernet frame unfragmented.
+    static final int MAX_INVALIDATIONS = 150;
+
+    static final int MAX_BYTES = HEADER_BYTES + MAX_INVALIDATIONS * ENTRY_BYTES;
+
+    InvalidationPacket {
+        if (invalidations.size() > MAX_INVALIDATIONS) {
+            throw new IllegalArgumentException("Too many invalidations for one packet: " + invalidations.size());
+        }
+    }
+
+    boolean isHeartbeat() {
+        return invalidations.isEmpty();
+    }
+
+    ByteBuffer encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + invalidations.size() * ENTRY_BYTES);
+        buffer.putShort(MAGIC)
+                .put(VERSION)
+                .putLong(senderId)
+                .putLong(sequence)
+                .putShort((short) invalidations.size());
+        for (Invalidation invalidation : invalidations) {
+            buffer.put((byte) invalidation.type().ordinal()).putLong(invalidation.userId());
+        }
+        return buffer.flip();
+    }
+
+    static InvalidationPacket decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getShort() != MAGIC || buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Not an invalidation packet");
+            }
+            long senderId = buffer.getLong();
+            long sequence = buffer.getLong();
+            int count = buffer.getShort();
+            if (count < 0 || count > MAX_INVALIDATIONS) {
+                throw new IllegalArgumentException("Invalid invalidation count: " + count);
+            }
+            List<Invalidation> invalidations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int type = buffer.get();
+                if (type < 0 || type >= TYPES.length) {
+                    throw new IllegalArgumentException("Unknown invalidation type: " + type);
+                }
+                invalidations.add(new Invalidation(TYPES[type], buffer.getLong()));
+            }
+            return new InvalidationPacket(senderId, sequence, invalidations);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated invalidation packet", e);
+        }
+    }
+}
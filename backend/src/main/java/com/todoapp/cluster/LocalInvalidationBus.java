@@ -0,0 +1,20 @@
+package com.todoapp.cluster;
+
+import com.todoapp.dto.InvalidationBusStatsDTO;
+
+/**
+ * Used when the instance runs alone: there is nobody to tell.
+ */
+public class LocalInvalidationBus implements InvalidationBus {
+
+    @Override
+    public void publish(Invalidation invalidation) {
+    }
+
+    @Override
+    public InvalidationBusStatsDTO stats() {
+        return InvalidationBusStatsDTO.builder()
+                .transport("none")
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.todoapp.cluster;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks the last sequence number seen from every sender. Only the receiver
+ * thread uses it.
+ */
+class SequenceTracker {
+
+    enum Result {
+        /** The next packet in order. */
+        IN_ORDER,
+        /** Packets were lost, or this is the first packet seen from a sender that started earlier. */
+        GAP,
+        /** Already seen, or arrived after a later packet; its content is covered by the flush for that gap. */
+        STALE
+    }
+
+    private final Map<Long, Sender> senders = new HashMap<>();
+
+    Result accept(long senderId, long sequence, long nowMillis) {
+        Sender sender = senders.get(senderId);
+        if (sender == null) {
+            senders.put(senderId, new Sender(sequence, nowMillis));
+            return sequence == 1 ? Result.IN_ORDER : Result.GAP;
+        }
+        if (sequence <= sender.lastSequence) {
+            return Result.STALE;
+        }
+        long expected = sender.lastSequence + 1;
+        sender.lastSequence = sequence;
+        sender.lastSeenMillis = nowMillis;
+        return sequence == expected ? Result.IN_ORDER : Result.GAP;
+    }
+
+    /**
+     * Forgets senders not heard from since {@code cutoffMillis}, which are
+     * mostly instances that have restarted under a new id. If one was only cut
+     * off, its next packet is a first packet with a sequence above 1 and so
+     * still counts as a gap.
+     */
+    int expire(long cutoffMillis) {
+        int before = senders.size();
+        senders.values().removeIf(sender -> sender.lastSeenMillis < cutoffMillis);
+        return before - senders.size();
+    }
+
+    int senderCount() {
+        return senders.size();
+    }
+
+    private static final class Sender {
+
+        private long lastSequence;
+        private long lastSeenMillis;
+
+        private Sender(long lastSequence, long lastSeenMillis) {
+            this.lastSequence = lastSequence;
+            this.lastSeenMillis = lastSeenMillis;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.todoapp.cluster;
+
+import com.todoapp.dto.InvalidationBusStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends invalidations to a fixed list of peers over UDP. Invalidations
+ * published within {@code coalesceMillis} of each other go out together and
+ * duplicates collapse, so a burst of writes by one user costs one entry. A
+ * heartbeat keeps the sequence moving while idle, which bounds how long a lost
+ * packet goes unnoticed; when a receiver sees a gap it flushes every cache
+ * rather than guess what it missed.
+ *
+ * <p>Invalidations only ever drop cached data, so a lost, forged or repeated
+ * packet costs reloads but never serves wrong data for longer than a
+ * heartbeat. The port should still only be reachable from the other
+ * instances.
+ */
+@Slf4j
+public class UdpInvalidationBus implements InvalidationBus, SmartLifecycle {
+
+    private final long senderId = new SecureRandom().nextLong();
+    private final InetSocketAddress bindAddress;
+    private final List<InetSocketAddress> peers;
+    private final List<ClusteredCache> caches;
+    private final long coalesceMillis;
+    private final long heartbeatMillis;
+    private final int maxPending;
+
+    private final Object lock = new Object();
+    private final Set<Invalidation> pending = new LinkedHashSet<>();
+    private final SequenceTracker tracker = new SequenceTracker();
+
+    private DatagramSocket socket;
+    private Thread sender;
+    private Thread receiver;
+    private volatile boolean running;
+
+    private long sequence;
+    private long lastSentMillis;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong sentPackets = new AtomicLong();
+    private final AtomicLong sentInvalidations = new AtomicLong();
+    private final AtomicLong receivedPackets = new AtomicLong();
+    private final AtomicLong receivedInvalidations = new AtomicLong();
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong fullFlushes = new AtomicLong();
+    private final AtomicLong stalePackets = new AtomicLong();
+    private final AtomicLong decodeErrors = new AtomicLong();
+    private final AtomicLong sendErrors = new AtomicLong();
+    private volatile int knownSenders;
+
+    public UdpInvalidationBus(InetSocketAddress bindAddress, List<InetSocketAddress> peers,
+                              List<ClusteredCache> caches, long coalesceMillis, long heartbeatMillis, int maxPending) {
+        this.bindAddress = bindAddress;
+        this.peers = List.copyOf(peers);
+        this.caches = List.copyOf(caches);
+        this.coalesceMillis = coalesceMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        published.incrementAndGet();
+        synchronized (lock) {
+            if (pending.contains(Invalidation.ALL)) {
+                return;
+            }
+            // Past the limit one ALL says the same in a single entry.
+            if (invalidation.type() == Invalidation.Type.ALL || pending.size() >= maxPending) {
+                pending.clear();
+                pending.add(Invalidation.ALL);
+            } else {
+                pending.add(invalidation);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            socket = new DatagramSocket(bindAddress);
+            socket.setSoTimeout((int) heartbeatMillis);
+        } catch (SocketException e) {
+            throw new UncheckedIOException("Could not bind invalidation bus to " + bindAddress, e);
+        }
+        running = true;
+        sender = new Thread(this::sendLoop, "invalidation-bus-sender");
+        sender.setDaemon(true);
+        sender.start();
+        receiver = new Thread(this::receiveLoop, "invalidation-bus-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("Invalidation bus {} listening on {} with peers {}", senderId, socket.getLocalSocketAddress(), peers);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        try {
+            sender.join(heartbeatMillis + coalesceMillis + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        socket.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    long getSenderId() {
+        return senderId;
+    }
+
+    @Override
+    public InvalidationBusStatsDTO stats() {
+        return InvalidationBusStatsDTO.builder()
+                .transport("udp")
+                .senderId(senderId)
+                .peers(peers.size())
+                .knownSenders(knownSenders)
+                .published(published.get())
+                .sentPackets(sentPackets.get())
+                .sentInvalidations(sentInvalidations.get())
+                .receivedPackets(receivedPackets.get())
+                .receivedInvalidations(receivedInvalidations.get())
+                .gaps(gaps.get())
+                .fullFlushes(fullFlushes.get())
+                .stalePackets(stalePackets.get())
+                .decodeErrors(decodeErrors.get())
+                .sendErrors(sendErrors.get())
+                .build();
+    }
+
+    private void sendLoop() {
+        while (true) {
+            List<Invalidation> batch;
+            try {
+                synchronized (lock) {
+                    if (pending.isEmpty() && running) {
+                        lock.wait(Math.max(1, lastSentMillis + heartbeatMillis - System.currentTimeMillis()));
+                    }
+                }
+                if (running && coalesceMillis > 0 && hasPending()) {
+                    Thread.sleep(coalesceMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            synchronized (lock) {
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+
+            if (!batch.isEmpty()) {
+                for (int from = 0; from < batch.size(); from += InvalidationPacket.MAX_INVALIDATIONS) {
+                    send(batch.subList(from, Math.min(batch.size(), from + InvalidationPacket.MAX_INVALIDATIONS)));
+                }
+            } else if (!running) {
+                return;
+            } else if (System.currentTimeMillis() - lastSentMillis >= heartbeatMillis) {
+                send(List.of());
+            }
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (lock) {
+            return !pending.isEmpty();
+        }
+    }
+
+    private void send(List<Invalidation> invalidations) {
+        ByteBuffer payload = new InvalidationPacket(senderId, ++sequence, List.copyOf(invalidations)).encode();
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(payload.array(), payload.limit(), peer));
+            } catch (IOException e) {
+                // The peer notices the missing sequence number and flushes.
+                sendErrors.incrementAndGet();
+                log.debug("Could not send invalidations to {}: {}", peer, e.getMessage());
+            }
+        }
+        lastSentMillis = System.currentTimeMillis();
+        sentPackets.incrementAndGet();
+        sentInvalidations.addAndGet(invalidations.size());
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[InvalidationPacket.MAX_BYTES + 64];
+        DatagramPacket datagram = new DatagramPacket(buffer, buffer.length);
+        long lastExpiryMillis = System.currentTimeMillis();
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                if (now - lastExpiryMillis >= heartbeatMillis) {
+                    tracker.expire(now - 10 * heartbeatMillis);
+                    knownSenders = tracker.senderCount();
+                    lastExpiryMillis = now;
+                }
+                datagram.setLength(buffer.length);
+                socket.receive(datagram);
+                handle(InvalidationPacket.decode(ByteBuffer.wrap(buffer, 0, datagram.getLength())));
+            } catch (SocketTimeoutException e) {
+                // Idle; loop around to expire senders.
+            } catch (IllegalArgumentException e) {
+                decodeErrors.incrementAndGet();
+                log.debug("Ignoring datagram from {}: {}", datagram.getSocketAddress(), e.getMessage());
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Invalidation bus receive failed", e);
+                }
+            }
+        }
+    }
+
+    private void handle(InvalidationPacket packet) {
+        if (packet.senderId() == senderId) {
+            return;
+        }
+        receivedPackets.incrementAndGet();
+        switch (tracker.accept(packet.senderId(), packet.sequence(), System.currentTimeMillis())) {
+            case GAP -> {
+                gaps.incrementAndGet();
+                log.info("Missed invalidations from {} before sequence {}, flushing caches",
+                        packet.senderId(), packet.sequence());
+                flushAll();
+            }
+            case STALE -> stalePackets.incrementAndGet();
+            case IN_ORDER -> apply(packet.invalidations());
+        }
+        knownSenders = tracker.senderCount();
+    }
+
+    private void apply(List<Invalidation> invalidations) {
+        receivedInvalidations.addAndGet(invalidations.size());
+        for (Invalidation invalidation : invalidations) {
+            if (invalidation.type() == Invalidation.Type.ALL) {
+                flushAll();
+                return;
+            }
+            for (ClusteredCache cache : caches) {
+                try {
+                    cache.invalidate(invalidation);
+                } catch (RuntimeException e) {
+                    log.warn("Cache {} failed to apply {}", cache.getClass().getSimpleName(), invalidation, e);
+                }
+            }
+        }
+    }
+
+    private void flushAll() {
+        fullFlushes.incrementAndGet();
+        for (ClusteredCache cache : caches) {
+            try {
+                cache.invalidateAll();
+            } catch (RuntimeException e) {
+                log.warn("Cache {} failed to flush", cache.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
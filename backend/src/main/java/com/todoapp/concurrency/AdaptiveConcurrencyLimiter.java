@@ -0,0 +1,117 @@
+package com.todoapp.concurrency;
+
+import com.todoapp.dto.ConcurrencyLimitDTO;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vegas-style concurrency limiter. The limit grows while observed latency stays
+ * close to the no-load latency and shrinks as soon as requests start queueing
+ * behind a saturated resource, so excess load is rejected up front instead of
+ * waiting for a connection.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+
+    // guarded by this
+    private long noLoadRttNanos;
+    private long lastRttNanos;
+    private int samplesUntilProbe;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.samplesUntilProbe = nextProbeInterval(this.limit);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightBefore);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightBefore) {
+        lastRttNanos = rttNanos;
+
+        // Periodically forget the no-load latency so a permanently slower backend
+        // does not pin the limit at its minimum.
+        if (--samplesUntilProbe <= 0) {
+            noLoadRttNanos = 0;
+            samplesUntilProbe = nextProbeInterval(limit);
+        }
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+
+        int current = limit;
+        double queueSize = current * (1 - (double) noLoadRttNanos / rttNanos);
+        double log = Math.log10(Math.max(current, 2));
+        double alpha = 3 * log;
+        double beta = 6 * log;
+        int step = Math.max(1, (int) log);
+
+        int newLimit = current;
+        if (queueSize >= beta) {
+            newLimit = current - step;
+        } else if (queueSize <= alpha && inFlightBefore * 2 >= current) {
+            newLimit = current + step;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private static int nextProbeInterval(int limit) {
+        return (30 + ThreadLocalRandom.current().nextInt(30)) * Math.max(limit, 10);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized ConcurrencyLimitDTO snapshot() {
+        return ConcurrencyLimitDTO.builder()
+                .name(name)
+                .limit(limit)
+                .inFlight(inFlight.get())
+                .accepted(accepted.sum())
+                .rejected(rejected.sum())
+                .noLoadLatencyMs((double) noLoadRttNanos / TimeUnit.MILLISECONDS.toNanos(1))
+                .lastLatencyMs((double) lastRttNanos / TimeUnit.MILLISECONDS.toNanos(1))
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.todoapp.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Set<String> excludedPaths;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter) {
+        this(limiter, Set.of());
+    }
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Set<String> excludedPaths) {
+        this.limiter = limiter;
+        this.excludedPaths = excludedPaths;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return excludedPaths.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            log.warn("Shedding {} {}: concurrency limit {} reached for {}",
+                    request.getMethod(), request.getServletPath(), limiter.getLimit(), limiter.getName());
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType("application/json");
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        final Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        body.put("error", "Service Unavailable");
+        body.put("message", "Server is overloaded, please retry");
+        body.put("path", request.getServletPath());
+
+        MAPPER.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,53 @@
+package com.todoapp.config;
+
+import com.todoapp.cluster.ClusteredCache;
+import com.todoapp.cluster.InvalidationBus;
+import com.todoapp.cluster.LocalInvalidationBus;
+import com.todoapp.cluster.UdpInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cluster.invalidation.transport", havingValue = "udp")
+    public UdpInvalidationBus udpInvalidationBus(List<ClusteredCache> caches,
+                                                 @Value("${app.cluster.invalidation.bind-address:0.0.0.0}") String bindAddress,
+                                                 @Value("${app.cluster.invalidation.port:7600}") int port,
+                                                 @Value("${app.cluster.invalidation.peers:}") String peers,
+                                                 @Value("${app.cluster.invalidation.coalesce-ms:20}") long coalesceMillis,
+                                                 @Value("${app.cluster.invalidation.heartbeat-ms:1000}") long heartbeatMillis,
+                                                 @Value("${app.cluster.invalidation.max-pending:10000}") int maxPending) {
+        return new UdpInvalidationBus(new InetSocketAddress(bindAddress, port), parsePeers(peers), caches,
+                coalesceMillis, heartbeatMillis, maxPending);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(InvalidationBus.class)
+    public LocalInvalidationBus localInvalidationBus() {
+        return new LocalInvalidationBus();
+    }
+
+    // host:port pairs separated by commas, e.g. "10.0.0.2:7600,10.0.0.3:7600".
+    static List<InetSocketAddress> parsePeers(String peers) {
+        return Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .map(peer -> {
+                    int colon = peer.lastIndexOf(':');
+                    if (colon <= 0) {
+                        throw new IllegalArgumentException("Peer must be host:port, got: " + peer);
+                    }
+                    return new InetSocketAddress(peer.substring(0, colon), Integer.parseInt(peer.substring(colon + 1)));
+                })
+                .toList();
+    }
+}
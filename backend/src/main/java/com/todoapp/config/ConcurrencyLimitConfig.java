@@ -0,0 +1,61 @@
+package com.todoapp.config;
+
+import com.todoapp.concurrency.AdaptiveConcurrencyLimiter;
+import com.todoapp.concurrency.ConcurrencyLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Set;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    // Runs ahead of the security chain so shed requests cost neither a JWT
+    // verification nor a user lookup.
+    private static final int FILTER_ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    // Uploads take as long as the client needs to send them; their latency says
+    // nothing about how loaded the server is.
+    private static final Set<String> TASKS_EXCLUDED_PATHS = Set.of("/tasks/import");
+
+    @Bean
+    public AdaptiveConcurrencyLimiter authConcurrencyLimiter(
+            @Value("${app.concurrency-limit.auth.initial-limit:8}") int initialLimit,
+            @Value("${app.concurrency-limit.auth.min-limit:2}") int minLimit,
+            @Value("${app.concurrency-limit.auth.max-limit:50}") int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("auth", initialLimit, minLimit, maxLimit);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter tasksConcurrencyLimiter(
+            @Value("${app.concurrency-limit.tasks.initial-limit:20}") int initialLimit,
+            @Value("${app.concurrency-limit.tasks.min-limit:4}") int minLimit,
+            @Value("${app.concurrency-limit.tasks.max-limit:200}") int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("tasks", initialLimit, minLimit, maxLimit);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> authConcurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter authConcurrencyLimiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(authConcurrencyLimiter));
+        registration.setName("authConcurrencyLimitFilter");
+        registration.addUrlPatterns("/auth/*");
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> tasksConcurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter tasksConcurrencyLimiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(tasksConcurrencyLimiter, TASKS_EXCLUDED_PATHS));
+        registration.setName("tasksConcurrencyLimitFilter");
+        registration.addUrlPatterns("/tasks/*", "/lists/*");
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+}
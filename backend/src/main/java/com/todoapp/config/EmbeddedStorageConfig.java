@@ -0,0 +1,51 @@
+package com.todoapp.config;
+
+import com.todoapp.embedded.EmbeddedRepositories;
+import com.todoapp.embedded.EmbeddedStore;
+import com.todoapp.embedded.EmbeddedTaskRepository;
+import com.todoapp.embedded.EmbeddedUserRepository;
+import com.todoapp.id.TimeOrderedIdSource;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The embedded profile, for edge and single-node deployments without MySQL:
+ * tasks and users live in the {@link EmbeddedStore} and these repositories
+ * take the place of the JPA ones. The other tables stay behind the datasource,
+ * which the profile points at a local H2 file (see application.yml).
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedStorageConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedStore embeddedStore(@Value("${app.embedded.data-dir}") String dataDir,
+                                       @Value("${app.embedded.segment-bytes:67108864}") int segmentBytes,
+                                       @Value("${app.embedded.snapshot-after-bytes:268435456}") long snapshotAfterBytes,
+                                       @Value("${app.embedded.snapshot-interval-ms:3600000}") long snapshotIntervalMillis,
+                                       @Value("${app.embedded.lock-timeout-ms:10000}") long lockTimeoutMillis)
+            throws IOException {
+        return EmbeddedStore.open(Path.of(dataDir, "store"), segmentBytes, snapshotAfterBytes, snapshotIntervalMillis,
+                lockTimeoutMillis);
+    }
+
+    @Bean
+    @Primary
+    public TaskRepository embeddedTaskRepository(EmbeddedStore store, TimeOrderedIdSource idSource) {
+        return EmbeddedRepositories.create(TaskRepository.class, new EmbeddedTaskRepository(store, idSource));
+    }
+
+    @Bean
+    @Primary
+    public UserRepository embeddedUserRepository(EmbeddedStore store, TimeOrderedIdSource idSource) {
+        return EmbeddedRepositories.create(UserRepository.class, new EmbeddedUserRepository(store, idSource));
+    }
+}
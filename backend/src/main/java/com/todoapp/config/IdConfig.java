@@ -0,0 +1,16 @@
+package com.todoapp.config;
+
+import com.todoapp.id.TimeOrderedIdSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdConfig {
+
+    // Every node sharing a database needs its own node id (0-15).
+    @Bean
+    public TimeOrderedIdSource timeOrderedIdSource(@Value("${app.ids.node-id:0}") int nodeId) {
+        return TimeOrderedIdSource.forNode(nodeId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.todoapp.config;
+
+import com.todoapp.profiling.ProfilingDataSource;
+import com.todoapp.profiling.ProfilingJpaTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Hooks the JFR statement and commit events into the persistence layer. The
+ * events cost next to nothing while no recording is running.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfilingConfig {
+
+    @Bean
+    static BeanPostProcessor profilingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)
+                        ? new ProfilingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    // Replaces the one Spring Boot would create; same customizers.
+    @Bean
+    public JpaTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        JpaTransactionManager transactionManager = new ProfilingJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,45 @@
+package com.todoapp.config;
+
+import com.todoapp.monitoring.EntityLoadCountingIntegrator;
+import com.todoapp.monitoring.QueryCountingStatementInspector;
+import com.todoapp.monitoring.QueryStatsFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "app.query-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+        };
+    }
+
+    // Outermost filter, so the user lookup done during authentication is counted too.
+    @Bean
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilter(
+            @Value("${app.query-stats.expose-headers:false}") boolean exposeHeaders,
+            @Value("${app.query-stats.warn-threshold:20}") int warnThreshold,
+            @Value("${app.query-stats.repeat-threshold:5}") int repeatThreshold) {
+        FilterRegistrationBean<QueryStatsFilter> registration =
+                new FilterRegistrationBean<>(new QueryStatsFilter(exposeHeaders, warnThreshold, repeatThreshold));
+        registration.setName("queryStatsFilter");
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,22 @@
+package com.todoapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.reminder.LoggingReminderSink;
+import com.todoapp.reminder.ReminderSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class ReminderConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ReminderSink.class)
+    public ReminderSink reminderSink(ObjectMapper objectMapper,
+                                     @Value("${app.reminders.sink-file:}") String sinkFile) {
+        return new LoggingReminderSink(objectMapper, sinkFile.isBlank() ? null : Path.of(sinkFile));
+    }
+}
@@ -0,0 +1,38 @@
+package com.todoapp.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code spring.main.lazy-initialization} (the fast-startup profile) beans
+ * are only created when a request first needs them, which keeps springdoc and
+ * other request-only beans off the startup path. Scheduled jobs and the
+ * persistence layer stay eager: jobs must run without a request to trigger them,
+ * and the schema should still be migrated and validated before the first request.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter persistenceLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, Flyway.class,
+                FlywayMigrationInitializer.class, EntityManagerFactory.class);
+    }
+
+    @Bean
+    static LazyInitializationExcludeFilter scheduledLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && !MethodIntrospector.selectMethods(beanType,
+                        (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                                AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -0,0 +1,30 @@
+package com.todoapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.profiling.RequestProfilingInterceptor;
+import com.todoapp.web.TaskListHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Ahead of the Jackson converter; it only claims List<TaskDTO> bodies.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new TaskListHttpMessageConverter(objectMapper));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestProfilingInterceptor()).addPathPatterns("/tasks/**", "/auth/**");
+    }
+}
@@ -0,0 +1,33 @@
+package com.todoapp.controller;
+
+import com.todoapp.dto.AccountDeletionDTO;
+import com.todoapp.security.UserPrincipal;
+import com.todoapp.service.AccountDeletionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/account")
+@Slf4j
+@Tag(name = "Account", description = "Account management endpoints")
+public class AccountController {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @DeleteMapping
+    @Operation(summary = "Delete account", description = "Revoke access immediately and delete all account data in the background")
+    public ResponseEntity<AccountDeletionDTO> deleteAccount(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Deleting account of user: {}", userPrincipal.getId());
+        AccountDeletionDTO deletion = accountDeletionService.requestDeletion(userPrincipal.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(deletion);
+    }
+}
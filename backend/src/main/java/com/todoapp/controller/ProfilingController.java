@@ -0,0 +1,46 @@
+package com.todoapp.controller;
+
+import com.todoapp.profiling.ProfilingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/system/profiling")
+@Slf4j
+@Tag(name = "System", description = "Operational endpoints")
+public class ProfilingController {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @PostMapping("/recordings")
+    @Operation(summary = "Record a JFR profile", description = "Admin only. Records for the given duration and returns the .jfr file")
+    public ResponseEntity<byte[]> record(
+            @RequestParam(defaultValue = "30") @Parameter(description = "Duration in seconds") int durationSeconds,
+            @RequestParam(defaultValue = "default") @Parameter(description = "JFR settings: default or profile") String settings) {
+        log.info("JFR recording requested for {} s", durationSeconds);
+        byte[] recording = profilingService.record(Duration.ofSeconds(durationSeconds), settings);
+        String fileName = "todo-api-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(recording);
+    }
+}
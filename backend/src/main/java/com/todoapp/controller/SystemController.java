@@ -0,0 +1,98 @@
+package com.todoapp.controller;
+
+import com.todoapp.cluster.InvalidationBus;
+import com.todoapp.concurrency.AdaptiveConcurrencyLimiter;
+import com.todoapp.description.TaskDescriptionCodec;
+import com.todoapp.dto.AccountDeletionDTO;
+import com.todoapp.dto.ConcurrencyLimitDTO;
+import com.todoapp.dto.InvalidationBusStatsDTO;
+import com.todoapp.dto.TagIndexStatsDTO;
+import com.todoapp.dto.TaskDescriptionStatsDTO;
+import com.todoapp.repository.TaskDescriptionRepository;
+import com.todoapp.service.AccountDeletionService;
+import com.todoapp.tag.TaskTagIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/system")
+@Slf4j
+@Tag(name = "System", description = "Operational endpoints")
+public class SystemController {
+
+    @Autowired
+    private List<AdaptiveConcurrencyLimiter> concurrencyLimiters;
+
+    @Autowired
+    private TaskTagIndex taskTagIndex;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private TaskDescriptionCodec taskDescriptionCodec;
+
+    @Autowired
+    private TaskDescriptionRepository taskDescriptionRepository;
+
+    // For load balancers: 503 until the warm-up has run, unlike /auth/health.
+    @GetMapping("/ready")
+    @Operation(summary = "Readiness", description = "200 once the instance has warmed up and accepts traffic, 503 before")
+    public ResponseEntity<String> ready() {
+        ReadinessState state = applicationAvailability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(state.name());
+    }
+
+    @GetMapping("/limits")
+    @Operation(summary = "Concurrency limits", description = "Current adaptive concurrency limits and rejection counts")
+    public ResponseEntity<List<ConcurrencyLimitDTO>> getConcurrencyLimits() {
+        List<ConcurrencyLimitDTO> limits = concurrencyLimiters.stream()
+                .map(AdaptiveConcurrencyLimiter::snapshot)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(limits);
+    }
+
+    @GetMapping("/tag-index")
+    @Operation(summary = "Tag index", description = "Size of the in-memory tag bitmaps, including bytes per 100k tasks")
+    public ResponseEntity<TagIndexStatsDTO> getTagIndexStats() {
+        return ResponseEntity.ok(taskTagIndex.stats());
+    }
+
+    @GetMapping("/account-deletions")
+    @Operation(summary = "Pending account deletions", description = "Accounts still being purged and how many rows are gone")
+    public ResponseEntity<List<AccountDeletionDTO>> getPendingAccountDeletions() {
+        return ResponseEntity.ok(accountDeletionService.getPendingDeletions());
+    }
+
+    @GetMapping("/invalidation-bus")
+    @Operation(summary = "Invalidation bus", description = "Invalidations sent to and received from other instances, gaps and full cache flushes")
+    public ResponseEntity<InvalidationBusStatsDTO> getInvalidationBusStats() {
+        return ResponseEntity.ok(invalidationBus.stats());
+    }
+
+    @GetMapping("/task-descriptions")
+    @Operation(summary = "Task descriptions", description = "Stored size of task descriptions, compression and encode/decode latency")
+    public ResponseEntity<TaskDescriptionStatsDTO> getTaskDescriptionStats() {
+        return ResponseEntity.ok(taskDescriptionCodec.stats(
+                taskDescriptionRepository.count(), taskDescriptionRepository.sumStoredBytes()));
+    }
+}
@@ -1,19 +1,36 @@
 package com.todoapp.controller;
 
+import com.todoapp.dto.MoveTaskRequest;
 import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskFilter;
+import com.todoapp.dto.TaskHistoryPageDTO;
+import com.todoapp.dto.TaskImportErrorDTO;
+import com.todoapp.dto.TaskImportJobDTO;
+import com.todoapp.dto.TaskStatsDTO;
+import com.todoapp.dto.TaskTreeDTO;
 import com.todoapp.security.UserPrincipal;
+import com.todoapp.service.IdempotencyService;
 import com.todoapp.service.TaskService;
+import com.todoapp.service.TaskStatsService;
+import com.todoapp.tag.TagQuery;
+import com.todoapp.taskimport.TaskImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -25,12 +42,39 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
     @GetMapping
-    @Operation(summary = "Get all tasks", description = "Retrieve all tasks for the authenticated user")
+    @Operation(summary = "Get all tasks", description = "Retrieve tasks for the authenticated user, optionally filtered by tags, status, date ranges or name prefix and sorted")
     public ResponseEntity<List<TaskDTO>> getAllTasks(
+            @RequestParam(required = false) @Parameter(description = "Comma-separated tags to match") List<String> tags,
+            @RequestParam(defaultValue = "all") @Parameter(description = "Tag match mode: all or any") String mode,
+            @RequestParam(required = false) @Parameter(description = "Comma-separated tags to exclude") List<String> excludeTags,
+            @ParameterObject TaskFilter filter,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         log.info("Fetching all tasks for user: {}", userPrincipal.getId());
-        List<TaskDTO> tasks = taskService.getUserTasks(userPrincipal.getId());
+        List<TaskDTO> tasks;
+        if (tags != null || excludeTags != null) {
+            if (filter.hasSearchCriteria()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Tag filters can only be combined with status");
+            }
+            tasks = taskService.getUserTasksByTags(userPrincipal.getId(),
+                    TagQuery.of(tags, mode, excludeTags, filter.getStatus()));
+        } else if (filter.hasSearchCriteria()) {
+            tasks = taskService.searchTasks(userPrincipal.getId(), filter);
+        } else if (filter.getStatus() != null) {
+            tasks = taskService.getUserTasksByStatus(userPrincipal.getId(), filter.getStatus());
+        } else {
+            tasks = taskService.getUserTasks(userPrincipal.getId());
+        }
         return ResponseEntity.ok(tasks);
     }
 
@@ -44,6 +88,21 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/stats")
+    @Operation(summary = "Task statistics", description = "Tasks created and completed per day or week, and the completion rate, for a period of up to 366 days")
+    public ResponseEntity<TaskStatsDTO> getTaskStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "First day, inclusive (default: 29 days before to)") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Last day, inclusive (default: today)") LocalDate to,
+            @RequestParam(defaultValue = "day") @Parameter(description = "Bucket size: day or week") String bucket,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching task stats for user: {}", userPrincipal.getId());
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(taskStatsService.getStats(userPrincipal.getId(), start, end, bucket));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get task by ID", description = "Retrieve a specific task by its ID")
     public ResponseEntity<TaskDTO> getTaskById(
@@ -54,14 +113,74 @@ public class TaskController {
         return ResponseEntity.ok(task);
     }
 
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get task history", description = "Retrieve the changes made to a task, newest first")
+    public ResponseEntity<TaskHistoryPageDTO> getTaskHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Page size, at most 100") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching history of task: {} for user: {}", id, userPrincipal.getId());
+        return ResponseEntity.ok(taskService.getTaskHistory(id, userPrincipal.getId(), page, size));
+    }
+
+    @GetMapping("/{id}/tree")
+    @Operation(summary = "Get task tree", description = "Retrieve a task with its subtasks down to the given depth")
+    public ResponseEntity<TaskTreeDTO> getTaskTree(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "3") @Parameter(description = "Levels of subtasks, at most 10") int depth,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching tree of task: {} for user: {}", id, userPrincipal.getId());
+        return ResponseEntity.ok(taskService.getTaskTree(id, userPrincipal.getId(), depth));
+    }
+
     @PostMapping
     @Operation(summary = "Create new task", description = "Create a new task for the authenticated user")
     public ResponseEntity<TaskDTO> createTask(
             @Valid @RequestBody TaskDTO taskDTO,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         log.info("Creating new task for user: {}", userPrincipal.getId());
-        TaskDTO createdTask = taskService.createTask(taskDTO, userPrincipal.getId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+        return idempotencyService.execute(idempotencyKey, userPrincipal.getId(), "POST /tasks", taskDTO, TaskDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(taskDTO, userPrincipal.getId())));
+    }
+
+    @PostMapping("/ids")
+    @Operation(summary = "Reserve task IDs", description = "Reserve IDs the client can assign to tasks it creates offline")
+    public ResponseEntity<List<Long>> reserveTaskIds(
+            @RequestParam(defaultValue = "50") @Parameter(description = "Number of IDs, at most 1000") int count,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Reserving {} task ids for user: {}", count, userPrincipal.getId());
+        return ResponseEntity.ok(taskService.reserveTaskIds(count, userPrincipal.getId()));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/json", "application/x-ndjson"})
+    @Operation(summary = "Import tasks", description = "Upload a CSV or JSON export as the request body; tasks are created in the background")
+    public ResponseEntity<TaskImportJobDTO> importTasks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Starting task import for user: {}", userPrincipal.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(taskImportService.startImport(userPrincipal.getId(), contentType, body));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get import status", description = "Progress of a task import")
+    public ResponseEntity<TaskImportJobDTO> getImport(
+            @PathVariable Long jobId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching task import: {} for user: {}", jobId, userPrincipal.getId());
+        return ResponseEntity.ok(taskImportService.getImport(jobId, userPrincipal.getId()));
+    }
+
+    @GetMapping("/import/{jobId}/errors")
+    @Operation(summary = "Get import errors", description = "Rows rejected by a task import, with the reason")
+    public ResponseEntity<List<TaskImportErrorDTO>> getImportErrors(
+            @PathVariable Long jobId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching errors of task import: {} for user: {}", jobId, userPrincipal.getId());
+        return ResponseEntity.ok(taskImportService.getImportErrors(jobId, userPrincipal.getId()));
     }
 
     @PutMapping("/{id}")
@@ -69,29 +188,46 @@ public class TaskController {
     public ResponseEntity<TaskDTO> updateTask(
             @PathVariable Long id,
             @Valid @RequestBody TaskDTO taskDTO,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         log.info("Updating task: {} for user: {}", id, userPrincipal.getId());
-        TaskDTO updatedTask = taskService.updateTask(id, taskDTO, userPrincipal.getId());
-        return ResponseEntity.ok(updatedTask);
+        return idempotencyService.execute(idempotencyKey, userPrincipal.getId(), "PUT /tasks/" + id, taskDTO, TaskDTO.class,
+                () -> ResponseEntity.ok(taskService.updateTask(id, taskDTO, userPrincipal.getId())));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete task", description = "Delete a task by its ID")
     public ResponseEntity<Void> deleteTask(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         log.info("Deleting task: {} for user: {}", id, userPrincipal.getId());
-        taskService.deleteTask(id, userPrincipal.getId());
-        return ResponseEntity.noContent().build();
+        return idempotencyService.execute(idempotencyKey, userPrincipal.getId(), "DELETE /tasks/" + id, null, Void.class,
+                () -> {
+                    taskService.deleteTask(id, userPrincipal.getId());
+                    return ResponseEntity.noContent().build();
+                });
     }
 
     @PutMapping("/{id}/toggle")
     @Operation(summary = "Toggle task status", description = "Toggle task status between PENDING and COMPLETED")
     public ResponseEntity<TaskDTO> toggleTaskStatus(
             @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         log.info("Toggling status of task: {} for user: {}", id, userPrincipal.getId());
-        TaskDTO updatedTask = taskService.toggleTaskStatus(id, userPrincipal.getId());
-        return ResponseEntity.ok(updatedTask);
+        return idempotencyService.execute(idempotencyKey, userPrincipal.getId(), "PUT /tasks/" + id + "/toggle", null, TaskDTO.class,
+                () -> ResponseEntity.ok(taskService.toggleTaskStatus(id, userPrincipal.getId())));
+    }
+
+    @PutMapping("/{id}/move")
+    @Operation(summary = "Move task", description = "Move a task between two neighbours in the manual ordering")
+    public ResponseEntity<TaskDTO> moveTask(
+            @PathVariable Long id,
+            @RequestBody MoveTaskRequest moveTaskRequest,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Moving task: {} for user: {}", id, userPrincipal.getId());
+        TaskDTO movedTask = taskService.moveTask(id, moveTaskRequest, userPrincipal.getId());
+        return ResponseEntity.ok(movedTask);
     }
 }
@@ -0,0 +1,117 @@
+package com.todoapp.controller;
+
+import com.todoapp.dto.TaskListDTO;
+import com.todoapp.dto.TaskListMemberDTO;
+import com.todoapp.dto.TaskListMemberRequest;
+import com.todoapp.dto.TaskPageDTO;
+import com.todoapp.security.UserPrincipal;
+import com.todoapp.service.TaskListService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/lists")
+@Slf4j
+@Tag(name = "Task lists", description = "Task lists shared with other users")
+public class TaskListController {
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @GetMapping
+    @Operation(summary = "Get task lists", description = "Lists the authenticated user is a member of, with their role")
+    public ResponseEntity<List<TaskListDTO>> getLists(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching task lists for user: {}", userPrincipal.getId());
+        return ResponseEntity.ok(taskListService.getUserLists(userPrincipal.getId()));
+    }
+
+    @PostMapping
+    @Operation(summary = "Create task list", description = "Create a list owned by the authenticated user")
+    public ResponseEntity<TaskListDTO> createList(
+            @Valid @RequestBody TaskListDTO taskListDTO,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Creating task list for user: {}", userPrincipal.getId());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(taskListService.createList(taskListDTO, userPrincipal.getId()));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get task list", description = "Retrieve a list the authenticated user is a member of")
+    public ResponseEntity<TaskListDTO> getList(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching task list: {} for user: {}", id, userPrincipal.getId());
+        return ResponseEntity.ok(taskListService.getList(id, userPrincipal.getId()));
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Rename task list", description = "Change the name of a list; owners only")
+    public ResponseEntity<TaskListDTO> renameList(
+            @PathVariable Long id,
+            @Valid @RequestBody TaskListDTO taskListDTO,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Renaming task list: {} for user: {}", id, userPrincipal.getId());
+        return ResponseEntity.ok(taskListService.renameList(id, taskListDTO, userPrincipal.getId()));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete task list", description = "Delete a list; its tasks stay with their owners. Owners only")
+    public ResponseEntity<Void> deleteList(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Deleting task list: {} for user: {}", id, userPrincipal.getId());
+        taskListService.deleteList(id, userPrincipal.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/tasks")
+    @Operation(summary = "Get list tasks", description = "Tasks in a list, oldest first, one page at a time")
+    public ResponseEntity<TaskPageDTO> getListTasks(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") @Parameter(description = "Page size, at most 100") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching tasks of list: {} for user: {}", id, userPrincipal.getId());
+        return ResponseEntity.ok(taskListService.getListTasks(id, userPrincipal.getId(), page, size));
+    }
+
+    @GetMapping("/{id}/members")
+    @Operation(summary = "Get list members", description = "Members of a list and their roles")
+    public ResponseEntity<List<TaskListMemberDTO>> getMembers(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Fetching members of list: {} for user: {}", id, userPrincipal.getId());
+        return ResponseEntity.ok(taskListService.getMembers(id, userPrincipal.getId()));
+    }
+
+    @PutMapping("/{id}/members")
+    @Operation(summary = "Add or update member", description = "Add a user to a list by email, or change their role; owners only")
+    public ResponseEntity<TaskListMemberDTO> putMember(
+            @PathVariable Long id,
+            @Valid @RequestBody TaskListMemberRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Adding member to list: {} for user: {}", id, userPrincipal.getId());
+        return ResponseEntity.ok(taskListService.putMember(id, request, userPrincipal.getId()));
+    }
+
+    @DeleteMapping("/{id}/members/{userId}")
+    @Operation(summary = "Remove member", description = "Remove a member; owners remove anyone, members can remove themselves")
+    public ResponseEntity<Void> removeMember(
+            @PathVariable Long id,
+            @PathVariable Long userId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Removing member: {} from list: {} for user: {}", userId, id, userPrincipal.getId());
+        taskListService.removeMember(id, userId, userPrincipal.getId());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.todoapp.description;
+
+import com.todoapp.core.DescriptionFormat;
+import com.todoapp.dto.TaskDescriptionStatsDTO;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stores task descriptions in {@link DescriptionFormat}, zlib compressed when
+ * the text is at least {@code compression-threshold-bytes} long and compression
+ * makes it smaller. Hibernate obtains converters from the Spring context, so
+ * this is the same instance that reports the statistics.
+ */
+@Component
+@Converter
+public class TaskDescriptionCodec implements AttributeConverter<String, byte[]> {
+
+    @Value("${app.task-descriptions.compression-threshold-bytes:512}")
+    private int compressionThresholdBytes = 512;
+
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder compressedWrites = new LongAdder();
+    private final LongAdder writtenTextBytes = new LongAdder();
+    private final LongAdder writtenStoredBytes = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder readNanos = new LongAdder();
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = DescriptionFormat.encode(utf8, compressionThresholdBytes);
+        if (stored[0] == DescriptionFormat.DEFLATE) {
+            compressedWrites.increment();
+        }
+        writeNanos.add(System.nanoTime() - start);
+        writes.increment();
+        writtenTextBytes.add(utf8.length);
+        writtenStoredBytes.add(stored.length);
+        return stored;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        String text = DescriptionFormat.decode(stored);
+        readNanos.add(System.nanoTime() - start);
+        reads.increment();
+        return text;
+    }
+
+    public TaskDescriptionStatsDTO stats(long storedDescriptions, long storedBytes) {
+        long writeCount = writes.sum();
+        long readCount = reads.sum();
+        long textBytes = writtenTextBytes.sum();
+        return TaskDescriptionStatsDTO.builder()
+                .storedDescriptions(storedDescriptions)
+                .storedBytes(storedBytes)
+                .compressionThresholdBytes(compressionThresholdBytes)
+                .writes(writeCount)
+                .compressedWrites(compressedWrites.sum())
+                .writtenTextBytes(textBytes)
+                .writtenStoredBytes(writtenStoredBytes.sum())
+                .averageWriteMicros(writeCount > 0 ? writeNanos.sum() / 1000.0 / writeCount : 0)
+                .reads(readCount)
+                .averageReadMicros(readCount > 0 ? readNanos.sum() / 1000.0 / readCount : 0)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.todoapp.dto;
+
+import com.todoapp.entity.AccountDeletionJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDeletionDTO {
+
+    private Long userId;
+    private String status;
+    private long tasksDeleted;
+    private long historyDeleted;
+    private LocalDateTime requestedAt;
+    private LocalDateTime completedAt;
+
+    public static AccountDeletionDTO fromEntity(AccountDeletionJob job) {
+        return AccountDeletionDTO.builder()
+                .userId(job.getUserId())
+                .status(job.getStatus().name())
+                .tasksDeleted(job.getTasksDeleted())
+                .historyDeleted(job.getHistoryDeleted())
+                .requestedAt(job.getRequestedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConcurrencyLimitDTO {
+
+    private String name;
+    private int limit;
+    private int inFlight;
+    private long accepted;
+    private long rejected;
+    private double noLoadLatencyMs;
+    private double lastLatencyMs;
+}
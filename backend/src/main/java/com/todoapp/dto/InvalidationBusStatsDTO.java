@@ -0,0 +1,28 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvalidationBusStatsDTO {
+
+    private String transport;
+    private long senderId;
+    private int peers;
+    private int knownSenders;
+    private long published;
+    private long sentPackets;
+    private long sentInvalidations;
+    private long receivedPackets;
+    private long receivedInvalidations;
+    private long gaps;
+    private long fullFlushes;
+    private long stalePackets;
+    private long decodeErrors;
+    private long sendErrors;
+}
@@ -0,0 +1,20 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MoveTaskRequest {
+
+    // Task that should end up directly above the moved task.
+    private Long afterId;
+
+    // Task that should end up directly below the moved task. At least one of the
+    // two neighbours is required; the missing one is looked up.
+    private Long beforeId;
+}
@@ -0,0 +1,19 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TagIndexStatsDTO {
+
+    private int users;
+    private long tasks;
+    private long tags;
+    private long sizeInBytes;
+    private long bytesPer100kTasks;
+}
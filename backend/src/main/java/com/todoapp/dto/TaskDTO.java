@@ -9,6 +9,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -27,6 +29,20 @@ public class TaskDTO {
 
     private String status;
 
+    private LocalDateTime dueAt;
+
+    @Size(max = 20, message = "A task can have at most 20 tags")
+    private List<@Size(min = 1, max = 50, message = "Tags must be between 1 and 50 characters") String> tags;
+
+    // Set on creation to make the task a subtask; cannot be changed afterwards.
+    private Long parentId;
+
+    // Set on creation to add the task to a shared list; cannot be changed afterwards.
+    private Long listId;
+
+    // Share of completed subtasks, at any depth; null for tasks without subtasks.
+    private Integer percentDone;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -37,6 +53,28 @@ public class TaskDTO {
                 .name(task.getName())
                 .description(task.getDescription())
                 .status(task.getStatus().toString())
+                .dueAt(task.getDueAt())
+                .tags(task.getTags().stream().sorted().toList())
+                .parentId(task.getParentId())
+                .listId(task.getListId())
+                .percentDone(percentDone(task))
+                .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .build();
+    }
+
+    // For callers that only need the task's identity; leaves the lazily loaded
+    // description untouched.
+    public static TaskDTO withoutDescription(Task task) {
+        return TaskDTO.builder()
+                .id(task.getId())
+                .name(task.getName())
+                .status(task.getStatus().toString())
+                .dueAt(task.getDueAt())
+                .tags(task.getTags().stream().sorted().toList())
+                .parentId(task.getParentId())
+                .listId(task.getListId())
+                .percentDone(percentDone(task))
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .build();
@@ -48,6 +86,16 @@ public class TaskDTO {
                 .name(this.name)
                 .description(this.description)
                 .status(Task.TaskStatus.valueOf(this.status != null ? this.status : "PENDING"))
+                .dueAt(this.dueAt)
+                .tags(this.tags != null ? new HashSet<>(this.tags) : new HashSet<>())
+                .parentId(this.parentId)
+                .listId(this.listId)
                 .build();
     }
+
+    private static Integer percentDone(Task task) {
+        return task.getDescendantCount() > 0
+                ? task.getCompletedDescendantCount() * 100 / task.getDescendantCount()
+                : null;
+    }
 }
@@ -0,0 +1,26 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskDescriptionStatsDTO {
+
+    private long storedDescriptions;
+    private long storedBytes;
+    private int compressionThresholdBytes;
+
+    // Since startup
+    private long writes;
+    private long compressedWrites;
+    private long writtenTextBytes;
+    private long writtenStoredBytes;
+    private double averageWriteMicros;
+    private long reads;
+    private double averageReadMicros;
+}
@@ -0,0 +1,43 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFilter {
+
+    private String status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo;
+
+    private String namePrefix;
+
+    // createdAt, updatedAt, name or position (the default manual order).
+    private String sort;
+
+    // asc (default) or desc.
+    private String direction;
+
+    public boolean hasSearchCriteria() {
+        return createdFrom != null || createdTo != null || updatedFrom != null || updatedTo != null
+                || namePrefix != null || sort != null || direction != null;
+    }
+}
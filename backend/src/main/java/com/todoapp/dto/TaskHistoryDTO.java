@@ -0,0 +1,38 @@
+package com.todoapp.dto;
+
+import com.todoapp.entity.TaskHistory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHistoryDTO {
+
+    private Long id;
+    private Long taskId;
+    private Long userId;
+    private Long actorId;
+    private String action;
+    private String oldValue;
+    private String newValue;
+    private LocalDateTime occurredAt;
+
+    public static TaskHistoryDTO fromEntity(TaskHistory entry) {
+        return TaskHistoryDTO.builder()
+                .id(entry.getId())
+                .taskId(entry.getTaskId())
+                .userId(entry.getUserId())
+                .actorId(entry.getActorId())
+                .action(entry.getAction().name())
+                .oldValue(entry.getOldValue())
+                .newValue(entry.getNewValue())
+                .occurredAt(entry.getOccurredAt())
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.todoapp.dto;
+
+import com.todoapp.entity.TaskImportError;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportErrorDTO {
+
+    private long recordNumber;
+    private String message;
+
+    public static TaskImportErrorDTO fromEntity(TaskImportError error) {
+        return TaskImportErrorDTO.builder()
+                .recordNumber(error.getRecordNumber())
+                .message(error.getMessage())
+                .build();
+    }
+}
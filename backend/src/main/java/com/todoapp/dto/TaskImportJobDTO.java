@@ -0,0 +1,42 @@
+package com.todoapp.dto;
+
+import com.todoapp.entity.TaskImportJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportJobDTO {
+
+    private Long id;
+    private String format;
+    private String status;
+    private long uploadedBytes;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsFailed;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public static TaskImportJobDTO fromEntity(TaskImportJob job) {
+        return TaskImportJobDTO.builder()
+                .id(job.getId())
+                .format(job.getFormat().name())
+                .status(job.getStatus().name())
+                .uploadedBytes(job.getUploadedBytes())
+                .rowsProcessed(job.getRowsProcessed())
+                .rowsImported(job.getRowsImported())
+                .rowsFailed(job.getRowsFailed())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.todoapp.dto;
+
+import com.todoapp.entity.TaskList;
+import com.todoapp.entity.TaskListMember;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskListDTO {
+
+    private Long id;
+
+    @NotBlank(message = "List name is required")
+    @Size(max = 100, message = "List name must not exceed 100 characters")
+    private String name;
+
+    // The caller's role in the list.
+    private String role;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public static TaskListDTO fromEntity(TaskList list, TaskListMember.Role role) {
+        return TaskListDTO.builder()
+                .id(list.getId())
+                .name(list.getName())
+                .role(role.name())
+                .createdAt(list.getCreatedAt())
+                .updatedAt(list.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.todoapp.dto;
+
+import com.todoapp.entity.TaskListMember;
+import com.todoapp.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskListMemberDTO {
+
+    private Long userId;
+    private String name;
+    private String email;
+    private String role;
+    private LocalDateTime createdAt;
+
+    public static TaskListMemberDTO fromEntity(TaskListMember member, User user) {
+        return TaskListMemberDTO.builder()
+                .userId(member.getUserId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .role(member.getRole().name())
+                .createdAt(member.getCreatedAt())
+                .build();
+    }
+}
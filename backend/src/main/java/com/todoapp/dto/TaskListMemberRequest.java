@@ -0,0 +1,24 @@
+package com.todoapp.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskListMemberRequest {
+
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email should be valid")
+    private String email;
+
+    @NotBlank(message = "Role is required")
+    @Pattern(regexp = "(?i)VIEWER|EDITOR|OWNER", message = "Role must be VIEWER, EDITOR or OWNER")
+    private String role;
+}
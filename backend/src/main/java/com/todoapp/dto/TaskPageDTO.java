@@ -0,0 +1,20 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskPageDTO {
+
+    private List<TaskDTO> tasks;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,27 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatsDTO {
+
+    private String bucket;
+    private LocalDate from;
+    private LocalDate to;
+    private long created;
+    private long completed;
+
+    // Tasks completed in the period per task created in it; can exceed 1.
+    private double completionRate;
+
+    private List<TaskStatsBucketDTO> buckets;
+}
@@ -0,0 +1,22 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTreeDTO {
+
+    private TaskDTO task;
+
+    private List<TaskTreeDTO> subtasks;
+
+    // True when the task has subtasks below the requested depth that were left out.
+    private boolean truncated;
+}
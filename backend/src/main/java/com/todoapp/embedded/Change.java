@@ -0,0 +1,17 @@
+package com.todoapp.embedded;
+
+/** One row-level change, as applied to memory and written to the log. */
+sealed interface Change {
+
+    record PutTask(StoredTask task) implements Change {
+    }
+
+    record DeleteTask(long id) implements Change {
+    }
+
+    record PutUser(StoredUser user) implements Change {
+    }
+
+    record DeleteUser(long id) implements Change {
+    }
+}
@@ -0,0 +1,184 @@
+package com.todoapp.embedded;
+
+import com.todoapp.entity.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary form of changes in log records and of rows in snapshots. Records
+ * carry full row images rather than the statement that produced them, so
+ * replaying one twice leaves the same state.
+ */
+final class ChangeCodec {
+
+    private static final byte PUT_TASK = 1;
+    private static final byte DELETE_TASK = 2;
+    private static final byte PUT_USER = 3;
+    private static final byte DELETE_USER = 4;
+
+    private ChangeCodec() {
+    }
+
+    static byte[] encode(List<Change> changes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * changes.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(changes.size());
+            for (Change change : changes) {
+                if (change instanceof Change.PutTask put) {
+                    out.writeByte(PUT_TASK);
+                    writeTask(out, put.task());
+                } else if (change instanceof Change.DeleteTask delete) {
+                    out.writeByte(DELETE_TASK);
+                    out.writeLong(delete.id());
+                } else if (change instanceof Change.PutUser put) {
+                    out.writeByte(PUT_USER);
+                    writeUser(out, put.user());
+                } else if (change instanceof Change.DeleteUser delete) {
+                    out.writeByte(DELETE_USER);
+                    out.writeLong(delete.id());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<Change> decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int count = in.readInt();
+        List<Change> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+            changes.add(switch (type) {
+                case PUT_TASK -> new Change.PutTask(readTask(in));
+                case DELETE_TASK -> new Change.DeleteTask(in.readLong());
+                case PUT_USER -> new Change.PutUser(readUser(in));
+                case DELETE_USER -> new Change.DeleteUser(in.readLong());
+                default -> throw new IOException("Unknown change type: " + type);
+            });
+        }
+        return changes;
+    }
+
+    static void writeTask(DataOutput out, StoredTask task) throws IOException {
+        out.writeLong(task.id());
+        out.writeLong(task.userId());
+        writeLong(out, task.listId());
+        writeLong(out, task.parentId());
+        writeString(out, task.name());
+        writeString(out, task.description());
+        out.writeByte(task.status() != null ? task.status().ordinal() : -1);
+        writeString(out, task.position());
+        writeTime(out, task.dueAt());
+        writeTime(out, task.reminderSentAt());
+        writeTime(out, task.completedAt());
+        out.writeInt(task.tags().size());
+        for (String tag : task.tags()) {
+            writeString(out, tag);
+        }
+        writeString(out, task.treePath());
+        out.writeInt(task.treeDepth());
+        out.writeInt(task.descendantCount());
+        out.writeInt(task.completedDescendantCount());
+        writeTime(out, task.createdAt());
+        writeTime(out, task.updatedAt());
+    }
+
+    static StoredTask readTask(DataInput in) throws IOException {
+        long id = in.readLong();
+        long userId = in.readLong();
+        Long listId = readLong(in);
+        Long parentId = readLong(in);
+        String name = readString(in);
+        String description = readString(in);
+        byte status = in.readByte();
+        String position = readString(in);
+        LocalDateTime dueAt = readTime(in);
+        LocalDateTime reminderSentAt = readTime(in);
+        LocalDateTime completedAt = readTime(in);
+        int tagCount = in.readInt();
+        Set<String> tags = new HashSet<>(tagCount * 2);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(readString(in));
+        }
+        return new StoredTask(id, userId, listId, parentId, name, description,
+                status >= 0 ? Task.TaskStatus.values()[status] : null, position, dueAt, reminderSentAt,
+                completedAt, Set.copyOf(tags), readString(in), in.readInt(), in.readInt(), in.readInt(),
+                readTime(in), readTime(in));
+    }
+
+    static void writeUser(DataOutput out, StoredUser user) throws IOException {
+        out.writeLong(user.id());
+        writeString(out, user.email());
+        writeString(out, user.name());
+        writeString(out, user.password());
+        writeTime(out, user.createdAt());
+        writeTime(out, user.updatedAt());
+        writeTime(out, user.deletedAt());
+        writeTime(out, user.statsRebuiltAt());
+    }
+
+    static StoredUser readUser(DataInput in) throws IOException {
+        return new StoredUser(in.readLong(), readString(in), readString(in), readString(in),
+                readTime(in), readTime(in), readTime(in), readTime(in));
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    // Length-prefixed UTF-8; writeUTF stops at 64 KB, which descriptions may exceed.
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.todoapp.embedded;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Exposes an engine-backed class as a Spring Data repository interface, the
+ * way Spring Data backs its own repositories with a proxy. A call goes to the
+ * implementation's public method of the same name whose parameters accept the
+ * interface method's. Every abstract method of the interface must have one:
+ * like a query Spring Data cannot derive, a missing one fails the context at
+ * startup rather than the first request that calls it.
+ */
+public final class EmbeddedRepositories {
+
+    private EmbeddedRepositories() {
+    }
+
+    public static <R> R create(Class<R> repositoryInterface, Object implementation) {
+        Map<Method, Method> targets = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Method method : repositoryInterface.getMethods()) {
+            Optional<Method> target = findTarget(implementation.getClass(), method);
+            if (target.isPresent()) {
+                targets.put(method, target.get());
+            } else if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                missing.add(method.getName() + Arrays.stream(method.getParameterTypes())
+                        .map(Class::getSimpleName)
+                        .collect(Collectors.joining(", ", "(", ")")));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException(repositoryInterface.getSimpleName()
+                    + " declares methods the embedded storage engine does not support: " + missing);
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> repositoryInterface.getSimpleName() + " on " + implementation;
+                };
+            }
+            Method target = targets.get(method);
+            if (target == null) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            try {
+                return target.invoke(implementation, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return repositoryInterface.cast(Proxy.newProxyInstance(repositoryInterface.getClassLoader(),
+                new Class<?>[]{repositoryInterface}, handler));
+    }
+
+    // Generic parameters such as save(T) are erased to Object on the interface.
+    static Optional<Method> findTarget(Class<?> implementation, Method method) {
+        Class<?>[] parameters = method.getParameterTypes();
+        return Arrays.stream(implementation.getMethods())
+                .filter(candidate -> candidate.getDeclaringClass() != Object.class)
+                .filter(candidate -> candidate.getName().equals(method.getName())
+                        && candidate.getParameterCount() == parameters.length)
+                .filter(candidate -> {
+                    Class<?>[] accepted = candidate.getParameterTypes();
+                    for (int i = 0; i < parameters.length; i++) {
+                        if (parameters[i] != Object.class && !accepted[i].isAssignableFrom(parameters[i])) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .findFirst();
+    }
+}
@@ -0,0 +1,913 @@
+package com.todoapp.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Tasks and users held in memory, with every change written ahead to a
+ * {@link WriteAheadLog} and the whole state written to a snapshot from time to
+ * time so the log can be cut back. Opening the store loads the latest snapshot
+ * and replays the log after it.
+ * <p>
+ * Tasks are kept in a long-keyed hash map, with each user's and each list's
+ * task ids in sorted long arrays. Writers lock the users whose rows they
+ * change, and readers wait for them, so uncommitted changes are not seen and
+ * concurrent transactions on one user's tasks run in turn. Inside a Spring
+ * transaction the changes are applied at once but logged only on commit, as
+ * one record the commit waits to be on disk, so a crash before then leaves
+ * nothing to replay; a rollback writes the previous images back before the
+ * locks are released. Outside a transaction every write is logged, and waits
+ * for the log, by itself.
+ */
+@Slf4j
+public class EmbeddedStore implements Closeable {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOT_MAGIC = 0x54534e50;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Path directory;
+    private final long snapshotAfterBytes;
+    private final long snapshotIntervalMillis;
+
+    private static final int USER_LOCK_STRIPES = 256;
+
+    // Guards the maps below for the moment of each read or change; see Isolation
+    // for what keeps transactions apart.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectMap<StoredTask> tasks = new LongObjectMap<>();
+    private final LongObjectMap<LongSortedSet> tasksByUser = new LongObjectMap<>();
+    private final LongObjectMap<LongSortedSet> tasksByList = new LongObjectMap<>();
+    // Tasks with a due date whose reminder has not gone out, whatever their status.
+    private final LongSortedSet reminderTasks = new LongSortedSet();
+    // Tasks by the length of their position, with no position as -1; see tasksWithPositionsLongerThan.
+    private final TreeMap<Integer, LongSortedSet> tasksByPositionLength = new TreeMap<>();
+    private final LongObjectMap<StoredUser> users = new LongObjectMap<>();
+    private final Map<String, Long> usersByEmail = new HashMap<>();
+
+    private final UserLocks userLocks;
+    private final Map<Long, Long> tasksDeletedInFlight = new ConcurrentHashMap<>();
+    private final Map<String, Long> emailsReleasedInFlight = new ConcurrentHashMap<>();
+
+    private final Object snapshotLock = new Object();
+    private WriteAheadLog wal;
+    private volatile long snapshotLsn;
+    private volatile long snapshotBytes;
+    private volatile long snapshotMillis = System.currentTimeMillis();
+
+    private EmbeddedStore(Path directory, long snapshotAfterBytes, long snapshotIntervalMillis,
+                          long lockTimeoutMillis) {
+        this.directory = directory;
+        this.snapshotAfterBytes = snapshotAfterBytes;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.userLocks = new UserLocks(USER_LOCK_STRIPES, lockTimeoutMillis);
+    }
+
+    /**
+     * Opens the store in {@code directory}. A snapshot is written once the log
+     * has grown by {@code snapshotAfterBytes}, or after
+     * {@code snapshotIntervalMillis} if it has grown at all. Waits for another
+     * transaction's users give up after {@code lockTimeoutMillis}.
+     */
+    public static EmbeddedStore open(Path directory, int segmentBytes, long snapshotAfterBytes,
+                                     long snapshotIntervalMillis, long lockTimeoutMillis) throws IOException {
+        long started = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        EmbeddedStore store = new EmbeddedStore(directory, snapshotAfterBytes, snapshotIntervalMillis,
+                lockTimeoutMillis);
+        store.snapshotLsn = store.loadSnapshot();
+        long[] replayed = new long[1];
+        store.wal = WriteAheadLog.open(directory, segmentBytes, store.snapshotLsn, (lsn, payload) -> {
+            for (Change change : ChangeCodec.decode(payload)) {
+                store.apply(change);
+            }
+            replayed[0]++;
+        });
+        log.info("Opened embedded storage in {} in {} ms: {} users, {} tasks, snapshot at record {}, {} records replayed",
+                directory, System.currentTimeMillis() - started, store.users.size(), store.tasks.size(),
+                store.snapshotLsn, replayed[0]);
+        return store;
+    }
+
+    // Reads
+    //
+    // A read of one user's rows goes through asUser and a read across users
+    // through asAllUsers, which wait for transactions writing those rows.
+
+    StoredTask task(long id) {
+        Long owner = read(() -> ownerOfTask(id));
+        while (owner != null) {
+            long locked = owner;
+            Owned<StoredTask> found = asUser(locked, () -> read(() -> new Owned<>(tasks.get(id), ownerOfTask(id))));
+            // The task changed hands while the previous owner's lock was awaited.
+            if (found.owner() == null || found.owner() == locked) {
+                return found.row();
+            }
+            owner = found.owner();
+        }
+        return null;
+    }
+
+    /** A user's tasks in id order. */
+    List<StoredTask> tasksOf(long userId) {
+        return asUser(userId, () -> read(() -> collect(tasksByUser.get(userId), 0, Integer.MAX_VALUE)));
+    }
+
+    /** Up to {@code limit} tasks of a list in id order, skipping the first {@code offset}. */
+    List<StoredTask> tasksOfList(long listId, long offset, int limit) {
+        return asAllUsers(() -> read(() -> collect(tasksByList.get(listId), offset, limit)));
+    }
+
+    List<StoredTask> tasksAwaitingReminder() {
+        return asAllUsers(() -> read(() -> collect(reminderTasks, 0, Integer.MAX_VALUE)));
+    }
+
+    /** Tasks with no position or one longer than {@code maxLength}, for the rebalance job. */
+    List<StoredTask> tasksWithPositionsLongerThan(int maxLength) {
+        return asAllUsers(() -> read(() -> {
+            List<StoredTask> rows = new ArrayList<>(collect(tasksByPositionLength.get(-1), 0, Integer.MAX_VALUE));
+            for (LongSortedSet ids : tasksByPositionLength.tailMap(maxLength, false).values()) {
+                rows.addAll(collect(ids, 0, Integer.MAX_VALUE));
+            }
+            return rows;
+        }));
+    }
+
+    List<StoredTask> allTasks() {
+        return asAllUsers(() -> read(() -> {
+            List<StoredTask> all = new ArrayList<>(tasks.size());
+            tasks.forEachValue(all::add);
+            return all;
+        }));
+    }
+
+    public int taskCount() {
+        return asAllUsers(() -> read(tasks::size));
+    }
+
+    StoredUser user(long id) {
+        return asUser(id, () -> read(() -> users.get(id)));
+    }
+
+    // Case-insensitive, like the collation of users.email.
+    StoredUser userByEmail(String email) {
+        String key = emailKey(email);
+        Long holder = read(() -> holderOfEmail(key));
+        while (holder != null) {
+            long locked = holder;
+            Owned<StoredUser> found = asUser(locked, () -> read(() -> {
+                Long id = usersByEmail.get(key);
+                return new Owned<>(id != null ? users.get(id) : null, holderOfEmail(key));
+            }));
+            if (found.owner() == null || found.owner() == locked) {
+                return found.row();
+            }
+            holder = found.owner();
+        }
+        return null;
+    }
+
+    List<StoredUser> allUsers() {
+        return asAllUsers(() -> read(() -> {
+            List<StoredUser> all = new ArrayList<>(users.size());
+            users.forEachValue(all::add);
+            return all;
+        }));
+    }
+
+    public int userCount() {
+        return asAllUsers(() -> read(users::size));
+    }
+
+    // Writes
+
+    /**
+     * Applies the changes as one log record. Tasks must belong to an existing
+     * user, emails are unique, and users with tasks cannot be deleted, as the
+     * database constraints would have it.
+     */
+    void write(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        TransactionScope scope = transactionScope();
+        int[] locked = lockUsers(() -> usersTouchedBy(changes), scope);
+        Releases releases = scope != null ? scope.releases : new Releases();
+        try {
+            long lsn;
+            lock.writeLock().lock();
+            try {
+                for (Change change : changes) {
+                    check(change, changes);
+                }
+                noteReleases(changes, releases);
+                lsn = logOrDefer(changes, scope);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (scope == null) {
+                awaitDurable(lsn);
+            }
+        } finally {
+            if (scope == null) {
+                forget(releases);
+            }
+            userLocks.unlockExclusive(locked);
+        }
+    }
+
+    /**
+     * Replaces the given tasks with {@code update} applied to them, as one log
+     * record; {@code update} returns null to leave a task unchanged and must
+     * not give a task another owner. Returns the number of tasks changed.
+     */
+    int updateTasks(Collection<Long> ids, UnaryOperator<StoredTask> update) {
+        TransactionScope scope = transactionScope();
+        int[] locked = lockUsers(() -> {
+            Set<Long> owners = new HashSet<>();
+            for (Long id : ids) {
+                addOwnerOfTask(owners, id);
+            }
+            return owners;
+        }, scope);
+        try {
+            List<Change> changes = new ArrayList<>();
+            long lsn;
+            lock.writeLock().lock();
+            try {
+                for (Long id : ids) {
+                    StoredTask task = tasks.get(id);
+                    StoredTask updated = task != null ? update.apply(task) : null;
+                    if (updated != null) {
+                        changes.add(new Change.PutTask(updated));
+                    }
+                }
+                if (changes.isEmpty()) {
+                    return 0;
+                }
+                lsn = logOrDefer(changes, scope);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (scope == null) {
+                awaitDurable(lsn);
+            }
+            return changes.size();
+        } finally {
+            userLocks.unlockExclusive(locked);
+        }
+    }
+
+    public int detachList(long listId) {
+        List<Long> ids = read(() -> {
+            List<Long> listed = new ArrayList<>();
+            LongSortedSet listTasks = tasksByList.get(listId);
+            for (int i = 0; listTasks != null && i < listTasks.size(); i++) {
+                listed.add(listTasks.get(i));
+            }
+            return listed;
+        });
+        return updateTasks(ids, task -> Long.valueOf(listId).equals(task.listId()) ? task.withListId(null) : null);
+    }
+
+    /** Deletes up to {@code limit} of a user's tasks; used by the account purge. */
+    public int deleteTasksOf(long userId, int limit) {
+        List<Change> changes = new ArrayList<>();
+        for (StoredTask task : tasksOf(userId)) {
+            if (changes.size() == limit) {
+                break;
+            }
+            changes.add(new Change.DeleteTask(task.id()));
+        }
+        write(changes);
+        return changes.size();
+    }
+
+    /** Deletes a user whose tasks are already gone; used by the account purge. */
+    public boolean deleteUser(long userId) {
+        if (user(userId) == null) {
+            return false;
+        }
+        write(List.of(new Change.DeleteUser(userId)));
+        return true;
+    }
+
+    // Snapshots
+
+    @Scheduled(fixedDelayString = "${app.embedded.snapshot-check-ms:10000}")
+    public void snapshotIfDue() {
+        long pending = wal.appendedBytes() - snapshotBytes;
+        boolean due = pending >= snapshotAfterBytes
+                || pending > 0 && System.currentTimeMillis() - snapshotMillis >= snapshotIntervalMillis;
+        if (due) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                log.error("Could not write embedded storage snapshot", e);
+            } catch (CannotAcquireLockException e) {
+                log.warn("Embedded storage snapshot put off: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the current state to a new snapshot, then deletes the log segments
+     * and snapshots it supersedes. The rows are collected as readers across
+     * users collect them, so only committed rows are taken, and writers are held
+     * only while they are collected, not while they are written out.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long started = System.currentTimeMillis();
+            SnapshotRows rows = asAllUsers(() -> read(() -> {
+                List<StoredUser> userRows = new ArrayList<>(users.size());
+                users.forEachValue(userRows::add);
+                List<StoredTask> taskRows = new ArrayList<>(tasks.size());
+                tasks.forEachValue(taskRows::add);
+                return new SnapshotRows(wal.lastLsn(), wal.appendedBytes(), userRows, taskRows);
+            }));
+            long lsn = rows.lsn();
+            List<StoredUser> userRows = rows.users();
+            List<StoredTask> taskRows = rows.tasks();
+            if (lsn == snapshotLsn) {
+                return;
+            }
+
+            Path temporary = directory.resolve(snapshotName(lsn) + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                CheckedOutputStream checked = new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32C());
+                DataOutputStream out = new DataOutputStream(checked);
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(lsn);
+                out.writeInt(userRows.size());
+                for (StoredUser user : userRows) {
+                    ChangeCodec.writeUser(out, user);
+                }
+                out.writeInt(taskRows.size());
+                for (StoredTask task : taskRows) {
+                    ChangeCodec.writeTask(out, task);
+                }
+                out.writeLong(checked.getChecksum().getValue());
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(snapshotName(lsn)), StandardCopyOption.ATOMIC_MOVE);
+            WriteAheadLog.syncDirectory(directory);
+
+            snapshotLsn = lsn;
+            snapshotBytes = rows.appendedBytes();
+            snapshotMillis = System.currentTimeMillis();
+            int segments = wal.truncate(lsn);
+            for (Path old : snapshots().headMap(lsn).values()) {
+                Files.deleteIfExists(old);
+            }
+            log.info("Wrote embedded storage snapshot at record {} in {} ms: {} users, {} tasks, {} log segments removed",
+                    lsn, snapshotMillis - started, userRows.size(), taskRows.size(), segments);
+        }
+    }
+
+    public long lastLsn() {
+        return wal.lastLsn();
+    }
+
+    public long logForces() {
+        return wal.forces();
+    }
+
+    /** Writes a final snapshot, so the next start has no log to replay, and closes the log. */
+    @Override
+    public void close() throws IOException {
+        try {
+            snapshot();
+        } finally {
+            wal.close();
+        }
+    }
+
+    // Internals; the callers hold the write lock.
+
+    private void check(Change change, List<Change> batch) {
+        if (change instanceof Change.PutTask put) {
+            long userId = put.task().userId();
+            if (users.get(userId) == null && batch.stream().noneMatch(other ->
+                    other instanceof Change.PutUser user && user.user().id() == userId)) {
+                throw new DataIntegrityViolationException("Task " + put.task().id() + " refers to missing user " + userId);
+            }
+        } else if (change instanceof Change.PutUser put) {
+            Long existing = usersByEmail.get(emailKey(put.user().email()));
+            if (existing != null && existing != put.user().id()) {
+                throw new DataIntegrityViolationException("Duplicate email for user " + put.user().id());
+            }
+        } else if (change instanceof Change.DeleteUser delete) {
+            if (tasksByUser.get(delete.id()) != null) {
+                throw new DataIntegrityViolationException("User " + delete.id() + " still has tasks");
+            }
+        }
+    }
+
+    // The changes that put back what these changes replace, in the order to apply them.
+    private List<Change> undoOf(List<Change> changes) {
+        Deque<Change> undo = new ArrayDeque<>(changes.size());
+        Map<Long, StoredTask> taskImages = new HashMap<>();
+        Map<Long, StoredUser> userImages = new HashMap<>();
+        for (Change change : changes) {
+            if (change instanceof Change.PutTask || change instanceof Change.DeleteTask) {
+                long id = change instanceof Change.PutTask put ? put.task().id() : ((Change.DeleteTask) change).id();
+                StoredTask before = taskImages.containsKey(id) ? taskImages.get(id) : tasks.get(id);
+                undo.addFirst(before != null ? new Change.PutTask(before) : new Change.DeleteTask(id));
+                taskImages.put(id, change instanceof Change.PutTask put ? put.task() : null);
+            } else {
+                long id = change instanceof Change.PutUser put ? put.user().id() : ((Change.DeleteUser) change).id();
+                StoredUser before = userImages.containsKey(id) ? userImages.get(id) : users.get(id);
+                undo.addFirst(before != null ? new Change.PutUser(before) : new Change.DeleteUser(id));
+                userImages.put(id, change instanceof Change.PutUser put ? put.user() : null);
+            }
+        }
+        return new ArrayList<>(undo);
+    }
+
+    // Inside a transaction the changes are applied now, for the transaction's
+    // own reads behind its user locks, and logged when it commits.
+    private long logOrDefer(List<Change> changes, TransactionScope scope) {
+        if (scope == null) {
+            return append(changes);
+        }
+        scope.defer(changes, undoOf(changes));
+        for (Change change : changes) {
+            apply(change);
+        }
+        return 0;
+    }
+
+    private long append(List<Change> changes) {
+        long lsn;
+        try {
+            lsn = wal.append(ChangeCodec.encode(changes));
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not append to the embedded storage log", e);
+        }
+        for (Change change : changes) {
+            apply(change);
+        }
+        return lsn;
+    }
+
+    private void apply(Change change) {
+        if (change instanceof Change.PutTask put) {
+            StoredTask task = put.task();
+            StoredTask previous = tasks.put(task.id(), task);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(task);
+        } else if (change instanceof Change.DeleteTask delete) {
+            StoredTask previous = tasks.remove(delete.id());
+            if (previous != null) {
+                unindex(previous);
+            }
+        } else if (change instanceof Change.PutUser put) {
+            StoredUser previous = users.put(put.user().id(), put.user());
+            if (previous != null) {
+                usersByEmail.remove(emailKey(previous.email()));
+            }
+            usersByEmail.put(emailKey(put.user().email()), put.user().id());
+        } else if (change instanceof Change.DeleteUser delete) {
+            StoredUser previous = users.remove(delete.id());
+            if (previous != null) {
+                usersByEmail.remove(emailKey(previous.email()));
+            }
+        }
+    }
+
+    private void index(StoredTask task) {
+        LongSortedSet owned = tasksByUser.get(task.userId());
+        if (owned == null) {
+            owned = new LongSortedSet();
+            tasksByUser.put(task.userId(), owned);
+        }
+        owned.add(task.id());
+        if (task.listId() != null) {
+            LongSortedSet listed = tasksByList.get(task.listId());
+            if (listed == null) {
+                listed = new LongSortedSet();
+                tasksByList.put(task.listId(), listed);
+            }
+            listed.add(task.id());
+        }
+        if (task.awaitsReminder()) {
+            reminderTasks.add(task.id());
+        }
+        tasksByPositionLength.computeIfAbsent(positionLength(task), length -> new LongSortedSet()).add(task.id());
+    }
+
+    private void unindex(StoredTask task) {
+        removeFrom(tasksByUser, task.userId(), task.id());
+        if (task.listId() != null) {
+            removeFrom(tasksByList, task.listId(), task.id());
+        }
+        reminderTasks.remove(task.id());
+        int length = positionLength(task);
+        LongSortedSet sameLength = tasksByPositionLength.get(length);
+        if (sameLength != null && sameLength.remove(task.id()) && sameLength.isEmpty()) {
+            tasksByPositionLength.remove(length);
+        }
+    }
+
+    private static int positionLength(StoredTask task) {
+        return task.position() != null ? task.position().length() : -1;
+    }
+
+    private static void removeFrom(LongObjectMap<LongSortedSet> index, long key, long taskId) {
+        LongSortedSet ids = index.get(key);
+        if (ids != null && ids.remove(taskId) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private List<StoredTask> collect(LongSortedSet ids, long offset, int limit) {
+        if (ids == null || offset >= ids.size()) {
+            return new ArrayList<>();
+        }
+        int end = (int) Math.min(ids.size(), offset + limit);
+        List<StoredTask> rows = new ArrayList<>(end - (int) offset);
+        for (int i = (int) offset; i < end; i++) {
+            rows.add(tasks.get(ids.get(i)));
+        }
+        return rows;
+    }
+
+    // Isolation
+    //
+    // Inside a read-write transaction, the first read or write of a user's rows
+    // takes that user's lock, and the transaction keeps it until it completes;
+    // two such transactions on the same user run one after the other. Reads
+    // outside one share the lock for as long as they read, and writes outside
+    // one hold it until the write is durable. Rows a writer has deleted, and
+    // emails it has given up, stay attributed to it in tasksDeletedInFlight and
+    // emailsReleasedInFlight until then, so a read that finds nothing still
+    // knows whose lock to wait for.
+
+    private <T> T asUser(long userId, Supplier<T> read) {
+        int stripe = userLocks.stripeOf(userId);
+        TransactionScope scope = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? null : transactionScope();
+        if (scope != null) {
+            scope.hold(stripe);
+            return read.get();
+        }
+        userLocks.lockShared(stripe);
+        try {
+            return read.get();
+        } finally {
+            userLocks.unlockShared(stripe);
+        }
+    }
+
+    private <T> T asAllUsers(Supplier<T> read) {
+        userLocks.lockAllShared();
+        try {
+            return read.get();
+        } finally {
+            userLocks.unlockAllShared();
+        }
+    }
+
+    /**
+     * Locks every user in {@code users}, which is read again once they are
+     * held, as a task can change hands while its new writer waits. Returns the
+     * stripes to unlock after the write; none inside a transaction, whose
+     * scope keeps them.
+     */
+    private int[] lockUsers(Supplier<Set<Long>> users, TransactionScope scope) {
+        int[] locked = new int[0];
+        while (true) {
+            int[] needed = read(users).stream().mapToInt(userLocks::stripeOf).distinct().sorted().toArray();
+            if (scope != null) {
+                if (scope.holdsAll(needed)) {
+                    return locked;
+                }
+                for (int stripe : needed) {
+                    scope.hold(stripe);
+                }
+            } else {
+                if (containsAll(locked, needed)) {
+                    return locked;
+                }
+                userLocks.unlockExclusive(locked);
+                userLocks.lockExclusive(needed);
+                locked = needed;
+            }
+        }
+    }
+
+    private static boolean containsAll(int[] sorted, int[] stripes) {
+        for (int stripe : stripes) {
+            if (Arrays.binarySearch(sorted, stripe) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> T read(Supplier<T> read) {
+        lock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The users a write must lock: the owners of its tasks before and after,
+    // and whoever holds or is giving up an email it takes.
+    private Set<Long> usersTouchedBy(List<Change> changes) {
+        Set<Long> touched = new HashSet<>();
+        for (Change change : changes) {
+            if (change instanceof Change.PutTask put) {
+                touched.add(put.task().userId());
+                addOwnerOfTask(touched, put.task().id());
+            } else if (change instanceof Change.DeleteTask delete) {
+                addOwnerOfTask(touched, delete.id());
+            } else if (change instanceof Change.PutUser put) {
+                touched.add(put.user().id());
+                Long holder = holderOfEmail(emailKey(put.user().email()));
+                if (holder != null) {
+                    touched.add(holder);
+                }
+            } else if (change instanceof Change.DeleteUser delete) {
+                touched.add(delete.id());
+            }
+        }
+        return touched;
+    }
+
+    private void addOwnerOfTask(Set<Long> owners, long taskId) {
+        Long owner = ownerOfTask(taskId);
+        if (owner != null) {
+            owners.add(owner);
+        }
+    }
+
+    private Long ownerOfTask(long id) {
+        StoredTask task = tasks.get(id);
+        return task != null ? Long.valueOf(task.userId()) : tasksDeletedInFlight.get(id);
+    }
+
+    private Long holderOfEmail(String key) {
+        Long id = usersByEmail.get(key);
+        return id != null ? id : emailsReleasedInFlight.get(key);
+    }
+
+    private void noteReleases(List<Change> changes, Releases releases) {
+        for (Change change : changes) {
+            if (change instanceof Change.DeleteTask delete) {
+                StoredTask before = tasks.get(delete.id());
+                if (before != null) {
+                    releases.tasks.put(delete.id(), before.userId());
+                    tasksDeletedInFlight.put(delete.id(), before.userId());
+                }
+            } else if (change instanceof Change.PutUser || change instanceof Change.DeleteUser) {
+                long id = change instanceof Change.PutUser put ? put.user().id() : ((Change.DeleteUser) change).id();
+                StoredUser before = users.get(id);
+                String taken = change instanceof Change.PutUser put ? emailKey(put.user().email()) : null;
+                if (before != null && !emailKey(before.email()).equals(taken)) {
+                    releases.emails.put(emailKey(before.email()), id);
+                    emailsReleasedInFlight.put(emailKey(before.email()), id);
+                }
+            }
+        }
+    }
+
+    private void forget(Releases releases) {
+        releases.tasks.forEach(tasksDeletedInFlight::remove);
+        releases.emails.forEach(emailsReleasedInFlight::remove);
+    }
+
+    private TransactionScope transactionScope() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        TransactionScope scope = (TransactionScope) TransactionSynchronizationManager.getResource(this);
+        if (scope == null) {
+            scope = new TransactionScope();
+            TransactionSynchronizationManager.bindResource(this, scope);
+            TransactionSynchronizationManager.registerSynchronization(scope);
+        }
+        return scope;
+    }
+
+    // Durability
+
+    private void awaitDurable(long lsn) {
+        try {
+            wal.awaitDurable(lsn);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not write the embedded storage log", e);
+        }
+    }
+
+    // Only changes already logged, by a commit that then failed, need their
+    // previous images logged too; the others never reached the log.
+    private void rollBack(List<Change> undo, boolean logged) {
+        long lsn = 0;
+        lock.writeLock().lock();
+        try {
+            if (logged) {
+                lsn = append(undo);
+            } else {
+                for (Change change : undo) {
+                    apply(change);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (logged) {
+            awaitDurable(lsn);
+        }
+        log.debug("Rolled back {} embedded storage changes", undo.size());
+    }
+
+    private record Owned<T>(T row, Long owner) {
+    }
+
+    private record SnapshotRows(long lsn, long appendedBytes, List<StoredUser> users, List<StoredTask> tasks) {
+    }
+
+    /** Task ids and emails a writer has deleted or given up, with the user whose lock covers them. */
+    private static final class Releases {
+
+        private final Map<Long, Long> tasks = new HashMap<>();
+        private final Map<String, Long> emails = new HashMap<>();
+    }
+
+    /** Changes made, and user locks held, inside one Spring transaction. */
+    private final class TransactionScope implements TransactionSynchronization {
+
+        private final List<Change> redo = new ArrayList<>();
+        private final Deque<Change> undo = new ArrayDeque<>();
+        private long loggedLsn;
+        private final BitSet held = new BitSet();
+        private final Releases releases = new Releases();
+
+        void hold(int stripe) {
+            if (!held.get(stripe)) {
+                userLocks.lockExclusive(stripe);
+                held.set(stripe);
+            }
+        }
+
+        void defer(List<Change> changes, List<Change> undoChanges) {
+            redo.addAll(changes);
+            for (int i = undoChanges.size() - 1; i >= 0; i--) {
+                undo.addFirst(undoChanges.get(i));
+            }
+        }
+
+        boolean holdsAll(int[] stripes) {
+            return Arrays.stream(stripes).allMatch(held::get);
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(EmbeddedStore.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(EmbeddedStore.this, this);
+        }
+
+        // The whole transaction is one record, so replay has all of it or none.
+        // Group commit: the database commit goes ahead only once the log holds it.
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (redo.isEmpty()) {
+                return;
+            }
+            try {
+                loggedLsn = wal.append(ChangeCodec.encode(redo));
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("Could not append to the embedded storage log", e);
+            }
+            awaitDurable(loggedLsn);
+        }
+
+        // The previous images go back before the locks are let go, so no one sees the changes.
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EmbeddedStore.this);
+            try {
+                if (status == STATUS_ROLLED_BACK && !undo.isEmpty()) {
+                    rollBack(new ArrayList<>(undo), loggedLsn > 0);
+                }
+            } finally {
+                forget(releases);
+                for (int stripe = held.nextSetBit(0); stripe >= 0; stripe = held.nextSetBit(stripe + 1)) {
+                    userLocks.unlockExclusive(stripe);
+                }
+            }
+        }
+    }
+
+    // Snapshot files
+
+    private long loadSnapshot() throws IOException {
+        TreeMap<Long, Path> snapshots = snapshots();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path stale : files.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(stale);
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path file = snapshots.lastEntry().getValue();
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16), new CRC32C())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IllegalStateException("Not an embedded storage snapshot: " + file);
+            }
+            long lsn = in.readLong();
+            int userCount = in.readInt();
+            for (int i = 0; i < userCount; i++) {
+                apply(new Change.PutUser(ChangeCodec.readUser(in)));
+            }
+            int taskCount = in.readInt();
+            for (int i = 0; i < taskCount; i++) {
+                apply(new Change.PutTask(ChangeCodec.readTask(in)));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IllegalStateException("Embedded storage snapshot " + file + " is corrupt");
+            }
+            return lsn;
+        }
+    }
+
+    private TreeMap<Long, Path> snapshots() throws IOException {
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX)) {
+                    snapshots.put(Long.parseLong(name, SNAPSHOT_PREFIX.length(),
+                            name.length() - SNAPSHOT_SUFFIX.length(), 10), file);
+                }
+            });
+        }
+        return snapshots;
+    }
+
+    private static String snapshotName(long lsn) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX);
+    }
+
+    private static String emailKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,448 @@
+package com.todoapp.embedded;
+
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import com.todoapp.id.TimeOrderedIdSource;
+import com.todoapp.reminder.DueReminder;
+import com.todoapp.repository.DeletedTaskRow;
+import com.todoapp.repository.TaskDayCount;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSpecifications;
+import com.todoapp.tag.TaskStatusRow;
+import com.todoapp.tag.TaskTagRow;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The {@link TaskRepository} queries the application uses, answered from the
+ * {@link EmbeddedStore}; see {@link EmbeddedRepositories} for how it is exposed
+ * as one. Orderings follow MySQL: NULLs first ascending and last descending,
+ * sort keys compared as bytes, names case-insensitively.
+ */
+public class EmbeddedTaskRepository {
+
+    private static final Comparator<Task> POSITION_ORDER = Comparator
+            .comparing(Task::getPosition, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Task::getId);
+
+    private static final Comparator<Task> REBALANCE_ORDER = Comparator
+            .comparing(Task::getPosition, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(Task::getId);
+
+    private final EmbeddedStore store;
+    private final TimeOrderedIdSource idSource;
+
+    public EmbeddedTaskRepository(EmbeddedStore store, TimeOrderedIdSource idSource) {
+        this.store = store;
+        this.idSource = idSource;
+    }
+
+    // TaskRepository queries
+
+    public List<Task> findByUserId(Long userId) {
+        return tasksOf(userId, task -> true, POSITION_ORDER);
+    }
+
+    public List<Task> findByUserIdAndStatus(Long userId, Task.TaskStatus status) {
+        return tasksOf(userId, task -> task.getStatus() == status, POSITION_ORDER);
+    }
+
+    public Optional<Task> findByIdAndUserId(Long id, Long userId) {
+        return findById(id).filter(task -> task.getUser().getId().equals(userId));
+    }
+
+    public List<Task> findByUserIdAndIdIn(Long userId, List<Long> ids) {
+        User user = userEntity(userId);
+        List<Task> found = new ArrayList<>(ids.size());
+        for (Long id : new TreeSet<>(ids)) {
+            StoredTask task = store.task(id);
+            if (task != null && task.userId() == userId) {
+                found.add(task.toEntity(user));
+            }
+        }
+        found.sort(POSITION_ORDER);
+        return found;
+    }
+
+    public List<Task> findAll(Specification<Task> spec, Sort sort) {
+        if (!(spec instanceof TaskSpecifications.FilterSpecification filter)) {
+            throw new UnsupportedOperationException(
+                    "The embedded storage engine only evaluates TaskSpecifications filters");
+        }
+        return tasksOf(filter.userId(), filter::test, comparator(sort));
+    }
+
+    public Slice<Task> findByListIdOrderById(Long listId, Pageable pageable) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE - 1;
+        List<StoredTask> rows = store.tasksOfList(listId, offset, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Task> content = new ArrayList<>(Math.min(rows.size(), size));
+        for (StoredTask row : hasNext ? rows.subList(0, size) : rows) {
+            content.add(row.toEntity(userEntity(row.userId())));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    public int detachFromList(Long listId) {
+        return store.detachList(listId);
+    }
+
+    public List<Task> findSubtree(Long userId, String pathPrefix, int maxDepth) {
+        String prefix = likePrefix(pathPrefix);
+        return tasksOf(userId, task -> task.getTreePath().startsWith(prefix) && task.getTreeDepth() <= maxDepth, null);
+    }
+
+    // Descriptions are kept inside the tasks, so no description row is left to delete.
+    public List<DeletedTaskRow> findDeletedRows(Long userId, String pathPrefix) {
+        List<DeletedTaskRow> rows = new ArrayList<>();
+        for (StoredTask task : descendantsOf(userId, pathPrefix)) {
+            rows.add(new DeletedTaskRow(task.id(), task.name(), null));
+        }
+        return rows;
+    }
+
+    public List<TaskDayCount> countDescendantsByDay(Long userId, String pathPrefix) {
+        Map<TaskDayCount, Long> counts = new HashMap<>();
+        for (StoredTask task : descendantsOf(userId, pathPrefix)) {
+            TaskDayCount key = new TaskDayCount(task.status(), day(task.createdAt()), day(task.completedAt()), 0);
+            counts.merge(key, 1L, Long::sum);
+        }
+        List<TaskDayCount> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(
+                new TaskDayCount(key.status(), key.createdOn(), key.completedOn(), count)));
+        return rows;
+    }
+
+    public int detachDescendants(Long userId, String pathPrefix) {
+        List<Long> ids = descendantsOf(userId, pathPrefix).stream().map(StoredTask::id).toList();
+        return store.updateTasks(ids, task -> task.withParentId(null));
+    }
+
+    public int deleteDescendants(Long userId, String pathPrefix) {
+        List<Change> changes = new ArrayList<>();
+        for (StoredTask task : descendantsOf(userId, pathPrefix)) {
+            changes.add(new Change.DeleteTask(task.id()));
+        }
+        store.write(changes);
+        return changes.size();
+    }
+
+    public int updatePosition(Long id, String position, int positionLength) {
+        return store.updateTasks(List.of(id), task -> task.withPosition(position));
+    }
+
+    public int adjustDescendantCounts(List<Long> ids, int descendants, int completed) {
+        return store.updateTasks(ids, task -> task.withDescendantCounts(
+                task.descendantCount() + descendants, task.completedDescendantCount() + completed));
+    }
+
+    public List<TaskStatusRow> findTaskStatusesByUserId(Long userId) {
+        List<TaskStatusRow> rows = new ArrayList<>();
+        for (StoredTask task : store.tasksOf(userId)) {
+            rows.add(new TaskStatusRow(task.id(), task.status()));
+        }
+        return rows;
+    }
+
+    public List<TaskTagRow> findTaskTagsByUserId(Long userId) {
+        List<TaskTagRow> rows = new ArrayList<>();
+        for (StoredTask task : store.tasksOf(userId)) {
+            for (String tag : task.tags()) {
+                rows.add(new TaskTagRow(task.id(), tag));
+            }
+        }
+        return rows;
+    }
+
+    public long countByUserIdAndStatus(Long userId, Task.TaskStatus status) {
+        return store.tasksOf(userId).stream().filter(task -> task.status() == status).count();
+    }
+
+    // Descending puts NULL positions last, so they only come first when every position is NULL.
+    public Optional<Task> findFirstByUserIdOrderByPositionDesc(Long userId) {
+        return tasksOf(userId, task -> true, null).stream()
+                .max(Comparator.comparing(Task::getPosition, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+    }
+
+    public Optional<Task> findFirstByUserIdAndPositionGreaterThanOrderByPositionAsc(Long userId, String position) {
+        return tasksOf(userId, task -> task.getPosition() != null && task.getPosition().compareTo(position) > 0,
+                POSITION_ORDER).stream().findFirst();
+    }
+
+    public Optional<Task> findFirstByUserIdAndPositionLessThanOrderByPositionDesc(Long userId, String position) {
+        List<Task> before = tasksOf(userId,
+                task -> task.getPosition() != null && task.getPosition().compareTo(position) < 0, POSITION_ORDER);
+        return before.isEmpty() ? Optional.empty() : Optional.of(before.get(before.size() - 1));
+    }
+
+    public List<Task> findByUserIdForRebalance(Long userId) {
+        return tasksOf(userId, task -> true, REBALANCE_ORDER);
+    }
+
+    public List<Long> findUserIdsNeedingRebalance(int maxLength, Pageable pageable) {
+        TreeSet<Long> userIds = new TreeSet<>();
+        for (StoredTask task : store.tasksWithPositionsLongerThan(maxLength)) {
+            userIds.add(task.userId());
+        }
+        return page(new ArrayList<>(userIds), pageable);
+    }
+
+    public Slice<DueReminder> findPendingRemindersDueBefore(Task.TaskStatus status, LocalDateTime to,
+                                                            Pageable pageable) {
+        return reminders(task -> task.status() == status && !task.dueAt().isAfter(to), pageable);
+    }
+
+    public Slice<DueReminder> findPendingRemindersDueBetween(Task.TaskStatus status, LocalDateTime from,
+                                                             LocalDateTime to, Pageable pageable) {
+        return reminders(task -> task.status() == status && task.dueAt().isAfter(from)
+                && !task.dueAt().isAfter(to), pageable);
+    }
+
+    public int claimReminder(Long id, LocalDateTime dueAt, Task.TaskStatus status, LocalDateTime now) {
+        return store.updateTasks(List.of(id), task -> {
+            StoredUser user = store.user(task.userId());
+            boolean claimable = dueAt.equals(task.dueAt()) && task.reminderSentAt() == null
+                    && task.status() == status && user != null && user.deletedAt() == null;
+            return claimable ? task.withReminderSentAt(now) : null;
+        });
+    }
+
+    public int releaseReminder(Long id, LocalDateTime claimedAt) {
+        return store.updateTasks(List.of(id), task -> claimedAt.equals(task.reminderSentAt())
+                ? task.withReminderSentAt(null) : null);
+    }
+
+    // JpaRepository
+
+    public <S extends Task> S save(S task) {
+        Change change = prepare(task);
+        if (change != null) {
+            store.write(List.of(change));
+        }
+        return task;
+    }
+
+    public <S extends Task> List<S> saveAll(Iterable<S> tasks) {
+        List<S> saved = new ArrayList<>();
+        List<Change> changes = new ArrayList<>();
+        for (S task : tasks) {
+            Change change = prepare(task);
+            if (change != null) {
+                changes.add(change);
+            }
+            saved.add(task);
+        }
+        store.write(changes);
+        return saved;
+    }
+
+    public <S extends Task> S saveAndFlush(S task) {
+        return save(task);
+    }
+
+    public <S extends Task> List<S> saveAllAndFlush(Iterable<S> tasks) {
+        return saveAll(tasks);
+    }
+
+    public Optional<Task> findById(Long id) {
+        StoredTask task = store.task(id);
+        return task != null ? Optional.of(task.toEntity(userEntity(task.userId()))) : Optional.empty();
+    }
+
+    public Task getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Task " + id + " not found"));
+    }
+
+    public boolean existsById(Long id) {
+        return store.task(id) != null;
+    }
+
+    public List<Task> findAll() {
+        return entities(store.allTasks());
+    }
+
+    public List<Task> findAllById(Iterable<Long> ids) {
+        List<StoredTask> rows = new ArrayList<>();
+        for (Long id : ids) {
+            StoredTask task = store.task(id);
+            if (task != null) {
+                rows.add(task);
+            }
+        }
+        return entities(rows);
+    }
+
+    public long count() {
+        return store.taskCount();
+    }
+
+    public void delete(Task task) {
+        deleteAllById(List.of(task.getId()));
+    }
+
+    public void deleteById(Long id) {
+        deleteAllById(List.of(id));
+    }
+
+    public void deleteAll(Iterable<? extends Task> tasks) {
+        List<Long> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        deleteAllById(ids);
+    }
+
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        List<Change> changes = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null && store.task(id) != null) {
+                changes.add(new Change.DeleteTask(id));
+            }
+        }
+        store.write(changes);
+    }
+
+    public void deleteAll() {
+        deleteAllById(store.allTasks().stream().map(StoredTask::id).toList());
+    }
+
+    public void flush() {
+        // Every write is already in the store.
+    }
+
+    // What persist or merge would do: ids and timestamps as the entity callbacks
+    // set them, and no write at all for an unchanged task.
+    private Change prepare(Task task) {
+        if (task.getUser() == null || task.getUser().getId() == null) {
+            throw new DataIntegrityViolationException("Task must belong to a user");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        StoredTask existing = task.getId() != null ? store.task(task.getId()) : null;
+        if (task.getId() == null) {
+            if (task.getRequestedId() != null && store.task(task.getRequestedId()) != null) {
+                throw new DataIntegrityViolationException("Duplicate task id: " + task.getRequestedId());
+            }
+            task.setId(task.getRequestedId() != null ? task.getRequestedId() : idSource.nextId());
+        }
+        if (existing == null) {
+            task.setCreatedAt(now);
+            if (task.getStatus() == null) {
+                task.setStatus(Task.TaskStatus.PENDING);
+            }
+            if (task.getTreePath() == null) {
+                task.setTreePath("/");
+            }
+        } else {
+            task.setCreatedAt(existing.createdAt());
+            task.setUpdatedAt(existing.updatedAt());
+            if (StoredTask.of(task, task.getUser().getId()).equals(existing)) {
+                return null;
+            }
+        }
+        task.setUpdatedAt(now);
+        return new Change.PutTask(StoredTask.of(task, task.getUser().getId()));
+    }
+
+    private List<Task> tasksOf(Long userId, Predicate<Task> filter, Comparator<Task> order) {
+        User user = userEntity(userId);
+        List<Task> found = new ArrayList<>();
+        for (StoredTask row : store.tasksOf(userId)) {
+            Task task = row.toEntity(user);
+            if (filter.test(task)) {
+                found.add(task);
+            }
+        }
+        if (order != null) {
+            found.sort(order);
+        }
+        return found;
+    }
+
+    private List<StoredTask> descendantsOf(Long userId, String pathPrefix) {
+        String prefix = likePrefix(pathPrefix);
+        return store.tasksOf(userId).stream().filter(task -> task.treePath().startsWith(prefix)).toList();
+    }
+
+    private static LocalDate day(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate() : null;
+    }
+
+    private List<Task> entities(List<StoredTask> rows) {
+        List<Task> entities = new ArrayList<>(rows.size());
+        for (StoredTask row : rows) {
+            entities.add(row.toEntity(userEntity(row.userId())));
+        }
+        return entities;
+    }
+
+    // Stands in for the lazy User proxy JPA would set on the task.
+    private User userEntity(long userId) {
+        StoredUser user = store.user(userId);
+        return user != null ? user.toEntity() : User.builder().id(userId).build();
+    }
+
+    private Slice<DueReminder> reminders(Predicate<StoredTask> filter, Pageable pageable) {
+        List<DueReminder> due = store.tasksAwaitingReminder().stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(StoredTask::dueAt).thenComparingLong(StoredTask::id))
+                .map(task -> new DueReminder(task.id(), task.userId(), task.name(), task.dueAt()))
+                .toList();
+        List<DueReminder> content = page(due, pageable);
+        boolean hasNext = pageable.isPaged() && pageable.getOffset() + content.size() < due.size();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static <T> List<T> page(List<T> rows, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return rows;
+        }
+        int from = (int) Math.min(rows.size(), pageable.getOffset());
+        return rows.subList(from, Math.min(rows.size(), from + pageable.getPageSize()));
+    }
+
+    // The queries only pass prefixes: a tree path followed by '%'.
+    private static String likePrefix(String pattern) {
+        return pattern.endsWith("%") ? pattern.substring(0, pattern.length() - 1) : pattern;
+    }
+
+    private static Comparator<Task> comparator(Sort sort) {
+        Comparator<Task> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Task> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(Task::getId);
+                case "position" -> nullsFirst(Task::getPosition, Comparator.naturalOrder());
+                case "createdAt" -> nullsFirst(Task::getCreatedAt, Comparator.naturalOrder());
+                case "updatedAt" -> nullsFirst(Task::getUpdatedAt, Comparator.naturalOrder());
+                case "dueAt" -> nullsFirst(Task::getDueAt, Comparator.naturalOrder());
+                case "name" -> nullsFirst(Task::getName, String.CASE_INSENSITIVE_ORDER);
+                default -> throw new UnsupportedOperationException("Cannot sort tasks by " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return Objects.requireNonNullElse(comparator, Comparator.comparing(Task::getId));
+    }
+
+    private static <T> Comparator<Task> nullsFirst(Function<Task, T> key, Comparator<? super T> order) {
+        return Comparator.comparing(key, Comparator.nullsFirst(order));
+    }
+}
@@ -0,0 +1,140 @@
+package com.todoapp.embedded;
+
+import com.todoapp.entity.User;
+import com.todoapp.id.TimeOrderedIdSource;
+import com.todoapp.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/** The {@link UserRepository} methods, answered from the {@link EmbeddedStore}. */
+public class EmbeddedUserRepository {
+
+    private final EmbeddedStore store;
+    private final TimeOrderedIdSource idSource;
+
+    public EmbeddedUserRepository(EmbeddedStore store, TimeOrderedIdSource idSource) {
+        this.store = store;
+        this.idSource = idSource;
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(store.userByEmail(email)).map(StoredUser::toEntity);
+    }
+
+    public boolean existsByEmail(String email) {
+        return store.userByEmail(email) != null;
+    }
+
+    public <S extends User> S save(S user) {
+        Change change = prepare(user);
+        if (change != null) {
+            store.write(List.of(change));
+        }
+        return user;
+    }
+
+    public <S extends User> List<S> saveAll(Iterable<S> users) {
+        List<S> saved = new ArrayList<>();
+        List<Change> changes = new ArrayList<>();
+        for (S user : users) {
+            Change change = prepare(user);
+            if (change != null) {
+                changes.add(change);
+            }
+            saved.add(user);
+        }
+        store.write(changes);
+        return saved;
+    }
+
+    public <S extends User> S saveAndFlush(S user) {
+        return save(user);
+    }
+
+    public Optional<User> findById(Long id) {
+        return Optional.ofNullable(store.user(id)).map(StoredUser::toEntity);
+    }
+
+    public User getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("User " + id + " not found"));
+    }
+
+    public boolean existsById(Long id) {
+        return store.user(id) != null;
+    }
+
+    public List<User> findAll() {
+        return store.allUsers().stream().map(StoredUser::toEntity).toList();
+    }
+
+    public List<User> findAllById(Iterable<Long> ids) {
+        List<User> found = new ArrayList<>();
+        for (Long id : ids) {
+            StoredUser user = store.user(id);
+            if (user != null) {
+                found.add(user.toEntity());
+            }
+        }
+        return found;
+    }
+
+    public long count() {
+        return store.userCount();
+    }
+
+    public void delete(User user) {
+        store.deleteUser(user.getId());
+    }
+
+    public void deleteById(Long id) {
+        store.deleteUser(id);
+    }
+
+    public void deleteAll(Iterable<? extends User> users) {
+        List<Long> ids = new ArrayList<>();
+        users.forEach(user -> ids.add(user.getId()));
+        deleteAllById(ids);
+    }
+
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        List<Change> changes = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null && store.user(id) != null) {
+                changes.add(new Change.DeleteUser(id));
+            }
+        }
+        store.write(changes);
+    }
+
+    public void deleteAll() {
+        deleteAllById(store.allUsers().stream().map(StoredUser::id).toList());
+    }
+
+    public void flush() {
+        // Every write is already in the store.
+    }
+
+    // See EmbeddedTaskRepository#prepare.
+    private Change prepare(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredUser existing = user.getId() != null ? store.user(user.getId()) : null;
+        if (user.getId() == null) {
+            user.setId(idSource.nextId());
+        }
+        if (existing == null) {
+            user.setCreatedAt(now);
+        } else {
+            user.setCreatedAt(existing.createdAt());
+            user.setUpdatedAt(existing.updatedAt());
+            if (StoredUser.of(user).equals(existing)) {
+                return null;
+            }
+        }
+        user.setUpdatedAt(now);
+        return new Change.PutUser(StoredUser.of(user));
+    }
+}
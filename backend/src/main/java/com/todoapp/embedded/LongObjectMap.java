@@ -0,0 +1,143 @@
+package com.todoapp.embedded;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map from positive long keys to values, without boxing
+ * the keys. 0 marks an empty slot, which is why keys must be positive; looking
+ * up or removing any other key finds nothing, as no such key can be stored.
+ * Removal shifts the following entries back instead of leaving tombstones.
+ */
+final class LongObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    LongObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        if (key <= 0) {
+            return null;
+        }
+        for (int slot = slot(key); keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        checkKey(key);
+        int slot = slot(key);
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 4 > keys.length * 3) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        if (key <= 0) {
+            return null;
+        }
+        int slot = slot(key);
+        for (; keys[slot] != key; slot = (slot + 1) & mask) {
+            if (keys[slot] == 0) {
+                return null;
+            }
+        }
+        V previous = (V) values[slot];
+        // Moves back every following entry whose home slot is not between the
+        // gap and its current slot, so lookups never stop early at the gap.
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                action.accept((V) values[slot]);
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    // Time-ordered ids differ mostly in their low bits; the mix spreads them anyway.
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.todoapp.embedded;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, growable array of distinct longs. Task ids are time-ordered, so new
+ * ids almost always go at the end and an insert rarely moves anything.
+ */
+final class LongSortedSet {
+
+    private long[] values;
+    private int size;
+
+    LongSortedSet() {
+        values = new long[8];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[index];
+    }
+
+    boolean contains(long value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    boolean add(long value) {
+        int index = size > 0 && values[size - 1] < value ? -size - 1 : Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1));
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        if (size < values.length >> 2 && values.length > 8) {
+            values = Arrays.copyOf(values, Math.max(8, values.length >> 1));
+        }
+        return true;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
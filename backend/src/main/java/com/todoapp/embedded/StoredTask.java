@@ -0,0 +1,86 @@
+package com.todoapp.embedded;
+
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable image of a task as the engine keeps it. Entities handed out are
+ * fresh copies, so changes only reach the store through save, as with JPA.
+ */
+record StoredTask(long id, long userId, Long listId, Long parentId, String name, String description,
+                  Task.TaskStatus status, String position, LocalDateTime dueAt, LocalDateTime reminderSentAt,
+                  LocalDateTime completedAt, Set<String> tags, String treePath, int treeDepth,
+                  int descendantCount, int completedDescendantCount,
+                  LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    static StoredTask of(Task task, long userId) {
+        return new StoredTask(task.getId(), userId, task.getListId(), task.getParentId(), task.getName(),
+                task.getDescription(), task.getStatus(), task.getPosition(), task.getDueAt(),
+                task.getReminderSentAt(), task.getCompletedAt(),
+                task.getTags() != null ? Set.copyOf(task.getTags()) : Set.of(), task.getTreePath(),
+                task.getTreeDepth(), task.getDescendantCount(), task.getCompletedDescendantCount(),
+                task.getCreatedAt(), task.getUpdatedAt());
+    }
+
+    Task toEntity(User user) {
+        return Task.builder()
+                .id(id)
+                .user(user)
+                .listId(listId)
+                .parentId(parentId)
+                .name(name)
+                .description(description)
+                .status(status)
+                .position(position)
+                .dueAt(dueAt)
+                .reminderSentAt(reminderSentAt)
+                .completedAt(completedAt)
+                .tags(new HashSet<>(tags))
+                .treePath(treePath)
+                .treeDepth(treeDepth)
+                .descendantCount(descendantCount)
+                .completedDescendantCount(completedDescendantCount)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    // Whether the reminder loader may pick the task up, whatever its status.
+    boolean awaitsReminder() {
+        return dueAt != null && reminderSentAt == null;
+    }
+
+    StoredTask withListId(Long newListId) {
+        return new StoredTask(id, userId, newListId, parentId, name, description, status, position, dueAt,
+                reminderSentAt, completedAt, tags, treePath, treeDepth, descendantCount,
+                completedDescendantCount, createdAt, updatedAt);
+    }
+
+    StoredTask withParentId(Long newParentId) {
+        return new StoredTask(id, userId, listId, newParentId, name, description, status, position, dueAt,
+                reminderSentAt, completedAt, tags, treePath, treeDepth, descendantCount,
+                completedDescendantCount, createdAt, updatedAt);
+    }
+
+    StoredTask withPosition(String newPosition) {
+        return new StoredTask(id, userId, listId, parentId, name, description, status, newPosition, dueAt,
+                reminderSentAt, completedAt, tags, treePath, treeDepth, descendantCount,
+                completedDescendantCount, createdAt, updatedAt);
+    }
+
+    StoredTask withReminderSentAt(LocalDateTime newReminderSentAt) {
+        return new StoredTask(id, userId, listId, parentId, name, description, status, position, dueAt,
+                newReminderSentAt, completedAt, tags, treePath, treeDepth, descendantCount,
+                completedDescendantCount, createdAt, updatedAt);
+    }
+
+    StoredTask withDescendantCounts(int descendants, int completedDescendants) {
+        return new StoredTask(id, userId, listId, parentId, name, description, status, position, dueAt,
+                reminderSentAt, completedAt, tags, treePath, treeDepth, descendants,
+                completedDescendants, createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,28 @@
+package com.todoapp.embedded;
+
+import com.todoapp.entity.User;
+
+import java.time.LocalDateTime;
+
+/** Immutable image of a user as the engine keeps it; see {@link StoredTask}. */
+record StoredUser(long id, String email, String name, String password, LocalDateTime createdAt,
+                  LocalDateTime updatedAt, LocalDateTime deletedAt, LocalDateTime statsRebuiltAt) {
+
+    static StoredUser of(User user) {
+        return new StoredUser(user.getId(), user.getEmail(), user.getName(), user.getPassword(),
+                user.getCreatedAt(), user.getUpdatedAt(), user.getDeletedAt(), user.getStatsRebuiltAt());
+    }
+
+    User toEntity() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .name(name)
+                .password(password)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .deletedAt(deletedAt)
+                .statsRebuiltAt(statsRebuiltAt)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.todoapp.embedded;
+
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-write locks over users' rows, striped by user id. Writers of a user's
+ * tasks hold its stripe exclusively and readers share it, so a reader waits
+ * for a writer to finish rather than seeing its changes. A wait gives up with
+ * {@link CannotAcquireLockException} after the timeout, as a lock wait in
+ * MySQL does; that is also how two transactions that each wait for the other
+ * get out of it.
+ */
+final class UserLocks {
+
+    private final ReentrantReadWriteLock[] stripes;
+    private final long timeoutMillis;
+
+    UserLocks(int stripes, long timeoutMillis) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("The number of stripes must be a power of two: " + stripes);
+        }
+        this.stripes = new ReentrantReadWriteLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    int stripeOf(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (stripes.length - 1);
+    }
+
+    void lockShared(int stripe) {
+        acquire(stripes[stripe].readLock());
+    }
+
+    void unlockShared(int stripe) {
+        stripes[stripe].readLock().unlock();
+    }
+
+    void lockExclusive(int stripe) {
+        acquire(stripes[stripe].writeLock());
+    }
+
+    void unlockExclusive(int stripe) {
+        stripes[stripe].writeLock().unlock();
+    }
+
+    /** Locks the given stripes, which must be in ascending order, or none of them. */
+    void lockExclusive(int[] stripes) {
+        for (int i = 0; i < stripes.length; i++) {
+            try {
+                lockExclusive(stripes[i]);
+            } catch (RuntimeException e) {
+                unlockExclusive(stripes, i);
+                throw e;
+            }
+        }
+    }
+
+    void unlockExclusive(int[] stripes) {
+        unlockExclusive(stripes, stripes.length);
+    }
+
+    /** Shares every stripe, for reads across users; waits for all writers in progress. */
+    void lockAllShared() {
+        for (int i = 0; i < stripes.length; i++) {
+            try {
+                lockShared(i);
+            } catch (RuntimeException e) {
+                for (int j = 0; j < i; j++) {
+                    unlockShared(j);
+                }
+                throw e;
+            }
+        }
+    }
+
+    void unlockAllShared() {
+        for (int i = 0; i < stripes.length; i++) {
+            unlockShared(i);
+        }
+    }
+
+    private void unlockExclusive(int[] stripes, int count) {
+        for (int i = 0; i < count; i++) {
+            unlockExclusive(stripes[i]);
+        }
+    }
+
+    private void acquire(Lock lock) {
+        try {
+            if (lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new CannotAcquireLockException("Gave up after " + timeoutMillis
+                + " ms waiting for another transaction on the same users' tasks");
+    }
+}
@@ -0,0 +1,313 @@
+package com.todoapp.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log in memory-mapped segment files of a fixed size. A record is
+ * its payload length, a CRC32C of its sequence number and payload, the
+ * sequence number and the payload; a zero length ends a segment.
+ * <p>
+ * Appending only copies the record into the mapping. A single flusher thread
+ * forces the mapping to disk and then releases every writer whose record it
+ * covered, so writers that arrive while a force is running share the next one
+ * (group commit).
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    static final int HEADER_BYTES = 16;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    interface RecordHandler {
+        void accept(long lsn, byte[] payload) throws IOException;
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    // First sequence number of each segment, the current one included.
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private long lastLsn;
+    private long durableLsn;
+    private long appendedBytes;
+    private long forces;
+    private IOException failure;
+    private boolean closed;
+    private final Thread flusher;
+
+    private WriteAheadLog(Path directory, int segmentBytes, long lastLsn) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.lastLsn = lastLsn;
+        this.durableLsn = lastLsn;
+        this.flusher = new Thread(this::flushLoop, "embedded-wal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Replays the records after {@code afterLsn} and opens the log for appending.
+     * Replay stops at the first record that is incomplete or fails its checksum:
+     * such a record was being written when the process stopped and was never
+     * reported as durable. Appending resumes in a new segment, so nothing of the
+     * torn tail can be read back as a valid record later.
+     */
+    static WriteAheadLog open(Path directory, int segmentBytes, long afterLsn, RecordHandler handler)
+            throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must exceed " + HEADER_BYTES + " bytes");
+        }
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> existing = listSegments(directory);
+
+        long next = afterLsn + 1;
+        if (!existing.isEmpty() && existing.firstKey() > next) {
+            throw new IllegalStateException("Log records " + next + " to " + (existing.firstKey() - 1)
+                    + " are missing from " + directory);
+        }
+        Long expected = null;
+        for (Map.Entry<Long, Path> segment : existing.entrySet()) {
+            if (expected != null && segment.getKey().longValue() != expected) {
+                throw new IllegalStateException("Log segment " + segment.getValue()
+                        + " does not follow record " + (expected - 1));
+            }
+            expected = replaySegment(segment.getValue(), segment.getKey(), afterLsn, handler);
+        }
+        long lastLsn = expected != null ? Math.max(expected - 1, afterLsn) : afterLsn;
+
+        WriteAheadLog wal = new WriteAheadLog(directory, segmentBytes, lastLsn);
+        wal.segments.putAll(existing);
+        wal.startSegment(lastLsn + 1);
+        wal.flusher.start();
+        return wal;
+    }
+
+    /** Copies a record into the log and returns its sequence number; see {@link #awaitDurable}. */
+    synchronized long append(byte[] payload) throws IOException {
+        checkOpen();
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("A log record of " + recordBytes
+                    + " bytes does not fit in a segment of " + segmentBytes);
+        }
+        if (buffer.remaining() < recordBytes) {
+            // The full segment is forced here, so the flusher only ever forces the current one.
+            buffer.force();
+            channel.close();
+            startSegment(lastLsn + 1);
+        }
+        long lsn = lastLsn + 1;
+        int start = buffer.position();
+        buffer.putInt(payload.length);
+        buffer.putInt(0);
+        buffer.putLong(lsn);
+        buffer.put(payload);
+        buffer.putInt(start + 4, checksum(buffer, start, payload.length));
+        lastLsn = lsn;
+        appendedBytes += recordBytes;
+        notifyAll();
+        return lsn;
+    }
+
+    /** Blocks until the record with this sequence number, and all before it, are on disk. */
+    synchronized void awaitDurable(long lsn) throws IOException {
+        while (durableLsn < lsn) {
+            if (failure != null) {
+                throw new IOException("Writing the log failed", failure);
+            }
+            if (closed && !flusher.isAlive()) {
+                throw new IOException("The log was closed before record " + lsn + " was written");
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for record " + lsn, e);
+            }
+        }
+    }
+
+    synchronized long lastLsn() {
+        return lastLsn;
+    }
+
+    synchronized long appendedBytes() {
+        return appendedBytes;
+    }
+
+    synchronized long forces() {
+        return forces;
+    }
+
+    /** Deletes the segments that only hold records up to {@code lsn}, once a snapshot covers them. */
+    synchronized int truncate(long lsn) throws IOException {
+        List<Long> obsolete = new ArrayList<>();
+        Long previous = null;
+        for (Long first : segments.keySet()) {
+            if (previous != null && first <= lsn + 1) {
+                obsolete.add(previous);
+            }
+            previous = first;
+        }
+        for (Long first : obsolete) {
+            Files.deleteIfExists(segments.remove(first));
+        }
+        if (!obsolete.isEmpty()) {
+            syncDirectory(directory);
+        }
+        return obsolete.size();
+    }
+
+    /** Waits for everything appended to be forced, then stops the flusher. */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long upTo;
+            synchronized (this) {
+                while (!closed && durableLsn == lastLsn && failure == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (durableLsn == lastLsn || failure != null) {
+                    return;
+                }
+                target = buffer;
+                upTo = lastLsn;
+            }
+            try {
+                target.force();
+            } catch (UncheckedIOException e) {
+                log.error("Could not force the embedded storage log to disk", e);
+                synchronized (this) {
+                    failure = e.getCause();
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                durableLsn = Math.max(durableLsn, upTo);
+                forces++;
+                notifyAll();
+            }
+        }
+    }
+
+    private void startSegment(long firstLsn) throws IOException {
+        Path file = directory.resolve(segmentName(firstLsn));
+        // A segment of this name holds no valid record: replay ended before its first one.
+        Files.deleteIfExists(file);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segments.put(firstLsn, file);
+        syncDirectory(directory);
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The log is closed");
+        }
+        if (failure != null) {
+            throw new IOException("Writing the log failed", failure);
+        }
+    }
+
+    // Returns the sequence number the next segment must start with.
+    private static long replaySegment(Path file, long firstLsn, long afterLsn, RecordHandler handler)
+            throws IOException {
+        try (FileChannel segment = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer records = segment.map(FileChannel.MapMode.READ_ONLY, 0, segment.size());
+            long lsn = firstLsn;
+            int position = 0;
+            while (position + HEADER_BYTES <= records.limit()) {
+                int length = records.getInt(position);
+                if (length <= 0 || length > records.limit() - position - HEADER_BYTES
+                        || records.getLong(position + 8) != lsn
+                        || records.getInt(position + 4) != checksum(records, position, length)) {
+                    break;
+                }
+                if (lsn > afterLsn) {
+                    byte[] payload = new byte[length];
+                    records.get(position + HEADER_BYTES, payload);
+                    handler.accept(lsn, payload);
+                }
+                position += HEADER_BYTES + length;
+                lsn++;
+            }
+            return lsn;
+        }
+    }
+
+    private static int checksum(ByteBuffer records, int recordStart, int payloadLength) {
+        CRC32C crc = new CRC32C();
+        crc.update(records.slice(recordStart + 8, 8 + payloadLength));
+        return (int) crc.getValue();
+    }
+
+    private static TreeMap<Long, Path> listSegments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.put(Long.parseLong(name, SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length(), 10), file);
+                }
+            });
+        }
+        return segments;
+    }
+
+    private static String segmentName(long firstLsn) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,49 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account_deletion_jobs",
+        indexes = @Index(name = "idx_account_deletion_status", columnList = "status, requested_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDeletionJob {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private long tasksDeleted;
+
+    @Column(nullable = false)
+    private long historyDeleted;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING,
+        COMPLETED
+    }
+}
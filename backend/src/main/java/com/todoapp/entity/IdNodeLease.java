@@ -0,0 +1,32 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The instance currently holding a node id. Written with update and insert
+ * statements by NodeIdLease; mapped so the schema is validated.
+ */
+@Entity
+@Table(name = "id_node_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdNodeLease {
+
+    @Id
+    @Column(name = "node_id")
+    private Integer nodeId;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "renewed_at", nullable = false)
+    private LocalDateTime renewedAt;
+}
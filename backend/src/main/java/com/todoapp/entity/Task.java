@@ -1,45 +1,164 @@
 package com.todoapp.entity;
 
+import com.todoapp.id.ClientAssignedId;
+import com.todoapp.id.TimeOrderedId;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "tasks")
+// One (user_id, column) and one (user_id, status, column) index per supported sort;
+// see TaskSpecifications.
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_sort_key", columnList = "user_id, sort_key"),
+        @Index(name = "idx_tasks_user_status_sort_key", columnList = "user_id, status, sort_key"),
+        @Index(name = "idx_tasks_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_tasks_user_status_created", columnList = "user_id, status, created_at"),
+        @Index(name = "idx_tasks_user_updated", columnList = "user_id, updated_at"),
+        @Index(name = "idx_tasks_user_status_updated", columnList = "user_id, status, updated_at"),
+        @Index(name = "idx_tasks_user_name", columnList = "user_id, name"),
+        @Index(name = "idx_tasks_user_status_name", columnList = "user_id, status, name"),
+        @Index(name = "idx_tasks_reminder_due", columnList = "reminder_sent_at, due_at"),
+        @Index(name = "idx_tasks_user_tree_path", columnList = "user_id, tree_path"),
+        @Index(name = "idx_tasks_list", columnList = "list_id, id"),
+        @Index(name = "idx_tasks_sort_key_length", columnList = "sort_key_length, user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Task {
+public class Task implements ClientAssignedId {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
+    // Id chosen by an offline client, used by the generator instead of a new one.
+    @Transient
+    private Long requestedId;
+
     @Column(nullable = false, length = 255)
     private String name;
 
-    @Column(columnDefinition = "TEXT")
-    private String description;
+    // Read and written through getDescription/setDescription; the row is only
+    // loaded when the description is used.
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "description_id")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private TaskDescription storedDescription;
 
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private TaskStatus status;
 
+    @Column(name = "sort_key", length = 255)
+    private String position;
+
+    // Kept equal to the length of position so TaskPositionRebalancer finds long
+    // keys from idx_tasks_sort_key_length rather than by reading every row.
+    @Column(name = "sort_key_length")
+    @Setter(AccessLevel.NONE)
+    private Integer positionLength;
+
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"),
+            indexes = @Index(name = "idx_task_tags_tag", columnList = "tag"))
+    @Column(name = "tag", nullable = false, length = 50)
+    @BatchSize(size = 100)
+    @Builder.Default
+    private Set<String> tags = new HashSet<>();
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Shared list the task belongs to, set on creation; the task stays owned by user.
+    @Column(name = "list_id")
+    private Long listId;
+
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Ancestor ids from the root: "/" for a top-level task, "/12/45/" for a
+    // child of 45 under 12. A subtree is a prefix range on this column.
+    @Column(name = "tree_path", nullable = false, length = 255)
+    @Builder.Default
+    private String treePath = "/";
+
+    @Column(name = "tree_depth", nullable = false)
+    private int treeDepth;
+
+    // Maintained along the tree path when subtasks are added, toggled or deleted.
+    @Column(name = "descendant_count", nullable = false)
+    private int descendantCount;
+
+    @Column(name = "completed_descendant_count", nullable = false)
+    private int completedDescendantCount;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    public String getDescription() {
+        return storedDescription != null ? storedDescription.getText() : null;
+    }
+
+    public void setDescription(String description) {
+        if (description == null) {
+            storedDescription = null;
+        } else if (storedDescription == null) {
+            storedDescription = TaskDescription.builder().text(description).build();
+        } else if (!description.equals(storedDescription.getText())) {
+            storedDescription.setText(description);
+        }
+    }
+
+    public List<Long> ancestorIds() {
+        List<Long> ids = new ArrayList<>(treeDepth);
+        int start = 1;
+        for (int end = treePath.indexOf('/', start); end > 0; end = treePath.indexOf('/', start)) {
+            ids.add(Long.parseLong(treePath, start, end, 10));
+            start = end + 1;
+        }
+        return ids;
+    }
+
+    // Tree path of this task's children, and the LIKE prefix of its subtree.
+    public String childTreePath() {
+        return treePath + id + "/";
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -47,11 +166,26 @@ public class Task {
         if (status == null) {
             status = TaskStatus.PENDING;
         }
+        if (treePath == null) {
+            treePath = "/";
+        }
+        positionLength = position != null ? position.length() : null;
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        positionLength = position != null ? position.length() : null;
+    }
+
+    public static class TaskBuilder {
+
+        public TaskBuilder description(String description) {
+            this.storedDescription = description != null
+                    ? TaskDescription.builder().text(description).build()
+                    : null;
+            return this;
+        }
     }
 
     public enum TaskStatus {
@@ -0,0 +1,47 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Tasks created and completed by one user on one day. Written with plain SQL
+ * by TaskStatsService; mapped so the schema is validated.
+ */
+@Entity
+@Table(name = "task_daily_stats")
+@IdClass(TaskDailyStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskDailyStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private int created;
+
+    @Column(nullable = false)
+    private int completed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long userId;
+        private LocalDate statDate;
+    }
+}
@@ -0,0 +1,38 @@
+package com.todoapp.entity;
+
+import com.todoapp.description.TaskDescriptionCodec;
+import com.todoapp.id.TimeOrderedId;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+
+/**
+ * Description of a task, stored in its own table and referenced from
+ * {@link Task} as a lazy association, so loading a task does not read the
+ * description until something asks for it. Long descriptions are compressed
+ * by {@link TaskDescriptionCodec}.
+ */
+@Entity
+@Table(name = "task_descriptions")
+@BatchSize(size = 100)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskDescription {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Convert(converter = TaskDescriptionCodec.class)
+    @Column(name = "content", nullable = false, columnDefinition = "BLOB")
+    private String text;
+}
@@ -0,0 +1,66 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a task. Rows are inserted in batches by TaskHistoryWriter
+ * through JDBC; this mapping is only used to read them back.
+ */
+@Entity
+@Table(name = "task_history", indexes = {
+        @Index(name = "idx_task_history_task", columnList = "task_id, id"),
+        @Index(name = "idx_task_history_user", columnList = "user_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Who made the change; the owner in user_id, or a member of a shared list.
+    // Null for entries written before it was recorded.
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 30)
+    private Action action;
+
+    @Column(length = 500)
+    private String oldValue;
+
+    @Column(length = 500)
+    private String newValue;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Action {
+        CREATED,
+        RENAMED,
+        STATUS_CHANGED,
+        DESCRIPTION_CHANGED,
+        DUE_DATE_CHANGED,
+        TAGS_CHANGED,
+        DELETED
+    }
+}
@@ -0,0 +1,34 @@
+package com.todoapp.entity;
+
+import com.todoapp.id.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task id handed out by POST /tasks/ids and not used yet. The id comes from
+ * the same source as task ids, so it can never belong to another task.
+ */
+@Entity
+@Table(name = "task_id_reservations",
+        indexes = @Index(name = "idx_task_id_reservations_reserved_at", columnList = "reserved_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskIdReservation {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "reserved_at", nullable = false)
+    private LocalDateTime reservedAt;
+}
@@ -0,0 +1,35 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row rejected by a bulk import. Rows are inserted in batches through JDBC;
+ * this mapping is only used to read them back.
+ */
+@Entity
+@Table(name = "task_import_errors",
+        indexes = @Index(name = "idx_task_import_errors_job", columnList = "job_id, record_number"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    // 1-based position of the row among the data rows (CSV) or objects (JSON).
+    @Column(name = "record_number", nullable = false)
+    private long recordNumber;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+}
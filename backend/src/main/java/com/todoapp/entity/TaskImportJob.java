@@ -0,0 +1,82 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk task import. The id is assigned before the upload is spooled, so the
+ * spool file is named after it. Progress is updated through JDBC by
+ * TaskImportService in the same transaction as each chunk of tasks.
+ */
+@Entity
+@Table(name = "task_import_jobs", indexes = {
+        @Index(name = "idx_task_import_jobs_status", columnList = "status, id"),
+        @Index(name = "idx_task_import_jobs_user", columnList = "user_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportJob {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 10)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "spool_file", nullable = false, length = 255)
+    private String spoolFile;
+
+    @Column(nullable = false)
+    private long uploadedBytes;
+
+    @Column(nullable = false)
+    private long rowsProcessed;
+
+    @Column(nullable = false)
+    private long rowsImported;
+
+    @Column(nullable = false)
+    private long rowsFailed;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,50 @@
+package com.todoapp.entity;
+
+import com.todoapp.id.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A list shared by its members. Tasks keep their creator as owner and point
+ * here through {@code Task.listId}; who may see them is in TaskListMember.
+ */
+@Entity
+@Table(name = "task_lists")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskList {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "created_by", nullable = false)
+    private Long createdBy;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,67 @@
+package com.todoapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "task_list_members",
+        indexes = @Index(name = "idx_task_list_members_user", columnList = "user_id, list_id"))
+@IdClass(TaskListMember.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskListMember {
+
+    @Id
+    @Column(name = "list_id")
+    private Long listId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
+    private Role role;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long listId;
+        private Long userId;
+    }
+
+    // Each role can do everything the ones before it can.
+    public enum Role {
+        // Reads the list and its tasks.
+        VIEWER,
+        // Also creates, edits, toggles and deletes the list's tasks.
+        EDITOR,
+        // Also renames and deletes the list and manages its members.
+        OWNER;
+
+        public boolean allows(Role required) {
+            return compareTo(required) >= 0;
+        }
+    }
+}
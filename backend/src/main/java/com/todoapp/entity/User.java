@@ -1,5 +1,6 @@
 package com.todoapp.entity;
 
+import com.todoapp.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,7 +23,7 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, unique = true, length = 100)
@@ -34,15 +35,18 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String password;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Task> tasks;
-
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Set when the account deletion is requested; the row is removed once its data is purged.
+    private LocalDateTime deletedAt;
+
+    // Set once the daily task stats have been rebuilt from the tasks table.
+    private LocalDateTime statsRebuiltAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
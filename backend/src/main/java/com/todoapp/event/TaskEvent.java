@@ -0,0 +1,33 @@
+package com.todoapp.event;
+
+import com.todoapp.dto.TaskDTO;
+
+/**
+ * Published by TaskService for every task mutation. {@code before} is null for
+ * creations and {@code after} is null for deletions. Deletions carry the task
+ * without its description; subtasks deleted along with their parent carry only
+ * their id and name. {@code userId} is the task's owner, which caches and
+ * stats are keyed on; {@code actorId} is the user who made the change, a member
+ * of the list for a task in a shared list.
+ */
+public record TaskEvent(Type type, Long userId, Long actorId, Long taskId, TaskDTO before, TaskDTO after) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    // Tasks are owned by whoever creates them, in a shared list too.
+    public static TaskEvent created(Long userId, TaskDTO after) {
+        return new TaskEvent(Type.CREATED, userId, userId, after.getId(), null, after);
+    }
+
+    public static TaskEvent updated(Long userId, Long actorId, TaskDTO before, TaskDTO after) {
+        return new TaskEvent(Type.UPDATED, userId, actorId, after.getId(), before, after);
+    }
+
+    public static TaskEvent deleted(Long userId, Long actorId, TaskDTO before) {
+        return new TaskEvent(Type.DELETED, userId, actorId, before.getId(), before, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.todoapp.history;
+
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.entity.TaskHistory;
+import com.todoapp.event.TaskEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Turns committed task events into history entries, one per changed field.
+ */
+@Component
+public class TaskHistoryRecorder {
+
+    static final int MAX_VALUE_LENGTH = 500;
+
+    @Autowired
+    private TaskHistoryWriter taskHistoryWriter;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        for (TaskHistory entry : toEntries(event, LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS))) {
+            taskHistoryWriter.submit(entry);
+        }
+    }
+
+    static List<TaskHistory> toEntries(TaskEvent event, LocalDateTime occurredAt) {
+        List<TaskHistory> entries = new ArrayList<>();
+        TaskDTO before = event.before();
+        TaskDTO after = event.after();
+
+        switch (event.type()) {
+            case CREATED -> entries.add(entry(event, occurredAt, TaskHistory.Action.CREATED, null, after.getName()));
+            case DELETED -> entries.add(entry(event, occurredAt, TaskHistory.Action.DELETED, before.getName(), null));
+            case UPDATED -> {
+                addIfChanged(entries, event, occurredAt, TaskHistory.Action.RENAMED, before.getName(), after.getName());
+                addIfChanged(entries, event, occurredAt, TaskHistory.Action.STATUS_CHANGED,
+                        before.getStatus(), after.getStatus());
+                addIfChanged(entries, event, occurredAt, TaskHistory.Action.DESCRIPTION_CHANGED,
+                        before.getDescription(), after.getDescription());
+                addIfChanged(entries, event, occurredAt, TaskHistory.Action.DUE_DATE_CHANGED,
+                        Objects.toString(before.getDueAt(), null), Objects.toString(after.getDueAt(), null));
+                addIfChanged(entries, event, occurredAt, TaskHistory.Action.TAGS_CHANGED,
+                        joinTags(before.getTags()), joinTags(after.getTags()));
+            }
+        }
+        return entries;
+    }
+
+    private static void addIfChanged(List<TaskHistory> entries, TaskEvent event, LocalDateTime occurredAt,
+                                     TaskHistory.Action action, String oldValue, String newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            entries.add(entry(event, occurredAt, action, oldValue, newValue));
+        }
+    }
+
+    private static TaskHistory entry(TaskEvent event, LocalDateTime occurredAt, TaskHistory.Action action,
+                                     String oldValue, String newValue) {
+        return TaskHistory.builder()
+                .taskId(event.taskId())
+                .userId(event.userId())
+                .actorId(event.actorId())
+                .action(action)
+                .oldValue(truncate(oldValue))
+                .newValue(truncate(newValue))
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    private static String joinTags(List<String> tags) {
+        return tags == null || tags.isEmpty() ? null : String.join(",", tags);
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_VALUE_LENGTH ? value : value.substring(0, MAX_VALUE_LENGTH);
+    }
+}
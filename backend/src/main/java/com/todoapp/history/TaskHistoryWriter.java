@@ -0,0 +1,176 @@
+package com.todoapp.history;
+
+import com.todoapp.entity.TaskHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes task history off the request path: entries go into a bounded queue
+ * and a single background thread inserts them in JDBC batches. While a batch
+ * is being written the queue keeps filling, so batches grow with load. When
+ * the queue is full, callers write their entries themselves rather than lose
+ * them, which slows them down to what the database takes.
+ */
+@Component
+@Slf4j
+public class TaskHistoryWriter implements SmartLifecycle {
+
+    static final String INSERT_SQL = "INSERT INTO task_history "
+            + "(task_id, user_id, actor_id, action, old_value, new_value, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Stops after the web server, so entries from in-flight requests are flushed.
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.history.offer-timeout-ms:50}")
+    private long offerTimeoutMillis;
+
+    @Value("${app.history.poll-interval-ms:200}")
+    private long pollIntervalMillis;
+
+    @Value("${app.history.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMillis;
+
+    private BlockingQueue<TaskHistory> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Queues an entry and returns true. When the writer falls behind and the
+     * queue is full the caller is held for up to {@code offer-timeout-ms}, after
+     * which it inserts the entry itself and returns false; so does a caller
+     * once the writer has stopped.
+     */
+    public boolean submit(TaskHistory entry) {
+        try {
+            if (running && queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long total = spilled.incrementAndGet();
+        log.debug("Task history queue is full, writing entry for task {} directly ({} so far)", entry.getTaskId(), total);
+        write(List.of(entry));
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::drain, "task-history-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive() || !queue.isEmpty()) {
+            log.warn("Task history writer did not finish in time, {} entries were not written", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public int getQueued() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void drain() {
+        List<TaskHistory> batch = new ArrayList<>(batchSize);
+        // Keeps going after stop() until the queue is empty.
+        while (running || !queue.isEmpty()) {
+            try {
+                TaskHistory first = queue.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TaskHistory> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, entry) -> {
+                statement.setLong(1, entry.getTaskId());
+                statement.setLong(2, entry.getUserId());
+                statement.setObject(3, entry.getActorId(), Types.BIGINT);
+                statement.setString(4, entry.getAction().name());
+                statement.setString(5, entry.getOldValue());
+                statement.setString(6, entry.getNewValue());
+                statement.setTimestamp(7, Timestamp.valueOf(entry.getOccurredAt()));
+            });
+            written.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} task history entries", batch.size(), e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.todoapp.id;
+
+/**
+ * Implemented by entities whose id can be chosen by the client. The requested
+ * id is kept apart from the {@code @Id} field so the entity still counts as new
+ * and is persisted without a merge lookup.
+ */
+public interface ClientAssignedId {
+
+    Long getRequestedId();
+}
@@ -0,0 +1,109 @@
+package com.todoapp.id;
+
+import com.todoapp.entity.IdNodeLease;
+import com.todoapp.repository.IdNodeLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+
+/**
+ * Holds this instance's node id in id_node_leases while it runs. Two instances
+ * with the same node id would hand out the same task ids, so the second one to
+ * start fails instead. A lease not renewed within the ttl, such as that of a
+ * node that crashed, can be taken over, so ids are only handed out until the
+ * ttl has run out since the last renewal, and not at all once the lease is
+ * found to be lost, until it can be taken back.
+ */
+@Component
+@Slf4j
+public class NodeIdLease {
+
+    @Autowired
+    private IdNodeLeaseRepository idNodeLeaseRepository;
+
+    @Autowired
+    private TimeOrderedIdSource idSource;
+
+    @Value("${app.ids.node-id:0}")
+    private int nodeId;
+
+    @Value("${app.ids.lease-ttl-ms:60000}")
+    private long leaseTtlMs;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    private String owner;
+    private volatile boolean leased;
+
+    @PostConstruct
+    public void acquire() {
+        owner = hostName() + ":" + serverPort;
+        if (renew()) {
+            leased = true;
+            log.info("Holding node id {} as {}", nodeId, owner);
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            idNodeLeaseRepository.insert(nodeId, owner, LocalDateTime.now());
+            idSource.leaseUntil(started + leaseTtlMs);
+            leased = true;
+            log.info("Holding node id {} as {}", nodeId, owner);
+        } catch (DataIntegrityViolationException e) {
+            String holder = idNodeLeaseRepository.findById(nodeId)
+                    .map(IdNodeLease::getOwner)
+                    .orElse("another instance");
+            throw new IllegalStateException("Node id " + nodeId + " is in use by " + holder
+                    + "; give every instance sharing the database its own app.ids.node-id (0-15)");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ids.lease-renew-interval-ms:20000}")
+    public void renewLease() {
+        boolean renewed = renew();
+        if (!renewed) {
+            idSource.leaseUntil(0);
+        }
+        if (renewed && !leased) {
+            log.warn("Holding node id {} again; handing out task ids", nodeId);
+        } else if (!renewed && leased) {
+            log.error("Lost the lease on node id {} to another instance; no task ids are handed out until it is back",
+                    nodeId);
+        }
+        leased = renewed;
+    }
+
+    @PreDestroy
+    public void release() {
+        idSource.leaseUntil(0);
+        idNodeLeaseRepository.release(nodeId, owner);
+    }
+
+    private boolean renew() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        boolean renewed = idNodeLeaseRepository.renew(nodeId, owner, now, now.minusNanos(leaseTtlMs * 1_000_000)) > 0;
+        if (renewed) {
+            idSource.leaseUntil(started + leaseTtlMs);
+        }
+        return renewed;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.todoapp.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * The node id comes from the {@code app.ids.node-id} Hibernate property, which
+ * application.yml passes through from the setting of the same name.
+ */
+public class TimeOrderedIdGenerator implements IdentifierGenerator {
+
+    static final String NODE_ID_PROPERTY = "app.ids.node-id";
+
+    private volatile TimeOrderedIdSource source;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (object instanceof ClientAssignedId assigned && assigned.getRequestedId() != null) {
+            return assigned.getRequestedId();
+        }
+        return source(session).nextId();
+    }
+
+    private TimeOrderedIdSource source(SharedSessionContractImplementor session) {
+        TimeOrderedIdSource current = source;
+        if (current == null) {
+            Object node = session.getFactory().getProperties().get(NODE_ID_PROPERTY);
+            current = TimeOrderedIdSource.forNode(node != null ? Integer.parseInt(node.toString()) : 0);
+            source = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,95 @@
+package com.todoapp.id;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 53-bit ids made of 41 bits of milliseconds since 2024-01-01, a 4-bit node
+ * id and an 8-bit sequence. They sort by creation time, fit in a JavaScript
+ * number, and are far above the ids the old AUTO_INCREMENT columns produced,
+ * so existing rows keep their ids and new ones still sort after them.
+ */
+public class TimeOrderedIdSource {
+
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final long MAX_ID = (1L << 53) - 1;
+
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final long MAX_MILLIS = (1L << 41) - 1;
+
+    private static final ConcurrentMap<Integer, TimeOrderedIdSource> SOURCES = new ConcurrentHashMap<>();
+
+    private final int node;
+    private final LongSupplier clock;
+
+    private long lastMillis = -1;
+    private int sequence;
+    // Without a NodeIdLease, as in tests, ids are handed out for good.
+    private volatile long leaseDeadlineMillis = Long.MAX_VALUE;
+
+    TimeOrderedIdSource(int node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the JVM-wide source of a node, shared by the Hibernate generators
+     * and the id reservation endpoint so they never hand out the same id.
+     */
+    public static TimeOrderedIdSource forNode(int node) {
+        return SOURCES.computeIfAbsent(node, n -> new TimeOrderedIdSource(n, System::currentTimeMillis));
+    }
+
+    /**
+     * Hands out ids only until {@code deadlineMillis}, after which another
+     * instance may take over the node id; 0 stops them at once. NodeIdLease
+     * moves the deadline on with every renewal of its lease.
+     */
+    public void leaseUntil(long deadlineMillis) {
+        leaseDeadlineMillis = deadlineMillis;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now >= leaseDeadlineMillis) {
+            throw new IllegalStateException("Node id " + node
+                    + " is not leased to this instance; no ids are handed out until the lease is renewed");
+        }
+        // Never goes back in time, even if the wall clock does.
+        long millis = Math.max(now - EPOCH_MILLIS, lastMillis);
+        if (millis == lastMillis) {
+            if (++sequence > MAX_SEQUENCE) {
+                millis++;
+                sequence = 0;
+            }
+        } else {
+            sequence = 0;
+        }
+        if (millis > MAX_MILLIS) {
+            throw new IllegalStateException("Time-ordered id space exhausted");
+        }
+        lastMillis = millis;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | ((long) node << SEQUENCE_BITS) | sequence;
+    }
+
+    public synchronized long[] nextIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
+
+    public static long timestampMillis(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
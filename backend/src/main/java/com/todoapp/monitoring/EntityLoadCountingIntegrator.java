@@ -0,0 +1,53 @@
+package com.todoapp.monitoring;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Counts entities hydrated and lazy collections initialized in the current
+ * request, which is what a stray association access in a DTO mapper shows up as.
+ */
+public class EntityLoadCountingIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, new EntityLoadListener());
+        registry.appendListeners(EventType.INIT_COLLECTION, new CollectionLoadListener());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private static class EntityLoadListener implements PostLoadEventListener {
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            RequestQueryStats stats = QueryCounter.current();
+            if (stats != null) {
+                stats.recordEntityLoad();
+            }
+        }
+    }
+
+    private static class CollectionLoadListener implements InitializeCollectionEventListener {
+
+        @Override
+        public void onInitializeCollection(InitializeCollectionEvent event) {
+            RequestQueryStats stats = QueryCounter.current();
+            if (stats != null) {
+                stats.recordCollectionLoad();
+            }
+        }
+    }
+}
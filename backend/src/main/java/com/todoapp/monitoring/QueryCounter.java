@@ -0,0 +1,27 @@
+package com.todoapp.monitoring;
+
+/**
+ * Binds a {@link RequestQueryStats} to the current thread for the duration of a
+ * request. Work done outside a request, such as scheduled jobs, is not counted.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,15 @@
+package com.todoapp.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = QueryCounter.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
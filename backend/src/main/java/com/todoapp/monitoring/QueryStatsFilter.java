@@ -0,0 +1,67 @@
+package com.todoapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ENTITY_LOADS_HEADER = "X-Entity-Load-Count";
+    public static final String COLLECTION_LOADS_HEADER = "X-Collection-Load-Count";
+    public static final String REPEATED_STATEMENT_HEADER = "X-Repeated-Query-Count";
+
+    private final boolean exposeHeaders;
+    private final int warnThreshold;
+    private final int repeatThreshold;
+
+    public QueryStatsFilter(boolean exposeHeaders, int warnThreshold, int repeatThreshold) {
+        this.exposeHeaders = exposeHeaders;
+        this.warnThreshold = warnThreshold;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = QueryCounter.start();
+        // Headers have to be set before the body is committed, so the body is
+        // buffered only when they are requested.
+        ContentCachingResponseWrapper buffered = exposeHeaders ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            QueryCounter.stop();
+            report(request, stats);
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+                buffered.setHeader(ENTITY_LOADS_HEADER, Integer.toString(stats.getEntityLoads()));
+                buffered.setHeader(COLLECTION_LOADS_HEADER, Integer.toString(stats.getCollectionLoads()));
+                buffered.setHeader(REPEATED_STATEMENT_HEADER, Integer.toString(stats.getMostRepeatedCount()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestQueryStats stats) {
+        if (stats.getStatements() == 0) {
+            return;
+        }
+        if (stats.getMostRepeatedCount() >= repeatThreshold) {
+            log.warn("Possible N+1 on {} {}: statement ran {} times: {}", request.getMethod(),
+                    request.getServletPath(), stats.getMostRepeatedCount(), stats.getMostRepeatedStatement());
+        }
+        if (stats.getStatements() > warnThreshold) {
+            log.warn("{} {} used {}", request.getMethod(), request.getServletPath(), stats);
+        } else {
+            log.debug("{} {} used {}", request.getMethod(), request.getServletPath(), stats);
+        }
+    }
+}
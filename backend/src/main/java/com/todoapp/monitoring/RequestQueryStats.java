@@ -0,0 +1,69 @@
+package com.todoapp.monitoring;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC statements and entity loads made while serving one request. Statements
+ * are counted as Hibernate prepares them, so a JDBC batch counts once.
+ */
+@Getter
+public class RequestQueryStats {
+
+    private int statements;
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private int entityLoads;
+    private int collectionLoads;
+
+    private String mostRepeatedStatement;
+    private int mostRepeatedCount;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    void recordStatement(String sql) {
+        statements++;
+        String trimmed = sql.stripLeading();
+        if (startsWith(trimmed, "select") || startsWith(trimmed, "with")) {
+            selects++;
+        } else if (startsWith(trimmed, "insert")) {
+            inserts++;
+        } else if (startsWith(trimmed, "update")) {
+            updates++;
+        } else if (startsWith(trimmed, "delete")) {
+            deletes++;
+        }
+
+        // The same SQL text run over and over in one request is the signature of
+        // an N+1: one lazy load per row of a list that was already fetched.
+        int count = executions.merge(sql, 1, Integer::sum);
+        if (count > mostRepeatedCount) {
+            mostRepeatedCount = count;
+            mostRepeatedStatement = sql;
+        }
+    }
+
+    void recordEntityLoad() {
+        entityLoads++;
+    }
+
+    void recordCollectionLoad() {
+        collectionLoads++;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements (" + selects + " select, " + inserts + " insert, " + updates + " update, "
+                + deletes + " delete), " + entityLoads + " entities, " + collectionLoads + " collections";
+    }
+
+    private static boolean startsWith(String sql, String keyword) {
+        return sql.regionMatches(true, 0, keyword, 0, keyword.length());
+    }
+}
@@ -0,0 +1,126 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints the top latency contributors in a recording: the application events
+ * grouped by route, statement, transaction or operation and ranked by total
+ * time, followed by the most sampled methods.
+ *
+ * <pre>
+ * java -cp target/classes com.todoapp.profiling.JfrSummary recording.jfr [top]
+ * </pre>
+ */
+public final class JfrSummary {
+
+    private static final String APP_EVENT_PREFIX = "com.todoapp.";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private JfrSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JfrSummary <recording.jfr> [top]");
+            System.exit(1);
+        }
+        System.out.print(summarize(Path.of(args[0]), args.length > 1 ? Integer.parseInt(args[1]) : 15));
+    }
+
+    public static String summarize(Path recording, int top) throws IOException {
+        Map<String, Stat> stats = new HashMap<>();
+        Map<String, Integer> samples = new HashMap<>();
+        int sampleCount = 0;
+
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            String type = event.getEventType().getName();
+            if (type.startsWith(APP_EVENT_PREFIX)) {
+                String key = event.getEventType().getLabel() + " " + key(event);
+                stats.computeIfAbsent(key, k -> new Stat()).add(event.getDuration());
+            } else if (type.equals("jdk.ExecutionSample")) {
+                RecordedStackTrace stackTrace = event.getStackTrace();
+                if (stackTrace != null && !stackTrace.getFrames().isEmpty()) {
+                    RecordedFrame frame = stackTrace.getFrames().get(0);
+                    samples.merge(frame.getMethod().getType().getName() + "." + frame.getMethod().getName(), 1,
+                            Integer::sum);
+                    sampleCount++;
+                }
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-10s %10s %10s %10s %10s  %s%n",
+                "count", "total ms", "p50 ms", "p99 ms", "max ms", "event"));
+        stats.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Stat> entry) -> entry.getValue().totalNanos).reversed())
+                .limit(top)
+                .forEach(entry -> {
+                    Stat stat = entry.getValue();
+                    out.append(String.format(Locale.ROOT, "%-10d %10.1f %10.2f %10.2f %10.2f  %s%n",
+                            stat.durations.size(), millis(stat.totalNanos), millis(stat.percentile(50)),
+                            millis(stat.percentile(99)), millis(stat.percentile(100)), entry.getKey()));
+                });
+
+        if (sampleCount > 0) {
+            out.append(String.format(Locale.ROOT, "%nTop sampled methods (%d samples)%n", sampleCount));
+            int total = sampleCount;
+            samples.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(top)
+                    .forEach(entry -> out.append(String.format(Locale.ROOT, "%6.1f%%  %s%n",
+                            100.0 * entry.getValue() / total, entry.getKey())));
+        }
+        return out.toString();
+    }
+
+    private static String key(RecordedEvent event) {
+        String key = switch (event.getEventType().getName()) {
+            case "com.todoapp.Request" -> event.getString("method") + " " + event.getString("route");
+            case "com.todoapp.SqlStatement" -> event.getString("sql");
+            case "com.todoapp.TransactionCommit" -> event.getString("transaction")
+                    + (event.getBoolean("rolledBack") ? " (rollback)" : "");
+            case "com.todoapp.PasswordHash" -> event.getString("operation");
+            case "com.todoapp.JwtVerification" -> event.getBoolean("valid") ? "valid" : "invalid";
+            default -> "";
+        };
+        if (key == null) {
+            return "";
+        }
+        key = key.replaceAll("\\s+", " ");
+        return key.length() <= MAX_KEY_LENGTH ? key : key.substring(0, MAX_KEY_LENGTH) + "...";
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Stat {
+
+        private final List<Long> durations = new ArrayList<>();
+        private long totalNanos;
+
+        private void add(Duration duration) {
+            durations.add(duration.toNanos());
+            totalNanos += duration.toNanos();
+        }
+
+        private long percentile(int percentile) {
+            durations.sort(null);
+            int index = (int) Math.ceil(percentile / 100.0 * durations.size()) - 1;
+            return durations.get(Math.max(0, index));
+        }
+    }
+}
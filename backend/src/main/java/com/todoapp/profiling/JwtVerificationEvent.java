@@ -0,0 +1,20 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.todoapp.JwtVerification")
+@Label("JWT Verification")
+@Category({"TaskFlow", "Security"})
+@StackTrace(false)
+public class JwtVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Valid")
+    boolean valid;
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+}
@@ -0,0 +1,17 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.todoapp.PasswordHash")
+@Label("Password Hash")
+@Category({"TaskFlow", "Security"})
+@StackTrace(false)
+public class PasswordHashEvent extends jdk.jfr.Event {
+
+    // encode or matches
+    @Label("Operation")
+    String operation;
+}
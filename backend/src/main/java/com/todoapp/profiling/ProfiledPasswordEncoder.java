@@ -0,0 +1,41 @@
+package com.todoapp.profiling;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class ProfiledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public ProfiledPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            event.operation = "encode";
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            event.operation = "matches";
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
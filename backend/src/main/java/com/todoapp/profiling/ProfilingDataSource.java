@@ -0,0 +1,128 @@
+package com.todoapp.profiling;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Wraps connections so that every statement execution emits a
+ * {@link SqlStatementEvent}. The proxies pass everything else straight
+ * through, including {@code unwrap}, so pool and driver specific code keeps
+ * working.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    public ProfilingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    // Proxies are equal only to themselves, as pools and Hibernate expect of connections.
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Profiling" + target;
+            };
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(proxy, target, method, args);
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private int batched;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batched++;
+            } else if (name.equals("clearBatch")) {
+                batched = 0;
+            }
+            if (!name.startsWith("execute")) {
+                return ProfilingDataSource.invoke(proxy, target, method, args);
+            }
+
+            SqlStatementEvent event = new SqlStatementEvent();
+            event.begin();
+            try {
+                return ProfilingDataSource.invoke(proxy, target, method, args);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                    event.sql = sql == null || sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH);
+                    event.operation = operation(sql);
+                    event.batchSize = name.contains("Batch") ? batched : 0;
+                    event.commit();
+                }
+                if (name.contains("Batch")) {
+                    batched = 0;
+                }
+            }
+        }
+
+        private static String operation(String sql) {
+            if (sql == null) {
+                return "UNKNOWN";
+            }
+            String trimmed = sql.stripLeading();
+            int end = 0;
+            while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+                end++;
+            }
+            return trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.todoapp.profiling;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Emits a {@link TransactionCommitEvent} for every commit and rollback; the
+ * commit is where InnoDB flushes the redo log, so it shows up apart from the
+ * statements that preceded it.
+ */
+public class ProfilingJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        TransactionCommitEvent event = begin(status);
+        try {
+            super.doCommit(status);
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        TransactionCommitEvent event = begin(status);
+        event.rolledBack = true;
+        try {
+            super.doRollback(status);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private static TransactionCommitEvent begin(DefaultTransactionStatus status) {
+        TransactionCommitEvent event = new TransactionCommitEvent();
+        event.transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        event.readOnly = status.isReadOnly();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,87 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes time-boxed Flight Recorder recordings on demand. One recording at a
+ * time: JFR can run several, but two overlapping on-demand captures would
+ * only measure each other.
+ */
+@Service
+@Slf4j
+public class ProfilingService {
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(RequestEvent.class,
+            JwtVerificationEvent.class, PasswordHashEvent.class, SqlStatementEvent.class,
+            TransactionCommitEvent.class);
+
+    @Value("${app.profiling.max-duration-seconds:300}")
+    private int maxDurationSeconds;
+
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    /**
+     * Records for {@code duration} with the JDK's "default" (about 1% overhead)
+     * or "profile" settings and returns the .jfr file contents.
+     */
+    public byte[] record(Duration duration, String settings) {
+        if (duration.isNegative() || duration.isZero() || duration.getSeconds() > maxDurationSeconds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        if (!settings.equals("default") && !settings.equals("profile")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "settings must be default or profile");
+        }
+        if (!recording.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A recording is already running");
+        }
+
+        Path file = null;
+        try (Recording jfr = new Recording(Configuration.getConfiguration(settings))) {
+            jfr.setName("todo-api-on-demand");
+            for (Class<? extends Event> event : EVENTS) {
+                jfr.enable(event).withThreshold(Duration.ZERO);
+            }
+            log.info("Starting {} s JFR recording with {} settings", duration.getSeconds(), settings);
+            jfr.start();
+            Thread.sleep(duration.toMillis());
+            jfr.stop();
+
+            file = Files.createTempFile("todo-api-", ".jfr");
+            jfr.dump(file);
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings: " + settings, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Recording interrupted");
+        } finally {
+            recording.set(false);
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", file, e);
+                }
+            }
+        }
+    }
+}
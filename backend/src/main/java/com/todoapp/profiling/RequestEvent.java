@@ -0,0 +1,28 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.todoapp.Request")
+@Label("HTTP Request")
+@Description("A request handled by a task or auth endpoint")
+@Category({"TaskFlow", "Web"})
+@StackTrace(false)
+public class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    // The mapping pattern such as /tasks/{id}, never the concrete path, so no ids end up in the recording.
+    @Label("Route")
+    String route;
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Status")
+    int status;
+}
@@ -0,0 +1,45 @@
+package com.todoapp.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Emits a {@link RequestEvent} around controller handling. Authentication and
+ * the other servlet filters run before {@code preHandle}, so they are not part
+ * of the duration; JWT verification has its own event.
+ */
+public class RequestProfilingInterceptor implements HandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = RequestProfilingInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestEvent event = new RequestEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(EVENT_ATTRIBUTE) instanceof RequestEvent event)) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.getMethod();
+            event.route = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+            event.handler = handler instanceof HandlerMethod method
+                    ? method.getBeanType().getSimpleName() + "." + method.getMethod().getName()
+                    : handler.getClass().getSimpleName();
+            event.status = response.getStatus();
+            event.commit();
+        }
+    }
+}
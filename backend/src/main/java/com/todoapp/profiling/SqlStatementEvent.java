@@ -0,0 +1,21 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.todoapp.SqlStatement")
+@Label("SQL Statement")
+@Category({"TaskFlow", "Database"})
+public class SqlStatementEvent extends jdk.jfr.Event {
+
+    // Statements are prepared with placeholders, so values never appear here.
+    @Label("SQL")
+    String sql;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Batch Size")
+    int batchSize;
+}
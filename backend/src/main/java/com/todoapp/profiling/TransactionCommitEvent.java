@@ -0,0 +1,23 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.todoapp.TransactionCommit")
+@Label("Transaction Commit")
+@Category({"TaskFlow", "Database"})
+@StackTrace(false)
+public class TransactionCommitEvent extends jdk.jfr.Event {
+
+    // The @Transactional method, e.g. com.todoapp.service.TaskService.createTask.
+    @Label("Transaction")
+    String transaction;
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Rolled Back")
+    boolean rolledBack;
+}
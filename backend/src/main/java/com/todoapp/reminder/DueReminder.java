@@ -0,0 +1,6 @@
+package com.todoapp.reminder;
+
+import java.time.LocalDateTime;
+
+public record DueReminder(Long taskId, Long userId, String taskName, LocalDateTime dueAt) {
+}
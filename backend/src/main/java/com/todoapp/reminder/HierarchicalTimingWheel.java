@@ -0,0 +1,152 @@
+package com.todoapp.reminder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel with overflow levels. Scheduling and cancelling are O(1);
+ * entries in the coarser levels are cascaded down as the wheel turns, so each
+ * entry is moved at most once per level before it fires.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int levels;
+    private final List<List<Map<Long, Entry<T>>>> wheels;
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.wheels = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            List<Map<Long, Entry<T>>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new LinkedHashMap<>());
+            }
+            wheels.add(slots);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code payload} under {@code id}, replacing any earlier entry with
+     * the same id. Deadlines in the past fire on the next tick. Returns false when
+     * the deadline lies beyond the span of the wheel.
+     */
+    public synchronized boolean schedule(Long id, long deadlineMillis, T payload) {
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        if (deadlineTick - currentTick >= span(levels)) {
+            cancel(id);
+            return false;
+        }
+        Entry<T> entry = new Entry<>(id, deadlineTick, payload);
+        Entry<T> previous = entries.put(id, entry);
+        if (previous != null) {
+            previous.slot.remove(id);
+        }
+        place(entry);
+        return true;
+    }
+
+    public synchronized boolean cancel(Long id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.slot.remove(id);
+        return true;
+    }
+
+    /**
+     * Turns the wheel up to {@code nowMillis} and returns the payloads that came
+     * due, earliest tick first.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels - 1; level > 0; level--) {
+                if (currentTick % span(level) == 0) {
+                    cascade(level);
+                }
+            }
+            Map<Long, Entry<T>> slot = wheels.get(0).get((int) (currentTick % wheelSize));
+            for (Entry<T> entry : slot.values()) {
+                entries.remove(entry.id);
+                expired.add(entry.payload);
+            }
+            slot.clear();
+        }
+        return expired;
+    }
+
+    public synchronized boolean contains(Long id) {
+        return entries.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long spanMillis() {
+        return span(levels) * tickMillis;
+    }
+
+    private void cascade(int level) {
+        Map<Long, Entry<T>> slot = wheels.get(level).get((int) ((currentTick / span(level)) % wheelSize));
+        List<Entry<T>> moved = new ArrayList<>(slot.values());
+        slot.clear();
+        for (Entry<T> entry : moved) {
+            place(entry);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (delta >= span(level + 1)) {
+            level++;
+        }
+        Map<Long, Entry<T>> slot = wheels.get(level).get((int) ((entry.deadlineTick / span(level)) % wheelSize));
+        slot.put(entry.id, entry);
+        entry.slot = slot;
+    }
+
+    // Number of ticks covered by the first {@code level} wheels.
+    private long span(int level) {
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            span *= wheelSize;
+        }
+        return span;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Entry<T> {
+        private final Long id;
+        private final long deadlineTick;
+        private final T payload;
+        private Map<Long, Entry<T>> slot;
+
+        private Entry(Long id, long deadlineTick, T payload) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+    }
+}
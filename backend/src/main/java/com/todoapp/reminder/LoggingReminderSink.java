@@ -0,0 +1,43 @@
+package com.todoapp.reminder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Slf4j
+public class LoggingReminderSink implements ReminderSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public LoggingReminderSink(ObjectMapper objectMapper, Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public void publish(DueReminder reminder) {
+        log.info("Reminder: task {} for user {} is due at {}", reminder.taskId(), reminder.userId(), reminder.dueAt());
+        if (file == null) {
+            return;
+        }
+        try {
+            String line = objectMapper.writeValueAsString(reminder) + System.lineSeparator();
+            synchronized (this) {
+                Files.writeString(file, line, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reminder", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write reminder to " + file, e);
+        }
+    }
+}
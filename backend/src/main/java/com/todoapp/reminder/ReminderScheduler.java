@@ -0,0 +1,148 @@
+package com.todoapp.reminder;
+
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.entity.Task;
+import com.todoapp.event.TaskEvent;
+import com.todoapp.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keeps the reminders that come due within the next window in a timing wheel
+ * instead of polling the tasks table. The window is topped up periodically and
+ * task events patch the wheel in between. The database stays the source of
+ * truth: a reminder is only sent after its row is claimed with a conditional
+ * update, so stale wheel entries, restarts and other nodes cannot send it twice.
+ */
+@Component
+@Slf4j
+public class ReminderScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final TaskRepository taskRepository;
+    private final ReminderSink reminderSink;
+    private final Clock clock;
+    private final long windowMillis;
+    private final int pageSize;
+    private final HierarchicalTimingWheel<DueReminder> wheel;
+
+    // Reminders due at or before this instant are tracked by the wheel; later ones
+    // are picked up by the next window load. Null until the first load.
+    private volatile LocalDateTime loadedUntil;
+
+    @Autowired
+    public ReminderScheduler(TaskRepository taskRepository, ReminderSink reminderSink,
+                             @Value("${app.reminders.window-ms:3600000}") long windowMillis,
+                             @Value("${app.reminders.page-size:500}") int pageSize) {
+        this(taskRepository, reminderSink, Clock.systemDefaultZone(), windowMillis, pageSize);
+    }
+
+    ReminderScheduler(TaskRepository taskRepository, ReminderSink reminderSink, Clock clock,
+                      long windowMillis, int pageSize) {
+        this.taskRepository = taskRepository;
+        this.reminderSink = reminderSink;
+        this.clock = clock;
+        this.windowMillis = windowMillis;
+        this.pageSize = pageSize;
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, WHEEL_LEVELS, clock.millis());
+        if (windowMillis >= wheel.spanMillis()) {
+            throw new IllegalArgumentException("Reminder window must be shorter than " + wheel.spanMillis() + " ms");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.load-interval-ms:300000}")
+    public synchronized void loadWindow() {
+        LocalDateTime from = loadedUntil;
+        LocalDateTime to = LocalDateTime.now(clock).plus(windowMillis, ChronoUnit.MILLIS);
+        // Publish the new horizon before querying so that a task committed while the
+        // query runs is scheduled by its event even if the query misses it.
+        loadedUntil = to;
+
+        int loaded;
+        if (from == null) {
+            // First load after startup also picks up everything that came due while we were down.
+            loaded = loadPages(pageable -> taskRepository.findPendingRemindersDueBefore(
+                    Task.TaskStatus.PENDING, to, pageable));
+        } else {
+            loaded = loadPages(pageable -> taskRepository.findPendingRemindersDueBetween(
+                    Task.TaskStatus.PENDING, from, to, pageable));
+        }
+        log.debug("Loaded {} reminders due until {}, {} scheduled", loaded, to, wheel.size());
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void fireDueReminders() {
+        if (loadedUntil == null) {
+            loadWindow();
+        }
+        for (DueReminder reminder : wheel.advance(clock.millis())) {
+            send(reminder);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        TaskDTO task = event.after();
+        LocalDateTime horizon = loadedUntil;
+        if (task == null || task.getDueAt() == null || !"PENDING".equals(task.getStatus())
+                || horizon == null || task.getDueAt().isAfter(horizon)) {
+            wheel.cancel(event.taskId());
+            return;
+        }
+        schedule(new DueReminder(task.getId(), event.userId(), task.getName(), task.getDueAt()));
+    }
+
+    public int scheduledCount() {
+        return wheel.size();
+    }
+
+    private int loadPages(Function<Pageable, Slice<DueReminder>> query) {
+        int loaded = 0;
+        Pageable pageable = PageRequest.of(0, pageSize);
+        Slice<DueReminder> page;
+        do {
+            page = query.apply(pageable);
+            page.forEach(this::schedule);
+            loaded += page.getNumberOfElements();
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        return loaded;
+    }
+
+    private void schedule(DueReminder reminder) {
+        long deadline = reminder.dueAt().atZone(clock.getZone()).toInstant().toEpochMilli();
+        wheel.schedule(reminder.taskId(), deadline, reminder);
+    }
+
+    private void send(DueReminder reminder) {
+        LocalDateTime claimedAt = LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+        if (taskRepository.claimReminder(reminder.taskId(), reminder.dueAt(), Task.TaskStatus.PENDING, claimedAt) == 0) {
+            // Already sent, rescheduled, completed or deleted since it was loaded.
+            return;
+        }
+        try {
+            reminderSink.publish(reminder);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish reminder for task: {}, will retry", reminder.taskId(), e);
+            taskRepository.releaseReminder(reminder.taskId(), claimedAt);
+            wheel.schedule(reminder.taskId(), clock.millis() + 60_000, reminder);
+        }
+    }
+}
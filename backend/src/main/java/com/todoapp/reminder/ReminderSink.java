@@ -0,0 +1,10 @@
+package com.todoapp.reminder;
+
+/**
+ * Destination for reminder notifications. Implementations should throw when a
+ * reminder could not be delivered so that it is retried.
+ */
+public interface ReminderSink {
+
+    void publish(DueReminder reminder);
+}
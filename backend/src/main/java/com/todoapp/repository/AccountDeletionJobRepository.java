@@ -0,0 +1,13 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.AccountDeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, Long> {
+
+    List<AccountDeletionJob> findByStatusOrderByRequestedAt(AccountDeletionJob.Status status);
+}
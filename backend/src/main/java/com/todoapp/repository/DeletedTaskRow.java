@@ -0,0 +1,8 @@
+package com.todoapp.repository;
+
+/**
+ * What deleting a task in bulk still needs of it: its id and name for the
+ * deletion event, and its description row, removed after the task.
+ */
+public record DeletedTaskRow(Long id, String name, Long descriptionId) {
+}
@@ -0,0 +1,35 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.IdNodeLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdNodeLeaseRepository extends JpaRepository<IdNodeLease, Integer> {
+
+    // Renews the owner's lease or takes over one that expired; 0 if another owner holds it or there is none.
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdNodeLease l SET l.owner = :owner, l.renewedAt = :now " +
+            "WHERE l.nodeId = :nodeId AND (l.owner = :owner OR l.renewedAt < :expiredBefore)")
+    int renew(@Param("nodeId") Integer nodeId, @Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    // A plain INSERT rather than save, which would merge over another owner's row.
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO id_node_leases (node_id, owner, renewed_at) VALUES (:nodeId, :owner, :now)",
+            nativeQuery = true)
+    int insert(@Param("nodeId") Integer nodeId, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdNodeLease l WHERE l.nodeId = :nodeId AND l.owner = :owner")
+    int release(@Param("nodeId") Integer nodeId, @Param("owner") String owner);
+}
@@ -0,0 +1,45 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    // Takes over a claim whose holder did not finish in time; 0 if another attempt got there first.
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.claimToken = :token, r.claimedAt = :now " +
+            "WHERE r.id = :id AND r.status = :status AND r.claimToken = :previousToken")
+    int reclaim(@Param("id") Long id, @Param("previousToken") String previousToken, @Param("token") String token,
+                @Param("now") LocalDateTime now, @Param("status") IdempotencyRecord.Status status);
+
+    // Runs in the transaction of the request itself; 0 if the claim was taken over meanwhile.
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.statusCode = :statusCode, " +
+            "r.responseBody = :responseBody, r.expiresAt = :expiresAt, r.claimToken = NULL " +
+            "WHERE r.id = :id AND r.claimToken = :token")
+    int complete(@Param("id") Long id, @Param("token") String token, @Param("statusCode") int statusCode,
+                 @Param("responseBody") String responseBody, @Param("expiresAt") LocalDateTime expiresAt,
+                 @Param("status") IdempotencyRecord.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.claimToken = :token")
+    int release(@Param("id") Long id, @Param("token") String token);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,12 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Task;
+
+import java.time.LocalDate;
+
+/**
+ * How many tasks of a set share a status, creation day and completion day;
+ * enough to take the set out of the descendant counters and daily stats.
+ */
+public record TaskDayCount(Task.TaskStatus status, LocalDate createdOn, LocalDate completedOn, long count) {
+}
@@ -0,0 +1,13 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskDescription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskDescriptionRepository extends JpaRepository<TaskDescription, Long> {
+
+    @Query(value = "SELECT COALESCE(SUM(OCTET_LENGTH(content)), 0) FROM task_descriptions", nativeQuery = true)
+    Long sumStoredBytes();
+}
@@ -0,0 +1,13 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
+
+    Slice<TaskHistory> findByTaskIdAndUserIdOrderByIdDesc(Long taskId, Long userId, Pageable pageable);
+}
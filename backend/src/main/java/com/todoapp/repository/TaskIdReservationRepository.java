@@ -0,0 +1,26 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskIdReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TaskIdReservationRepository extends JpaRepository<TaskIdReservation, Long> {
+
+    // Runs in the transaction creating the task; a concurrent create with the same
+    // id waits on the row lock and then finds nothing to delete.
+    @Modifying
+    @Query("DELETE FROM TaskIdReservation r WHERE r.id = :id AND r.userId = :userId")
+    int consume(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TaskIdReservation r WHERE r.reservedAt < :before")
+    int deleteReservedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,13 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskImportError;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskImportErrorRepository extends JpaRepository<TaskImportError, Long> {
+
+    List<TaskImportError> findByJobIdOrderByRecordNumber(Long jobId);
+}
@@ -0,0 +1,37 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskImportJobRepository extends JpaRepository<TaskImportJob, Long> {
+
+    Optional<TaskImportJob> findByIdAndUserId(Long id, Long userId);
+
+    List<TaskImportJob> findByStatusInOrderById(Collection<TaskImportJob.Status> statuses);
+
+    // The node holding a job's spool file marks it as still alive.
+    @Transactional
+    @Modifying
+    @Query("UPDATE TaskImportJob j SET j.updatedAt = :now WHERE j.id IN :ids AND j.status IN :statuses")
+    int touch(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<TaskImportJob.Status> statuses,
+              @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TaskImportJob j SET j.status = :failed, j.errorMessage = :message, j.updatedAt = :now, " +
+            "j.completedAt = :now WHERE j.status IN :statuses AND j.updatedAt < :stalledBefore")
+    int failStalled(@Param("statuses") Collection<TaskImportJob.Status> statuses,
+                    @Param("stalledBefore") LocalDateTime stalledBefore, @Param("failed") TaskImportJob.Status failed,
+                    @Param("message") String message, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,28 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskListMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskListMemberRepository extends JpaRepository<TaskListMember, TaskListMember.Key> {
+
+    // Loads a user's access set for TaskListAccess, on idx_task_list_members_user.
+    List<TaskListMember> findByUserId(Long userId);
+
+    List<TaskListMember> findByListIdOrderByCreatedAt(Long listId);
+
+    Optional<TaskListMember> findByListIdAndUserId(Long listId, Long userId);
+
+    long countByListIdAndRole(Long listId, TaskListMember.Role role);
+
+    @Modifying
+    @Query("DELETE FROM TaskListMember m WHERE m.listId = :listId")
+    int deleteByListId(@Param("listId") Long listId);
+}
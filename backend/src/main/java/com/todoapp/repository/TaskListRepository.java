@@ -0,0 +1,9 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskList;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskListRepository extends JpaRepository<TaskList, Long> {
+}
@@ -1,23 +1,153 @@
 package com.todoapp.repository;
 
 import com.todoapp.entity.Task;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.todoapp.reminder.DueReminder;
+import com.todoapp.tag.TaskStatusRow;
+import com.todoapp.tag.TaskTagRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 import java.util.List;
 import java.util.Optional;
 
+// Declares only what the embedded storage engine also answers, rather than all
+// of JpaRepository; see EmbeddedRepositories.
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    
-    List<Task> findByUserId(Long userId);
-    
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.status = :status")
+public interface TaskRepository extends ListCrudRepository<Task, Long> {
+
+    <S extends Task> S saveAndFlush(S task);
+
+    <S extends Task> List<S> saveAllAndFlush(Iterable<S> tasks);
+
+    Task getReferenceById(Long id);
+
+    void flush();
+
+    // List responses include every description, so list queries join them in
+    // up front; single-task lookups leave the description lazy.
+    @EntityGraph(attributePaths = "storedDescription")
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId ORDER BY t.position, t.id")
+    List<Task> findByUserId(@Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = "storedDescription")
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.status = :status ORDER BY t.position, t.id")
     List<Task> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Task.TaskStatus status);
     
     Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    @EntityGraph(attributePaths = "storedDescription")
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.id IN :ids ORDER BY t.position, t.id")
+    List<Task> findByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") List<Long> ids);
+
+    @EntityGraph(attributePaths = "storedDescription")
+    List<Task> findAll(Specification<Task> spec, Sort sort);
+
+    // A shared list's tasks in creation order, one page at a time on idx_tasks_list.
+    @EntityGraph(attributePaths = "storedDescription")
+    Slice<Task> findByListIdOrderById(Long listId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.listId = NULL WHERE t.listId = :listId")
+    int detachFromList(@Param("listId") Long listId);
+
+    // pathPrefix is a task's childTreePath() followed by '%'.
+    @EntityGraph(attributePaths = "storedDescription")
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.treePath LIKE :pathPrefix " +
+            "AND t.treeDepth <= :maxDepth")
+    List<Task> findSubtree(@Param("userId") Long userId, @Param("pathPrefix") String pathPrefix,
+                           @Param("maxDepth") int maxDepth);
+
+    // Deleting a subtree reads these two and then removes it with detachDescendants
+    // and deleteDescendants, without loading the tasks.
+    @Query("SELECT new com.todoapp.repository.DeletedTaskRow(t.id, t.name, d.id) FROM Task t " +
+            "LEFT JOIN t.storedDescription d WHERE t.user.id = :userId AND t.treePath LIKE :pathPrefix")
+    List<DeletedTaskRow> findDeletedRows(@Param("userId") Long userId, @Param("pathPrefix") String pathPrefix);
+
+    @Query("SELECT new com.todoapp.repository.TaskDayCount(t.status, CAST(t.createdAt AS LocalDate), " +
+            "CAST(t.completedAt AS LocalDate), COUNT(t)) FROM Task t " +
+            "WHERE t.user.id = :userId AND t.treePath LIKE :pathPrefix " +
+            "GROUP BY t.status, CAST(t.createdAt AS LocalDate), CAST(t.completedAt AS LocalDate)")
+    List<TaskDayCount> countDescendantsByDay(@Param("userId") Long userId, @Param("pathPrefix") String pathPrefix);
+
+    // fk_tasks_parent is checked row by row in MySQL, so the subtree is unlinked
+    // before one statement deletes it in whatever order it visits the rows.
+    @Modifying
+    @Query("UPDATE Task t SET t.parentId = NULL WHERE t.user.id = :userId AND t.treePath LIKE :pathPrefix")
+    int detachDescendants(@Param("userId") Long userId, @Param("pathPrefix") String pathPrefix);
+
+    // Hibernate deletes the task_tags rows of the matching tasks first.
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId AND t.treePath LIKE :pathPrefix")
+    int deleteDescendants(@Param("userId") Long userId, @Param("pathPrefix") String pathPrefix);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.descendantCount = t.descendantCount + :descendants, " +
+            "t.completedDescendantCount = t.completedDescendantCount + :completed WHERE t.id IN :ids")
+    int adjustDescendantCounts(@Param("ids") List<Long> ids, @Param("descendants") int descendants,
+                               @Param("completed") int completed);
+
+    @Query("SELECT new com.todoapp.tag.TaskStatusRow(t.id, t.status) FROM Task t WHERE t.user.id = :userId")
+    List<TaskStatusRow> findTaskStatusesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.todoapp.tag.TaskTagRow(t.id, tag) FROM Task t JOIN t.tags tag WHERE t.user.id = :userId")
+    List<TaskTagRow> findTaskTagsByUserId(@Param("userId") Long userId);
     
     long countByUserIdAndStatus(Long userId, Task.TaskStatus status);
+
+    Optional<Task> findFirstByUserIdOrderByPositionDesc(Long userId);
+
+    Optional<Task> findFirstByUserIdAndPositionGreaterThanOrderByPositionAsc(Long userId, String position);
+
+    Optional<Task> findFirstByUserIdAndPositionLessThanOrderByPositionDesc(Long userId, String position);
+
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId " +
+            "ORDER BY CASE WHEN t.position IS NULL THEN 1 ELSE 0 END, t.position, t.id")
+    List<Task> findByUserIdForRebalance(@Param("userId") Long userId);
+
+    // Not an edit of the task, so updated_at is left alone, unlike a save.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.position = :position, t.positionLength = :positionLength WHERE t.id = :id")
+    int updatePosition(@Param("id") Long id, @Param("position") String position,
+                       @Param("positionLength") int positionLength);
+
+    // Tasks from before manual ordering have no key yet and are rebalanced too.
+    @Query("SELECT DISTINCT t.user.id FROM Task t WHERE t.positionLength IS NULL OR t.positionLength > :maxLength")
+    List<Long> findUserIdsNeedingRebalance(@Param("maxLength") int maxLength, Pageable pageable);
+
+    @Query("SELECT new com.todoapp.reminder.DueReminder(t.id, t.user.id, t.name, t.dueAt) FROM Task t " +
+            "WHERE t.reminderSentAt IS NULL AND t.status = :status " +
+            "AND t.dueAt <= :to ORDER BY t.dueAt, t.id")
+    Slice<DueReminder> findPendingRemindersDueBefore(@Param("status") Task.TaskStatus status,
+                                                     @Param("to") LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT new com.todoapp.reminder.DueReminder(t.id, t.user.id, t.name, t.dueAt) FROM Task t " +
+            "WHERE t.reminderSentAt IS NULL AND t.status = :status " +
+            "AND t.dueAt > :from AND t.dueAt <= :to ORDER BY t.dueAt, t.id")
+    Slice<DueReminder> findPendingRemindersDueBetween(@Param("status") Task.TaskStatus status,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.reminderSentAt = :now WHERE t.id = :id AND t.dueAt = :dueAt " +
+            "AND t.reminderSentAt IS NULL AND t.status = :status " +
+            "AND EXISTS (SELECT 1 FROM User u WHERE u.id = t.user.id AND u.deletedAt IS NULL)")
+    int claimReminder(@Param("id") Long id, @Param("dueAt") LocalDateTime dueAt,
+                      @Param("status") Task.TaskStatus status, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.reminderSentAt = NULL WHERE t.id = :id AND t.reminderSentAt = :claimedAt")
+    int releaseReminder(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
 }
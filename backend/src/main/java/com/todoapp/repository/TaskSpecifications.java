@@ -0,0 +1,175 @@
+package com.todoapp.repository;
+
+import com.todoapp.dto.TaskFilter;
+import com.todoapp.entity.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiles a {@link TaskFilter} into a query. Every sort has a composite index
+ * (user_id, sort column) and (user_id, status, sort column) on {@code tasks}, so
+ * a filter is served by an index as long as its only range condition is on the
+ * column it sorts by. {@link #validate} rejects every other combination.
+ */
+public final class TaskSpecifications {
+
+    public enum SortField {
+        POSITION("position"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt"),
+        NAME("name");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortField fromParam(String sort) {
+            if (sort == null) {
+                return POSITION;
+            }
+            for (SortField field : values()) {
+                if (field.property.equalsIgnoreCase(sort)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("sort must be one of createdAt, updatedAt, name or position");
+        }
+    }
+
+    /**
+     * A user's tasks matching a filter. Storage that is not queried through JPA
+     * (the embedded engine) evaluates it with {@link #test} instead.
+     */
+    public record FilterSpecification(Long userId, TaskFilter filter) implements Specification<Task> {
+
+        @Override
+        public Predicate toPredicate(Root<Task> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), status(filter)));
+            }
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedFrom()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getCreatedTo()));
+            }
+            if (filter.getUpdatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), filter.getUpdatedFrom()));
+            }
+            if (filter.getUpdatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("updatedAt"), filter.getUpdatedTo()));
+            }
+            if (filter.getNamePrefix() != null) {
+                predicates.add(cb.like(root.get("name"), escapeLike(filter.getNamePrefix()) + "%", '\\'));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        }
+
+        // Same conditions as toPredicate; the name prefix is case-insensitive like
+        // the MySQL collation of the column.
+        public boolean test(Task task) {
+            if (task.getUser() == null || !userId.equals(task.getUser().getId())) {
+                return false;
+            }
+            if (filter.getStatus() != null && task.getStatus() != status(filter)) {
+                return false;
+            }
+            if (filter.getCreatedFrom() != null && task.getCreatedAt().isBefore(filter.getCreatedFrom())) {
+                return false;
+            }
+            if (filter.getCreatedTo() != null && !task.getCreatedAt().isBefore(filter.getCreatedTo())) {
+                return false;
+            }
+            if (filter.getUpdatedFrom() != null && task.getUpdatedAt().isBefore(filter.getUpdatedFrom())) {
+                return false;
+            }
+            if (filter.getUpdatedTo() != null && !task.getUpdatedAt().isBefore(filter.getUpdatedTo())) {
+                return false;
+            }
+            String prefix = filter.getNamePrefix();
+            return prefix == null || task.getName().regionMatches(true, 0, prefix, 0, prefix.length());
+        }
+    }
+
+    private TaskSpecifications() {
+    }
+
+    public static void validate(TaskFilter filter) {
+        SortField sort = SortField.fromParam(filter.getSort());
+        direction(filter);
+        if (filter.getStatus() != null) {
+            status(filter);
+        }
+
+        boolean createdRange = filter.getCreatedFrom() != null || filter.getCreatedTo() != null;
+        boolean updatedRange = filter.getUpdatedFrom() != null || filter.getUpdatedTo() != null;
+        boolean namePrefix = filter.getNamePrefix() != null;
+        if (createdRange && sort != SortField.CREATED_AT) {
+            throw new IllegalArgumentException("createdFrom/createdTo require sort=createdAt");
+        }
+        if (updatedRange && sort != SortField.UPDATED_AT) {
+            throw new IllegalArgumentException("updatedFrom/updatedTo require sort=updatedAt");
+        }
+        if (namePrefix && sort != SortField.NAME) {
+            throw new IllegalArgumentException("namePrefix requires sort=name");
+        }
+        if (namePrefix && filter.getNamePrefix().isBlank()) {
+            throw new IllegalArgumentException("namePrefix must not be blank");
+        }
+        checkRange(filter.getCreatedFrom(), filter.getCreatedTo(), "createdFrom", "createdTo");
+        checkRange(filter.getUpdatedFrom(), filter.getUpdatedTo(), "updatedFrom", "updatedTo");
+    }
+
+    public static FilterSpecification matching(Long userId, TaskFilter filter) {
+        return new FilterSpecification(userId, filter);
+    }
+
+    public static Sort sort(TaskFilter filter) {
+        Sort.Direction direction = direction(filter);
+        return Sort.by(direction, SortField.fromParam(filter.getSort()).getProperty())
+                .and(Sort.by(direction, "id"));
+    }
+
+    private static Task.TaskStatus status(TaskFilter filter) {
+        try {
+            return Task.TaskStatus.valueOf(filter.getStatus().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("status must be PENDING or COMPLETED");
+        }
+    }
+
+    private static Sort.Direction direction(TaskFilter filter) {
+        if (filter.getDirection() == null) {
+            return Sort.Direction.ASC;
+        }
+        return Sort.Direction.fromOptionalString(filter.getDirection())
+                .orElseThrow(() -> new IllegalArgumentException("direction must be asc or desc"));
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to, String fromName, String toName) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException(fromName + " must be before " + toName);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,13 +1,21 @@
 package com.todoapp.repository;
 
 import com.todoapp.entity.User;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+// Like TaskRepository, only what the embedded storage engine also answers.
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends ListCrudRepository<User, Long> {
+
+    <S extends User> S saveAndFlush(S user);
+
+    User getReferenceById(Long id);
+
+    void flush();
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
 }
@@ -4,11 +4,14 @@ import com.todoapp.entity.User;
 import com.todoapp.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 @Slf4j
 public class CustomUserDetailsService implements UserDetailsService {
@@ -16,18 +19,29 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${app.security.admin-emails:}")
+    private Set<String> adminEmails = Set.of();
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
+                .filter(u -> u.getDeletedAt() == null)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return UserPrincipal.create(user);
+        return principal(user);
     }
 
     public UserDetails loadUserById(Long id) {
         User user = userRepository.findById(id)
+                .filter(u -> u.getDeletedAt() == null)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
 
-        return UserPrincipal.create(user);
+        return principal(user);
+    }
+
+    private UserPrincipal principal(User user) {
+        UserPrincipal principal = UserPrincipal.create(user);
+        principal.setAdmin(adminEmails.contains(user.getEmail().toLowerCase()));
+        return principal;
     }
 }
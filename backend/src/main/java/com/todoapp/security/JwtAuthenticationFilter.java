@@ -32,7 +32,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
                 String email = tokenProvider.getEmailFromToken(jwt);
 
+                Long userId = tokenProvider.getUserIdFromToken(jwt);
+
                 UserPrincipal userPrincipal = (UserPrincipal) customUserDetailsService.loadUserByUsername(email);
+                if (userId != null && !userId.equals(userPrincipal.getId())) {
+                    log.warn("Token for user {} presented for a different account with email {}", userId, email);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userPrincipal, null, userPrincipal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
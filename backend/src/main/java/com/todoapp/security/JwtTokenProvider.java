@@ -1,16 +1,15 @@
 package com.todoapp.security;
 
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import com.todoapp.core.JwtTokens;
+import com.todoapp.profiling.JwtVerificationEvent;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
-
 @Component
 @Slf4j
 public class JwtTokenProvider {
@@ -21,42 +20,44 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private volatile JwtTokens tokens;
+
+    private JwtTokens tokens() {
+        JwtTokens current = tokens;
+        if (current == null) {
+            current = new JwtTokens(jwtSecret, jwtExpirationMs);
+            tokens = current;
+        }
+        return current;
     }
 
     public String generateToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        return generateTokenFromEmail(userPrincipal.getEmail());
+        return generateToken(userPrincipal.getEmail(), userPrincipal.getId());
     }
 
     public String generateTokenFromEmail(String email) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+        return generateToken(email, null);
+    }
 
-        return Jwts.builder()
-                .subject(email)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+    private String generateToken(String email, Long userId) {
+        return tokens().generate(email, userId);
     }
 
     public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return tokens().parse(token).email();
+    }
+
+    public Long getUserIdFromToken(String token) {
+        return tokens().parse(token).userId();
     }
 
     public boolean validateToken(String token) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            tokens().parse(token);
+            event.setValid(true);
             return true;
         } catch (SecurityException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
@@ -68,6 +69,8 @@ public class JwtTokenProvider {
             log.error("Unsupported JWT token: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
+        } finally {
+            event.commit();
         }
         return false;
     }
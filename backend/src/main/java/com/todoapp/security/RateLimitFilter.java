@@ -0,0 +1,84 @@
+package com.todoapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter.EndpointClass endpointClass = classify(request);
+        String key = resolveKey(request);
+
+        long waitNanos = rateLimiter.tryAcquire(endpointClass, key);
+        if (waitNanos > 0) {
+            long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+            long retryAfterSeconds = Math.max(1, (waitNanos + nanosPerSecond - 1) / nanosPerSecond);
+            log.warn("Rate limit exceeded for {} on {} {}", key, request.getMethod(), request.getServletPath());
+            reject(request, response, retryAfterSeconds);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimiter.EndpointClass classify(HttpServletRequest request) {
+        if (request.getServletPath().startsWith("/auth/")) {
+            return RateLimiter.EndpointClass.AUTH;
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return RateLimiter.EndpointClass.READ;
+        }
+        return RateLimiter.EndpointClass.WRITE;
+    }
+
+    private String resolveKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return "user:" + userPrincipal.getEmail();
+        }
+        // The client's address even behind a proxy: server.forward-headers-strategy takes it
+        // from X-Forwarded-For when the connection comes from app.rate-limit.trusted-proxies.
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType("application/json");
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+
+        final Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Rate limit exceeded, retry after " + retryAfterSeconds + " seconds");
+        body.put("path", request.getServletPath());
+
+        MAPPER.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,140 @@
+package com.todoapp.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+@Component
+@Slf4j
+public class RateLimiter {
+
+    public enum EndpointClass {
+        READ,
+        WRITE,
+        AUTH
+    }
+
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, ConcurrentHashMap<String, Bucket>> buckets = new EnumMap<>(EndpointClass.class);
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public RateLimiter(@Value("${app.rate-limit.read.capacity:120}") long readCapacity,
+                       @Value("${app.rate-limit.read.refill-per-second:20}") double readRefillPerSecond,
+                       @Value("${app.rate-limit.write.capacity:60}") long writeCapacity,
+                       @Value("${app.rate-limit.write.refill-per-second:10}") double writeRefillPerSecond,
+                       @Value("${app.rate-limit.auth.capacity:10}") long authCapacity,
+                       @Value("${app.rate-limit.auth.refill-per-second:0.2}") double authRefillPerSecond) {
+        this(readCapacity, readRefillPerSecond, writeCapacity, writeRefillPerSecond,
+                authCapacity, authRefillPerSecond, System::nanoTime);
+    }
+
+    RateLimiter(long readCapacity, double readRefillPerSecond,
+                long writeCapacity, double writeRefillPerSecond,
+                long authCapacity, double authRefillPerSecond,
+                LongSupplier nanoClock) {
+        limits.put(EndpointClass.READ, new Limit(readCapacity, readRefillPerSecond));
+        limits.put(EndpointClass.WRITE, new Limit(writeCapacity, writeRefillPerSecond));
+        limits.put(EndpointClass.AUTH, new Limit(authCapacity, authRefillPerSecond));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            buckets.put(endpointClass, new ConcurrentHashMap<>());
+        }
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token from the caller's bucket for the given endpoint class.
+     *
+     * @return 0 when the request may proceed, otherwise the number of nanoseconds
+     * until a token becomes available
+     */
+    public long tryAcquire(EndpointClass endpointClass, String key) {
+        Limit limit = limits.get(endpointClass);
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(endpointClass)
+                .computeIfAbsent(key, k -> new Bucket(limit.capacity(), now));
+        return bucket.tryConsume(limit, now);
+    }
+
+    /**
+     * A bucket that has been idle long enough to refill completely is
+     * indistinguishable from a fresh one, so dropping it never grants a client
+     * more than it would have had anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<EndpointClass, ConcurrentHashMap<String, Bucket>> entry : buckets.entrySet()) {
+            long idleNanos = limits.get(entry.getKey()).nanosToFill();
+            for (Map.Entry<String, Bucket> bucket : entry.getValue().entrySet()) {
+                if (now - bucket.getValue().lastAccessNanos >= idleNanos
+                        && entry.getValue().remove(bucket.getKey(), bucket.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets, {} remaining", evicted, size());
+        }
+    }
+
+    public int size() {
+        return buckets.values().stream().mapToInt(Map::size).sum();
+    }
+
+    record Limit(long capacity, double refillPerSecond) {
+
+        private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+        double tokensAfter(long elapsedNanos) {
+            return elapsedNanos * refillPerSecond / NANOS_PER_SECOND;
+        }
+
+        long nanosUntil(double missingTokens) {
+            return (long) Math.ceil(missingTokens * NANOS_PER_SECOND / refillPerSecond);
+        }
+
+        long nanosToFill() {
+            return nanosUntil(capacity);
+        }
+    }
+
+    private record State(double tokens, long timestampNanos) {
+    }
+
+    static final class Bucket {
+
+        private final AtomicReference<State> state;
+        private volatile long lastAccessNanos;
+
+        Bucket(long capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+            this.lastAccessNanos = now;
+        }
+
+        long tryConsume(Limit limit, long now) {
+            lastAccessNanos = now;
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, now - current.timestampNanos());
+                double tokens = Math.min(limit.capacity(), current.tokens() + limit.tokensAfter(elapsed));
+                if (tokens < 1) {
+                    return limit.nanosUntil(1 - tokens);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.timestampNanos())))) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -23,6 +23,9 @@ public class UserPrincipal implements UserDetails {
     private String name;
     private String password;
 
+    // Granted from app.security.admin-emails by CustomUserDetailsService.
+    private boolean admin;
+
     public static UserPrincipal create(User user) {
         return UserPrincipal.builder()
                 .id(user.getId())
@@ -34,7 +37,9 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        return admin
+                ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : List.of(new SimpleGrantedAuthority("ROLE_USER"));
     }
 
     @Override
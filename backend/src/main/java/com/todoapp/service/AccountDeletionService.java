@@ -0,0 +1,202 @@
+package com.todoapp.service;
+
+import com.todoapp.cluster.ClusterInvalidationPublisher;
+import com.todoapp.cluster.Invalidation;
+import com.todoapp.dto.AccountDeletionDTO;
+import com.todoapp.embedded.EmbeddedStore;
+import com.todoapp.entity.AccountDeletionJob;
+import com.todoapp.entity.User;
+import com.todoapp.repository.AccountDeletionJobRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.tasklist.TaskListAccess;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes accounts without loading their tasks: the request only marks the user
+ * as deleted, which locks them out at once, and the data is then removed in
+ * chunks of set-based deletes, each in its own short transaction. A crash loses
+ * at most the chunk in flight; the job stays PENDING and the next run carries
+ * on from whatever rows are left.
+ */
+@Service
+@Slf4j
+public class AccountDeletionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountDeletionJobRepository accountDeletionJobRepository;
+
+    @Autowired
+    private ClusterInvalidationPublisher clusterInvalidationPublisher;
+
+    @Autowired
+    private TaskListAccess taskListAccess;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Present in the embedded profile, whose tasks and users are not in the tables below.
+    @Autowired(required = false)
+    private EmbeddedStore embeddedStore;
+
+    @Value("${app.account-deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.account-deletion.chunks-per-run:50}")
+    private int chunksPerRun;
+
+    @Transactional
+    public AccountDeletionDTO requestDeletion(Long userId) {
+        log.info("Account deletion requested for user: {}", userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        if (user.getDeletedAt() == null) {
+            user.setDeletedAt(now);
+            userRepository.save(user);
+            clusterInvalidationPublisher.publishAfterCommit(Invalidation.principal(userId));
+        }
+
+        AccountDeletionJob job = accountDeletionJobRepository.findById(userId)
+                .orElseGet(() -> accountDeletionJobRepository.save(AccountDeletionJob.builder()
+                        .userId(userId)
+                        .status(AccountDeletionJob.Status.PENDING)
+                        .requestedAt(now)
+                        .updatedAt(now)
+                        .build()));
+        return AccountDeletionDTO.fromEntity(job);
+    }
+
+    public List<AccountDeletionDTO> getPendingDeletions() {
+        return accountDeletionJobRepository.findByStatusOrderByRequestedAt(AccountDeletionJob.Status.PENDING)
+                .stream()
+                .map(AccountDeletionDTO::fromEntity)
+                .toList();
+    }
+
+    /**
+     * Purges up to {@code chunks-per-run} chunks of one account. Returns true
+     * once the account is gone.
+     */
+    public boolean purge(Long userId) {
+        for (int i = 0; i < chunksPerRun; i++) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> purgeChunk(userId)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean purgeChunk(Long userId) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", chunkSize)
+                .addValue("now", now);
+
+        List<Long> taskIds = jdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE user_id = :userId ORDER BY id LIMIT :limit", params, Long.class);
+        if (!taskIds.isEmpty()) {
+            params.addValue("ids", taskIds);
+            List<Long> descriptionIds = jdbcTemplate.queryForList(
+                    "SELECT description_id FROM tasks WHERE id IN (:ids) AND description_id IS NOT NULL",
+                    params, Long.class);
+            jdbcTemplate.update("DELETE FROM task_tags WHERE task_id IN (:ids)", params);
+            // Subtasks of this chunk may fall in a later one.
+            jdbcTemplate.update("UPDATE tasks SET parent_id = NULL WHERE parent_id IN (:ids)", params);
+            params.addValue("deleted", jdbcTemplate.update("DELETE FROM tasks WHERE id IN (:ids)", params));
+            if (!descriptionIds.isEmpty()) {
+                params.addValue("descriptionIds", descriptionIds);
+                jdbcTemplate.update("DELETE FROM task_descriptions WHERE id IN (:descriptionIds)", params);
+            }
+            countTasksDeleted(params);
+            return false;
+        }
+        if (embeddedStore != null) {
+            int deleted = embeddedStore.deleteTasksOf(userId, chunkSize);
+            if (deleted > 0) {
+                countTasksDeleted(params.addValue("deleted", deleted));
+                return false;
+            }
+        }
+
+        List<Long> historyIds = jdbcTemplate.queryForList(
+                "SELECT id FROM task_history WHERE user_id = :userId ORDER BY id LIMIT :limit", params, Long.class);
+        if (!historyIds.isEmpty()) {
+            params.addValue("ids", historyIds);
+            params.addValue("deleted", jdbcTemplate.update("DELETE FROM task_history WHERE id IN (:ids)", params));
+            jdbcTemplate.update("UPDATE account_deletion_jobs SET history_deleted = history_deleted + :deleted, "
+                    + "updated_at = :now WHERE user_id = :userId", params);
+            return false;
+        }
+
+        purgeListMemberships(userId, params);
+        jdbcTemplate.update("DELETE FROM task_import_errors WHERE job_id IN "
+                + "(SELECT id FROM task_import_jobs WHERE user_id = :userId)", params);
+        jdbcTemplate.update("DELETE FROM task_import_jobs WHERE user_id = :userId", params);
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = :userId", params);
+        jdbcTemplate.update("DELETE FROM task_daily_stats WHERE user_id = :userId", params);
+        jdbcTemplate.update("DELETE FROM users WHERE id = :userId", params);
+        if (embeddedStore != null) {
+            embeddedStore.deleteUser(userId);
+        }
+        jdbcTemplate.update("UPDATE account_deletion_jobs SET status = 'COMPLETED', updated_at = :now, "
+                + "completed_at = :now WHERE user_id = :userId", params);
+        log.info("Purged account of user: {}", userId);
+        return true;
+    }
+
+    private void countTasksDeleted(MapSqlParameterSource params) {
+        jdbcTemplate.update("UPDATE account_deletion_jobs SET tasks_deleted = tasks_deleted + :deleted, "
+                + "updated_at = :now WHERE user_id = :userId", params);
+    }
+
+    // Lists left without an owner go too; their members' tasks stay, outside the list.
+    private void purgeListMemberships(Long userId, MapSqlParameterSource params) {
+        List<Long> listIds = jdbcTemplate.queryForList(
+                "SELECT list_id FROM task_list_members WHERE user_id = :userId", params, Long.class);
+        if (listIds.isEmpty()) {
+            return;
+        }
+        params.addValue("listIds", listIds);
+        jdbcTemplate.update("DELETE FROM task_list_members WHERE user_id = :userId", params);
+
+        Set<Long> affectedUserIds = new HashSet<>(List.of(userId));
+        List<Long> orphanedIds = jdbcTemplate.queryForList("SELECT l.id FROM task_lists l WHERE l.id IN (:listIds) "
+                + "AND NOT EXISTS (SELECT 1 FROM task_list_members m WHERE m.list_id = l.id AND m.role = 'OWNER')",
+                params, Long.class);
+        if (!orphanedIds.isEmpty()) {
+            params.addValue("orphanedIds", orphanedIds);
+            affectedUserIds.addAll(jdbcTemplate.queryForList(
+                    "SELECT user_id FROM task_list_members WHERE list_id IN (:orphanedIds)", params, Long.class));
+            jdbcTemplate.update("UPDATE tasks SET list_id = NULL WHERE list_id IN (:orphanedIds)", params);
+            if (embeddedStore != null) {
+                orphanedIds.forEach(embeddedStore::detachList);
+            }
+            jdbcTemplate.update("DELETE FROM task_list_members WHERE list_id IN (:orphanedIds)", params);
+            jdbcTemplate.update("DELETE FROM task_lists WHERE id IN (:orphanedIds)", params);
+        }
+        taskListAccess.membershipsChanged(affectedUserIds);
+        for (Long affectedUserId : affectedUserIds) {
+            clusterInvalidationPublisher.publishAfterCommit(Invalidation.listAccess(affectedUserId));
+        }
+    }
+}
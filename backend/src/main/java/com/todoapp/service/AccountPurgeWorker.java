@@ -0,0 +1,30 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.AccountDeletionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class AccountPurgeWorker {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    // Chunks are idempotent, so several nodes running this at once only waste work.
+    @Scheduled(initialDelayString = "${app.account-deletion.interval-ms:10000}",
+            fixedDelayString = "${app.account-deletion.interval-ms:10000}")
+    public void purgePendingAccounts() {
+        for (AccountDeletionDTO job : accountDeletionService.getPendingDeletions()) {
+            try {
+                if (!accountDeletionService.purge(job.getUserId())) {
+                    log.info("Account purge of user {} continues next run", job.getUserId());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not purge account of user: {}", job.getUserId(), e);
+            }
+        }
+    }
+}
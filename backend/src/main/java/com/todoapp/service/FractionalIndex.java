@@ -0,0 +1,161 @@
+package com.todoapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order-preserving string keys that can always be generated between two
+ * neighbours, so moving a task only rewrites that task's key. Keys use the
+ * digits 0-9a-z, which sort the same way under binary and case-insensitive
+ * collations, and never end in '0' so there is always room below a key.
+ */
+public final class FractionalIndex {
+
+    static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private static final int BASE = DIGITS.length();
+
+    private FractionalIndex() {
+    }
+
+    /**
+     * Returns a key strictly between {@code before} and {@code after}. Either
+     * bound may be {@code null} to mean the start or end of the list.
+     */
+    public static String between(String before, String after) {
+        validate(before);
+        validate(after);
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Position " + before + " is not before " + after);
+        }
+        if (before == null && after == null) {
+            return String.valueOf(DIGITS.charAt(BASE / 2));
+        }
+        if (after == null) {
+            return increment(before);
+        }
+        if (before == null) {
+            return decrement(after);
+        }
+        return midpoint(before, after);
+    }
+
+    /**
+     * Returns {@code count} ascending keys with gaps between them, used to
+     * rebalance a list whose keys have grown long. The keys fill the lower half
+     * of the key space so that appends right after a rebalance stay short.
+     */
+    public static List<String> evenlySpaced(int count) {
+        int width = 1;
+        long span = BASE;
+        while (span < 4L * (count + 1)) {
+            width++;
+            span *= BASE;
+        }
+
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(encode(i * (span / 2) / (count + 1), width));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns {@code count} ascending keys after {@code last}, which is
+     * {@code null} for an empty list. Used to append many tasks at once: the
+     * keys share one incremented prefix, so repeated bulk appends stay as short
+     * as single ones instead of growing with every task.
+     */
+    public static List<String> after(String last, int count) {
+        validate(last);
+        List<String> suffixes = evenlySpaced(count);
+        if (last == null) {
+            return suffixes;
+        }
+        String prefix = increment(last);
+        List<String> keys = new ArrayList<>(count);
+        for (String suffix : suffixes) {
+            keys.add(prefix + suffix);
+        }
+        return keys;
+    }
+
+    public static boolean isValid(String key) {
+        if (key == null || key.isEmpty() || key.charAt(key.length() - 1) == '0') {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Appends are by far the most common move, so bump the shortest prefix that
+    // still has room instead of halving the remaining space every time.
+    private static String increment(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            int digit = DIGITS.indexOf(key.charAt(i));
+            if (digit < BASE - 1) {
+                return key.substring(0, i) + DIGITS.charAt(digit + 1);
+            }
+        }
+        return key + DIGITS.charAt(1);
+    }
+
+    private static String decrement(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            int digit = DIGITS.indexOf(key.charAt(i));
+            if (digit > 1) {
+                return key.substring(0, i) + DIGITS.charAt(digit - 1);
+            }
+        }
+        return midpoint("", key);
+    }
+
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            int n = 0;
+            while (n < b.length() && digitAt(a, n) == b.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return b.substring(0, n) + midpoint(a.length() > n ? a.substring(n) : "", b.substring(n));
+            }
+        }
+
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b != null ? DIGITS.indexOf(b.charAt(0)) : BASE;
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB + 1) / 2));
+        }
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.isEmpty() ? "" : a.substring(1), null);
+    }
+
+    private static char digitAt(String key, int index) {
+        return index < key.length() ? key.charAt(index) : DIGITS.charAt(0);
+    }
+
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int length = width;
+        while (chars[length - 1] == DIGITS.charAt(0)) {
+            length--;
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static void validate(String key) {
+        if (key != null && !isValid(key)) {
+            throw new IllegalArgumentException("Invalid position key: " + key);
+        }
+    }
+}
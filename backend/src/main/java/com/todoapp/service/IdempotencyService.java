@@ -0,0 +1,289 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.entity.IdempotencyRecord;
+import com.todoapp.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.memory-capacity:10000}")
+    private int memoryCapacity;
+
+    @Value("${app.idempotency.claim-timeout-ms:60000}")
+    private long claimTimeoutMs;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Key, StoredResponse> recent = Collections.synchronizedMap(
+            new LinkedHashMap<Key, StoredResponse>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, StoredResponse> eldest) {
+                    return size() > memoryCapacity;
+                }
+            });
+
+    private final ConcurrentHashMap<Key, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code operation} at most once per user and idempotency key. Retries
+     * with the same key get the stored response back; a retry that arrives while
+     * the first attempt is still running waits for it on this node and gets 409
+     * on another. The key is claimed in the database before the operation runs,
+     * and the response is stored in the operation's own transaction.
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, Long userId, String operationName, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> operation) {
+        if (idempotencyKey == null) {
+            return operation.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key key = new Key(userId, idempotencyKey);
+        String fingerprint = fingerprint(operationName, request);
+
+        StoredResponse stored = lookup(key);
+        if (stored != null) {
+            return replay(stored, fingerprint, responseType);
+        }
+
+        CompletableFuture<StoredResponse> flight = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            log.info("Waiting for in-flight request with idempotency key {} for user: {}", idempotencyKey, userId);
+            return replay(await(existing), fingerprint, responseType);
+        }
+
+        try {
+            IdempotencyRecord claim = claim(key, fingerprint);
+            if (claim == null) {
+                // Another node finished the request between our lookup and the claim.
+                stored = lookup(key);
+                if (stored == null) {
+                    throw inProgress();
+                }
+                flight.complete(stored);
+                return replay(stored, fingerprint, responseType);
+            }
+
+            Completed<T> completed;
+            try {
+                completed = transactionTemplate.execute(status -> {
+                    ResponseEntity<T> response = operation.get();
+                    return new Completed<>(response, complete(claim, fingerprint, response));
+                });
+            } catch (RuntimeException | Error e) {
+                idempotencyRecordRepository.release(claim.getId(), claim.getClaimToken());
+                throw e;
+            }
+            recent.put(key, completed.stored());
+            flight.complete(completed.stored());
+            return completed.response();
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private StoredResponse lookup(Key key) {
+        StoredResponse stored = recent.get(key);
+        if (stored == null) {
+            stored = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(key.userId(), key.idempotencyKey())
+                    .filter(record -> record.getStatus() == IdempotencyRecord.Status.COMPLETED)
+                    .map(record -> new StoredResponse(record.getRequestFingerprint(), record.getStatusCode(),
+                            record.getResponseBody(), record.getExpiresAt()))
+                    .orElse(null);
+            if (stored != null) {
+                recent.put(key, stored);
+            }
+        }
+        if (stored != null && stored.expiresAt().isBefore(LocalDateTime.now())) {
+            recent.remove(key);
+            return null;
+        }
+        return stored;
+    }
+
+    /**
+     * Inserts an IN_PROGRESS row for the key, or takes over one whose holder has
+     * not finished within the claim timeout. Returns null when the key turns out
+     * to be completed already.
+     */
+    private IdempotencyRecord claim(Key key, String fingerprint) {
+        for (int attempt = 0; ; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            String token = UUID.randomUUID().toString();
+            try {
+                return idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .userId(key.userId())
+                        .idempotencyKey(key.idempotencyKey())
+                        .requestFingerprint(fingerprint)
+                        .status(IdempotencyRecord.Status.IN_PROGRESS)
+                        .claimToken(token)
+                        .claimedAt(now)
+                        .expiresAt(now.plusHours(ttlHours))
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                IdempotencyRecord existing = idempotencyRecordRepository
+                        .findByUserIdAndIdempotencyKey(key.userId(), key.idempotencyKey())
+                        .orElse(null);
+                if (existing == null || existing.getExpiresAt().isBefore(now)) {
+                    // Released or expired since the insert; try again once.
+                    if (existing != null) {
+                        idempotencyRecordRepository.deleteExpired(now);
+                    }
+                    if (attempt == 0) {
+                        continue;
+                    }
+                    throw inProgress();
+                }
+                if (existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                    return null;
+                }
+                if (!existing.getRequestFingerprint().equals(fingerprint)) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                            HEADER + " was already used for a different request");
+                }
+                if (existing.getClaimedAt().plus(Duration.ofMillis(claimTimeoutMs)).isBefore(now)
+                        && idempotencyRecordRepository.reclaim(existing.getId(), existing.getClaimToken(), token,
+                        now, IdempotencyRecord.Status.IN_PROGRESS) == 1) {
+                    log.warn("Took over stale claim of idempotency key {} for user: {}",
+                            key.idempotencyKey(), key.userId());
+                    existing.setClaimToken(token);
+                    existing.setClaimedAt(now);
+                    return existing;
+                }
+                throw inProgress();
+            }
+        }
+    }
+
+    private StoredResponse complete(IdempotencyRecord claim, String fingerprint, ResponseEntity<?> response) {
+        String body;
+        try {
+            body = response.getBody() != null ? objectMapper.writeValueAsString(response.getBody()) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response for idempotency key", e);
+        }
+
+        StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(), body,
+                LocalDateTime.now().plusHours(ttlHours));
+        int completed = idempotencyRecordRepository.complete(claim.getId(), claim.getClaimToken(),
+                stored.statusCode(), body, stored.expiresAt(), IdempotencyRecord.Status.COMPLETED);
+        if (completed == 0) {
+            // Rolls the operation back: another attempt took the claim over and runs it instead.
+            throw inProgress();
+        }
+        return stored;
+    }
+
+    private static ResponseStatusException inProgress() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this " + HEADER + " is still in progress");
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, Class<T> responseType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+
+        T body;
+        try {
+            body = stored.body() != null ? objectMapper.readValue(stored.body(), responseType) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response for idempotency key", e);
+        }
+        return ResponseEntity.status(stored.statusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private String fingerprint(String operationName, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operationName.getBytes(StandardCharsets.UTF_8));
+            if (request != null) {
+                digest.update(objectMapper.writeValueAsBytes(request));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private record Key(Long userId, String idempotencyKey) {
+    }
+
+    private record Completed<T>(ResponseEntity<T> response, StoredResponse stored) {
+    }
+
+    private record StoredResponse(String fingerprint, int statusCode, String body, LocalDateTime expiresAt) {
+    }
+}
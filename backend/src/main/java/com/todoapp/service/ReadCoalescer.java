@@ -0,0 +1,70 @@
+package com.todoapp.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads for the same user share a single load.
+ * Every flight is keyed by a per-user generation; {@link #invalidate(Long)}
+ * bumps the generation so reads that start after a mutation never join a
+ * flight that may have observed the old state.
+ */
+public class ReadCoalescer<V> {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public V execute(Long userId, Object query, Supplier<V> loader) {
+        Key key = new Key(userId, query, generations.get(stripe(userId)));
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), GENERATION_STRIPES);
+    }
+
+    private record Key(Long userId, Object query, long generation) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.todoapp.service;
+
+import com.todoapp.cluster.ClusterInvalidationPublisher;
+import com.todoapp.cluster.Invalidation;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskListDTO;
+import com.todoapp.dto.TaskListMemberDTO;
+import com.todoapp.dto.TaskListMemberRequest;
+import com.todoapp.dto.TaskPageDTO;
+import com.todoapp.entity.Task;
+import com.todoapp.entity.TaskList;
+import com.todoapp.entity.TaskListMember;
+import com.todoapp.entity.User;
+import com.todoapp.repository.TaskListMemberRepository;
+import com.todoapp.repository.TaskListRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.tasklist.TaskListAccess;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared task lists and their members. Every check goes through the cached
+ * TaskListAccess, and every membership change drops the affected users' cached
+ * access here and, after the commit, on the other instances.
+ */
+@Service
+@Slf4j
+public class TaskListService {
+
+    @Autowired
+    private TaskListRepository taskListRepository;
+
+    @Autowired
+    private TaskListMemberRepository taskListMemberRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskListAccess taskListAccess;
+
+    @Autowired
+    private ClusterInvalidationPublisher clusterInvalidationPublisher;
+
+    @Transactional
+    public TaskListDTO createList(TaskListDTO taskListDTO, Long userId) {
+        log.info("Creating task list for user: {}", userId);
+        TaskList list = taskListRepository.save(TaskList.builder()
+                .name(taskListDTO.getName())
+                .createdBy(userId)
+                .build());
+        taskListMemberRepository.save(TaskListMember.builder()
+                .listId(list.getId())
+                .userId(userId)
+                .role(TaskListMember.Role.OWNER)
+                .build());
+        membershipsChanged(List.of(userId));
+        return TaskListDTO.fromEntity(list, TaskListMember.Role.OWNER);
+    }
+
+    public List<TaskListDTO> getUserLists(Long userId) {
+        log.info("Fetching task lists for user: {}", userId);
+        Map<Long, TaskListMember.Role> roles = taskListAccess.listsOf(userId);
+        if (roles.isEmpty()) {
+            return List.of();
+        }
+        return taskListRepository.findAllById(roles.keySet())
+                .stream()
+                .sorted(Comparator.comparing(TaskList::getId))
+                .map(list -> TaskListDTO.fromEntity(list, roles.get(list.getId())))
+                .toList();
+    }
+
+    public TaskListDTO getList(Long listId, Long userId) {
+        log.info("Fetching task list: {} for user: {}", listId, userId);
+        TaskListMember.Role role = requireRole(listId, userId, TaskListMember.Role.VIEWER);
+        return TaskListDTO.fromEntity(findList(listId), role);
+    }
+
+    @Transactional
+    public TaskListDTO renameList(Long listId, TaskListDTO taskListDTO, Long userId) {
+        log.info("Renaming task list: {} for user: {}", listId, userId);
+        TaskListMember.Role role = requireRole(listId, userId, TaskListMember.Role.OWNER);
+        TaskList list = findList(listId);
+        list.setName(taskListDTO.getName());
+        return TaskListDTO.fromEntity(taskListRepository.save(list), role);
+    }
+
+    // The list's tasks go back to being only their owners'.
+    @Transactional
+    public void deleteList(Long listId, Long userId) {
+        log.info("Deleting task list: {} for user: {}", listId, userId);
+        requireRole(listId, userId, TaskListMember.Role.OWNER);
+        TaskList list = findList(listId);
+
+        List<Long> memberIds = taskListMemberRepository.findByListIdOrderByCreatedAt(listId)
+                .stream()
+                .map(TaskListMember::getUserId)
+                .toList();
+        taskRepository.detachFromList(listId);
+        taskListMemberRepository.deleteByListId(listId);
+        taskListRepository.delete(list);
+        membershipsChanged(memberIds);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskPageDTO getListTasks(Long listId, Long userId, int page, int size) {
+        log.info("Fetching tasks of list: {} for user: {}", listId, userId);
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
+        }
+        requireRole(listId, userId, TaskListMember.Role.VIEWER);
+        Slice<Task> tasks = taskRepository.findByListIdOrderById(listId, PageRequest.of(page, size));
+        return TaskPageDTO.builder()
+                .tasks(tasks.map(TaskDTO::fromEntity).getContent())
+                .page(page)
+                .size(size)
+                .hasNext(tasks.hasNext())
+                .build();
+    }
+
+    public List<TaskListMemberDTO> getMembers(Long listId, Long userId) {
+        log.info("Fetching members of list: {} for user: {}", listId, userId);
+        requireRole(listId, userId, TaskListMember.Role.VIEWER);
+        List<TaskListMember> members = taskListMemberRepository.findByListIdOrderByCreatedAt(listId);
+        Map<Long, User> users = userRepository.findAllById(members.stream().map(TaskListMember::getUserId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return members.stream()
+                .filter(member -> users.containsKey(member.getUserId()))
+                .map(member -> TaskListMemberDTO.fromEntity(member, users.get(member.getUserId())))
+                .toList();
+    }
+
+    /** Adds a member by email, or changes the role of an existing one. */
+    @Transactional
+    public TaskListMemberDTO putMember(Long listId, TaskListMemberRequest request, Long userId) {
+        log.info("Adding member to list: {} for user: {}", listId, userId);
+        requireRole(listId, userId, TaskListMember.Role.OWNER);
+        findList(listId);
+
+        User user = userRepository.findByEmail(request.getEmail())
+                .filter(u -> u.getDeletedAt() == null)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        TaskListMember.Role role = TaskListMember.Role.valueOf(request.getRole().toUpperCase());
+
+        TaskListMember member = taskListMemberRepository.findByListIdAndUserId(listId, user.getId())
+                .orElseGet(() -> TaskListMember.builder()
+                        .listId(listId)
+                        .userId(user.getId())
+                        .build());
+        if (member.getRole() == TaskListMember.Role.OWNER && role != TaskListMember.Role.OWNER) {
+            requireAnotherOwner(listId);
+        }
+        member.setRole(role);
+        TaskListMember saved = taskListMemberRepository.save(member);
+        membershipsChanged(List.of(user.getId()));
+        return TaskListMemberDTO.fromEntity(saved, user);
+    }
+
+    // Owners remove anyone; any member can leave. Tasks the member added stay in the list.
+    @Transactional
+    public void removeMember(Long listId, Long memberId, Long userId) {
+        log.info("Removing member: {} from list: {} for user: {}", memberId, listId, userId);
+        requireRole(listId, userId, memberId.equals(userId) ? TaskListMember.Role.VIEWER : TaskListMember.Role.OWNER);
+
+        TaskListMember member = taskListMemberRepository.findByListIdAndUserId(listId, memberId)
+                .orElseThrow(() -> new RuntimeException("Member not found"));
+        if (member.getRole() == TaskListMember.Role.OWNER) {
+            requireAnotherOwner(listId);
+        }
+        taskListMemberRepository.delete(member);
+        membershipsChanged(List.of(memberId));
+    }
+
+    // Non-members get the same answer as for a list that does not exist.
+    private TaskListMember.Role requireRole(Long listId, Long userId, TaskListMember.Role required) {
+        TaskListMember.Role role = taskListAccess.roleOf(userId, listId);
+        if (role == null) {
+            throw new RuntimeException("Task list not found");
+        }
+        if (!role.allows(required)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "This requires the " + required + " role");
+        }
+        return role;
+    }
+
+    private TaskList findList(Long listId) {
+        return taskListRepository.findById(listId)
+                .orElseThrow(() -> new RuntimeException("Task list not found"));
+    }
+
+    private void requireAnotherOwner(Long listId) {
+        if (taskListMemberRepository.countByListIdAndRole(listId, TaskListMember.Role.OWNER) <= 1) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A list needs at least one owner; delete the list instead");
+        }
+    }
+
+    private void membershipsChanged(List<Long> userIds) {
+        taskListAccess.membershipsChanged(userIds);
+        for (Long userId : userIds) {
+            clusterInvalidationPublisher.publishAfterCommit(Invalidation.listAccess(userId));
+        }
+    }
+}
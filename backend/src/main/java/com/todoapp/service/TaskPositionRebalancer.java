@@ -0,0 +1,44 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class TaskPositionRebalancer {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Value("${app.task-ordering.max-position-length:24}")
+    private int maxPositionLength;
+
+    @Value("${app.task-ordering.rebalance-batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.task-ordering.rebalance-interval-ms:600000}",
+            fixedDelayString = "${app.task-ordering.rebalance-interval-ms:600000}")
+    public void rebalanceLongPositions() {
+        List<Long> userIds = taskRepository.findUserIdsNeedingRebalance(maxPositionLength, PageRequest.of(0, batchSize));
+        for (Long userId : userIds) {
+            try {
+                taskService.rebalancePositions(userId);
+            } catch (RuntimeException e) {
+                log.warn("Could not rebalance task positions for user: {}", userId, e);
+            }
+        }
+        if (!userIds.isEmpty()) {
+            log.info("Rebalanced task positions for {} users", userIds.size());
+        }
+    }
+}
@@ -1,114 +1,630 @@
 package com.todoapp.service;
 
+import com.todoapp.dto.MoveTaskRequest;
+import com.todoapp.dto.TaskFilter;
 import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskHistoryDTO;
+import com.todoapp.dto.TaskHistoryPageDTO;
+import com.todoapp.dto.TaskTreeDTO;
 import com.todoapp.entity.Task;
+import com.todoapp.entity.TaskHistory;
+import com.todoapp.entity.TaskIdReservation;
+import com.todoapp.entity.TaskListMember;
 import com.todoapp.entity.User;
+import com.todoapp.event.TaskEvent;
+import com.todoapp.repository.DeletedTaskRow;
+import com.todoapp.repository.TaskDayCount;
+import com.todoapp.repository.TaskDescriptionRepository;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskIdReservationRepository;
 import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSpecifications;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.tag.TagQuery;
+import com.todoapp.tag.Tags;
+import com.todoapp.tag.TaskTagIndex;
+import com.todoapp.tasklist.TaskListAccess;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class TaskService {
 
+    // Levels of subtasks below a top-level task; keeps tree paths within their column.
+    static final int MAX_TREE_DEPTH = 10;
+
+    private static final Comparator<Task> SIBLING_ORDER = Comparator
+            .comparing(Task::getPosition, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getId);
+
     @Autowired
     private TaskRepository taskRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Autowired
+    private TaskDescriptionRepository taskDescriptionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskTagIndex taskTagIndex;
+
+    @Autowired
+    private TaskIdReservationRepository taskIdReservationRepository;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskListAccess taskListAccess;
+
+    @Value("${app.ids.reservation-ttl-days:30}")
+    private long reservationTtlDays;
+
+    // Coalesced list reads run outside a service transaction on purpose: callers
+    // waiting on another request's query must not hold a pooled connection.
+    private final ReadCoalescer<List<TaskDTO>> taskListReads = new ReadCoalescer<>();
+
     public List<TaskDTO> getUserTasks(Long userId) {
         log.info("Fetching all tasks for user: {}", userId);
-        return taskRepository.findByUserId(userId)
+        return taskListReads.execute(userId, "ALL", () -> taskRepository.findByUserId(userId)
                 .stream()
                 .map(TaskDTO::fromEntity)
-                .collect(Collectors.toList());
+                .toList());
     }
 
-    @Transactional(readOnly = true)
     public List<TaskDTO> getUserTasksByStatus(Long userId, String status) {
         log.info("Fetching tasks for user: {} with status: {}", userId, status);
         Task.TaskStatus taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
-        return taskRepository.findByUserIdAndStatus(userId, taskStatus)
+        return taskListReads.execute(userId, taskStatus, () -> taskRepository.findByUserIdAndStatus(userId, taskStatus)
+                .stream()
+                .map(TaskDTO::fromEntity)
+                .toList());
+    }
+
+    public List<TaskDTO> searchTasks(Long userId, TaskFilter filter) {
+        log.info("Searching tasks for user: {} with {}", userId, filter);
+        try {
+            TaskSpecifications.validate(filter);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return taskListReads.execute(userId, filter, () -> taskRepository
+                .findAll(TaskSpecifications.matching(userId, filter), TaskSpecifications.sort(filter))
                 .stream()
                 .map(TaskDTO::fromEntity)
-                .collect(Collectors.toList());
+                .toList());
+    }
+
+    public List<TaskDTO> getUserTasksByTags(Long userId, TagQuery query) {
+        log.info("Fetching tasks for user: {} matching {}", userId, query);
+        return taskListReads.execute(userId, query, () -> {
+            List<Long> taskIds = taskTagIndex.findTaskIds(userId, query);
+            if (taskIds.isEmpty()) {
+                return List.of();
+            }
+            return taskRepository.findByUserIdAndIdIn(userId, taskIds)
+                    .stream()
+                    .map(TaskDTO::fromEntity)
+                    .toList();
+        });
     }
 
     @Transactional(readOnly = true)
     public TaskDTO getTaskById(Long taskId, Long userId) {
         log.info("Fetching task: {} for user: {}", taskId, userId);
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        Task task = findTask(taskId, userId, TaskListMember.Role.VIEWER);
         return TaskDTO.fromEntity(task);
     }
 
+    // History outlives the task, so a deleted task still has a readable history
+    // for its owner. Members of a shared list read the owner's history of its tasks.
+    @Transactional(readOnly = true)
+    public TaskHistoryPageDTO getTaskHistory(Long taskId, Long userId, int page, int size) {
+        log.info("Fetching history of task: {} for user: {}", taskId, userId);
+        if (page < 0 || size < 1 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and 100");
+        }
+        Long ownerId = sharedTask(taskId, userId)
+                .map(task -> {
+                    requireListRole(userId, task.getListId(), TaskListMember.Role.VIEWER, "Task not found");
+                    return task.getUser().getId();
+                })
+                .orElse(userId);
+        Slice<TaskHistory> entries = taskHistoryRepository.findByTaskIdAndUserIdOrderByIdDesc(
+                taskId, ownerId, PageRequest.of(page, size));
+        if (page == 0 && !entries.hasContent() && taskRepository.findByIdAndUserId(taskId, ownerId).isEmpty()) {
+            throw new RuntimeException("Task not found");
+        }
+        return TaskHistoryPageDTO.builder()
+                .entries(entries.map(TaskHistoryDTO::fromEntity).getContent())
+                .page(page)
+                .size(size)
+                .hasNext(entries.hasNext())
+                .build();
+    }
+
     @Transactional
     public TaskDTO createTask(TaskDTO taskDTO, Long userId) {
         log.info("Creating new task for user: {}", userId);
+        invalidateTaskReads(userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        Task parent = null;
+        if (taskDTO.getParentId() != null) {
+            parent = taskRepository.findByIdAndUserId(taskDTO.getParentId(), userId)
+                    .orElseThrow(() -> new RuntimeException("Parent task not found"));
+            if (parent.getTreeDepth() >= MAX_TREE_DEPTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Subtasks can be nested at most " + MAX_TREE_DEPTH + " levels deep");
+            }
+        }
+
+        // Subtasks are in their parent's list.
+        Long listId = parent != null ? parent.getListId() : taskDTO.getListId();
+        if (taskDTO.getListId() != null && !taskDTO.getListId().equals(listId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A subtask belongs to its parent's list");
+        }
+        if (listId != null) {
+            requireListRole(userId, listId, TaskListMember.Role.EDITOR, "Task list not found");
+        }
+
+        String lastPosition = taskRepository.findFirstByUserIdOrderByPositionDesc(userId)
+                .map(Task::getPosition)
+                .orElse(null);
+
         Task task = Task.builder()
                 .name(taskDTO.getName())
                 .description(taskDTO.getDescription())
                 .status(Task.TaskStatus.PENDING)
+                .position(FractionalIndex.between(lastPosition, null))
+                .dueAt(truncateDueAt(taskDTO.getDueAt()))
+                .tags(new HashSet<>(Tags.normalize(taskDTO.getTags())))
                 .user(user)
+                .listId(listId)
+                .parentId(parent != null ? parent.getId() : null)
+                .treePath(parent != null ? parent.childTreePath() : "/")
+                .treeDepth(parent != null ? parent.getTreeDepth() + 1 : 0)
                 .build();
+        Task savedTask;
+        if (taskDTO.getId() != null) {
+            task.setRequestedId(claimRequestedId(taskDTO.getId(), userId));
+            savedTask = saveWithRequestedId(task);
+        } else {
+            savedTask = taskRepository.save(task);
+        }
+        if (parent != null) {
+            taskRepository.adjustDescendantCounts(savedTask.ancestorIds(), 1, 0);
+        }
+        taskStatsService.recordCreated(userId, savedTask.getCreatedAt());
+        TaskDTO created = TaskDTO.fromEntity(savedTask);
+        eventPublisher.publishEvent(TaskEvent.created(userId, created));
+        return created;
+    }
+
+    /**
+     * Creates already validated top-level tasks, appended after the user's last
+     * task in the given order, with one batched save. Joins the caller's
+     * transaction so an import chunk commits together with its progress.
+     */
+    @Transactional
+    public List<TaskDTO> importTasks(List<TaskDTO> taskDTOs, Long userId) {
+        log.info("Importing {} tasks for user: {}", taskDTOs.size(), userId);
+        invalidateTaskReads(userId);
+
+        // Imports run in the background and must stop once the account is deleted.
+        User user = userRepository.findById(userId)
+                .filter(u -> u.getDeletedAt() == null)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        String lastPosition = taskRepository.findFirstByUserIdOrderByPositionDesc(userId)
+                .map(Task::getPosition)
+                .orElse(null);
+        List<String> positions = FractionalIndex.after(lastPosition, taskDTOs.size());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        List<Task> tasks = new ArrayList<>(taskDTOs.size());
+        int completed = 0;
+        for (int i = 0; i < taskDTOs.size(); i++) {
+            TaskDTO taskDTO = taskDTOs.get(i);
+            Task.TaskStatus status = taskDTO.getStatus() != null
+                    ? Task.TaskStatus.valueOf(taskDTO.getStatus().toUpperCase())
+                    : Task.TaskStatus.PENDING;
+            if (status == Task.TaskStatus.COMPLETED) {
+                completed++;
+            }
+            tasks.add(Task.builder()
+                    .name(taskDTO.getName())
+                    .description(taskDTO.getDescription())
+                    .status(status)
+                    .completedAt(status == Task.TaskStatus.COMPLETED ? now : null)
+                    .position(positions.get(i))
+                    .dueAt(truncateDueAt(taskDTO.getDueAt()))
+                    .tags(new HashSet<>(Tags.normalize(taskDTO.getTags())))
+                    .user(user)
+                    .build());
+        }
+
+        List<TaskDTO> created = taskRepository.saveAll(tasks).stream()
+                .map(TaskDTO::fromEntity)
+                .toList();
+        taskStatsService.recordImported(userId, now, created.size(), completed);
+        created.forEach(task -> eventPublisher.publishEvent(TaskEvent.created(userId, task)));
+        return created;
+    }
+
+    /**
+     * Hands out ids a client can use for tasks it creates while offline and
+     * sends later with POST /tasks. Each id is recorded for the user, so
+     * POST /tasks accepts it once, from that user only.
+     */
+    @Transactional
+    public List<Long> reserveTaskIds(int count, Long userId) {
+        if (count < 1 || count > 1000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "count must be between 1 and 1000");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskIdReservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reservations.add(TaskIdReservation.builder().userId(userId).reservedAt(now).build());
+        }
+        return taskIdReservationRepository.saveAll(reservations).stream()
+                .map(TaskIdReservation::getId)
+                .toList();
+    }
 
-        Task savedTask = taskRepository.save(task);
-        return TaskDTO.fromEntity(savedTask);
+    @Scheduled(fixedDelayString = "${app.ids.reservation-cleanup-interval-ms:3600000}")
+    public void purgeExpiredIdReservations() {
+        int purged = taskIdReservationRepository.deleteReservedBefore(
+                LocalDateTime.now().minusDays(reservationTtlDays));
+        if (purged > 0) {
+            log.info("Purged {} expired task id reservations", purged);
+        }
     }
 
     @Transactional
     public TaskDTO updateTask(Long taskId, TaskDTO taskDTO, Long userId) {
         log.info("Updating task: {} for user: {}", taskId, userId);
+        invalidateTaskReads(userId);
 
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        Task task = findTask(taskId, userId, TaskListMember.Role.EDITOR);
+        Long ownerId = ownerOf(task, userId);
+        TaskDTO before = TaskDTO.fromEntity(task);
 
         task.setName(taskDTO.getName());
         task.setDescription(taskDTO.getDescription());
+        task.getTags().clear();
+        task.getTags().addAll(Tags.normalize(taskDTO.getTags()));
 
         if (taskDTO.getStatus() != null) {
-            task.setStatus(Task.TaskStatus.valueOf(taskDTO.getStatus().toUpperCase()));
+            changeStatus(task, Task.TaskStatus.valueOf(taskDTO.getStatus().toUpperCase()), ownerId);
+        }
+
+        LocalDateTime dueAt = truncateDueAt(taskDTO.getDueAt());
+        if (!Objects.equals(task.getDueAt(), dueAt)) {
+            task.setDueAt(dueAt);
+            task.setReminderSentAt(null);
         }
 
         Task updatedTask = taskRepository.save(task);
-        return TaskDTO.fromEntity(updatedTask);
+        TaskDTO updated = TaskDTO.fromEntity(updatedTask);
+        eventPublisher.publishEvent(TaskEvent.updated(ownerId, userId, before, updated));
+        return updated;
     }
 
     @Transactional
     public void deleteTask(Long taskId, Long userId) {
         log.info("Deleting task: {} for user: {}", taskId, userId);
+        invalidateTaskReads(userId);
 
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        Task task = findTask(taskId, userId, TaskListMember.Role.EDITOR);
+        Long ownerId = ownerOf(task, userId);
 
+        // Subtasks go with their parent in a few statements on the tree path, whatever
+        // their number; the parent is deleted at flush, after them.
+        List<DeletedTaskRow> descendants = List.of();
+        int deleted = 1;
+        int completed = task.getStatus() == Task.TaskStatus.COMPLETED ? 1 : 0;
+        if (task.getDescendantCount() > 0) {
+            String pathPrefix = task.childTreePath() + "%";
+            descendants = taskRepository.findDeletedRows(ownerId, pathPrefix);
+            List<TaskDayCount> counts = taskRepository.countDescendantsByDay(ownerId, pathPrefix);
+            taskRepository.detachDescendants(ownerId, pathPrefix);
+            taskRepository.deleteDescendants(ownerId, pathPrefix);
+            List<Long> descriptionIds = descendants.stream()
+                    .map(DeletedTaskRow::descriptionId)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (!descriptionIds.isEmpty()) {
+                taskDescriptionRepository.deleteAllByIdInBatch(descriptionIds);
+            }
+            for (TaskDayCount count : counts) {
+                deleted += (int) count.count();
+                completed += count.status() == Task.TaskStatus.COMPLETED ? (int) count.count() : 0;
+            }
+            taskStatsService.recordDeleted(ownerId, counts);
+        }
         taskRepository.delete(task);
+        taskStatsService.recordDeleted(ownerId, task.getCreatedAt(), task.getCompletedAt());
+
+        if (task.getTreeDepth() > 0) {
+            taskRepository.adjustDescendantCounts(task.ancestorIds(), -deleted, -completed);
+        }
+        for (DeletedTaskRow removed : descendants) {
+            TaskDTO before = TaskDTO.builder().id(removed.id()).name(removed.name()).build();
+            eventPublisher.publishEvent(TaskEvent.deleted(ownerId, userId, before));
+        }
+        eventPublisher.publishEvent(TaskEvent.deleted(ownerId, userId, TaskDTO.withoutDescription(task)));
+    }
+
+    /**
+     * Returns a task with its subtasks down to {@code depth} levels below it,
+     * loaded with one query on the tree path.
+     */
+    @Transactional(readOnly = true)
+    public TaskTreeDTO getTaskTree(Long taskId, Long userId, int depth) {
+        log.info("Fetching tree of task: {} for user: {} with depth: {}", taskId, userId, depth);
+        if (depth < 0 || depth > MAX_TREE_DEPTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "depth must be between 0 and " + MAX_TREE_DEPTH);
+        }
+        // Subtasks live in the owner's tree, so a list member sees the whole subtree.
+        Task root = findTask(taskId, userId, TaskListMember.Role.VIEWER);
+        Long ownerId = root.getUser() != null ? root.getUser().getId() : userId;
+
+        int maxDepth = root.getTreeDepth() + depth;
+        List<Task> descendants = depth > 0 && root.getDescendantCount() > 0
+                ? taskRepository.findSubtree(ownerId, root.childTreePath() + "%", maxDepth)
+                : List.of();
+        Map<Long, List<Task>> children = descendants.stream()
+                .collect(Collectors.groupingBy(Task::getParentId));
+        return toTree(root, children, maxDepth);
     }
 
     @Transactional
     public TaskDTO toggleTaskStatus(Long taskId, Long userId) {
         log.info("Toggling status of task: {} for user: {}", taskId, userId);
+        invalidateTaskReads(userId);
 
-        Task task = taskRepository.findByIdAndUserId(taskId, userId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        Task task = findTask(taskId, userId, TaskListMember.Role.EDITOR);
+        Long ownerId = ownerOf(task, userId);
+        TaskDTO before = TaskDTO.fromEntity(task);
 
         Task.TaskStatus newStatus = task.getStatus() == Task.TaskStatus.PENDING
                 ? Task.TaskStatus.COMPLETED
                 : Task.TaskStatus.PENDING;
 
-        task.setStatus(newStatus);
+        changeStatus(task, newStatus, ownerId);
         Task updatedTask = taskRepository.save(task);
-        return TaskDTO.fromEntity(updatedTask);
+        TaskDTO updated = TaskDTO.fromEntity(updatedTask);
+        eventPublisher.publishEvent(TaskEvent.updated(ownerId, userId, before, updated));
+        return updated;
+    }
+
+    @Transactional
+    public TaskDTO moveTask(Long taskId, MoveTaskRequest moveTaskRequest, Long userId) {
+        log.info("Moving task: {} for user: {}", taskId, userId);
+        invalidateTaskReads(userId);
+
+        Long afterId = moveTaskRequest.getAfterId();
+        Long beforeId = moveTaskRequest.getBeforeId();
+        if (afterId == null && beforeId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterId or beforeId is required");
+        }
+        if (taskId.equals(afterId) || taskId.equals(beforeId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A task cannot be moved next to itself");
+        }
+
+        // Positions order the owner's tasks, so the neighbours must be the owner's too.
+        Task task = findTask(taskId, userId, TaskListMember.Role.EDITOR);
+        Long ownerId = ownerOf(task, userId);
+        Task after = afterId != null ? findNeighbour(afterId, userId, ownerId) : null;
+        Task before = beforeId != null ? findNeighbour(beforeId, userId, ownerId) : null;
+
+        if ((after != null && after.getPosition() == null) || (before != null && before.getPosition() == null)) {
+            rebalancePositions(ownerId);
+            after = afterId != null ? findNeighbour(afterId, userId, ownerId) : null;
+            before = beforeId != null ? findNeighbour(beforeId, userId, ownerId) : null;
+        }
+
+        String lower = after != null ? after.getPosition() : predecessorPosition(ownerId, before);
+        String upper = before != null ? before.getPosition() : successorPosition(ownerId, after);
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            if (lower.compareTo(upper) > 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterId must be ordered before beforeId");
+            }
+            // Concurrent appends can hand out the same key; spread the list out and retry.
+            rebalancePositions(ownerId);
+            lower = findNeighbour(afterId, userId, ownerId).getPosition();
+            upper = findNeighbour(beforeId, userId, ownerId).getPosition();
+        }
+
+        task.setPosition(FractionalIndex.between(lower, upper));
+        Task movedTask = taskRepository.save(task);
+        return TaskDTO.fromEntity(movedTask);
+    }
+
+    @Transactional
+    public void rebalancePositions(Long userId) {
+        log.info("Rebalancing task positions for user: {}", userId);
+        invalidateTaskReads(userId);
+
+        // The new keys are written without a save, which would mark every task as just updated.
+        List<Task> tasks = taskRepository.findByUserIdForRebalance(userId);
+        List<String> positions = FractionalIndex.evenlySpaced(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            taskRepository.updatePosition(tasks.get(i).getId(), positions.get(i), positions.get(i).length());
+        }
+    }
+
+    /**
+     * The caller's own task, found as before by id and owner, or a task in one
+     * of their shared lists. The list check is answered from TaskListAccess, so
+     * no task query joins the memberships, and callers without lists skip it.
+     */
+    private Task findTask(Long taskId, Long userId, TaskListMember.Role required) {
+        Optional<Task> own = taskRepository.findByIdAndUserId(taskId, userId);
+        if (own.isPresent()) {
+            return own.get();
+        }
+        Task task = sharedTask(taskId, userId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        requireListRole(userId, task.getListId(), required, "Task not found");
+        return task;
+    }
+
+    // A task the caller does not own, in a list they may belong to; the role is checked by the caller.
+    private Optional<Task> sharedTask(Long taskId, Long userId) {
+        if (!taskListAccess.hasLists(userId)) {
+            return Optional.empty();
+        }
+        return taskRepository.findById(taskId)
+                .filter(t -> t.getListId() != null && t.getUser() != null && !userId.equals(t.getUser().getId()));
+    }
+
+    private Task findNeighbour(Long taskId, Long userId, Long ownerId) {
+        Task neighbour = findTask(taskId, userId, TaskListMember.Role.VIEWER);
+        if (neighbour.getUser() != null && !ownerId.equals(neighbour.getUser().getId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "afterId and beforeId must belong to the owner of the moved task");
+        }
+        return neighbour;
+    }
+
+    // Non-members get the same answer as for something that does not exist.
+    private void requireListRole(Long userId, Long listId, TaskListMember.Role required, String notFound) {
+        TaskListMember.Role role = taskListAccess.roleOf(userId, listId);
+        if (role == null) {
+            throw new RuntimeException(notFound);
+        }
+        if (!role.allows(required)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "This requires the " + required + " role");
+        }
+    }
+
+    // Stats, history, the tag index and coalesced reads belong to the task's owner,
+    // whoever changes it, so a list member's write invalidates the owner's reads too.
+    private Long ownerOf(Task task, Long userId) {
+        Long ownerId = task.getUser() != null ? task.getUser().getId() : userId;
+        if (!ownerId.equals(userId)) {
+            invalidateTaskReads(ownerId);
+        }
+        return ownerId;
+    }
+
+    private void changeStatus(Task task, Task.TaskStatus status, Long userId) {
+        if (task.getStatus() == status) {
+            return;
+        }
+        if (status == Task.TaskStatus.COMPLETED) {
+            task.setCompletedAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+            taskStatsService.recordCompleted(userId, task.getCompletedAt());
+        } else {
+            taskStatsService.recordReopened(userId, task.getCompletedAt());
+            task.setCompletedAt(null);
+        }
+        task.setStatus(status);
+        if (task.getTreeDepth() > 0) {
+            taskRepository.adjustDescendantCounts(task.ancestorIds(), 0,
+                    status == Task.TaskStatus.COMPLETED ? 1 : -1);
+        }
+    }
+
+    private static TaskTreeDTO toTree(Task task, Map<Long, List<Task>> children, int maxDepth) {
+        List<TaskTreeDTO> subtasks = children.getOrDefault(task.getId(), List.of()).stream()
+                .sorted(SIBLING_ORDER)
+                .map(child -> toTree(child, children, maxDepth))
+                .toList();
+        return TaskTreeDTO.builder()
+                .task(TaskDTO.fromEntity(task))
+                .subtasks(subtasks)
+                .truncated(task.getTreeDepth() == maxDepth && task.getDescendantCount() > 0)
+                .build();
+    }
+
+    private String predecessorPosition(Long userId, Task task) {
+        return taskRepository.findFirstByUserIdAndPositionLessThanOrderByPositionDesc(userId, task.getPosition())
+                .map(Task::getPosition)
+                .orElse(null);
+    }
+
+    private String successorPosition(Long userId, Task task) {
+        return taskRepository.findFirstByUserIdAndPositionGreaterThanOrderByPositionAsc(userId, task.getPosition())
+                .map(Task::getPosition)
+                .orElse(null);
+    }
+
+    // Due dates are stored with second precision; keep the in-memory value equal to
+    // what the database holds so reminder claims can match on it.
+    private LocalDateTime truncateDueAt(LocalDateTime dueAt) {
+        return dueAt != null ? dueAt.truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+
+    // Deleting the reservation is what claims the id: a second request with the
+    // same id finds nothing to delete, and a retry of one that succeeded finds
+    // the task instead.
+    private Long claimRequestedId(Long id, Long userId) {
+        if (taskIdReservationRepository.consume(id, userId) == 0) {
+            if (taskRepository.findByIdAndUserId(id, userId).isPresent()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Task id already exists");
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task id was not issued by POST /tasks/ids");
+        }
+        return id;
+    }
+
+    // Flushed here so a row that got in under the same id anyway surfaces as a
+    // conflict rather than as a failed commit.
+    private Task saveWithRequestedId(Task task) {
+        try {
+            return taskRepository.saveAndFlush(task);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Task id already exists");
+        }
+    }
+
+    private void invalidateTaskReads(Long userId) {
+        // Once before the write so new reads stop joining older flights, and again
+        // after completion so nothing started mid-transaction is shared afterwards.
+        taskListReads.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    taskListReads.invalidate(userId);
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.todoapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builds the daily stats of users whose tasks predate the rollups, a batch of
+ * users per run. GET /tasks/stats rebuilds on demand for anyone not reached yet.
+ */
+@Component
+@Slf4j
+public class TaskStatsBackfillJob {
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Value("${app.task-stats.backfill-batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.task-stats.backfill-interval-ms:60000}",
+            fixedDelayString = "${app.task-stats.backfill-interval-ms:60000}")
+    public void backfill() {
+        List<Long> userIds = taskStatsService.findUsersToRebuild(batchSize);
+        for (Long userId : userIds) {
+            try {
+                taskStatsService.rebuild(userId);
+            } catch (RuntimeException e) {
+                log.warn("Could not rebuild task stats for user: {}", userId, e);
+            }
+        }
+        if (!userIds.isEmpty()) {
+            log.info("Rebuilt task stats for {} users", userIds.size());
+        }
+    }
+}
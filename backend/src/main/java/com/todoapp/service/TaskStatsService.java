@@ -0,0 +1,187 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskStatsBucketDTO;
+import com.todoapp.dto.TaskStatsDTO;
+import com.todoapp.repository.TaskDayCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Daily rollups of tasks created and completed per user. TaskService adjusts
+ * them in the same transaction as the task change, so reading a period costs
+ * one row per day no matter how many tasks the user has.
+ */
+@Service
+@Slf4j
+public class TaskStatsService {
+
+    static final int MAX_DAYS = 366;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void recordCreated(Long userId, LocalDateTime createdAt) {
+        add(userId, day(createdAt), 1, 0);
+    }
+
+    // Bulk imports create and complete their tasks at the same instant.
+    public void recordImported(Long userId, LocalDateTime importedAt, int created, int completed) {
+        add(userId, day(importedAt), created, completed);
+    }
+
+    public void recordCompleted(Long userId, LocalDateTime completedAt) {
+        add(userId, day(completedAt), 0, 1);
+    }
+
+    public void recordReopened(Long userId, LocalDateTime completedAt) {
+        if (completedAt != null) {
+            subtract(userId, day(completedAt), 0, 1);
+        }
+    }
+
+    public void recordDeleted(Long userId, LocalDateTime createdAt, LocalDateTime completedAt) {
+        if (createdAt != null) {
+            subtract(userId, day(createdAt), 1, 0);
+        }
+        recordReopened(userId, completedAt);
+    }
+
+    // A deleted subtree, as counted by TaskRepository.countDescendantsByDay: one update per day.
+    public void recordDeleted(Long userId, List<TaskDayCount> counts) {
+        Map<LocalDate, int[]> days = new TreeMap<>();
+        for (TaskDayCount count : counts) {
+            if (count.createdOn() != null) {
+                days.computeIfAbsent(count.createdOn(), day -> new int[2])[0] += (int) count.count();
+            }
+            if (count.completedOn() != null) {
+                days.computeIfAbsent(count.completedOn(), day -> new int[2])[1] += (int) count.count();
+            }
+        }
+        days.forEach((day, delta) -> subtract(userId, day, delta[0], delta[1]));
+    }
+
+    @Transactional
+    public TaskStatsDTO getStats(Long userId, LocalDate from, LocalDate to, String bucket) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The period can span at most " + MAX_DAYS + " days");
+        }
+        boolean weekly = switch (bucket.toLowerCase()) {
+            case "day" -> false;
+            case "week" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bucket must be day or week");
+        };
+
+        // No row in the embedded profile: its tasks were never in the tasks table to rebuild from,
+        // and their events have kept the counts since the first one.
+        List<Boolean> rebuilt = jdbcTemplate.queryForList(
+                "SELECT stats_rebuilt_at IS NOT NULL FROM users WHERE id = ?", Boolean.class, userId);
+        if (!rebuilt.isEmpty() && !Boolean.TRUE.equals(rebuilt.get(0))) {
+            rebuild(userId);
+        }
+
+        Map<LocalDate, TaskStatsBucketDTO> buckets = new LinkedHashMap<>();
+        for (LocalDate day = bucketStart(from, weekly); !day.isAfter(to); day = day.plusDays(weekly ? 7 : 1)) {
+            buckets.put(day, TaskStatsBucketDTO.builder().start(day).build());
+        }
+        jdbcTemplate.query("SELECT stat_date, created, completed FROM task_daily_stats "
+                        + "WHERE user_id = ? AND stat_date BETWEEN ? AND ?",
+                rs -> {
+                    TaskStatsBucketDTO target = buckets.get(bucketStart(rs.getDate(1).toLocalDate(), weekly));
+                    target.setCreated(target.getCreated() + rs.getInt(2));
+                    target.setCompleted(target.getCompleted() + rs.getInt(3));
+                },
+                userId, Date.valueOf(from), Date.valueOf(to));
+
+        long created = buckets.values().stream().mapToLong(TaskStatsBucketDTO::getCreated).sum();
+        long completed = buckets.values().stream().mapToLong(TaskStatsBucketDTO::getCompleted).sum();
+        return TaskStatsDTO.builder()
+                .bucket(weekly ? "week" : "day")
+                .from(from)
+                .to(to)
+                .created(created)
+                .completed(completed)
+                .completionRate(created > 0 ? Math.round(10_000.0 * completed / created) / 10_000.0 : 0)
+                .buckets(new ArrayList<>(buckets.values()))
+                .build();
+    }
+
+    /**
+     * Recomputes a user's rows from the tasks table. Safe to repeat; the rows
+     * are locked by the delete, so concurrent task changes wait and then apply
+     * on top of the rebuilt counts.
+     */
+    @Transactional
+    public void rebuild(Long userId) {
+        log.info("Rebuilding task stats for user: {}", userId);
+        jdbcTemplate.update("DELETE FROM task_daily_stats WHERE user_id = ?", userId);
+        jdbcTemplate.update("INSERT INTO task_daily_stats (user_id, stat_date, created, completed) "
+                + "SELECT user_id, CAST(created_at AS DATE), COUNT(*), 0 FROM tasks WHERE user_id = ? "
+                + "GROUP BY user_id, CAST(created_at AS DATE)", userId);
+        List<Map<String, Object>> completions = jdbcTemplate.queryForList(
+                "SELECT CAST(completed_at AS DATE) AS stat_date, COUNT(*) AS completed FROM tasks "
+                        + "WHERE user_id = ? AND completed_at IS NOT NULL GROUP BY CAST(completed_at AS DATE)", userId);
+        for (Map<String, Object> row : completions) {
+            add(userId, ((Date) row.get("stat_date")).toLocalDate(), 0, ((Number) row.get("completed")).intValue());
+        }
+        jdbcTemplate.update("UPDATE users SET stats_rebuilt_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now()), userId);
+    }
+
+    public List<Long> findUsersToRebuild(int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE stats_rebuilt_at IS NULL AND deleted_at IS NULL ORDER BY id LIMIT ?",
+                Long.class, limit);
+    }
+
+    private void add(Long userId, LocalDate day, int created, int completed) {
+        String update = "UPDATE task_daily_stats SET created = created + ?, completed = completed + ? "
+                + "WHERE user_id = ? AND stat_date = ?";
+        if (jdbcTemplate.update(update, created, completed, userId, Date.valueOf(day)) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO task_daily_stats (user_id, stat_date, created, completed) "
+                    + "VALUES (?, ?, ?, ?)", userId, Date.valueOf(day), created, completed);
+        } catch (DuplicateKeyException e) {
+            // Another transaction inserted the row first.
+            jdbcTemplate.update(update, created, completed, userId, Date.valueOf(day));
+        }
+    }
+
+    private void subtract(Long userId, LocalDate day, int created, int completed) {
+        jdbcTemplate.update("UPDATE task_daily_stats SET created = GREATEST(created - ?, 0), "
+                        + "completed = GREATEST(completed - ?, 0) WHERE user_id = ? AND stat_date = ?",
+                created, completed, userId, Date.valueOf(day));
+    }
+
+    private static LocalDate day(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toLocalDate() : LocalDate.now();
+    }
+
+    private static LocalDate bucketStart(LocalDate day, boolean weekly) {
+        return weekly ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+}
@@ -0,0 +1,6 @@
+package com.todoapp.tag;
+
+public enum TagMatchMode {
+    ALL,
+    ANY
+}
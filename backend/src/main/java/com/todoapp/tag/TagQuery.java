@@ -0,0 +1,27 @@
+package com.todoapp.tag;
+
+import com.todoapp.entity.Task;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tasks carrying all (or any) of {@code tags}, none of {@code excludedTags} and,
+ * when set, the given status. An empty {@code tags} set matches every task.
+ */
+public record TagQuery(Set<String> tags, TagMatchMode mode, Set<String> excludedTags, Task.TaskStatus status) {
+
+    public static TagQuery of(List<String> tags, String mode, List<String> excludedTags, String status) {
+        TagMatchMode matchMode;
+        try {
+            matchMode = TagMatchMode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "mode must be 'all' or 'any'");
+        }
+        return new TagQuery(Tags.normalize(tags), matchMode, Tags.normalize(excludedTags),
+                status != null ? Task.TaskStatus.valueOf(status.toUpperCase()) : null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.todoapp.tag;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class Tags {
+
+    private Tags() {
+    }
+
+    // Tags are matched case-insensitively and without surrounding whitespace.
+    public static Set<String> normalize(Collection<String> tags) {
+        Set<String> normalized = new TreeSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    normalized.add(tag.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return normalized;
+    }
+}
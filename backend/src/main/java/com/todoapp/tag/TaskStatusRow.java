@@ -0,0 +1,6 @@
+package com.todoapp.tag;
+
+import com.todoapp.entity.Task;
+
+public record TaskStatusRow(Long taskId, Task.TaskStatus status) {
+}
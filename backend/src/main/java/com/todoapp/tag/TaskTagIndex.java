@@ -0,0 +1,125 @@
+package com.todoapp.tag;
+
+import com.todoapp.cluster.ClusteredCache;
+import com.todoapp.cluster.Invalidation;
+import com.todoapp.dto.TagIndexStatsDTO;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.entity.Task;
+import com.todoapp.event.TaskEvent;
+import com.todoapp.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user tag and status bitmaps, built lazily from the database on the first
+ * filtered read and kept current from task events afterwards.
+ */
+@Component
+@Slf4j
+public class TaskTagIndex implements ClusteredCache {
+
+    private static final int STRIPES = 1024;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Value("${app.tag-index.idle-eviction-ms:1800000}")
+    private long idleEvictionMillis;
+
+    private final ConcurrentHashMap<Long, UserTagIndex> indexes = new ConcurrentHashMap<>();
+
+    // Bumped on every event for a user, so a build that raced a commit is used once
+    // but not cached.
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    public List<Long> findTaskIds(Long userId, TagQuery query) {
+        UserTagIndex index = indexes.get(userId);
+        if (index == null) {
+            index = build(userId);
+        }
+        return index.query(query);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskEvent(TaskEvent event) {
+        versions.incrementAndGet(stripe(event.userId()));
+        indexes.computeIfPresent(event.userId(), (userId, index) -> {
+            TaskDTO task = event.after();
+            if (task == null) {
+                index.remove(event.taskId());
+            } else if (!index.upsert(task.getId(), Task.TaskStatus.valueOf(task.getStatus()),
+                    Tags.normalize(task.getTags()))) {
+                return null;
+            }
+            return index.needsCompaction() ? null : index;
+        });
+    }
+
+    // Changes made on another instance: drop the index and rebuild it on the next read.
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        if (invalidation.type() == Invalidation.Type.LIST_ACCESS) {
+            return;
+        }
+        versions.incrementAndGet(stripe(invalidation.userId()));
+        indexes.remove(invalidation.userId());
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        indexes.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${app.tag-index.eviction-interval-ms:300000}")
+    public void evictIdleIndexes() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        indexes.values().removeIf(index -> index.getLastAccessMillis() < cutoff);
+    }
+
+    public TagIndexStatsDTO stats() {
+        long tasks = 0;
+        long tags = 0;
+        long bytes = 0;
+        for (UserTagIndex index : indexes.values()) {
+            tasks += index.taskCount();
+            tags += index.tagCount();
+            bytes += index.sizeInBytes();
+        }
+        return TagIndexStatsDTO.builder()
+                .users(indexes.size())
+                .tasks(tasks)
+                .tags(tags)
+                .sizeInBytes(bytes)
+                .bytesPer100kTasks(tasks > 0 ? bytes * 100_000 / tasks : 0)
+                .build();
+    }
+
+    private UserTagIndex build(Long userId) {
+        int stripe = stripe(userId);
+        long version = versions.get(stripe);
+        UserTagIndex built = UserTagIndex.build(
+                taskRepository.findTaskStatusesByUserId(userId),
+                taskRepository.findTaskTagsByUserId(userId));
+        log.debug("Built tag index for user: {} with {} tasks", userId, built.taskCount());
+
+        UserTagIndex installed = indexes.compute(userId, (id, existing) ->
+                existing != null ? existing : versions.get(stripe) == version ? built : null);
+        return installed != null ? installed : built;
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), STRIPES);
+    }
+}
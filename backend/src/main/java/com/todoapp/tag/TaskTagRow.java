@@ -0,0 +1,4 @@
+package com.todoapp.tag;
+
+public record TaskTagRow(Long taskId, String tag) {
+}
@@ -0,0 +1,193 @@
+package com.todoapp.tag;
+
+import com.todoapp.entity.Task;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tag and status postings of one user's tasks as compressed bitmaps. Bitmaps hold
+ * dense ordinals rather than task ids: ordinals are assigned in ascending id
+ * order, so an ordinal is found by binary search over {@code taskIds} and new
+ * tasks, which get higher ids, are simply appended.
+ */
+class UserTagIndex {
+
+    private long[] taskIds;
+    private int size;
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Map<Task.TaskStatus, RoaringBitmap> byStatus = new EnumMap<>(Task.TaskStatus.class);
+    private final Map<String, RoaringBitmap> byTag = new HashMap<>();
+
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    UserTagIndex(int expectedTasks) {
+        taskIds = new long[Math.max(16, expectedTasks)];
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            byStatus.put(status, new RoaringBitmap());
+        }
+    }
+
+    static UserTagIndex build(List<TaskStatusRow> tasks, List<TaskTagRow> tags) {
+        UserTagIndex index = new UserTagIndex(tasks.size());
+        tasks.stream()
+                .sorted(Comparator.comparing(TaskStatusRow::taskId))
+                .forEach(task -> index.append(task.taskId(), task.status()));
+        for (TaskTagRow row : tags) {
+            int ordinal = index.ordinalOf(row.taskId());
+            if (ordinal >= 0) {
+                index.byTag.computeIfAbsent(row.tag(), tag -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+        index.live.runOptimize();
+        index.byStatus.values().forEach(RoaringBitmap::runOptimize);
+        index.byTag.values().forEach(RoaringBitmap::runOptimize);
+        return index;
+    }
+
+    /**
+     * Sets the status and tags of a task. Returns false when the task is new but
+     * its id is lower than one already indexed, in which case the index has to be
+     * rebuilt.
+     */
+    synchronized boolean upsert(Long taskId, Task.TaskStatus status, Collection<String> tags) {
+        int ordinal = ordinalOf(taskId);
+        if (ordinal < 0) {
+            if (size > 0 && taskId < taskIds[size - 1]) {
+                return false;
+            }
+            ordinal = append(taskId, status);
+        } else {
+            clear(ordinal);
+            live.add(ordinal);
+            byStatus.get(status).add(ordinal);
+        }
+        for (String tag : tags) {
+            byTag.computeIfAbsent(tag, t -> new RoaringBitmap()).add(ordinal);
+        }
+        return true;
+    }
+
+    synchronized void remove(Long taskId) {
+        int ordinal = ordinalOf(taskId);
+        if (ordinal >= 0) {
+            clear(ordinal);
+        }
+    }
+
+    synchronized List<Long> query(TagQuery query) {
+        lastAccessMillis = System.currentTimeMillis();
+
+        RoaringBitmap result;
+        if (query.tags().isEmpty()) {
+            result = live.clone();
+        } else if (query.mode() == TagMatchMode.ALL) {
+            List<RoaringBitmap> postings = new ArrayList<>(query.tags().size());
+            for (String tag : query.tags()) {
+                RoaringBitmap posting = byTag.get(tag);
+                if (posting == null) {
+                    return List.of();
+                }
+                postings.add(posting);
+            }
+            // Intersect the rarest tags first so the working set shrinks quickly.
+            postings.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+            result = postings.get(0).clone();
+            for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+                result.and(postings.get(i));
+            }
+        } else {
+            result = new RoaringBitmap();
+            for (String tag : query.tags()) {
+                RoaringBitmap posting = byTag.get(tag);
+                if (posting != null) {
+                    result.or(posting);
+                }
+            }
+        }
+
+        if (query.status() != null) {
+            result.and(byStatus.get(query.status()));
+        }
+        for (String tag : query.excludedTags()) {
+            RoaringBitmap posting = byTag.get(tag);
+            if (posting != null) {
+                result.andNot(posting);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(result.getCardinality());
+        IntIterator iterator = result.getIntIterator();
+        while (iterator.hasNext()) {
+            ids.add(taskIds[iterator.next()]);
+        }
+        return ids;
+    }
+
+    // Deleted tasks keep their ordinal; once they outnumber live ones a rebuild is cheaper.
+    synchronized boolean needsCompaction() {
+        return size > 1024 && live.getCardinality() < size / 2;
+    }
+
+    synchronized int taskCount() {
+        return live.getCardinality();
+    }
+
+    synchronized int tagCount() {
+        return byTag.size();
+    }
+
+    synchronized long sizeInBytes() {
+        long bytes = (long) taskIds.length * Long.BYTES + live.getLongSizeInBytes();
+        for (RoaringBitmap bitmap : byStatus.values()) {
+            bytes += bitmap.getLongSizeInBytes();
+        }
+        for (Map.Entry<String, RoaringBitmap> entry : byTag.entrySet()) {
+            bytes += entry.getValue().getLongSizeInBytes() + 2L * entry.getKey().length();
+        }
+        return bytes;
+    }
+
+    long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    private int append(long taskId, Task.TaskStatus status) {
+        if (size == taskIds.length) {
+            taskIds = Arrays.copyOf(taskIds, size + (size >> 1));
+        }
+        int ordinal = size++;
+        taskIds[ordinal] = taskId;
+        live.add(ordinal);
+        byStatus.get(status).add(ordinal);
+        return ordinal;
+    }
+
+    private void clear(int ordinal) {
+        live.remove(ordinal);
+        for (RoaringBitmap bitmap : byStatus.values()) {
+            bitmap.remove(ordinal);
+        }
+        Iterator<RoaringBitmap> postings = byTag.values().iterator();
+        while (postings.hasNext()) {
+            RoaringBitmap posting = postings.next();
+            if (posting.checkedRemove(ordinal) && posting.isEmpty()) {
+                postings.remove();
+            }
+        }
+    }
+
+    private int ordinalOf(long taskId) {
+        int ordinal = Arrays.binarySearch(taskIds, 0, size, taskId);
+        return ordinal >= 0 ? ordinal : -1;
+    }
+}
@@ -0,0 +1,74 @@
+package com.todoapp.taskimport;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.todoapp.dto.TaskDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV with a header row. Recognised columns, in any order and case: name,
+ * description, status, dueAt (or due_at) and tags, a comma-separated list.
+ * Other columns are ignored.
+ */
+class CsvTaskImportReader implements TaskImportReader {
+
+    private static final CsvMapper MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .build();
+
+    private final MappingIterator<Map<String, String>> rows;
+    private long number;
+
+    CsvTaskImportReader(InputStream in) throws IOException {
+        this.rows = MAPPER.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(in);
+    }
+
+    @Override
+    public TaskImportRecord next() throws IOException {
+        if (!rows.hasNextValue()) {
+            return null;
+        }
+        Map<String, String> row = rows.nextValue();
+        number++;
+
+        TaskDTO task = new TaskDTO();
+        for (Map.Entry<String, String> column : row.entrySet()) {
+            String value = column.getValue() == null || column.getValue().isEmpty() ? null : column.getValue();
+            switch (column.getKey().toLowerCase(Locale.ROOT).replace("_", "")) {
+                case "name" -> task.setName(value);
+                case "description" -> task.setDescription(value);
+                case "status" -> task.setStatus(value);
+                case "tags" -> task.setTags(value != null ? Arrays.asList(value.split(",")) : null);
+                case "dueat" -> {
+                    try {
+                        task.setDueAt(value != null ? LocalDateTime.parse(value) : null);
+                    } catch (DateTimeParseException e) {
+                        return TaskImportRecord.rejected(number,
+                                "dueAt must be an ISO-8601 date and time, such as 2024-01-31T18:00:00");
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return TaskImportRecord.of(number, task);
+    }
+
+    @Override
+    public void close() throws IOException {
+        rows.close();
+    }
+}
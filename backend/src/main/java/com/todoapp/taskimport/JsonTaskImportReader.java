@@ -0,0 +1,60 @@
+package com.todoapp.taskimport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.dto.TaskDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A JSON array of tasks, or a sequence of task objects such as NDJSON, with the
+ * fields of TaskDTO. Each object is read as a tree and then bound, so a field
+ * of the wrong type rejects only its row. {@code id} and {@code parentId} are
+ * ignored: imported tasks always get new ids and are created at the top level.
+ */
+class JsonTaskImportReader implements TaskImportReader {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final boolean array;
+    private boolean started;
+    private long number;
+
+    JsonTaskImportReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(in);
+        this.array = parser.nextToken() == JsonToken.START_ARRAY;
+    }
+
+    @Override
+    public TaskImportRecord next() throws IOException {
+        // Outside an array the first object's token has already been read.
+        JsonToken token = started || array ? parser.nextToken() : parser.currentToken();
+        started = true;
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        number++;
+        JsonNode node = parser.readValueAsTree();
+        if (node == null || !node.isObject()) {
+            return TaskImportRecord.rejected(number, "Expected a JSON object");
+        }
+        try {
+            TaskDTO task = objectMapper.treeToValue(node, TaskDTO.class);
+            task.setId(null);
+            task.setParentId(null);
+            return TaskImportRecord.of(number, task);
+        } catch (JsonProcessingException e) {
+            return TaskImportRecord.rejected(number, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
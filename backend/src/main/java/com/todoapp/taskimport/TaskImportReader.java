@@ -0,0 +1,15 @@
+package com.todoapp.taskimport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an upload one row at a time, holding only the current row in memory.
+ * Problems with a single row are returned as rejected records; an
+ * {@link IOException} means the rest of the upload cannot be read.
+ */
+interface TaskImportReader extends Closeable {
+
+    /** Returns the next row, or null at the end of the upload. */
+    TaskImportRecord next() throws IOException;
+}
@@ -0,0 +1,18 @@
+package com.todoapp.taskimport;
+
+import com.todoapp.dto.TaskDTO;
+
+/**
+ * One row of an upload: either the task it describes or, when the row could
+ * not be read as a task, the reason.
+ */
+record TaskImportRecord(long number, TaskDTO task, String error) {
+
+    static TaskImportRecord of(long number, TaskDTO task) {
+        return new TaskImportRecord(number, task, null);
+    }
+
+    static TaskImportRecord rejected(long number, String error) {
+        return new TaskImportRecord(number, null, error);
+    }
+}
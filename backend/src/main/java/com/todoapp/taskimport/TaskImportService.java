@@ -0,0 +1,394 @@
+package com.todoapp.taskimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskImportErrorDTO;
+import com.todoapp.dto.TaskImportJobDTO;
+import com.todoapp.entity.Task;
+import com.todoapp.entity.TaskImportJob;
+import com.todoapp.id.TimeOrderedIdSource;
+import com.todoapp.repository.TaskImportErrorRepository;
+import com.todoapp.repository.TaskImportJobRepository;
+import com.todoapp.service.TaskService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Bulk task imports. The upload is copied from the request stream to a spool
+ * file on this node without being parsed or held in memory, and the request
+ * returns at once. TaskImportWorker then reads the file one row at a time and
+ * creates the valid rows in chunks, each chunk in one transaction together
+ * with the job's progress, so an interrupted import resumes after the last
+ * committed chunk. The node holding a spool file keeps its job's updated_at
+ * current; a job nobody has touched within the stalled-job ttl lost its file
+ * with its node and is failed by whichever node notices first.
+ */
+@Service
+@Slf4j
+public class TaskImportService {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private static final List<TaskImportJob.Status> UNFINISHED =
+            List.of(TaskImportJob.Status.PENDING, TaskImportJob.Status.RUNNING);
+
+    private static final String LOST_UPLOAD_MESSAGE =
+            "The upload was lost with the instance that received it; upload the file again";
+
+    @Autowired
+    private TaskImportJobRepository taskImportJobRepository;
+
+    @Autowired
+    private TaskImportErrorRepository taskImportErrorRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TimeOrderedIdSource timeOrderedIdSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.task-import.spool-dir:${java.io.tmpdir}/todo-imports}")
+    private Path spoolDir;
+
+    @Value("${app.task-import.max-upload-bytes:1073741824}")
+    private long maxUploadBytes;
+
+    @Value("${app.task-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.task-import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${app.task-import.orphan-ttl-ms:86400000}")
+    private long orphanTtlMs;
+
+    @Value("${app.task-import.stalled-job-ttl-ms:900000}")
+    private long stalledJobTtlMs;
+
+    public TaskImportJobDTO startImport(Long userId, String contentType, InputStream body) {
+        TaskImportJob.Format format = formatOf(contentType);
+        long jobId = timeOrderedIdSource.nextIds(1)[0];
+        log.info("Receiving {} task import {} for user: {}", format, jobId, userId);
+
+        Path partial = spoolDir.resolve(jobId + ".part");
+        Path spoolFile = spoolDir.resolve(jobId + "." + format.name().toLowerCase());
+        long uploadedBytes;
+        try {
+            Files.createDirectories(spoolDir);
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                uploadedBytes = copy(body, out);
+            }
+            Files.move(partial, spoolFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException("Could not receive task import " + jobId, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        TaskImportJob job = taskImportJobRepository.save(TaskImportJob.builder()
+                .id(jobId)
+                .userId(userId)
+                .format(format)
+                .status(TaskImportJob.Status.PENDING)
+                .spoolFile(spoolFile.getFileName().toString())
+                .uploadedBytes(uploadedBytes)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        return TaskImportJobDTO.fromEntity(job);
+    }
+
+    public TaskImportJobDTO getImport(Long jobId, Long userId) {
+        return taskImportJobRepository.findByIdAndUserId(jobId, userId)
+                .map(TaskImportJobDTO::fromEntity)
+                .orElseThrow(() -> new RuntimeException("Import job not found"));
+    }
+
+    public List<TaskImportErrorDTO> getImportErrors(Long jobId, Long userId) {
+        taskImportJobRepository.findByIdAndUserId(jobId, userId)
+                .orElseThrow(() -> new RuntimeException("Import job not found"));
+        return taskImportErrorRepository.findByJobIdOrderByRecordNumber(jobId)
+                .stream()
+                .map(TaskImportErrorDTO::fromEntity)
+                .toList();
+    }
+
+    /** Unfinished jobs whose upload was spooled on this node, oldest first. */
+    public List<TaskImportJob> findRunnableJobs() {
+        return taskImportJobRepository.findByStatusInOrderById(UNFINISHED)
+                .stream()
+                .filter(job -> Files.exists(spoolDir.resolve(job.getSpoolFile())))
+                .toList();
+    }
+
+    /**
+     * Refreshes the jobs whose upload is spooled on this node, then fails the
+     * unfinished jobs that no node has refreshed within the stalled-job ttl.
+     */
+    public void failStalledJobs() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> spooledHere = findRunnableJobs().stream().map(TaskImportJob::getId).toList();
+        if (!spooledHere.isEmpty()) {
+            taskImportJobRepository.touch(spooledHere, UNFINISHED, now);
+        }
+        int failed = taskImportJobRepository.failStalled(UNFINISHED, now.minusNanos(stalledJobTtlMs * 1_000_000),
+                TaskImportJob.Status.FAILED, LOST_UPLOAD_MESSAGE, now);
+        if (failed > 0) {
+            log.warn("Failed {} task imports whose upload is no longer on any node", failed);
+        }
+    }
+
+    /** Imports the rest of a job's upload and removes its spool file once the job has finished. */
+    public void run(TaskImportJob job) {
+        Path spoolFile = spoolDir.resolve(job.getSpoolFile());
+        log.info("Running task import {} for user: {} from row {}", job.getId(), job.getUserId(),
+                job.getRowsProcessed() + 1);
+        if (jdbcTemplate.update("UPDATE task_import_jobs SET status = ?, updated_at = ? "
+                        + "WHERE id = ? AND status IN (?, ?)", TaskImportJob.Status.RUNNING.name(),
+                Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)), job.getId(),
+                TaskImportJob.Status.PENDING.name(), TaskImportJob.Status.RUNNING.name()) == 0) {
+            log.warn("Task import {} was failed as stalled before it ran", job.getId());
+            deleteQuietly(spoolFile);
+            return;
+        }
+
+        try (TaskImportReader reader = openReader(job.getFormat(), Files.newInputStream(spoolFile))) {
+            // Rows up to rowsProcessed were committed before the import was interrupted.
+            long skipped = 0;
+            while (skipped < job.getRowsProcessed() && reader.next() != null) {
+                skipped++;
+            }
+            List<TaskImportRecord> chunk = new ArrayList<>(chunkSize);
+            TaskImportRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+        } catch (IOException e) {
+            log.warn("Task import {} stopped at row {}: {}", job.getId(), job.getRowsProcessed() + 1, e.getMessage());
+            finish(job, TaskImportJob.Status.FAILED,
+                    "Could not read the upload after row " + job.getRowsProcessed() + ": " + e.getMessage());
+            return;
+        } catch (JobStalledException e) {
+            log.warn("Task import {} was failed as stalled while running; stopping", job.getId());
+            deleteQuietly(spoolFile);
+            return;
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            // Left RUNNING: the worker retries and resumes after the last committed chunk.
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Task import {} failed", job.getId(), e);
+            finish(job, TaskImportJob.Status.FAILED, "Import failed after row " + job.getRowsProcessed());
+            return;
+        }
+        log.info("Task import {} completed: {} imported, {} rejected", job.getId(), job.getRowsImported(),
+                job.getRowsFailed());
+        finish(job, TaskImportJob.Status.COMPLETED, null);
+    }
+
+    /**
+     * Deletes spool files left behind by uploads that never became a job, jobs
+     * that were purged with their account, or a crash between finishing a job
+     * and removing its file.
+     */
+    public void removeOrphanedSpoolFiles() {
+        if (!Files.isDirectory(spoolDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minusMillis(orphanTtlMs);
+        Set<String> runnable = new HashSet<>();
+        findRunnableJobs().forEach(job -> runnable.add(job.getSpoolFile()));
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            files.filter(file -> !runnable.contains(file.getFileName().toString()))
+                    .filter(file -> isOlderThan(file, cutoff))
+                    .forEach(file -> {
+                        log.info("Removing orphaned task import file {}", file);
+                        deleteQuietly(file);
+                    });
+        } catch (IOException e) {
+            log.warn("Could not list task import spool directory {}", spoolDir, e);
+        }
+    }
+
+    private void importChunk(TaskImportJob job, List<TaskImportRecord> records) {
+        List<TaskDTO> tasks = new ArrayList<>(records.size());
+        List<TaskImportRecord> rejected = new ArrayList<>();
+        for (TaskImportRecord record : records) {
+            String error = record.error() != null ? record.error() : validate(record.task());
+            if (error != null) {
+                rejected.add(TaskImportRecord.rejected(record.number(), error));
+            } else {
+                tasks.add(record.task());
+            }
+        }
+        int storedErrors = (int) Math.max(0, Math.min(rejected.size(), maxErrors - job.getRowsFailed()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!tasks.isEmpty()) {
+                taskService.importTasks(tasks, job.getUserId());
+            }
+            if (storedErrors > 0) {
+                jdbcTemplate.batchUpdate("INSERT INTO task_import_errors (job_id, record_number, message) "
+                                + "VALUES (?, ?, ?)", rejected.subList(0, storedErrors), storedErrors,
+                        (statement, record) -> {
+                            statement.setLong(1, job.getId());
+                            statement.setLong(2, record.number());
+                            statement.setString(3, truncate(record.error()));
+                        });
+            }
+            int updated = jdbcTemplate.update("UPDATE task_import_jobs SET rows_processed = rows_processed + ?, "
+                            + "rows_imported = rows_imported + ?, rows_failed = rows_failed + ?, updated_at = ? "
+                            + "WHERE id = ? AND status = ?", records.size(), tasks.size(), rejected.size(),
+                    Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)), job.getId(),
+                    TaskImportJob.Status.RUNNING.name());
+            if (updated == 0) {
+                // Rolls the chunk back: the job was already reported as failed.
+                throw new JobStalledException();
+            }
+        });
+
+        job.setRowsProcessed(job.getRowsProcessed() + records.size());
+        job.setRowsImported(job.getRowsImported() + tasks.size());
+        job.setRowsFailed(job.getRowsFailed() + rejected.size());
+    }
+
+    // The same constraints as POST /tasks, reported per row instead of as a 400.
+    private String validate(TaskDTO task) {
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<TaskDTO> violation : validator.validate(task)) {
+            messages.add(violation.getMessage());
+        }
+        if (task.getStatus() != null && Arrays.stream(Task.TaskStatus.values())
+                .noneMatch(status -> status.name().equalsIgnoreCase(task.getStatus()))) {
+            messages.add("Status must be PENDING or COMPLETED");
+        }
+        if (messages.isEmpty()) {
+            return null;
+        }
+        messages.sort(null);
+        return String.join("; ", messages);
+    }
+
+    private void finish(TaskImportJob job, TaskImportJob.Status status, String errorMessage) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        jdbcTemplate.update("UPDATE task_import_jobs SET status = ?, error_message = ?, updated_at = ?, "
+                + "completed_at = ? WHERE id = ?", status.name(), truncate(errorMessage), now, now, job.getId());
+        deleteQuietly(spoolDir.resolve(job.getSpoolFile()));
+    }
+
+    private TaskImportReader openReader(TaskImportJob.Format format, InputStream in) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvTaskImportReader(in);
+            case JSON -> new JsonTaskImportReader(objectMapper, in);
+        };
+    }
+
+    private long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxUploadBytes) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Imports are limited to " + maxUploadBytes + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    static TaskImportJob.Format formatOf(String contentType) {
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            mediaType = null;
+        }
+        if (mediaType != null && mediaType.isCompatibleWith(TEXT_CSV)) {
+            return TaskImportJob.Format.CSV;
+        }
+        if (mediaType != null && (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                || mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON))) {
+            return TaskImportJob.Format.JSON;
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Imports must be text/csv, application/json or application/x-ndjson");
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete task import file {}", file, e);
+        }
+    }
+
+    private static class JobStalledException extends RuntimeException {
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_MESSAGE_LENGTH ? value : value.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
@@ -0,0 +1,39 @@
+package com.todoapp.taskimport;
+
+import com.todoapp.entity.TaskImportJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class TaskImportWorker {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    // Jobs run one at a time per node, in upload order, so a large import adds
+    // at most one writer's worth of load.
+    @Scheduled(initialDelayString = "${app.task-import.poll-interval-ms:2000}",
+            fixedDelayString = "${app.task-import.poll-interval-ms:2000}")
+    public void runPendingImports() {
+        for (TaskImportJob job : taskImportService.findRunnableJobs()) {
+            try {
+                taskImportService.run(job);
+            } catch (RuntimeException e) {
+                log.warn("Task import {} interrupted, resuming next run", job.getId(), e);
+                return;
+            }
+        }
+        taskImportService.removeOrphanedSpoolFiles();
+    }
+
+    // Separate from the import loop so a long import on this node does not keep
+    // its queued jobs from being refreshed.
+    @Scheduled(initialDelayString = "${app.task-import.heartbeat-interval-ms:60000}",
+            fixedDelayString = "${app.task-import.heartbeat-interval-ms:60000}")
+    public void failStalledImports() {
+        taskImportService.failStalledJobs();
+    }
+}
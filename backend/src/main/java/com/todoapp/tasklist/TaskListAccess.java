@@ -0,0 +1,131 @@
+package com.todoapp.tasklist;
+
+import com.todoapp.cluster.ClusteredCache;
+import com.todoapp.cluster.Invalidation;
+import com.todoapp.entity.TaskListMember;
+import com.todoapp.repository.TaskListMemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Each user's list memberships, loaded with one indexed query on first use and
+ * cached until one of them changes. Authorizing a task in a shared list is
+ * then two hash lookups, so task queries never join the membership table.
+ *
+ * <p>Changes are made through {@link #membershipsChanged}; other instances
+ * drop their copy when the matching {@link Invalidation.Type#LIST_ACCESS}
+ * invalidation arrives.
+ */
+@Component
+@Slf4j
+public class TaskListAccess implements ClusteredCache {
+
+    private static final int STRIPES = 1024;
+
+    @Autowired
+    private TaskListMemberRepository taskListMemberRepository;
+
+    @Value("${app.list-access.idle-eviction-ms:1800000}")
+    private long idleEvictionMillis;
+
+    private final ConcurrentHashMap<Long, UserListAccess> access = new ConcurrentHashMap<>();
+
+    // Bumped whenever a user's memberships change, so a load that raced the
+    // commit is used once but not cached.
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    /** The user's role in a list, or null when they are not a member. */
+    public TaskListMember.Role roleOf(Long userId, Long listId) {
+        return access(userId).roleOf(listId);
+    }
+
+    public boolean allows(Long userId, Long listId, TaskListMember.Role required) {
+        TaskListMember.Role role = roleOf(userId, listId);
+        return role != null && role.allows(required);
+    }
+
+    public boolean hasLists(Long userId) {
+        return !access(userId).isEmpty();
+    }
+
+    /** The ids of the user's lists, with their role in each. */
+    public Map<Long, TaskListMember.Role> listsOf(Long userId) {
+        return access(userId).roles();
+    }
+
+    /**
+     * Drops the cached access of users whose memberships the current
+     * transaction changes: once now, so new reads stop using it, and again
+     * once the transaction completes.
+     */
+    public void membershipsChanged(Collection<Long> userIds) {
+        drop(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(userIds);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void invalidate(Invalidation invalidation) {
+        if (invalidation.type() == Invalidation.Type.LIST_ACCESS) {
+            drop(List.of(invalidation.userId()));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        access.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${app.list-access.eviction-interval-ms:300000}")
+    public void evictIdleEntries() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        access.values().removeIf(entry -> entry.getLastAccessMillis() < cutoff);
+    }
+
+    private UserListAccess access(Long userId) {
+        UserListAccess cached = access.get(userId);
+        return cached != null ? cached : load(userId);
+    }
+
+    private UserListAccess load(Long userId) {
+        int stripe = stripe(userId);
+        long version = versions.get(stripe);
+        UserListAccess loaded = UserListAccess.build(taskListMemberRepository.findByUserId(userId));
+        log.debug("Loaded list access of user: {}", userId);
+
+        UserListAccess installed = access.compute(userId, (id, existing) ->
+                existing != null ? existing : versions.get(stripe) == version ? loaded : null);
+        return installed != null ? installed : loaded;
+    }
+
+    private void drop(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            versions.incrementAndGet(stripe(userId));
+            access.remove(userId);
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), STRIPES);
+    }
+}
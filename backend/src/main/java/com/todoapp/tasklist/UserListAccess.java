@@ -0,0 +1,48 @@
+package com.todoapp.tasklist;
+
+import com.todoapp.entity.TaskListMember;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lists one user belongs to and their role in each. Never modified once
+ * built: a membership change replaces the whole entry.
+ */
+class UserListAccess {
+
+    private final Map<Long, TaskListMember.Role> roles;
+
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    private UserListAccess(Map<Long, TaskListMember.Role> roles) {
+        this.roles = roles;
+    }
+
+    static UserListAccess build(List<TaskListMember> memberships) {
+        Map<Long, TaskListMember.Role> roles = new HashMap<>(Math.max(4, memberships.size() * 2));
+        for (TaskListMember membership : memberships) {
+            roles.put(membership.getListId(), membership.getRole());
+        }
+        return new UserListAccess(Map.copyOf(roles));
+    }
+
+    TaskListMember.Role roleOf(Long listId) {
+        lastAccessMillis = System.currentTimeMillis();
+        return roles.get(listId);
+    }
+
+    Map<Long, TaskListMember.Role> roles() {
+        lastAccessMillis = System.currentTimeMillis();
+        return roles;
+    }
+
+    boolean isEmpty() {
+        return roles.isEmpty();
+    }
+
+    long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+}
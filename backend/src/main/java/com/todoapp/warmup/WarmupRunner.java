@@ -0,0 +1,248 @@
+package com.todoapp.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskFilter;
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSpecifications;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.security.JwtTokenProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs the request hot paths before the instance reports ready, so the first
+ * real requests don't pay for class loading, JIT compilation, empty connection
+ * pools and lazily built Hibernate plans. Spring Boot only switches readiness
+ * to ACCEPTING_TRAFFIC once all application runners have returned.
+ *
+ * <p>Everything runs against synthetic data: tasks are built in memory and
+ * queries target user and task id -1, which no row can have, inside read-only
+ * transactions.
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final long NO_SUCH_ID = -1L;
+    private static final String WARMUP_EMAIL = "warmup@warmup.invalid";
+    private static final Type TASK_LIST_TYPE = new ParameterizedTypeReference<List<TaskDTO>>() {
+    }.getType();
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warmup.iterations:10000}")
+    private int iterations;
+
+    @Value("${app.warmup.query-iterations:200}")
+    private int queryIterations;
+
+    @Value("${app.warmup.password-iterations:2}")
+    private int passwordIterations;
+
+    @Value("${app.warmup.max-duration-ms:60000}")
+    private long maxDurationMillis;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long deadline = start + maxDurationMillis;
+
+        step("connection pool", this::fillConnectionPool);
+        step("password hashing", () -> repeat(passwordIterations, deadline, this::hashPassword));
+        step("repository queries", () -> repeat(queryIterations, deadline, this::runQueries));
+        step("JWT", () -> repeat(iterations, deadline, this::signAndVerifyToken));
+        List<Task> tasks = syntheticTasks();
+        step("task mapping and JSON", () -> repeat(iterations / tasks.size(), deadline, () -> serialize(tasks)));
+
+        log.info("Warm-up finished in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void step(String name, WarmupStep step) {
+        long start = System.currentTimeMillis();
+        try {
+            step.run();
+            log.debug("Warm-up of {} took {} ms", name, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // A cold path is slower, not broken; never keep the instance out of rotation over it.
+            log.warn("Warm-up of {} failed", name, e);
+        }
+    }
+
+    private void repeat(int times, long deadline, WarmupStep step) throws Exception {
+        for (int i = 0; i < times && System.currentTimeMillis() < deadline; i++) {
+            step.run();
+        }
+    }
+
+    // Hikari fills up to minimum-idle in the background; borrowing that many at
+    // once opens them now.
+    void fillConnectionPool() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return;
+        }
+        int minimumIdle = dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+        List<Connection> connections = new ArrayList<>(minimumIdle);
+        try {
+            for (int i = 0; i < minimumIdle; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void hashPassword() {
+        String hash = passwordEncoder.encode("warm-up password");
+        passwordEncoder.matches("warm-up password", hash);
+    }
+
+    private void runQueries() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            TaskFilter filter = TaskFilter.builder().sort("createdAt").direction("desc").build();
+            taskRepository.findByUserId(NO_SUCH_ID);
+            taskRepository.findByUserIdAndStatus(NO_SUCH_ID, Task.TaskStatus.PENDING);
+            taskRepository.findAll(TaskSpecifications.matching(NO_SUCH_ID, filter), TaskSpecifications.sort(filter));
+            taskRepository.findByIdAndUserId(NO_SUCH_ID, NO_SUCH_ID);
+            taskHistoryRepository.findByTaskIdAndUserIdOrderByIdDesc(NO_SUCH_ID, NO_SUCH_ID, PageRequest.of(0, 20));
+            userRepository.findByEmail(WARMUP_EMAIL);
+        });
+    }
+
+    private void signAndVerifyToken() {
+        String token = jwtTokenProvider.generateTokenFromEmail(WARMUP_EMAIL);
+        if (jwtTokenProvider.validateToken(token)) {
+            jwtTokenProvider.getEmailFromToken(token);
+            jwtTokenProvider.getUserIdFromToken(token);
+        }
+    }
+
+    private void serialize(List<Task> tasks) throws IOException {
+        List<TaskDTO> dtos = tasks.stream().map(TaskDTO::fromEntity).toList();
+        writeTaskList(dtos);
+        byte[] single = objectMapper.writeValueAsBytes(dtos.get(0));
+        objectMapper.readValue(single, TaskDTO.class).toEntity();
+    }
+
+    // Goes through the converter Spring MVC would pick for a task list response.
+    @SuppressWarnings("unchecked")
+    private void writeTaskList(List<TaskDTO> dtos) throws IOException {
+        for (HttpMessageConverter<?> converter : handlerAdapter.getMessageConverters()) {
+            if (converter instanceof GenericHttpMessageConverter<?> generic
+                    && generic.canWrite(TASK_LIST_TYPE, List.class, MediaType.APPLICATION_JSON)) {
+                ((GenericHttpMessageConverter<Object>) generic)
+                        .write(dtos, TASK_LIST_TYPE, MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+                return;
+            }
+        }
+    }
+
+    private static List<Task> syntheticTasks() {
+        User user = User.builder().id(NO_SUCH_ID).name("Warm-up").email(WARMUP_EMAIL).build();
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(Task.builder()
+                    .id(NO_SUCH_ID - i)
+                    .name("Warm-up task " + i)
+                    .description(i % 2 == 0 ? "Synthetic task \"" + i + "\" used to warm up serialization" : null)
+                    .status(i % 3 == 0 ? Task.TaskStatus.COMPLETED : Task.TaskStatus.PENDING)
+                    .dueAt(i % 4 == 0 ? now.plusDays(i) : null)
+                    .tags(Set.of("warm-up", "tag" + i % 5))
+                    .user(user)
+                    .createdAt(now.minusMinutes(i))
+                    .updatedAt(now)
+                    .build());
+        }
+        return tasks;
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
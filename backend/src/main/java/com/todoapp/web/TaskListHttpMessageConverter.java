@@ -0,0 +1,268 @@
+package com.todoapp.web;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.todoapp.dto.TaskDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes {@code List<TaskDTO>} response bodies field by field on a JsonGenerator
+ * instead of through Jackson's reflective bean serializer. Field names are
+ * pre-encoded and timestamps are formatted into one char buffer per response,
+ * so no String is created per date.
+ *
+ * <p>The output must stay identical to the application ObjectMapper's. That is
+ * checked once at startup against a sample list; if a spring.jackson setting
+ * makes the two differ, this converter declines and Jackson writes the body.
+ */
+@Slf4j
+public class TaskListHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<TaskDTO>> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString DUE_AT = new SerializedString("dueAt");
+    private static final SerializableString TAGS = new SerializedString("tags");
+    private static final SerializableString PARENT_ID = new SerializedString("parentId");
+    private static final SerializableString LIST_ID = new SerializedString("listId");
+    private static final SerializableString PERCENT_DONE = new SerializedString("percentDone");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+
+    private final JsonFactory jsonFactory;
+    private final SerializationConfig serializationConfig;
+    private final boolean enabled;
+
+    public TaskListHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonFactory = objectMapper.getFactory();
+        this.serializationConfig = objectMapper.getSerializationConfig();
+        this.enabled = matches(objectMapper);
+        if (!enabled) {
+            log.warn("Task list JSON writer disabled: its output differs from the configured ObjectMapper");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return enabled && isTaskList(type) && canWrite(mediaType);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected void writeInternal(List<TaskDTO> tasks, Type type, HttpOutputMessage outputMessage) throws IOException {
+        write(tasks, StreamUtils.nonClosing(outputMessage.getBody()));
+    }
+
+    @Override
+    public List<TaskDTO> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Task lists are not read by this converter", inputMessage);
+    }
+
+    @Override
+    protected List<TaskDTO> readInternal(Class<? extends List<TaskDTO>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Task lists are not read by this converter", inputMessage);
+    }
+
+    void write(List<TaskDTO> tasks, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            serializationConfig.initialize(generator);
+            char[] dateBuffer = new char[32];
+            generator.writeStartArray();
+            for (TaskDTO task : tasks) {
+                if (task == null) {
+                    generator.writeNull();
+                } else {
+                    writeTask(generator, task, dateBuffer);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeTask(JsonGenerator generator, TaskDTO task, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (task.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(task.getId());
+        }
+        generator.writeFieldName(NAME);
+        generator.writeString(task.getName());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(task.getDescription());
+        generator.writeFieldName(STATUS);
+        generator.writeString(task.getStatus());
+        generator.writeFieldName(DUE_AT);
+        writeDateTime(generator, task.getDueAt(), dateBuffer);
+        generator.writeFieldName(TAGS);
+        if (task.getTags() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray();
+            for (String tag : task.getTags()) {
+                generator.writeString(tag);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeFieldName(PARENT_ID);
+        if (task.getParentId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(task.getParentId());
+        }
+        generator.writeFieldName(LIST_ID);
+        if (task.getListId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(task.getListId());
+        }
+        generator.writeFieldName(PERCENT_DONE);
+        if (task.getPercentDone() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(task.getPercentDone());
+        }
+        generator.writeFieldName(CREATED_AT);
+        writeDateTime(generator, task.getCreatedAt(), dateBuffer);
+        generator.writeFieldName(UPDATED_AT);
+        writeDateTime(generator, task.getUpdatedAt(), dateBuffer);
+        generator.writeEndObject();
+    }
+
+    private static void writeDateTime(JsonGenerator generator, LocalDateTime value, char[] buffer) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        int length = formatIsoLocalDateTime(value, buffer);
+        if (length < 0) {
+            generator.writeString(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        } else {
+            generator.writeString(buffer, 0, length);
+        }
+    }
+
+    /**
+     * Same text as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, which Jackson
+     * uses for LocalDateTime: seconds always, fraction only when non-zero and
+     * without trailing zeros. Returns -1 for years it does not handle.
+     */
+    static int formatIsoLocalDateTime(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        int pos = 0;
+        pos = digits(buffer, pos, year, 4);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, value.getMonthValue(), 2);
+        buffer[pos++] = '-';
+        pos = digits(buffer, pos, value.getDayOfMonth(), 2);
+        buffer[pos++] = 'T';
+        pos = digits(buffer, pos, value.getHour(), 2);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, value.getMinute(), 2);
+        buffer[pos++] = ':';
+        pos = digits(buffer, pos, value.getSecond(), 2);
+
+        int nano = value.getNano();
+        if (nano > 0) {
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buffer[pos++] = '.';
+            pos = digits(buffer, pos, nano, width);
+        }
+        return pos;
+    }
+
+    private static int digits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    private static boolean isTaskList(Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && List.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] == TaskDTO.class;
+    }
+
+    private boolean matches(ObjectMapper objectMapper) {
+        List<TaskDTO> sample = List.of(
+                TaskDTO.builder()
+                        .id(361751757435855L)
+                        .name("Caf\u00e9 \"quoted\" \\ </script>\n ")
+                        .description("\uD83D\uDCDD notes\t")
+                        .status("PENDING")
+                        .dueAt(LocalDateTime.of(2024, 1, 16, 18, 0))
+                        .tags(List.of("home", "work"))
+                        .parentId(361751757435801L)
+                        .listId(361751757435700L)
+                        .percentDone(50)
+                        .createdAt(LocalDateTime.of(2024, 1, 15, 10, 30, 5, 120_000_000))
+                        .updatedAt(LocalDateTime.of(2024, 1, 15, 10, 30, 5, 123_456_789))
+                        .build(),
+                TaskDTO.builder().build());
+        try {
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            write(sample, actual);
+            return Arrays.equals(objectMapper.writeValueAsBytes(sample), actual.toByteArray());
+        } catch (IOException e) {
+            log.warn("Could not verify the task list JSON writer", e);
+            return false;
+        }
+    }
+}
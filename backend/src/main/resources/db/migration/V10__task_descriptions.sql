@@ -0,0 +1,21 @@
+-- Descriptions move out of the tasks table so task rows stay narrow. Content
+-- starts with a format byte (0 = UTF-8, 1 = zlib-compressed UTF-8; see
+-- TaskDescriptionCodec). Existing descriptions keep their task's id as their
+-- own and are copied uncompressed; they are compressed when next written.
+CREATE TABLE task_descriptions (
+    id BIGINT PRIMARY KEY,
+    content BLOB NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO task_descriptions (id, content)
+SELECT id, CONCAT(X'00', CONVERT(description USING utf8mb4)) FROM tasks WHERE description IS NOT NULL;
+
+ALTER TABLE tasks
+    ADD COLUMN description_id BIGINT NULL AFTER name,
+    ADD CONSTRAINT uk_tasks_description UNIQUE (description_id),
+    ADD CONSTRAINT fk_tasks_description FOREIGN KEY (description_id) REFERENCES task_descriptions (id);
+
+UPDATE tasks SET description_id = id WHERE description IS NOT NULL;
+
+ALTER TABLE tasks
+    DROP COLUMN description;
@@ -0,0 +1,13 @@
+-- Subtasks. tree_path lists the ancestor ids from the root ('/' for a
+-- top-level task, '/12/45/' for a child of 45 under 12), so a subtree is one
+-- prefix range on idx_tasks_user_tree_path. The descendant counters feed the
+-- parent's percent done and are updated along the path.
+ALTER TABLE tasks
+    ADD COLUMN parent_id BIGINT NULL AFTER user_id,
+    ADD COLUMN tree_path VARCHAR(255) NOT NULL DEFAULT '/' AFTER parent_id,
+    ADD COLUMN tree_depth INT NOT NULL DEFAULT 0 AFTER tree_path,
+    ADD COLUMN descendant_count INT NOT NULL DEFAULT 0 AFTER tree_depth,
+    ADD COLUMN completed_descendant_count INT NOT NULL DEFAULT 0 AFTER descendant_count,
+    ADD CONSTRAINT fk_tasks_parent FOREIGN KEY (parent_id) REFERENCES tasks (id);
+
+CREATE INDEX idx_tasks_user_tree_path ON tasks (user_id, tree_path);
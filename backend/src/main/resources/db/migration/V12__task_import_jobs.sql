@@ -0,0 +1,29 @@
+-- Bulk imports: the upload is spooled to the receiving node's disk and
+-- processed there in chunks; rows_processed is committed with each chunk so a
+-- restarted import resumes after the last one.
+CREATE TABLE task_import_jobs (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    spool_file VARCHAR(255) NOT NULL,
+    uploaded_bytes BIGINT NOT NULL DEFAULT 0,
+    rows_processed BIGINT NOT NULL DEFAULT 0,
+    rows_imported BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(500) NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    completed_at DATETIME NULL,
+    INDEX idx_task_import_jobs_status (status, id),
+    INDEX idx_task_import_jobs_user (user_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Rejected rows, up to app.task-import.max-errors per job.
+CREATE TABLE task_import_errors (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_id BIGINT NOT NULL,
+    record_number BIGINT NOT NULL,
+    message VARCHAR(500) NOT NULL,
+    INDEX idx_task_import_errors_job (job_id, record_number)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,25 @@
+-- Shared task lists. A task stays owned by the user who created it; list_id
+-- makes it visible to the list's members. Memberships are read per user
+-- (idx_task_list_members_user) into TaskListAccess, and a list's tasks are
+-- paged in creation order on idx_tasks_list.
+CREATE TABLE task_lists (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    created_by BIGINT NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE task_list_members (
+    list_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    created_at DATETIME NOT NULL,
+    PRIMARY KEY (list_id, user_id),
+    INDEX idx_task_list_members_user (user_id, list_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE tasks
+    ADD COLUMN list_id BIGINT NULL AFTER user_id;
+
+CREATE INDEX idx_tasks_list ON tasks (list_id, id);
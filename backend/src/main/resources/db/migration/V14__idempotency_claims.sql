@@ -0,0 +1,7 @@
+-- A key is claimed with an IN_PROGRESS row before its request runs, and the
+-- row is completed in the request's own transaction, so no node runs a key
+-- twice. claim_token identifies the attempt holding the claim.
+ALTER TABLE idempotency_keys
+    ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED',
+    ADD COLUMN claim_token VARCHAR(36) NULL,
+    ADD COLUMN claimed_at DATETIME NULL;
@@ -0,0 +1,18 @@
+-- Ids handed out by POST /tasks/ids. POST /tasks deletes the row of the id it
+-- is given, in its own transaction, so only the user an id was issued to can
+-- use it, and only once. Unused rows expire after app.ids.reservation-ttl-days.
+CREATE TABLE task_id_reservations (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    reserved_at DATETIME NOT NULL,
+    INDEX idx_task_id_reservations_reserved_at (reserved_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- The node id (app.ids.node-id) each running instance holds. Instances renew
+-- their row while running, so a second one started with the same node id,
+-- which would hand out the same ids, fails to start.
+CREATE TABLE id_node_leases (
+    node_id INT PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    renewed_at DATETIME NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,10 @@
+-- Length of sort_key, written by the Task entity with the key. The rebalance
+-- job looks up users with keys past app.task-ordering.max-position-length, or
+-- with no key yet, as a range of idx_tasks_sort_key_length instead of
+-- computing LENGTH(sort_key) over every row.
+ALTER TABLE tasks
+    ADD COLUMN sort_key_length INT NULL AFTER sort_key;
+
+UPDATE tasks SET sort_key_length = CHAR_LENGTH(sort_key) WHERE sort_key IS NOT NULL;
+
+CREATE INDEX idx_tasks_sort_key_length ON tasks (sort_key_length, user_id);
@@ -0,0 +1,5 @@
+-- The user who made each change. user_id stays the task's owner, while an
+-- edit through a shared list is made by one of its members. Entries written
+-- before this column have no actor recorded.
+ALTER TABLE task_history
+    ADD COLUMN actor_id BIGINT NULL AFTER user_id;
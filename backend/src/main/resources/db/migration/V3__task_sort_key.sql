@@ -0,0 +1,3 @@
+ALTER TABLE tasks
+    ADD COLUMN sort_key VARCHAR(255) COLLATE utf8mb4_bin AFTER status,
+    ADD INDEX idx_tasks_user_sort_key (user_id, sort_key);
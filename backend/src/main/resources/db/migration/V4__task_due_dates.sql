@@ -0,0 +1,4 @@
+ALTER TABLE tasks
+    ADD COLUMN due_at DATETIME NULL AFTER sort_key,
+    ADD COLUMN reminder_sent_at DATETIME NULL AFTER due_at,
+    ADD INDEX idx_tasks_reminder_due (reminder_sent_at, due_at);
@@ -0,0 +1,14 @@
+-- One (user_id, column) and one (user_id, status, column) index per supported
+-- sort. They also cover the foreign key, so the single-column indexes go.
+ALTER TABLE tasks
+    ADD INDEX idx_tasks_user_status_sort_key (user_id, status, sort_key),
+    ADD INDEX idx_tasks_user_created (user_id, created_at),
+    ADD INDEX idx_tasks_user_status_created (user_id, status, created_at),
+    ADD INDEX idx_tasks_user_updated (user_id, updated_at),
+    ADD INDEX idx_tasks_user_status_updated (user_id, status, updated_at),
+    ADD INDEX idx_tasks_user_name (user_id, name),
+    ADD INDEX idx_tasks_user_status_name (user_id, status, name);
+
+ALTER TABLE tasks
+    DROP INDEX idx_user_id,
+    DROP INDEX idx_status;
@@ -0,0 +1,11 @@
+-- Append-only: rows are never updated and outlive the task they describe.
+CREATE TABLE task_history (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    action VARCHAR(30) NOT NULL,
+    old_value VARCHAR(500),
+    new_value VARCHAR(500),
+    occurred_at DATETIME(3) NOT NULL,
+    INDEX idx_task_history_task (task_id, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,16 @@
+ALTER TABLE users
+    ADD COLUMN deleted_at DATETIME NULL;
+
+-- Kept after the account is gone as the record of the purge.
+CREATE TABLE account_deletion_jobs (
+    user_id BIGINT PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    tasks_deleted BIGINT NOT NULL DEFAULT 0,
+    history_deleted BIGINT NOT NULL DEFAULT 0,
+    requested_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    completed_at DATETIME NULL,
+    INDEX idx_account_deletion_status (status, requested_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_task_history_user ON task_history (user_id, id);
@@ -0,0 +1,17 @@
+-- Existing completed tasks get their last update as completion time, the best
+-- estimate available.
+ALTER TABLE tasks
+    ADD COLUMN completed_at DATETIME NULL AFTER reminder_sent_at;
+
+UPDATE tasks SET completed_at = updated_at WHERE status = 'COMPLETED';
+
+ALTER TABLE users
+    ADD COLUMN stats_rebuilt_at DATETIME NULL;
+
+CREATE TABLE task_daily_stats (
+    user_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    created INT NOT NULL DEFAULT 0,
+    completed INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, stat_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
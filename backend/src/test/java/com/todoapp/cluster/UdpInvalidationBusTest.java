@@ -0,0 +1,153 @@
+package com.todoapp.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UdpInvalidationBusTest {
+
+    private final List<UdpInvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(UdpInvalidationBus::stop);
+    }
+
+    @Test
+    void testBurstIsCoalescedAndDeliveredToPeers() throws Exception {
+        int portA = freePort();
+        int portB = freePort();
+        int portC = freePort();
+        RecordingCache cacheB = new RecordingCache();
+        RecordingCache cacheC = new RecordingCache();
+        UdpInvalidationBus busA = start(portA, List.of(portB, portC), new RecordingCache());
+        start(portB, List.of(portA, portC), cacheB);
+        start(portC, List.of(portA, portB), cacheC);
+        // Until a peer has heard from A, A's next packet is a first packet with
+        // a sequence above 1 there, which flushes instead of being applied.
+        await(() -> buses.stream().allMatch(bus -> bus.stats().getKnownSenders() == 2));
+        long sentBefore = busA.stats().getSentInvalidations();
+
+        for (int i = 0; i < 1000; i++) {
+            busA.publish(Invalidation.tasks(i % 3));
+        }
+
+        List<Invalidation> expected = List.of(Invalidation.tasks(0), Invalidation.tasks(1), Invalidation.tasks(2));
+        await(() -> cacheB.invalidations.containsAll(expected) && cacheC.invalidations.containsAll(expected));
+        assertTrue(busA.stats().getSentInvalidations() - sentBefore < 10);
+        assertEquals(1000, busA.stats().getPublished());
+    }
+
+    @Test
+    void testGapTriggersFullFlush() throws Exception {
+        RecordingCache cache = new RecordingCache();
+        UdpInvalidationBus bus = start(freePort(), List.of(), cache);
+
+        try (DatagramSocket peer = new DatagramSocket()) {
+            send(peer, bus, new InvalidationPacket(42, 1, List.of(Invalidation.tasks(7))));
+            await(() -> cache.invalidations.contains(Invalidation.tasks(7)));
+            assertEquals(0, cache.flushes);
+
+            send(peer, bus, new InvalidationPacket(42, 3, List.of(Invalidation.tasks(8))));
+            await(() -> cache.flushes == 1);
+
+            send(peer, bus, new InvalidationPacket(42, 2, List.of(Invalidation.tasks(9))));
+            await(() -> bus.stats().getStalePackets() == 1);
+            assertFalse(cache.invalidations.contains(Invalidation.tasks(9)));
+            assertEquals(1, bus.stats().getGaps());
+        }
+    }
+
+    @Test
+    void testFirstPacketFromSenderThatStartedEarlierCountsAsGap() throws Exception {
+        RecordingCache cache = new RecordingCache();
+        UdpInvalidationBus bus = start(freePort(), List.of(), cache);
+
+        try (DatagramSocket peer = new DatagramSocket()) {
+            send(peer, bus, new InvalidationPacket(42, 17, List.of()));
+            await(() -> cache.flushes == 1);
+        }
+    }
+
+    @Test
+    void testMalformedDatagramIsIgnored() throws Exception {
+        RecordingCache cache = new RecordingCache();
+        UdpInvalidationBus bus = start(freePort(), List.of(), cache);
+
+        try (DatagramSocket peer = new DatagramSocket()) {
+            byte[] junk = {1, 2, 3};
+            peer.send(new DatagramPacket(junk, junk.length, InetAddress.getLoopbackAddress(), bus.getLocalPort()));
+            await(() -> bus.stats().getDecodeErrors() == 1);
+        }
+        assertEquals(0, cache.flushes);
+    }
+
+    @Test
+    void testPacketRoundTrip() {
+        InvalidationPacket packet = new InvalidationPacket(-5, 123,
+                List.of(Invalidation.tasks(1), Invalidation.principal(Long.MAX_VALUE), Invalidation.ALL));
+
+        InvalidationPacket decoded = InvalidationPacket.decode(packet.encode());
+
+        assertEquals(packet, decoded);
+        assertThrows(IllegalArgumentException.class, () -> InvalidationPacket.decode(ByteBuffer.allocate(4)));
+    }
+
+    private UdpInvalidationBus start(int port, List<Integer> peerPorts, ClusteredCache cache) {
+        List<InetSocketAddress> peers = peerPorts.stream()
+                .map(peerPort -> new InetSocketAddress(InetAddress.getLoopbackAddress(), peerPort))
+                .toList();
+        UdpInvalidationBus bus = new UdpInvalidationBus(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                peers, List.of(cache), 20, 100, 10000);
+        bus.start();
+        buses.add(bus);
+        return bus;
+    }
+
+    private static void send(DatagramSocket socket, UdpInvalidationBus bus, InvalidationPacket packet) throws Exception {
+        ByteBuffer payload = packet.encode();
+        socket.send(new DatagramPacket(payload.array(), payload.limit(),
+                InetAddress.getLoopbackAddress(), bus.getLocalPort()));
+    }
+
+    private static int freePort() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    private static class RecordingCache implements ClusteredCache {
+
+        private final List<Invalidation> invalidations = new CopyOnWriteArrayList<>();
+        private volatile int flushes;
+
+        @Override
+        public void invalidate(Invalidation invalidation) {
+            invalidations.add(invalidation);
+        }
+
+        @Override
+        public void invalidateAll() {
+            flushes++;
+        }
+    }
+}
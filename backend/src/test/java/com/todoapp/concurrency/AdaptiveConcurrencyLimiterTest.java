@@ -0,0 +1,122 @@
+package com.todoapp.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final int CAPACITY = 4;
+    private static final long SERVICE_TIME_MS = 20;
+
+    @Test
+    void testLimitDecreasesWhenRequestsQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 2, 100);
+        saturateAndRelease(limiter, TimeUnit.MILLISECONDS.toNanos(10));
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            saturateAndRelease(limiter, TimeUnit.MILLISECONDS.toNanos(40));
+        }
+
+        assertTrue(limiter.getLimit() < before);
+        assertTrue(limiter.getLimit() >= 2);
+    }
+
+    @Test
+    void testLimitIncreasesWhileLatencyStaysFlat() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 100);
+
+        for (int i = 0; i < 5; i++) {
+            saturateAndRelease(limiter, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void testRejectsImmediatelyAtLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 3, 1, 10);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.snapshot().getRejected());
+        assertEquals(3, limiter.snapshot().getInFlight());
+    }
+
+    // Simulated time: CAPACITY servers behind a FIFO queue and five times as many
+    // clients, each sending its next request as soon as the previous one returns
+    // and retrying a rejection after a quarter of the service time.
+    @Test
+    void testBoundedTailLatencyUnderFiveTimesOverload() {
+        int clients = CAPACITY * 5;
+        long serviceNanos = TimeUnit.MILLISECONDS.toNanos(SERVICE_TIME_MS);
+        long warmupEnd = TimeUnit.SECONDS.toNanos(1);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 1, 100);
+
+        PriorityQueue<Long> serverFreeAt = new PriorityQueue<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            serverFreeAt.add(0L);
+        }
+        // {time, kind (0 = response, 1 = request), sent at}; responses go first at equal times.
+        PriorityQueue<long[]> events = new PriorityQueue<>(Comparator.<long[]>comparingLong(e -> e[0])
+                .thenComparingLong(e -> e[1]));
+        for (int i = 0; i < clients; i++) {
+            events.add(new long[]{i, 1, 0});
+        }
+        List<Long> latencies = new ArrayList<>();
+        long rejections = 0;
+
+        while (!events.isEmpty()) {
+            long[] event = events.poll();
+            long now = event[0];
+            if (event[1] == 0) {
+                long rtt = now - event[2];
+                limiter.release(rtt);
+                if (event[2] > warmupEnd) {
+                    latencies.add(rtt);
+                }
+                events.add(new long[]{now, 1, 0});
+            } else if (now < end) {
+                if (limiter.tryAcquire()) {
+                    long done = Math.max(now, serverFreeAt.poll()) + serviceNanos;
+                    serverFreeAt.add(done);
+                    events.add(new long[]{done, 0, now});
+                } else {
+                    rejections++;
+                    events.add(new long[]{now + serviceNanos / 4, 1, 0});
+                }
+            }
+        }
+
+        Collections.sort(latencies);
+        long p99Ms = TimeUnit.NANOSECONDS.toMillis(latencies.get((int) (latencies.size() * 0.99)));
+
+        // Without shedding, 5x the backend capacity queues every request behind
+        // four others, i.e. ~5x the service time.
+        assertTrue(rejections > 0);
+        assertTrue(limiter.getLimit() < clients, "limit was " + limiter.getLimit());
+        assertTrue(p99Ms < SERVICE_TIME_MS * 3, "p99 latency was " + p99Ms + "ms");
+    }
+
+    private void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = limiter.getLimit();
+        for (int i = 0; i < acquired; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.todoapp.description;
+
+import com.todoapp.core.DescriptionFormat;
+import com.todoapp.dto.TaskDescriptionStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDescriptionCodecTest {
+
+    private final TaskDescriptionCodec codec = new TaskDescriptionCodec();
+
+    @Test
+    void testShortDescriptionIsStoredAsText() {
+        String description = "Comprar pão e café ☕";
+
+        byte[] stored = codec.convertToDatabaseColumn(description);
+
+        assertEquals(DescriptionFormat.PLAIN, stored[0]);
+        assertEquals(description.getBytes(StandardCharsets.UTF_8).length + 1, stored.length);
+        assertEquals(description, codec.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void testLongDescriptionIsCompressed() {
+        String description = "Revisar o relatório trimestral e enviar para a equipe. ".repeat(90);
+
+        byte[] stored = codec.convertToDatabaseColumn(description);
+
+        assertEquals(DescriptionFormat.DEFLATE, stored[0]);
+        assertTrue(stored.length < description.length() / 4, stored.length + " bytes stored");
+        assertEquals(description, codec.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void testDescriptionBelowThresholdIsNotCompressed() {
+        String description = "a".repeat(511);
+
+        byte[] stored = codec.convertToDatabaseColumn(description);
+
+        assertEquals(DescriptionFormat.PLAIN, stored[0]);
+        assertEquals(description, codec.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void testNullAndUnknownFormat() {
+        assertNull(codec.convertToDatabaseColumn(null));
+        assertNull(codec.convertToEntityAttribute(null));
+        assertThrows(IllegalStateException.class, () -> codec.convertToEntityAttribute(new byte[]{7, 'x'}));
+    }
+
+    @Test
+    void testStatsCountWritesAndReads() {
+        byte[] stored = codec.convertToDatabaseColumn("a".repeat(1000));
+        codec.convertToDatabaseColumn("short");
+        codec.convertToEntityAttribute(stored);
+
+        TaskDescriptionStatsDTO stats = codec.stats(2, 100);
+
+        assertEquals(2, stats.getStoredDescriptions());
+        assertEquals(100, stats.getStoredBytes());
+        assertEquals(2, stats.getWrites());
+        assertEquals(1, stats.getCompressedWrites());
+        assertEquals(1005, stats.getWrittenTextBytes());
+        assertEquals(stored.length + 6, stats.getWrittenStoredBytes());
+        assertEquals(1, stats.getReads());
+    }
+}
@@ -0,0 +1,481 @@
+package com.todoapp.embedded;
+
+import com.todoapp.dto.TaskFilter;
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import com.todoapp.id.TimeOrderedIdSource;
+import com.todoapp.reminder.DueReminder;
+import com.todoapp.repository.DeletedTaskRow;
+import com.todoapp.repository.TaskDayCount;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSpecifications;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedStoreTest {
+
+    private static final int SEGMENT_BYTES = 1 << 16;
+    private static final long LOCK_TIMEOUT_MILLIS = 1000;
+
+    @TempDir
+    Path directory;
+
+    private final TimeOrderedIdSource idSource = TimeOrderedIdSource.forNode(0);
+    private final TransactionTemplate transactions = new TransactionTemplate(new SynchronizingTransactionManager());
+
+    private EmbeddedStore store;
+    private TaskRepository taskRepository;
+    private UserRepository userRepository;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open();
+        user = userRepository.save(User.builder()
+                .name("Embedded User")
+                .email("embedded@example.com")
+                .password("password")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testEveryTaskRepositoryQueryIsImplemented() {
+        for (Method method : TaskRepository.class.getDeclaredMethods()) {
+            assertTrue(EmbeddedRepositories.findTarget(EmbeddedTaskRepository.class, method).isPresent(),
+                    method.getName());
+        }
+        for (Method method : UserRepository.class.getDeclaredMethods()) {
+            assertTrue(EmbeddedRepositories.findTarget(EmbeddedUserRepository.class, method).isPresent(),
+                    method.getName());
+        }
+    }
+
+    @Test
+    void testSaveAssignsIdsAndTimestamps() {
+        Task task = taskRepository.save(task("First", "a0"));
+
+        assertNotNull(task.getId());
+        assertNotNull(task.getCreatedAt());
+        assertEquals(Task.TaskStatus.PENDING, task.getStatus());
+        assertEquals("/", task.getTreePath());
+        assertEquals(user.getId(), taskRepository.findByIdAndUserId(task.getId(), user.getId())
+                .orElseThrow().getUser().getId());
+        assertTrue(taskRepository.findByIdAndUserId(task.getId(), user.getId() + 1).isEmpty());
+        assertTrue(userRepository.findByEmail("EMBEDDED@example.com").isPresent());
+    }
+
+    @Test
+    void testEntitiesAreCopies() {
+        Task task = taskRepository.save(task("Original", "a0"));
+        task.setName("Changed without save");
+
+        assertEquals("Original", taskRepository.findById(task.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testQueriesOrderLikeTheDatabase() {
+        taskRepository.save(task("Zeta", "a2"));
+        taskRepository.save(task("alpha", "a1"));
+        taskRepository.save(task("Beta", null));
+        Task done = task("Gamma", "a3");
+        done.setStatus(Task.TaskStatus.COMPLETED);
+        taskRepository.save(done);
+
+        assertEquals(List.of("Beta", "alpha", "Zeta", "Gamma"), names(taskRepository.findByUserId(user.getId())));
+        assertEquals(List.of("Gamma"),
+                names(taskRepository.findByUserIdAndStatus(user.getId(), Task.TaskStatus.COMPLETED)));
+        assertEquals(List.of("alpha", "Zeta", "Gamma", "Beta"),
+                names(taskRepository.findByUserIdForRebalance(user.getId())));
+        assertEquals("Gamma", taskRepository.findFirstByUserIdOrderByPositionDesc(user.getId())
+                .orElseThrow().getName());
+        assertEquals("Zeta", taskRepository
+                .findFirstByUserIdAndPositionGreaterThanOrderByPositionAsc(user.getId(), "a1").orElseThrow().getName());
+        assertEquals("alpha", taskRepository
+                .findFirstByUserIdAndPositionLessThanOrderByPositionDesc(user.getId(), "a2").orElseThrow().getName());
+        assertEquals(1, taskRepository.countByUserIdAndStatus(user.getId(), Task.TaskStatus.COMPLETED));
+        assertEquals(List.of(user.getId()), taskRepository.findUserIdsNeedingRebalance(24, PageRequest.of(0, 10)));
+        Task beta = taskRepository.findByUserIdForRebalance(user.getId()).get(3);
+        beta.setPosition("a4");
+        taskRepository.save(beta);
+        assertEquals(List.of(), taskRepository.findUserIdsNeedingRebalance(24, PageRequest.of(0, 10)));
+        beta.setPosition("a4" + "V".repeat(30));
+        taskRepository.save(beta);
+        assertEquals(List.of(user.getId()), taskRepository.findUserIdsNeedingRebalance(24, PageRequest.of(0, 10)));
+        beta.setPosition("a4");
+        taskRepository.save(beta);
+
+        TaskFilter filter = new TaskFilter();
+        filter.setSort("name");
+        filter.setDirection("desc");
+        filter.setStatus("pending");
+        assertEquals(List.of("Zeta", "Beta", "alpha"), names(taskRepository.findAll(
+                TaskSpecifications.matching(user.getId(), filter), TaskSpecifications.sort(filter))));
+        filter.setNamePrefix("AL");
+        assertEquals(List.of("alpha"), names(taskRepository.findAll(
+                TaskSpecifications.matching(user.getId(), filter), TaskSpecifications.sort(filter))));
+    }
+
+    @Test
+    void testSubtreeAndDescendantCounts() {
+        Task parent = taskRepository.save(task("Parent", "a0"));
+        Task child = task("Child", "a0");
+        child.setParentId(parent.getId());
+        child.setTreePath(parent.childTreePath());
+        child.setTreeDepth(1);
+        taskRepository.save(child);
+        taskRepository.adjustDescendantCounts(List.of(parent.getId()), 1, 0);
+
+        assertEquals(List.of(new DeletedTaskRow(child.getId(), "Child", null)),
+                taskRepository.findDeletedRows(user.getId(), parent.childTreePath() + "%"));
+        assertEquals(2, taskRepository.findSubtree(user.getId(), "/%", 1).size());
+        assertEquals(1, taskRepository.findById(parent.getId()).orElseThrow().getDescendantCount());
+        assertEquals(List.of(new TaskDayCount(Task.TaskStatus.PENDING, child.getCreatedAt().toLocalDate(), null, 1)),
+                taskRepository.countDescendantsByDay(user.getId(), parent.childTreePath() + "%"));
+
+        assertEquals(1, taskRepository.detachDescendants(user.getId(), parent.childTreePath() + "%"));
+        assertEquals(1, taskRepository.deleteDescendants(user.getId(), parent.childTreePath() + "%"));
+        assertEquals(List.of("Parent"), names(taskRepository.findByUserId(user.getId())));
+    }
+
+    @Test
+    void testListTasksArePagedAndDetached() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = task("Listed " + i, "a" + i);
+            task.setListId(7L);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+
+        Slice<Task> first = taskRepository.findByListIdOrderById(7L, PageRequest.of(0, 3));
+        Slice<Task> second = taskRepository.findByListIdOrderById(7L, PageRequest.of(1, 3));
+        assertEquals(List.of("Listed 0", "Listed 1", "Listed 2"), names(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(List.of("Listed 3", "Listed 4"), names(second.getContent()));
+        assertFalse(second.hasNext());
+
+        assertEquals(5, taskRepository.detachFromList(7L));
+        assertTrue(taskRepository.findByListIdOrderById(7L, PageRequest.of(0, 3)).isEmpty());
+    }
+
+    @Test
+    void testRemindersAreClaimedOnce() {
+        LocalDateTime dueAt = LocalDateTime.now().plusMinutes(5).withNano(0);
+        Task task = task("Due", "a0");
+        task.setDueAt(dueAt);
+        taskRepository.save(task);
+
+        Slice<DueReminder> due = taskRepository.findPendingRemindersDueBefore(
+                Task.TaskStatus.PENDING, dueAt.plusMinutes(1), PageRequest.of(0, 10));
+        assertEquals(List.of(new DueReminder(task.getId(), user.getId(), "Due", dueAt)), due.getContent());
+
+        LocalDateTime claimedAt = LocalDateTime.now();
+        assertEquals(1, taskRepository.claimReminder(task.getId(), dueAt, Task.TaskStatus.PENDING, claimedAt));
+        assertEquals(0, taskRepository.claimReminder(task.getId(), dueAt, Task.TaskStatus.PENDING, claimedAt));
+        assertTrue(taskRepository.findPendingRemindersDueBefore(
+                Task.TaskStatus.PENDING, dueAt.plusMinutes(1), PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, taskRepository.releaseReminder(task.getId(), claimedAt));
+    }
+
+    @Test
+    void testConstraintsOfTheTablesHold() {
+        Task orphan = task("Orphan", "a0");
+        orphan.setUser(User.builder().id(user.getId() + 1).build());
+        assertThrows(DataIntegrityViolationException.class, () -> taskRepository.save(orphan));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.save(User.builder()
+                .name("Twin")
+                .email("Embedded@Example.com")
+                .password("password")
+                .build()));
+
+        taskRepository.save(task("Owned", "a0"));
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.deleteById(user.getId()));
+    }
+
+    // The warm-up queries user and task id -1.
+    @Test
+    void testIdsNoRowCanHaveFindNothing() {
+        TaskFilter filter = TaskFilter.builder().sort("createdAt").direction("desc").build();
+
+        assertTrue(taskRepository.findByUserId(-1L).isEmpty());
+        assertTrue(taskRepository.findByUserIdAndStatus(-1L, Task.TaskStatus.PENDING).isEmpty());
+        assertTrue(taskRepository.findAll(TaskSpecifications.matching(-1L, filter), TaskSpecifications.sort(filter))
+                .isEmpty());
+        assertTrue(taskRepository.findByIdAndUserId(-1L, -1L).isEmpty());
+        assertTrue(userRepository.findById(-1L).isEmpty());
+        assertTrue(userRepository.findByEmail("warmup@warmup.invalid").isEmpty());
+    }
+
+    @Test
+    void testRepositoryWithUnsupportedMethodsIsRejectedUpFront() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> EmbeddedRepositories
+                .create(PagingTaskRepository.class, new EmbeddedTaskRepository(store, idSource)));
+        assertTrue(exception.getMessage().contains("findAll(Pageable)"));
+    }
+
+    @Test
+    void testStateSurvivesRestartFromSnapshotAndLog() throws IOException {
+        Task kept = taskRepository.save(task("Kept", "a0"));
+        store.snapshot();
+        Task afterSnapshot = task("After snapshot", "a1");
+        afterSnapshot.setTags(Set.of("log"));
+        taskRepository.save(afterSnapshot);
+        Task deleted = taskRepository.save(task("Deleted", "a2"));
+        taskRepository.delete(deleted);
+
+        store.close();
+        open();
+
+        assertEquals(List.of("Kept", "After snapshot"), names(taskRepository.findByUserId(user.getId())));
+        assertEquals(Set.of("log"), taskRepository.findById(afterSnapshot.getId()).orElseThrow().getTags());
+        assertEquals(kept.getCreatedAt(), taskRepository.findById(kept.getId()).orElseThrow().getCreatedAt());
+        assertEquals("embedded@example.com", userRepository.findById(user.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void testLogIsReplayedWithoutCleanShutdown() throws IOException {
+        taskRepository.save(task("Durable", "a0"));
+
+        // A second store on the same files sees what a restart after a crash would.
+        EmbeddedStore recovered = EmbeddedStore.open(directory, SEGMENT_BYTES, Long.MAX_VALUE, Long.MAX_VALUE, LOCK_TIMEOUT_MILLIS);
+        try {
+            assertEquals(1, recovered.taskCount());
+            assertEquals(1, recovered.userCount());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void testChangesOfAnUnfinishedTransactionAreNotRecovered() throws Exception {
+        Task task = taskRepository.save(task("Before", "a0"));
+        transactions.executeWithoutResult(status -> taskRepository.save(task("Committed", "a1")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Task changed = taskRepository.findById(task.getId()).orElseThrow();
+            changed.setName("Uncommitted");
+            taskRepository.save(changed);
+            taskRepository.save(task("Inserted", "a2"));
+
+            // A snapshot waits for the transaction rather than taking its rows.
+            Future<?> snapshot = executor.submit(() -> {
+                store.snapshot();
+                return null;
+            });
+            ExecutionException timedOut = assertThrows(ExecutionException.class, snapshot::get);
+            assertInstanceOf(CannotAcquireLockException.class, timedOut.getCause());
+
+            EmbeddedStore recovered = EmbeddedStore.open(directory, SEGMENT_BYTES, Long.MAX_VALUE, Long.MAX_VALUE, LOCK_TIMEOUT_MILLIS);
+            try {
+                assertEquals(Set.of("Before", "Committed"), recovered.allTasks().stream().map(StoredTask::name).collect(Collectors.toSet()));
+            } finally {
+                recovered.close();
+            }
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            executor.shutdownNow();
+        }
+        assertEquals(List.of("Before", "Committed"), names(taskRepository.findByUserId(user.getId())));
+    }
+
+    @Test
+    void testRollbackRestoresPreviousImages() {
+        Task task = taskRepository.save(task("Before", "a0"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Task changed = taskRepository.findById(task.getId()).orElseThrow();
+            changed.setName("After");
+            taskRepository.save(changed);
+            taskRepository.save(task("Inserted", "a1"));
+            assertEquals(2, store.taskCount());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("Before"), names(taskRepository.findByUserId(user.getId())));
+        assertFalse(TransactionSynchronizationManager.hasResource(store));
+    }
+
+    @Test
+    void testUncommittedChangesWaitForTheTransaction() throws Exception {
+        Task task = taskRepository.save(task("Before", "a0"));
+        Task deleted = taskRepository.save(task("Deleted", "a1"));
+        CountDownLatch changed = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> transactions.executeWithoutResult(status -> {
+                Task changing = taskRepository.findById(task.getId()).orElseThrow();
+                changing.setName("Uncommitted");
+                taskRepository.save(changing);
+                taskRepository.deleteById(deleted.getId());
+                changed.countDown();
+                await(finish);
+                status.setRollbackOnly();
+            }));
+            changed.await();
+            Future<String> name = executor.submit(() -> taskRepository.findById(task.getId()).orElseThrow().getName());
+            Future<Boolean> exists = executor.submit(() -> taskRepository.existsById(deleted.getId()));
+            Future<List<Task>> all = executor.submit(() -> taskRepository.findAll());
+            assertThrows(TimeoutException.class, () -> name.get(200, TimeUnit.MILLISECONDS));
+            assertFalse(exists.isDone());
+            assertFalse(all.isDone());
+
+            finish.countDown();
+            writer.get();
+            assertEquals("Before", name.get());
+            assertTrue(exists.get());
+            assertEquals(2, all.get().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTransactionsOnOneUserRunInTurn() throws Exception {
+        Task task = taskRepository.save(task("Counter", "a0"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                workers.add(executor.submit(() -> {
+                    for (int j = 0; j < 25; j++) {
+                        transactions.executeWithoutResult(status -> {
+                            Task counted = taskRepository.findById(task.getId()).orElseThrow();
+                            counted.setDescendantCount(counted.getDescendantCount() + 1);
+                            taskRepository.save(counted);
+                        });
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(100, taskRepository.findById(task.getId()).orElseThrow().getDescendantCount());
+    }
+
+    @Test
+    void testWaitForAnotherTransactionGivesUp() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> transactions.executeWithoutResult(status -> {
+                taskRepository.findByUserId(user.getId());
+                holding.countDown();
+                await(finish);
+            }));
+            holding.await();
+
+            assertThrows(CannotAcquireLockException.class, () -> taskRepository.findByUserId(user.getId()));
+            finish.countDown();
+            holder.get();
+            assertTrue(taskRepository.findByUserId(user.getId()).isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void open() throws IOException {
+        store = EmbeddedStore.open(directory, SEGMENT_BYTES, Long.MAX_VALUE, Long.MAX_VALUE, LOCK_TIMEOUT_MILLIS);
+        taskRepository = EmbeddedRepositories.create(TaskRepository.class, new EmbeddedTaskRepository(store, idSource));
+        userRepository = EmbeddedRepositories.create(UserRepository.class, new EmbeddedUserRepository(store, idSource));
+    }
+
+    private Task task(String name, String position) {
+        return Task.builder()
+                .name(name)
+                .position(position)
+                .user(user)
+                .build();
+    }
+
+    private static List<String> names(List<Task> tasks) {
+        return tasks.stream().map(Task::getName).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    interface PagingTaskRepository extends TaskRepository, PagingAndSortingRepository<Task, Long> {
+    }
+
+    /** Transactions that only run their synchronizations, which is all the store takes part in. */
+    static final class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.todoapp.embedded;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsAreReplayedInOrderAcrossSegments() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, (lsn, payload) -> fail())) {
+            for (int i = 1; i <= 500; i++) {
+                assertEquals(i, wal.append(payload(i)));
+            }
+        }
+        assertTrue(segments().size() > 1);
+
+        List<String> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 0,
+                (lsn, payload) -> replayed.add(lsn + ":" + new String(payload, StandardCharsets.UTF_8)))) {
+            assertEquals(500, wal.lastLsn());
+            assertEquals(501, wal.append(payload(501)));
+        }
+        assertEquals(500, replayed.size());
+        assertEquals("1:record-1", replayed.get(0));
+        assertEquals("500:record-500", replayed.get(499));
+    }
+
+    @Test
+    void testConcurrentWritersShareForces() throws Exception {
+        int writers = 16;
+        int recordsPerWriter = 100;
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, 1 << 20, 0, (lsn, payload) -> fail())) {
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < recordsPerWriter; i++) {
+                        wal.awaitDurable(wal.append(payload(i)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            assertEquals(writers * recordsPerWriter, wal.lastLsn());
+            assertTrue(wal.forces() < writers * recordsPerWriter,
+                    "expected fewer forces than records, got " + wal.forces());
+        }
+    }
+
+    @Test
+    void testReplayStopsAtTornRecord() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, (lsn, payload) -> fail())) {
+            for (int i = 1; i <= 3; i++) {
+                wal.append(payload(i));
+            }
+        }
+        // Flip a payload byte of the second record, as if the crash came mid-write.
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int second = WriteAheadLog.HEADER_BYTES + payload(1).length;
+        bytes[second + WriteAheadLog.HEADER_BYTES] ^= 1;
+        Files.write(segment, bytes);
+
+        List<Long> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 0,
+                (lsn, payload) -> replayed.add(lsn))) {
+            assertEquals(1, wal.lastLsn());
+            assertEquals(2, wal.append(payload(2)));
+        }
+        assertEquals(List.of(1L), replayed);
+
+        // The stale third record must not come back once record 2 is rewritten.
+        replayed.clear();
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 0,
+                (lsn, payload) -> replayed.add(lsn))) {
+            assertEquals(2, wal.lastLsn());
+        }
+        assertEquals(List.of(1L, 2L), replayed);
+    }
+
+    @Test
+    void testTruncateKeepsRecordsAfterSnapshot() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, (lsn, payload) -> fail())) {
+            for (int i = 1; i <= 500; i++) {
+                wal.append(payload(i));
+            }
+            int before = segments().size();
+            assertTrue(wal.truncate(400) > 0);
+            assertTrue(segments().size() < before);
+        }
+
+        List<Long> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 400,
+                (lsn, payload) -> replayed.add(lsn))) {
+            assertEquals(500, wal.lastLsn());
+        }
+        assertEquals(100, replayed.size());
+        assertEquals(401L, replayed.get(0));
+    }
+
+    @Test
+    void testMissingRecordsAreReported() throws IOException {
+        try (WriteAheadLog wal = WriteAheadLog.open(directory, SEGMENT_BYTES, 0, (lsn, payload) -> fail())) {
+            for (int i = 1; i <= 500; i++) {
+                wal.append(payload(i));
+            }
+            wal.truncate(400);
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> WriteAheadLog.open(directory, SEGMENT_BYTES, 0, (lsn, payload) -> { }));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return ("record-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.todoapp.history;
+
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.entity.TaskHistory;
+import com.todoapp.event.TaskEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskHistoryRecorderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    void testCreateAndDeleteRecordName() {
+        TaskDTO task = task("Write report", "PENDING");
+
+        List<TaskHistory> created = TaskHistoryRecorder.toEntries(TaskEvent.created(1L, task), NOW);
+        List<TaskHistory> deleted = TaskHistoryRecorder.toEntries(TaskEvent.deleted(1L, 1L, task), NOW);
+
+        assertEquals(1, created.size());
+        assertEquals(TaskHistory.Action.CREATED, created.get(0).getAction());
+        assertEquals("Write report", created.get(0).getNewValue());
+        assertEquals(TaskHistory.Action.DELETED, deleted.get(0).getAction());
+        assertEquals("Write report", deleted.get(0).getOldValue());
+        assertEquals(10L, deleted.get(0).getTaskId());
+        assertEquals(1L, deleted.get(0).getUserId());
+    }
+
+    @Test
+    void testUpdateRecordsOneEntryPerChangedField() {
+        TaskDTO before = task("Write report", "PENDING");
+        TaskDTO after = task("Write final report", "COMPLETED");
+
+        List<TaskHistory> entries = TaskHistoryRecorder.toEntries(TaskEvent.updated(1L, 1L, before, after), NOW);
+
+        assertEquals(2, entries.size());
+        assertEquals(TaskHistory.Action.RENAMED, entries.get(0).getAction());
+        assertEquals("Write report", entries.get(0).getOldValue());
+        assertEquals("Write final report", entries.get(0).getNewValue());
+        assertEquals(TaskHistory.Action.STATUS_CHANGED, entries.get(1).getAction());
+        assertEquals("COMPLETED", entries.get(1).getNewValue());
+    }
+
+    @Test
+    void testEntriesKeepOwnerAndActorApart() {
+        TaskDTO before = task("Write report", "PENDING");
+        TaskDTO after = task("Write report", "COMPLETED");
+
+        TaskHistory updated = TaskHistoryRecorder.toEntries(TaskEvent.updated(1L, 2L, before, after), NOW).get(0);
+        TaskHistory created = TaskHistoryRecorder.toEntries(TaskEvent.created(1L, before), NOW).get(0);
+
+        assertEquals(1L, updated.getUserId());
+        assertEquals(2L, updated.getActorId());
+        assertEquals(1L, created.getActorId());
+    }
+
+    @Test
+    void testUnchangedUpdateRecordsNothing() {
+        TaskDTO task = task("Write report", "PENDING");
+
+        assertTrue(TaskHistoryRecorder.toEntries(TaskEvent.updated(1L, 1L, task, task), NOW).isEmpty());
+    }
+
+    @Test
+    void testLongValuesAreTruncated() {
+        TaskDTO before = task("Write report", "PENDING");
+        TaskDTO after = task("Write report", "PENDING");
+        after.setDescription("x".repeat(2000));
+
+        List<TaskHistory> entries = TaskHistoryRecorder.toEntries(TaskEvent.updated(1L, 1L, before, after), NOW);
+
+        assertEquals(TaskHistory.Action.DESCRIPTION_CHANGED, entries.get(0).getAction());
+        assertEquals(TaskHistoryRecorder.MAX_VALUE_LENGTH, entries.get(0).getNewValue().length());
+    }
+
+    private TaskDTO task(String name, String status) {
+        return TaskDTO.builder()
+                .id(10L)
+                .name(name)
+                .status(status)
+                .tags(List.of("work"))
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.todoapp.history;
+
+import com.todoapp.entity.TaskHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class TaskHistoryWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TaskHistoryWriter writer;
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 50);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMillis", 10L);
+        ReflectionTestUtils.setField(writer, "pollIntervalMillis", 20L);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMillis", 5000L);
+
+        lenient().when(jdbcTemplate.batchUpdate(eq(TaskHistoryWriter.INSERT_SQL), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    Collection<?> batch = invocation.getArgument(1);
+                    writeStarted.countDown();
+                    releaseWrite.await(5, TimeUnit.SECONDS);
+                    batchSizes.add(batch.size());
+                    return new int[0][];
+                });
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseWrite.countDown();
+        writer.stop();
+    }
+
+    @Test
+    void testEntriesQueuedDuringAWriteGoOutAsOneBatch() throws Exception {
+        assertTrue(writer.submit(entry(1L)));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 41; id++) {
+            assertTrue(writer.submit(entry(id)));
+        }
+
+        releaseWrite.countDown();
+        writer.stop();
+
+        assertEquals(List.of(1, 40), batchSizes);
+        assertEquals(41, writer.getWritten());
+    }
+
+    @Test
+    void testFullQueueIsWrittenByTheCallerAfterTimeout() throws Exception {
+        writer.submit(entry(0L));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+        for (long id = 1; id <= 100; id++) {
+            assertTrue(writer.submit(entry(id)));
+        }
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> queued = caller.submit(() -> writer.submit(entry(101L)));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (writer.getSpilled() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            releaseWrite.countDown();
+            assertFalse(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            caller.shutdownNow();
+        }
+        writer.stop();
+
+        assertEquals(1, writer.getSpilled());
+        assertEquals(102, writer.getWritten());
+        assertTrue(batchSizes.contains(1));
+    }
+
+    @Test
+    void testStopFlushesQueuedEntries() throws Exception {
+        writer.submit(entry(1L));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+        writer.submit(entry(2L));
+        writer.submit(entry(3L));
+
+        releaseWrite.countDown();
+        writer.stop();
+
+        assertEquals(0, writer.getQueued());
+        assertEquals(3, writer.getWritten());
+        assertFalse(writer.isRunning());
+    }
+
+    private TaskHistory entry(Long taskId) {
+        return TaskHistory.builder()
+                .taskId(taskId)
+                .userId(1L)
+                .action(TaskHistory.Action.CREATED)
+                .newValue("Task " + taskId)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.todoapp.id;
+
+import com.todoapp.entity.IdNodeLease;
+import com.todoapp.repository.IdNodeLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: each lease statement commits on its own, as it does at startup.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NodeIdLeaseTest {
+
+    @Autowired
+    private IdNodeLeaseRepository idNodeLeaseRepository;
+
+    @BeforeEach
+    void setUp() {
+        idNodeLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void testSecondInstanceWithTheSameNodeIdFailsToStart() {
+        lease(3, 8080).acquire();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> lease(3, 8081).acquire());
+        assertTrue(exception.getMessage().contains(":8080"));
+        lease(4, 8081).acquire();
+    }
+
+    @Test
+    void testRestartedInstanceKeepsItsNodeId() {
+        lease(3, 8080).acquire();
+
+        assertDoesNotThrow(() -> lease(3, 8080).acquire());
+    }
+
+    @Test
+    void testExpiredLeaseIsTakenOver() {
+        idNodeLeaseRepository.save(IdNodeLease.builder()
+                .nodeId(3)
+                .owner("crashed-host:8080")
+                .renewedAt(LocalDateTime.now().minusMinutes(5))
+                .build());
+
+        lease(3, 8081).acquire();
+
+        assertTrue(idNodeLeaseRepository.findById(3).orElseThrow().getOwner().endsWith(":8081"));
+    }
+
+    @Test
+    void testReleasedNodeIdCanBeUsedAtOnce() {
+        NodeIdLease first = lease(3, 8080);
+        first.acquire();
+        first.release();
+
+        assertDoesNotThrow(() -> lease(3, 8081).acquire());
+    }
+
+    @Test
+    void testLostLeaseStopsIdsUntilItIsTakenBack() {
+        NodeIdLease lease = lease(3, 8080);
+        lease.acquire();
+        TimeOrderedIdSource idSource = (TimeOrderedIdSource) ReflectionTestUtils.getField(lease, "idSource");
+        assertDoesNotThrow(idSource::nextId);
+
+        // Another instance took the node id over, say while this one was paused.
+        IdNodeLease taken = idNodeLeaseRepository.findById(3).orElseThrow();
+        taken.setOwner("other-host:8081");
+        taken.setRenewedAt(LocalDateTime.now());
+        idNodeLeaseRepository.save(taken);
+        lease.renewLease();
+        assertThrows(IllegalStateException.class, idSource::nextId);
+
+        taken.setRenewedAt(LocalDateTime.now().minusMinutes(5));
+        idNodeLeaseRepository.save(taken);
+        lease.renewLease();
+        assertDoesNotThrow(idSource::nextId);
+    }
+
+    private NodeIdLease lease(int nodeId, int port) {
+        NodeIdLease lease = new NodeIdLease();
+        ReflectionTestUtils.setField(lease, "idNodeLeaseRepository", idNodeLeaseRepository);
+        ReflectionTestUtils.setField(lease, "idSource", new TimeOrderedIdSource(nodeId, System::currentTimeMillis));
+        ReflectionTestUtils.setField(lease, "nodeId", nodeId);
+        ReflectionTestUtils.setField(lease, "leaseTtlMs", 60_000L);
+        ReflectionTestUtils.setField(lease, "serverPort", port);
+        return lease;
+    }
+}
@@ -0,0 +1,60 @@
+package com.todoapp.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdSourceTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeOrderedIdSource.EPOCH_MILLIS + 86_400_000L * 1000);
+
+    @Test
+    void testIdsIncreaseAndEncodeTimestamp() {
+        TimeOrderedIdSource source = new TimeOrderedIdSource(3, clock::get);
+
+        long previous = 0;
+        for (int i = 0; i < 2000; i++) {
+            long id = source.nextId();
+            assertTrue(id > previous);
+            assertTrue(id <= TimeOrderedIdSource.MAX_ID);
+            previous = id;
+        }
+
+        // 2000 ids need 8 milliseconds of sequence space at 256 per millisecond.
+        assertEquals(clock.get() + 7, TimeOrderedIdSource.timestampMillis(previous));
+    }
+
+    @Test
+    void testIdsKeepIncreasingWhenClockGoesBack() {
+        TimeOrderedIdSource source = new TimeOrderedIdSource(0, clock::get);
+        long before = source.nextId();
+
+        clock.addAndGet(-60_000);
+
+        assertTrue(source.nextId() > before);
+    }
+
+    @Test
+    void testNoIdsPastTheLeaseDeadline() {
+        TimeOrderedIdSource source = new TimeOrderedIdSource(0, clock::get);
+        source.leaseUntil(clock.get() + 1000);
+        assertDoesNotThrow(source::nextId);
+
+        clock.addAndGet(1000);
+
+        assertThrows(IllegalStateException.class, source::nextId);
+        source.leaseUntil(clock.get() + 1000);
+        assertDoesNotThrow(source::nextId);
+    }
+
+    @Test
+    void testNodesNeverCollide() {
+        TimeOrderedIdSource first = new TimeOrderedIdSource(1, clock::get);
+        TimeOrderedIdSource second = new TimeOrderedIdSource(2, clock::get);
+
+        assertNotEquals(first.nextId(), second.nextId());
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdSource(16, clock::get));
+    }
+}
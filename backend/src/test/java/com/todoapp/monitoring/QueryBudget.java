@@ -0,0 +1,41 @@
+package com.todoapp.monitoring;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers that fail a test when an endpoint goes over its statement
+ * budget. Requires {@code app.query-stats.expose-headers=true}.
+ */
+final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    static ResultMatcher statements(int budget) {
+        return result -> {
+            int used = headerValue(result, QueryStatsFilter.STATEMENTS_HEADER);
+            assertTrue(used <= budget, () -> describe(result) + " ran " + used + " statements, budget is " + budget);
+        };
+    }
+
+    static ResultMatcher noRepeatedStatements() {
+        return result -> {
+            int repeated = headerValue(result, QueryStatsFilter.REPEATED_STATEMENT_HEADER);
+            assertTrue(repeated <= 1, () -> describe(result) + " ran the same statement " + repeated + " times");
+        };
+    }
+
+    static int headerValue(MvcResult result, String header) {
+        String value = result.getResponse().getHeader(header);
+        assertNotNull(value, () -> header + " header is missing, is app.query-stats.expose-headers enabled?");
+        return Integer.parseInt(value);
+    }
+
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
@@ -0,0 +1,155 @@
+package com.todoapp.monitoring;
+
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.security.JwtTokenProvider;
+import com.todoapp.service.FractionalIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint. A change that makes an endpoint run more
+ * statements, or makes list endpoints run a statement per task, fails here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.query-stats.expose-headers=true"
+})
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+        token = tokenProvider.generateTokenFromEmail(user.getEmail());
+    }
+
+    @Test
+    void testListTasksBudget() throws Exception {
+        createTasks(user, 30);
+
+        mockMvc.perform(get("/tasks").header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.statements(3))
+                .andExpect(QueryBudget.noRepeatedStatements());
+    }
+
+    @Test
+    void testListTasksStatementsDoNotGrowWithTaskCount() throws Exception {
+        createTasks(user, 3);
+        User busyUser = createUser();
+        createTasks(busyUser, 60);
+
+        int few = listTasksStatements(token);
+        int many = listTasksStatements(tokenProvider.generateTokenFromEmail(busyUser.getEmail()));
+
+        assertEquals(few, many, "Listing 60 tasks ran more statements than listing 3");
+    }
+
+    @Test
+    void testGetTaskBudget() throws Exception {
+        Long taskId = createTasks(user, 1).get(0).getId();
+
+        mockMvc.perform(get("/tasks/{id}", taskId).header(HttpHeaders.AUTHORIZATION, bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.statements(3));
+    }
+
+    @Test
+    void testCreateTaskBudget() throws Exception {
+        createTasks(user, 5);
+
+        mockMvc.perform(post("/tasks")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Budget\", \"tags\": [\"work\", \"home\"]}"))
+                .andExpect(status().isCreated())
+                .andExpect(QueryBudget.statements(6))
+                .andExpect(QueryBudget.noRepeatedStatements());
+    }
+
+    @Test
+    void testHealthRunsNoStatements() throws Exception {
+        mockMvc.perform(get("/auth/health"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.statements(0));
+    }
+
+    private int listTasksStatements(String bearerToken) throws Exception {
+        MvcResult result = mockMvc.perform(get("/tasks").header(HttpHeaders.AUTHORIZATION, bearer(bearerToken)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return QueryBudget.headerValue(result, QueryStatsFilter.STATEMENTS_HEADER);
+    }
+
+    private User createUser() {
+        int n = USERS.incrementAndGet();
+        return userRepository.save(User.builder()
+                .name("Budget User " + n)
+                .email("budget" + n + "@example.com")
+                .password("password")
+                .build());
+    }
+
+    private List<Task> createTasks(User owner, int count) {
+        List<String> positions = FractionalIndex.evenlySpaced(count);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.builder()
+                    .name("Task " + i)
+                    .status(Task.TaskStatus.PENDING)
+                    .position(positions.get(i))
+                    .tags(new HashSet<>(Set.of("tag" + (i % 3), "shared")))
+                    .user(owner)
+                    .build());
+        }
+        return taskRepository.saveAll(tasks);
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
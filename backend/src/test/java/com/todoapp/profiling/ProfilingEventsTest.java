@@ -0,0 +1,84 @@
+package com.todoapp.profiling;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+        recording.enable(SqlStatementEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(PasswordHashEvent.class).withThreshold(Duration.ZERO);
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void testStatementsAndPasswordHashesAreRecorded() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:profiling;DB_CLOSE_DELAY=-1");
+        ProfilingDataSource dataSource = new ProfilingDataSource(h2);
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY)");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items (id) VALUES (?)")) {
+                for (long id = 1; id <= 3; id++) {
+                    insert.setLong(1, id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            assertTrue(connection.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+        }
+        PasswordEncoder passwordEncoder = new ProfiledPasswordEncoder(new BCryptPasswordEncoder(4));
+        assertTrue(passwordEncoder.matches("secret", passwordEncoder.encode("secret")));
+
+        Path file = tempDir.resolve("events.jfr");
+        recording.stop();
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        RecordedEvent batch = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.todoapp.SqlStatement"))
+                .filter(event -> "INSERT".equals(event.getString("operation")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("INSERT INTO items (id) VALUES (?)", batch.getString("sql"));
+        assertEquals(3, batch.getInt("batchSize"));
+        assertEquals(2, events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.todoapp.PasswordHash"))
+                .count());
+
+        String summary = JfrSummary.summarize(file, 10);
+        assertTrue(summary.contains("SQL Statement INSERT INTO items (id) VALUES (?)"), summary);
+        assertTrue(summary.contains("Password Hash encode"), summary);
+    }
+}
@@ -0,0 +1,40 @@
+package com.todoapp.profiling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingServiceTest {
+
+    private final ProfilingService profilingService = new ProfilingService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(profilingService, "maxDurationSeconds", 300);
+    }
+
+    @Test
+    void testRecordReturnsJfrFile() {
+        byte[] recording = profilingService.record(Duration.ofSeconds(1), "default");
+
+        assertEquals("FLR", new String(recording, 0, 3, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        ResponseStatusException tooLong = assertThrows(ResponseStatusException.class,
+                () -> profilingService.record(Duration.ofSeconds(301), "default"));
+        ResponseStatusException badSettings = assertThrows(ResponseStatusException.class,
+                () -> profilingService.record(Duration.ofSeconds(1), "custom"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, tooLong.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, badSettings.getStatusCode());
+    }
+}
@@ -0,0 +1,84 @@
+package com.todoapp.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 64, 3, START);
+
+    @Test
+    void testFiresOnlyOnceDeadlineIsReached() {
+        wheel.schedule(1L, START + 5_000, "a");
+
+        assertTrue(wheel.advance(START + 4_999).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 5_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCascadesEntriesFromOuterLevels() {
+        wheel.schedule(1L, START + 90_000, "minute");
+        wheel.schedule(2L, START + 2 * 3600_000, "hours");
+
+        assertTrue(wheel.advance(START + 89_000).isEmpty());
+        assertEquals(List.of("minute"), wheel.advance(START + 90_000));
+        assertTrue(wheel.advance(START + 2 * 3600_000 - 1_000).isEmpty());
+        assertEquals(List.of("hours"), wheel.advance(START + 2 * 3600_000));
+    }
+
+    @Test
+    void testRescheduleReplacesAndCancelRemoves() {
+        wheel.schedule(1L, START + 10_000, "first");
+        wheel.schedule(1L, START + 20_000, "second");
+        wheel.schedule(2L, START + 10_000, "cancelled");
+        wheel.cancel(2L);
+
+        assertTrue(wheel.advance(START + 15_000).isEmpty());
+        assertEquals(List.of("second"), wheel.advance(START + 20_000));
+    }
+
+    @Test
+    void testPastDeadlinesFireOnNextTick() {
+        wheel.schedule(1L, START - 60_000, "overdue");
+
+        assertEquals(List.of("overdue"), wheel.advance(START + 1_000));
+    }
+
+    @Test
+    void testRejectsDeadlinesBeyondSpan() {
+        assertFalse(wheel.schedule(1L, START + wheel.spanMillis() + 1_000, "too far"));
+        assertFalse(wheel.contains(1L));
+    }
+
+    @Test
+    void testRandomDeadlinesNeverFireEarlyOrLate() {
+        Random random = new Random(7);
+        Map<Long, Long> deadlines = new HashMap<>();
+        HierarchicalTimingWheel<Long> ids = new HierarchicalTimingWheel<>(1000, 64, 3, START);
+        for (long id = 0; id < 5_000; id++) {
+            long deadline = START + (long) (random.nextDouble() * 10 * 3600_000);
+            ids.schedule(id, deadline, id);
+            deadlines.put(id, deadline);
+        }
+
+        long now = START;
+        while (!deadlines.isEmpty()) {
+            now += 1_000 + random.nextInt(3_000);
+            for (Long id : ids.advance(now)) {
+                long deadline = deadlines.remove(id);
+                assertTrue(deadline <= now);
+                assertTrue(now - deadline < 5_000);
+            }
+        }
+        assertEquals(0, ids.size());
+    }
+}
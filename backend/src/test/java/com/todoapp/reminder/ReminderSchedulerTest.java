@@ -0,0 +1,147 @@
+package com.todoapp.reminder;
+
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.entity.Task;
+import com.todoapp.event.TaskEvent;
+import com.todoapp.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ReminderSink reminderSink;
+
+    private MutableClock clock;
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+        scheduler = new ReminderScheduler(taskRepository, reminderSink, clock, 3600_000, 100);
+        lenient().when(taskRepository.findPendingRemindersDueBefore(eq(Task.TaskStatus.PENDING), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+        lenient().when(taskRepository.findPendingRemindersDueBetween(eq(Task.TaskStatus.PENDING), any(), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+    }
+
+    @Test
+    void testStartupRecoversOverdueReminders() {
+        DueReminder overdue = new DueReminder(1L, 1L, "Overdue", NOW.minusHours(2));
+        when(taskRepository.findPendingRemindersDueBefore(eq(Task.TaskStatus.PENDING), eq(NOW.plusHours(1)), any()))
+                .thenReturn(new SliceImpl<>(List.of(overdue)));
+        when(taskRepository.claimReminder(eq(1L), eq(overdue.dueAt()), eq(Task.TaskStatus.PENDING), any()))
+                .thenReturn(1);
+
+        scheduler.loadWindow();
+        clock.advance(Duration.ofSeconds(1));
+        scheduler.fireDueReminders();
+
+        verify(reminderSink).publish(overdue);
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    void testReminderAlreadyClaimedIsNotSentAgain() {
+        DueReminder reminder = new DueReminder(1L, 1L, "Task", NOW.plusSeconds(30));
+        when(taskRepository.findPendingRemindersDueBefore(eq(Task.TaskStatus.PENDING), eq(NOW.plusHours(1)), any()))
+                .thenReturn(new SliceImpl<>(List.of(reminder)));
+        when(taskRepository.claimReminder(eq(1L), eq(reminder.dueAt()), eq(Task.TaskStatus.PENDING), any()))
+                .thenReturn(0);
+
+        scheduler.loadWindow();
+        clock.advance(Duration.ofSeconds(30));
+        scheduler.fireDueReminders();
+
+        verify(reminderSink, never()).publish(any());
+    }
+
+    @Test
+    void testTaskEventsUpdateWheelIncrementally() {
+        scheduler.loadWindow();
+        TaskDTO task = TaskDTO.builder().id(5L).name("Call").status("PENDING").dueAt(NOW.plusMinutes(10)).build();
+
+        scheduler.onTaskEvent(TaskEvent.created(1L, task));
+        assertEquals(1, scheduler.scheduledCount());
+
+        TaskDTO later = TaskDTO.builder().id(5L).name("Call").status("PENDING").dueAt(NOW.plusDays(1)).build();
+        scheduler.onTaskEvent(TaskEvent.updated(1L, 1L, task, later));
+        assertEquals(0, scheduler.scheduledCount());
+
+        scheduler.onTaskEvent(TaskEvent.updated(1L, 1L, later, task));
+        scheduler.onTaskEvent(TaskEvent.deleted(1L, 1L, task));
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    void testFailedPublishReleasesClaim() {
+        DueReminder reminder = new DueReminder(1L, 1L, "Task", NOW.plusSeconds(5));
+        when(taskRepository.findPendingRemindersDueBefore(eq(Task.TaskStatus.PENDING), eq(NOW.plusHours(1)), any()))
+                .thenReturn(new SliceImpl<>(List.of(reminder)));
+        when(taskRepository.claimReminder(eq(1L), eq(reminder.dueAt()), eq(Task.TaskStatus.PENDING), any()))
+                .thenReturn(1);
+        doThrow(new IllegalStateException("sink down")).when(reminderSink).publish(reminder);
+
+        scheduler.loadWindow();
+        clock.advance(Duration.ofSeconds(5));
+        scheduler.fireDueReminders();
+
+        verify(taskRepository).releaseReminder(1L, NOW.plusSeconds(5));
+        assertEquals(1, scheduler.scheduledCount());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.todoapp.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    static long countStartingWith(String prefix) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith(prefix))
+                .count();
+    }
+
+    static String lastSelect() {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            if (STATEMENTS.get(i).trim().toLowerCase().startsWith("select")) {
+                return STATEMENTS.get(i);
+            }
+        }
+        throw new IllegalStateException("No select statement was recorded");
+    }
+}
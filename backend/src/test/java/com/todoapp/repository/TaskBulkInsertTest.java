@@ -0,0 +1,99 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * With IDENTITY keys every task was its own INSERT round trip; with ids assigned
+ * before the INSERT, a bulk save goes out in JDBC batches of
+ * {@code hibernate.jdbc.batch_size}.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=20",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.todoapp.repository.RecordingStatementInspector"
+})
+class TaskBulkInsertTest {
+
+    private static final int TASKS = 500;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persistAndFlush(User.builder()
+                .name("Bulk User")
+                .email("bulk@example.com")
+                .password("password")
+                .build());
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void testIdIsAssignedWithoutInsert() {
+        Task task = taskRepository.save(task(0));
+
+        assertNotNull(task.getId());
+        assertTrue(task.getId() > user.getId());
+        assertEquals(0, RecordingStatementInspector.countStartingWith("insert"));
+    }
+
+    @Test
+    void testBulkInsertIsBatched() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(task(i));
+        }
+
+        long start = System.nanoTime();
+        taskRepository.saveAll(tasks);
+        entityManager.flush();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long taskInserts = RecordingStatementInspector.countStartingWith("insert into tasks");
+        assertTrue(taskInserts <= TASKS / 20 + 1,
+                taskInserts + " task INSERT statements prepared for " + TASKS + " tasks in " + elapsedMillis + " ms");
+        assertEquals(TASKS, taskRepository.count());
+    }
+
+    @Test
+    void testClientAssignedIdIsUsed() {
+        Task task = task(0);
+        task.setRequestedId(361751757435855L);
+
+        taskRepository.save(task);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(taskRepository.findById(361751757435855L).isPresent());
+    }
+
+    private Task task(int i) {
+        return Task.builder()
+                .name("Task " + i)
+                .status(Task.TaskStatus.PENDING)
+                .tags(new HashSet<>(Set.of("bulk")))
+                .user(user)
+                .build();
+    }
+}
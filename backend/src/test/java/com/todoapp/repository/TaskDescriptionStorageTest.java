@@ -0,0 +1,107 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Descriptions live in task_descriptions: loading one task leaves them alone
+ * until they are read, while list queries join them in the same statement.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.todoapp.repository.RecordingStatementInspector"
+})
+class TaskDescriptionStorageTest {
+
+    private static final String LONG_DESCRIPTION = "Passo a passo da migração do banco. ".repeat(100);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskDescriptionRepository taskDescriptionRepository;
+
+    private User user;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .name("Description User")
+                .email("description@example.com")
+                .password("password")
+                .build());
+        taskId = entityManager.persist(Task.builder()
+                .name("Migrate")
+                .description(LONG_DESCRIPTION)
+                .status(Task.TaskStatus.PENDING)
+                .user(user)
+                .build()).getId();
+        entityManager.persist(Task.builder()
+                .name("No description")
+                .status(Task.TaskStatus.PENDING)
+                .user(user)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void testDescriptionIsLoadedOnFirstUse() {
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId()).orElseThrow();
+        long selects = RecordingStatementInspector.countStartingWith("select");
+
+        assertEquals(LONG_DESCRIPTION, task.getDescription());
+        assertEquals(selects + 1, RecordingStatementInspector.countStartingWith("select"));
+    }
+
+    @Test
+    void testListQueryFetchesDescriptions() {
+        List<Task> tasks = taskRepository.findByUserId(user.getId());
+        long selects = RecordingStatementInspector.countStartingWith("select");
+
+        assertEquals(LONG_DESCRIPTION, tasks.get(0).getDescription());
+        assertNull(tasks.get(1).getDescription());
+        assertEquals(selects, RecordingStatementInspector.countStartingWith("select"));
+    }
+
+    @Test
+    void testLongDescriptionIsStoredCompressed() {
+        assertEquals(1, taskDescriptionRepository.count());
+        assertTrue(taskDescriptionRepository.sumStoredBytes() < LONG_DESCRIPTION.length() / 4);
+    }
+
+    @Test
+    void testClearingDescriptionDeletesItsRow() {
+        Task task = taskRepository.findByIdAndUserId(taskId, user.getId()).orElseThrow();
+        task.setDescription(null);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(taskRepository.findByIdAndUserId(taskId, user.getId()).orElseThrow().getDescription());
+        assertEquals(0, taskDescriptionRepository.count());
+    }
+
+    @Test
+    void testDeletingTaskDeletesDescription() {
+        taskRepository.delete(taskRepository.findByIdAndUserId(taskId, user.getId()).orElseThrow());
+        entityManager.flush();
+
+        assertEquals(0, taskDescriptionRepository.count());
+    }
+}
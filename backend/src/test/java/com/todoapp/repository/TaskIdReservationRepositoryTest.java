@@ -0,0 +1,47 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskIdReservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class TaskIdReservationRepositoryTest {
+
+    @Autowired
+    private TaskIdReservationRepository taskIdReservationRepository;
+
+    @Test
+    void testReservedIdIsConsumedOnceByItsUser() {
+        Long id = reserve(1L, LocalDateTime.now()).getId();
+
+        assertEquals(0, taskIdReservationRepository.consume(id, 2L));
+        assertEquals(1, taskIdReservationRepository.consume(id, 1L));
+        assertEquals(0, taskIdReservationRepository.consume(id, 1L));
+    }
+
+    @Test
+    void testExpiredReservationsArePurged() {
+        Long expired = reserve(1L, LocalDateTime.now().minusDays(31)).getId();
+        Long current = reserve(1L, LocalDateTime.now()).getId();
+
+        assertEquals(1, taskIdReservationRepository.deleteReservedBefore(LocalDateTime.now().minusDays(30)));
+        assertFalse(taskIdReservationRepository.existsById(expired));
+        assertTrue(taskIdReservationRepository.existsById(current));
+    }
+
+    private TaskIdReservation reserve(Long userId, LocalDateTime reservedAt) {
+        return taskIdReservationRepository.saveAndFlush(TaskIdReservation.builder()
+                .userId(userId)
+                .reservedAt(reservedAt)
+                .build());
+    }
+}
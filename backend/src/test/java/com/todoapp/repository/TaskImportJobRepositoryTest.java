@@ -0,0 +1,78 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.TaskImportJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class TaskImportJobRepositoryTest {
+
+    private static final List<TaskImportJob.Status> UNFINISHED =
+            List.of(TaskImportJob.Status.PENDING, TaskImportJob.Status.RUNNING);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskImportJobRepository taskImportJobRepository;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void testJobsNotRefreshedWithinTheTtlAreFailed() {
+        TaskImportJob lost = job(1L, TaskImportJob.Status.PENDING, now.minusHours(1));
+        TaskImportJob lostWhileRunning = job(2L, TaskImportJob.Status.RUNNING, now.minusHours(1));
+        TaskImportJob queued = job(3L, TaskImportJob.Status.PENDING, now.minusMinutes(1));
+        TaskImportJob completed = job(4L, TaskImportJob.Status.COMPLETED, now.minusHours(1));
+
+        assertEquals(2, taskImportJobRepository.failStalled(UNFINISHED, now.minusMinutes(15), TaskImportJob.Status.FAILED, "lost", now));
+        entityManager.clear();
+
+        assertEquals(TaskImportJob.Status.FAILED, reload(lost).getStatus());
+        assertEquals("lost", reload(lost).getErrorMessage());
+        assertEquals(now, reload(lostWhileRunning).getCompletedAt());
+        assertEquals(TaskImportJob.Status.PENDING, reload(queued).getStatus());
+        assertEquals(TaskImportJob.Status.COMPLETED, reload(completed).getStatus());
+    }
+
+    @Test
+    void testRefreshedJobsAreNotFailed() {
+        TaskImportJob spooledHere = job(1L, TaskImportJob.Status.PENDING, now.minusHours(1));
+        TaskImportJob completed = job(2L, TaskImportJob.Status.COMPLETED, now.minusHours(1));
+
+        assertEquals(1, taskImportJobRepository.touch(List.of(1L, 2L), UNFINISHED, now));
+        assertEquals(0, taskImportJobRepository.failStalled(UNFINISHED, now.minusMinutes(15), TaskImportJob.Status.FAILED, "lost", now));
+        entityManager.clear();
+
+        assertEquals(TaskImportJob.Status.PENDING, reload(spooledHere).getStatus());
+        assertEquals(now.minusHours(1), reload(completed).getUpdatedAt());
+    }
+
+    private TaskImportJob job(Long id, TaskImportJob.Status status, LocalDateTime updatedAt) {
+        return entityManager.persistAndFlush(TaskImportJob.builder()
+                .id(id)
+                .userId(1L)
+                .format(TaskImportJob.Format.CSV)
+                .status(status)
+                .spoolFile(id + ".csv")
+                .createdAt(updatedAt)
+                .updatedAt(updatedAt)
+                .build());
+    }
+
+    private TaskImportJob reload(TaskImportJob job) {
+        return taskImportJobRepository.findById(job.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,194 @@
+package com.todoapp.repository;
+
+import com.todoapp.dto.TaskFilter;
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the queries compiled from task filters against H2 and checks with EXPLAIN
+ * that each supported filter/sort combination is answered from a composite index.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.todoapp.repository.RecordingStatementInspector"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskQueryPlanTest {
+
+    private static final Pattern INDEX_COMMENT = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_]+)(?:: ([^*]*))? \\*/");
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("Plan User")
+                .email("plan@example.com")
+                .password("password")
+                .build());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(Task.builder()
+                    .name("Task " + i)
+                    .status(i % 2 == 0 ? Task.TaskStatus.PENDING : Task.TaskStatus.COMPLETED)
+                    .user(user)
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+        // Without statistics H2 rates every column alike, ties (user_id, created_at) with
+        // (user_id, status, created_at) and takes whichever index was declared first.
+        // MySQL keeps index cardinalities, so collect them here too. ANALYZE commits,
+        // which is why this class runs outside the usual test transaction.
+        jdbcTemplate.execute("ANALYZE");
+        userId = user.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tasks");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testCreatedRangeUsesCreatedIndex() {
+        TaskFilter filter = TaskFilter.builder().sort("createdAt").createdFrom(FROM).createdTo(TO).build();
+
+        assertPlanUsesIndex(filter, "IDX_TASKS_USER_CREATED", "CREATED_AT");
+    }
+
+    @Test
+    void testStatusAndCreatedRangeUsesStatusCreatedIndex() {
+        TaskFilter filter = TaskFilter.builder().status("PENDING").sort("createdAt").direction("desc")
+                .createdFrom(FROM).build();
+
+        assertPlanUsesIndex(filter, "IDX_TASKS_USER_STATUS_CREATED", "STATUS", "CREATED_AT");
+    }
+
+    @Test
+    void testUpdatedRangeUsesUpdatedIndex() {
+        TaskFilter filter = TaskFilter.builder().status("COMPLETED").sort("updatedAt").updatedTo(TO).build();
+
+        assertPlanUsesIndex(filter, "IDX_TASKS_USER_STATUS_UPDATED", "STATUS", "UPDATED_AT");
+    }
+
+    @Test
+    void testNamePrefixUsesNameIndex() {
+        TaskFilter filter = TaskFilter.builder().sort("name").namePrefix("Task 1").build();
+
+        assertPlanUsesIndex(filter, "IDX_TASKS_USER_NAME", "NAME");
+    }
+
+    @Test
+    void testSortsWithoutRangeStillSeekOnUserAndStatus() {
+        for (String sort : List.of("createdAt", "updatedAt", "name", "position")) {
+            String plan = explain(TaskFilter.builder().status("PENDING").sort(sort).build());
+            Matcher matcher = INDEX_COMMENT.matcher(plan);
+
+            assertTrue(matcher.find(), plan);
+            assertTrue(matcher.group(1).startsWith("IDX_TASKS_USER_STATUS_"), plan);
+        }
+    }
+
+    @Test
+    void testRebalanceCandidatesComeFromTheLengthIndex() {
+        List<Task> tasks = taskRepository.findAll();
+        tasks.forEach(task -> task.setPosition("m"));
+        taskRepository.saveAll(tasks);
+        assertEquals(List.of(), taskRepository.findUserIdsNeedingRebalance(24, PageRequest.of(0, 10)));
+        tasks.get(0).setPosition("a".repeat(30));
+        taskRepository.save(tasks.get(0));
+
+        RecordingStatementInspector.clear();
+        assertEquals(List.of(userId), taskRepository.findUserIdsNeedingRebalance(24, PageRequest.of(0, 10)));
+        String sql = RecordingStatementInspector.lastSelect().replaceFirst("\\?", "24").replaceFirst("\\?", "10");
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        Matcher matcher = INDEX_COMMENT.matcher(plan);
+
+        assertTrue(matcher.find(), plan);
+        assertEquals("IDX_TASKS_SORT_KEY_LENGTH", matcher.group(1), plan);
+    }
+
+    @Test
+    void testRangeOnAnotherColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TaskSpecifications.validate(
+                TaskFilter.builder().sort("name").createdFrom(FROM).build()));
+        assertThrows(IllegalArgumentException.class, () -> TaskSpecifications.validate(
+                TaskFilter.builder().updatedFrom(FROM).build()));
+        assertThrows(IllegalArgumentException.class, () -> TaskSpecifications.validate(
+                TaskFilter.builder().sort("createdAt").namePrefix("Task").build()));
+        assertThrows(IllegalArgumentException.class, () -> TaskSpecifications.validate(
+                TaskFilter.builder().sort("priority").build()));
+    }
+
+    private void assertPlanUsesIndex(TaskFilter filter, String index, String... conditionColumns) {
+        String plan = explain(filter);
+        Matcher matcher = INDEX_COMMENT.matcher(plan);
+
+        assertTrue(matcher.find(), plan);
+        assertEquals(index, matcher.group(1), plan);
+        for (String column : conditionColumns) {
+            assertTrue(matcher.group(2) != null && matcher.group(2).contains(column), plan);
+        }
+    }
+
+    private String explain(TaskFilter filter) {
+        TaskSpecifications.validate(filter);
+        RecordingStatementInspector.clear();
+        taskRepository.findAll(TaskSpecifications.matching(userId, filter), TaskSpecifications.sort(filter));
+
+        String sql = RecordingStatementInspector.lastSelect();
+        for (String literal : literals(filter)) {
+            sql = sql.replaceFirst("\\?", Matcher.quoteReplacement(literal));
+        }
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    // Bind values in the order TaskSpecifications adds its predicates.
+    private List<String> literals(TaskFilter filter) {
+        List<String> literals = new ArrayList<>();
+        literals.add(String.valueOf(userId));
+        if (filter.getStatus() != null) {
+            literals.add("'" + filter.getStatus() + "'");
+        }
+        for (LocalDateTime value : new LocalDateTime[]{filter.getCreatedFrom(), filter.getCreatedTo(),
+                filter.getUpdatedFrom(), filter.getUpdatedTo()}) {
+            if (value != null) {
+                literals.add("TIMESTAMP '" + value.toString().replace('T', ' ') + ":00'");
+            }
+        }
+        if (filter.getNamePrefix() != null) {
+            literals.add("'" + filter.getNamePrefix() + "%'");
+        }
+        return literals;
+    }
+}
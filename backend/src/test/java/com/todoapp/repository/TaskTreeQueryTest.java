@@ -0,0 +1,140 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.todoapp.repository.RecordingStatementInspector",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class TaskTreeQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User user;
+    private Task root;
+    private Task child;
+    private Task grandchild;
+    private Task sibling;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .name("Tree User")
+                .email("tree@example.com")
+                .password("password")
+                .build());
+        root = persist("Root", null);
+        child = persist("Child", root);
+        grandchild = persist("Grandchild", child);
+        sibling = persist("Sibling", null);
+        persist("Sibling child", sibling);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testSubtreeIsBoundedByPathAndDepth() {
+        List<Task> twoLevels = taskRepository.findSubtree(user.getId(), root.childTreePath() + "%", 2);
+        List<Task> oneLevel = taskRepository.findSubtree(user.getId(), root.childTreePath() + "%", 1);
+
+        assertEquals(List.of(child.getId(), grandchild.getId()), ids(twoLevels));
+        assertEquals(List.of(child.getId()), ids(oneLevel));
+        assertEquals(List.of(grandchild.getId()), taskRepository.findDeletedRows(user.getId(),
+                child.childTreePath() + "%").stream().map(DeletedTaskRow::id).toList());
+    }
+
+    // The schema built from the entities lacks the migrations' self-reference. DDL
+    // commits in H2, so it runs before setUp writes anything.
+    @Test
+    @Sql(statements = "ALTER TABLE tasks ADD CONSTRAINT IF NOT EXISTS fk_tasks_parent "
+            + "FOREIGN KEY (parent_id) REFERENCES tasks (id)")
+    void testSubtreeIsCountedAndDeletedWithSetBasedStatements() {
+        Task done = taskRepository.findById(grandchild.getId()).orElseThrow();
+        done.setStatus(Task.TaskStatus.COMPLETED);
+        done.setCompletedAt(done.getCreatedAt().plusDays(1));
+        done.setTags(new HashSet<>(Set.of("deep")));
+        done.setDescription("Deleted with its parent");
+        entityManager.flush();
+        entityManager.clear();
+        String pathPrefix = root.childTreePath() + "%";
+
+        List<DeletedTaskRow> rows = taskRepository.findDeletedRows(user.getId(), pathPrefix);
+        List<TaskDayCount> counts = taskRepository.countDescendantsByDay(user.getId(), pathPrefix);
+        RecordingStatementInspector.clear();
+        taskRepository.detachDescendants(user.getId(), pathPrefix);
+        assertEquals(2, taskRepository.deleteDescendants(user.getId(), pathPrefix));
+
+        LocalDate created = done.getCreatedAt().toLocalDate();
+        assertEquals(Set.of(
+                        new TaskDayCount(Task.TaskStatus.PENDING, created, null, 1),
+                        new TaskDayCount(Task.TaskStatus.COMPLETED, created, created.plusDays(1), 1)),
+                Set.copyOf(counts));
+        assertNotNull(rows.stream().filter(row -> row.id().equals(grandchild.getId()))
+                .findFirst().orElseThrow().descriptionId());
+        assertEquals(1, RecordingStatementInspector.countStartingWith("delete from task_tags"));
+        assertTrue(taskRepository.findById(child.getId()).isEmpty());
+        assertTrue(taskRepository.findById(root.getId()).isPresent());
+        assertEquals(3, taskRepository.count());
+    }
+
+    @Test
+    void testAncestorCountsAreAdjustedAlongThePath() {
+        Task loaded = taskRepository.findById(grandchild.getId()).orElseThrow();
+        assertEquals(List.of(root.getId(), child.getId()), loaded.ancestorIds());
+
+        taskRepository.adjustDescendantCounts(loaded.ancestorIds(), 1, 1);
+        entityManager.clear();
+
+        assertEquals(1, taskRepository.findById(root.getId()).orElseThrow().getCompletedDescendantCount());
+        assertEquals(1, taskRepository.findById(child.getId()).orElseThrow().getCompletedDescendantCount());
+        assertEquals(0, taskRepository.findById(sibling.getId()).orElseThrow().getCompletedDescendantCount());
+    }
+
+    @Test
+    void testRebalancedPositionLeavesUpdatedAtAlone() {
+        Task before = taskRepository.findById(sibling.getId()).orElseThrow();
+
+        assertEquals(1, taskRepository.updatePosition(sibling.getId(), "a0V", 3));
+
+        Task after = taskRepository.findById(sibling.getId()).orElseThrow();
+        assertEquals("a0V", after.getPosition());
+        assertEquals(3, after.getPositionLength().intValue());
+        assertEquals(before.getUpdatedAt(), after.getUpdatedAt());
+    }
+
+    private Task persist(String name, Task parent) {
+        return entityManager.persist(Task.builder()
+                .name(name)
+                .status(Task.TaskStatus.PENDING)
+                .user(user)
+                .parentId(parent != null ? parent.getId() : null)
+                .treePath(parent != null ? parent.childTreePath() : "/")
+                .treeDepth(parent != null ? parent.getTreeDepth() + 1 : 0)
+                .build());
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).sorted(Comparator.naturalOrder()).toList();
+    }
+}
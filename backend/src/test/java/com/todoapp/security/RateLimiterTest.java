@@ -0,0 +1,66 @@
+package com.todoapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private AtomicLong clock;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+        rateLimiter = new RateLimiter(5, 1, 2, 1, 1, 0.5, clock::get);
+    }
+
+    @Test
+    void testAllowsBurstUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user:a"));
+        }
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user:a") > 0);
+    }
+
+    @Test
+    void testRefillsOverTime() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user:a");
+        }
+        long wait = rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user:a");
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user:a"));
+    }
+
+    @Test
+    void testBucketsAreIsolatedPerUserAndEndpointClass() {
+        rateLimiter.tryAcquire(RateLimiter.EndpointClass.WRITE, "user:a");
+        rateLimiter.tryAcquire(RateLimiter.EndpointClass.WRITE, "user:a");
+
+        assertTrue(rateLimiter.tryAcquire(RateLimiter.EndpointClass.WRITE, "user:a") > 0);
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.EndpointClass.WRITE, "user:b"));
+        assertEquals(0, rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user:a"));
+    }
+
+    @Test
+    void testEvictsOnlyRefilledBuckets() {
+        rateLimiter.tryAcquire(RateLimiter.EndpointClass.AUTH, "ip:127.0.0.1");
+        rateLimiter.tryAcquire(RateLimiter.EndpointClass.READ, "user:a");
+        assertEquals(2, rateLimiter.size());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        rateLimiter.evictIdleBuckets();
+        assertEquals(1, rateLimiter.size());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        rateLimiter.evictIdleBuckets();
+        assertEquals(0, rateLimiter.size());
+    }
+}
@@ -0,0 +1,182 @@
+package com.todoapp.service;
+
+import com.todoapp.cluster.ClusterInvalidationPublisher;
+import com.todoapp.cluster.LocalInvalidationBus;
+import com.todoapp.dto.AccountDeletionDTO;
+import com.todoapp.entity.AccountDeletionJob;
+import com.todoapp.entity.Task;
+import com.todoapp.entity.TaskHistory;
+import com.todoapp.entity.TaskList;
+import com.todoapp.entity.TaskListMember;
+import com.todoapp.entity.User;
+import com.todoapp.repository.AccountDeletionJobRepository;
+import com.todoapp.repository.TaskDescriptionRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.security.CustomUserDetailsService;
+import com.todoapp.tasklist.TaskListAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.account-deletion.chunk-size=2",
+        "app.account-deletion.chunks-per-run=1"
+})
+@Import({AccountDeletionService.class, CustomUserDetailsService.class,
+        ClusterInvalidationPublisher.class, LocalInvalidationBus.class, TaskListAccess.class})
+class AccountDeletionServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private AccountDeletionJobRepository accountDeletionJobRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskDescriptionRepository taskDescriptionRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .name("Leaving User")
+                .email("leaving@example.com")
+                .password("password")
+                .build());
+        for (int i = 0; i < 3; i++) {
+            Task task = entityManager.persist(Task.builder()
+                    .name("Task " + i)
+                    .description(i > 0 ? "Description " + i : null)
+                    .status(Task.TaskStatus.PENDING)
+                    .tags(new HashSet<>(Set.of("tag" + i)))
+                    .user(user)
+                    .build());
+            entityManager.persist(TaskHistory.builder()
+                    .taskId(task.getId())
+                    .userId(user.getId())
+                    .action(TaskHistory.Action.CREATED)
+                    .newValue(task.getName())
+                    .occurredAt(LocalDateTime.now())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testRequestDeletionRevokesAccessImmediately() {
+        AccountDeletionDTO deletion = accountDeletionService.requestDeletion(user.getId());
+        entityManager.flush();
+
+        assertEquals("PENDING", deletion.getStatus());
+        assertEquals(3, taskRepository.count());
+        assertThrows(UsernameNotFoundException.class,
+                () -> customUserDetailsService.loadUserByUsername("leaving@example.com"));
+        assertThrows(UsernameNotFoundException.class,
+                () -> customUserDetailsService.loadUserById(user.getId()));
+    }
+
+    @Test
+    void testPurgeDeletesInChunksAndTracksProgress() {
+        accountDeletionService.requestDeletion(user.getId());
+        entityManager.flush();
+
+        // Two task chunks, two history chunks, then the user row.
+        assertFalse(accountDeletionService.purge(user.getId()));
+        assertEquals(2, job().getTasksDeleted());
+        assertFalse(accountDeletionService.purge(user.getId()));
+        assertEquals(3, job().getTasksDeleted());
+        assertEquals(0, job().getHistoryDeleted());
+        assertFalse(accountDeletionService.purge(user.getId()));
+        assertFalse(accountDeletionService.purge(user.getId()));
+        assertEquals(3, job().getHistoryDeleted());
+        assertTrue(accountDeletionService.purge(user.getId()));
+
+        AccountDeletionJob job = job();
+        assertEquals(AccountDeletionJob.Status.COMPLETED, job.getStatus());
+        assertNotNull(job.getCompletedAt());
+        assertEquals(0, taskRepository.count());
+        assertEquals(0, taskDescriptionRepository.count());
+        assertNull(entityManager.find(User.class, user.getId()));
+        assertTrue(accountDeletionService.getPendingDeletions().isEmpty());
+    }
+
+    @Test
+    void testPurgeDeletesListsLeftWithoutOwner() {
+        User other = entityManager.persist(User.builder()
+                .name("Staying User")
+                .email("staying@example.com")
+                .password("password")
+                .build());
+        TaskList owned = entityManager.persist(TaskList.builder().name("Owned").createdBy(user.getId()).build());
+        TaskList joined = entityManager.persist(TaskList.builder().name("Joined").createdBy(other.getId()).build());
+        entityManager.persist(member(owned, user, TaskListMember.Role.OWNER));
+        entityManager.persist(member(owned, other, TaskListMember.Role.EDITOR));
+        entityManager.persist(member(joined, other, TaskListMember.Role.OWNER));
+        entityManager.persist(member(joined, user, TaskListMember.Role.EDITOR));
+        Task otherTask = entityManager.persist(Task.builder()
+                .name("Other's task")
+                .status(Task.TaskStatus.PENDING)
+                .listId(owned.getId())
+                .user(other)
+                .build());
+        entityManager.flush();
+        accountDeletionService.requestDeletion(user.getId());
+        entityManager.flush();
+
+        boolean purged = false;
+        for (int run = 0; run < 10 && !purged; run++) {
+            purged = accountDeletionService.purge(user.getId());
+        }
+        assertTrue(purged);
+        entityManager.clear();
+
+        assertNull(entityManager.find(TaskList.class, owned.getId()));
+        assertNotNull(entityManager.find(TaskList.class, joined.getId()));
+        assertNull(entityManager.find(TaskListMember.class, new TaskListMember.Key(joined.getId(), user.getId())));
+        assertNotNull(entityManager.find(TaskListMember.class, new TaskListMember.Key(joined.getId(), other.getId())));
+        assertNull(entityManager.find(TaskListMember.class, new TaskListMember.Key(owned.getId(), other.getId())));
+        assertNull(taskRepository.findById(otherTask.getId()).orElseThrow().getListId());
+    }
+
+    @Test
+    void testRequestDeletionTwiceKeepsOneJob() {
+        accountDeletionService.requestDeletion(user.getId());
+        accountDeletionService.requestDeletion(user.getId());
+        entityManager.flush();
+
+        assertEquals(1, accountDeletionJobRepository.count());
+    }
+
+    private static TaskListMember member(TaskList list, User user, TaskListMember.Role role) {
+        return TaskListMember.builder().listId(list.getId()).userId(user.getId()).role(role).build();
+    }
+
+    private AccountDeletionJob job() {
+        entityManager.clear();
+        return accountDeletionJobRepository.findById(user.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,132 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.AuthRequest;
+import com.todoapp.dto.AuthResponse;
+import com.todoapp.dto.RegisterRequest;
+import com.todoapp.embedded.EmbeddedRepositories;
+import com.todoapp.embedded.EmbeddedStore;
+import com.todoapp.embedded.EmbeddedUserRepository;
+import com.todoapp.entity.User;
+import com.todoapp.id.TimeOrderedIdSource;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.security.JwtTokenProvider;
+import com.todoapp.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** The AuthServiceTest flows with users in the embedded storage engine. */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceEmbeddedTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private EmbeddedStore store;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = EmbeddedStore.open(directory, 1 << 16, Long.MAX_VALUE, Long.MAX_VALUE, 1000);
+        userRepository = EmbeddedRepositories.create(UserRepository.class,
+                new EmbeddedUserRepository(store, TimeOrderedIdSource.forNode(0)));
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testRegisterThenLogin() {
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> authenticated("newuser@example.com"));
+        when(jwtTokenProvider.generateToken(any())).thenReturn("test-token");
+        when(jwtTokenProvider.getExpirationTime()).thenReturn(86400000L);
+
+        AuthResponse registered = authService.register(registration("newuser@example.com", "password123"));
+
+        User stored = userRepository.findByEmail("newuser@example.com").orElseThrow();
+        assertEquals(stored.getId(), registered.getUser().getId());
+        assertEquals("encodedPassword", stored.getPassword());
+        assertNotNull(stored.getCreatedAt());
+
+        AuthResponse loggedIn = authService.login(AuthRequest.builder()
+                .email("newuser@example.com")
+                .password("password123")
+                .build());
+        assertEquals("test-token", loggedIn.getToken());
+        assertEquals("Bearer", loggedIn.getType());
+        assertEquals(stored.getId(), loggedIn.getUser().getId());
+        assertEquals("New User", loggedIn.getUser().getName());
+    }
+
+    // users.email is compared case-insensitively in MySQL, and so in the engine.
+    @Test
+    void testRegisterWithExistingEmailInAnyCase() {
+        userRepository.save(User.builder()
+                .name("Test User")
+                .email("test@example.com")
+                .password("encodedPassword")
+                .build());
+
+        assertThrows(RuntimeException.class, () -> authService.register(registration("TEST@example.com", "password123")));
+        verify(passwordEncoder, never()).encode(any());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void testRegisterWithMismatchedPasswordsStoresNothing() {
+        RegisterRequest request = registration("test@example.com", "password123");
+        request.setPasswordConfirm("password456");
+
+        assertThrows(RuntimeException.class, () -> authService.register(request));
+        assertFalse(userRepository.existsByEmail("test@example.com"));
+    }
+
+    private Authentication authenticated(String email) {
+        UserPrincipal principal = UserPrincipal.create(userRepository.findByEmail(email).orElseThrow());
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static RegisterRequest registration(String email, String password) {
+        return RegisterRequest.builder()
+                .name("New User")
+                .email(email)
+                .password(password)
+                .passwordConfirm(password)
+                .build();
+    }
+}
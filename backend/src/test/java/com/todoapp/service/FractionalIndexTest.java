@@ -0,0 +1,112 @@
+package com.todoapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FractionalIndexTest {
+
+    @Test
+    void testBetweenOpenBounds() {
+        String first = FractionalIndex.between(null, null);
+        String after = FractionalIndex.between(first, null);
+        String before = FractionalIndex.between(null, first);
+
+        assertTrue(before.compareTo(first) < 0);
+        assertTrue(after.compareTo(first) > 0);
+    }
+
+    @Test
+    void testBetweenAdjacentKeys() {
+        assertBetween("1", "2");
+        assertBetween("1", "12");
+        assertBetween("1z", "2");
+        assertBetween("z", null);
+        assertBetween(null, "01");
+        assertBetween("a", "a1");
+    }
+
+    @Test
+    void testRepeatedInsertsKeepOrder() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        keys.add(FractionalIndex.between(null, null));
+
+        for (int i = 0; i < 2000; i++) {
+            int slot = random.nextInt(keys.size() + 1);
+            String before = slot == 0 ? null : keys.get(slot - 1);
+            String after = slot == keys.size() ? null : keys.get(slot);
+            keys.add(slot, FractionalIndex.between(before, after));
+        }
+
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+            assertTrue(FractionalIndex.isValid(keys.get(i)));
+        }
+    }
+
+    @Test
+    void testAppendsGrowKeysSlowly() {
+        String last = null;
+        for (int i = 0; i < 1000; i++) {
+            String next = FractionalIndex.between(last, null);
+            assertTrue(last == null || last.compareTo(next) < 0);
+            last = next;
+        }
+
+        assertTrue(last.length() <= 32);
+    }
+
+    @Test
+    void testEvenlySpacedKeysAreShortAndOrdered() {
+        List<String> keys = FractionalIndex.evenlySpaced(10_000);
+
+        assertEquals(10_000, keys.size());
+        assertEquals(1, FractionalIndex.between(keys.get(keys.size() - 1), null).length());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+            assertTrue(keys.get(i).length() <= 4);
+            assertTrue(FractionalIndex.isValid(keys.get(i)));
+        }
+    }
+
+    @Test
+    void testBulkAppendsStayShort() {
+        String last = FractionalIndex.between(null, null);
+        for (int chunk = 0; chunk < 200; chunk++) {
+            List<String> keys = FractionalIndex.after(last, 500);
+
+            assertEquals(500, keys.size());
+            assertTrue(last.compareTo(keys.get(0)) < 0, last + " < " + keys.get(0));
+            for (int i = 1; i < keys.size(); i++) {
+                assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+                assertTrue(FractionalIndex.isValid(keys.get(i)));
+            }
+            last = keys.get(keys.size() - 1);
+        }
+
+        assertTrue(last.length() <= 20, last);
+    }
+
+    @Test
+    void testRejectsUnorderedBounds() {
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("a0", null));
+    }
+
+    private void assertBetween(String before, String after) {
+        String key = FractionalIndex.between(before, after);
+        assertTrue(FractionalIndex.isValid(key));
+        if (before != null) {
+            assertTrue(before.compareTo(key) < 0, before + " < " + key);
+        }
+        if (after != null) {
+            assertTrue(key.compareTo(after) < 0, key + " < " + after);
+        }
+    }
+}
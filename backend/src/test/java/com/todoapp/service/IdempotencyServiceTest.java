@@ -0,0 +1,324 @@
+package com.todoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.entity.IdempotencyRecord;
+import com.todoapp.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private IdempotencyService idempotencyService;
+
+    private TaskDTO request;
+    private AtomicInteger executions;
+
+    // Rows of idempotency_keys by (user id, key), standing in for the unique key.
+    private final Map<String, IdempotencyRecord> rows = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "memoryCapacity", 100);
+        ReflectionTestUtils.setField(idempotencyService, "claimTimeoutMs", 60000L);
+
+        request = TaskDTO.builder()
+                .name("New Task")
+                .description("New Description")
+                .build();
+        executions = new AtomicInteger();
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(anyLong(), anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(rowKey(invocation.getArgument(0),
+                        invocation.getArgument(1)))).map(IdempotencyServiceTest::copy));
+        lenient().when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = copy(invocation.getArgument(0));
+            record.setId(ids.incrementAndGet());
+            if (rows.putIfAbsent(rowKey(record.getUserId(), record.getIdempotencyKey()), record) != null) {
+                throw new DataIntegrityViolationException("uk_idempotency_user_key");
+            }
+            return copy(record);
+        });
+        lenient().when(idempotencyRecordRepository.complete(anyLong(), anyString(), anyInt(), any(), any(), any()))
+                .thenAnswer(invocation -> update(invocation.getArgument(0), invocation.getArgument(1), record -> {
+                    record.setStatus(invocation.getArgument(5));
+                    record.setStatusCode(invocation.getArgument(2));
+                    record.setResponseBody(invocation.getArgument(3));
+                    record.setExpiresAt(invocation.getArgument(4));
+                    record.setClaimToken(null);
+                }));
+        lenient().when(idempotencyRecordRepository.reclaim(anyLong(), anyString(), anyString(), any(), any()))
+                .thenAnswer(invocation -> update(invocation.getArgument(0), invocation.getArgument(1), record -> {
+                    record.setClaimToken(invocation.getArgument(2));
+                    record.setClaimedAt(invocation.getArgument(3));
+                }));
+        lenient().when(idempotencyRecordRepository.release(anyLong(), anyString()))
+                .thenAnswer(invocation -> rows.values().removeIf(record -> record.getId().equals(invocation.getArgument(0))
+                        && invocation.getArgument(1).equals(record.getClaimToken())) ? 1 : 0);
+    }
+
+    @Test
+    void testWithoutKeyAlwaysExecutes() {
+        idempotencyService.execute(null, 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+        idempotencyService.execute(null, 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+
+        assertEquals(2, executions.get());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testRetryReturnsStoredResponse() {
+        ResponseEntity<TaskDTO> first = idempotencyService.execute("key-1", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+        ResponseEntity<TaskDTO> retry = idempotencyService.execute("key-1", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+        assertEquals(IdempotencyRecord.Status.COMPLETED, rows.get(rowKey(1L, "key-1")).getStatus());
+    }
+
+    @Test
+    void testRetryIsServedFromDatabaseTierOnAnotherNode() {
+        idempotencyService.execute("key-db", 2L, "POST /tasks", request, TaskDTO.class, this::createTask);
+
+        ResponseEntity<TaskDTO> retry = otherNode().execute("key-db", 2L, "POST /tasks", request, TaskDTO.class, this::createTask);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(1L, retry.getBody().getId());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() {
+        idempotencyService.execute("key-2", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+        TaskDTO other = TaskDTO.builder().name("Other Task").build();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> idempotencyService.execute("key-2", 1L, "POST /tasks", other, TaskDTO.class, this::createTask));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatusCode());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testKeysAreScopedPerUser() {
+        idempotencyService.execute("key-3", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+        idempotencyService.execute("key-3", 2L, "POST /tasks", request, TaskDTO.class, this::createTask);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void testConcurrentDuplicateWaitsForFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<ResponseEntity<TaskDTO>> first = executor.submit(() -> idempotencyService.execute(
+                    "key-4", 1L, "POST /tasks", request, TaskDTO.class, () -> {
+                        started.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return createTask();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<ResponseEntity<TaskDTO>> duplicate = executor.submit(() -> idempotencyService.execute(
+                    "key-4", 1L, "POST /tasks", request, TaskDTO.class, this::createTask));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            assertEquals(first.get(5, TimeUnit.SECONDS).getBody(), duplicate.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testKeyInProgressOnAnotherNodeIsConflict() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ResponseEntity<TaskDTO>> first = executor.submit(() -> idempotencyService.execute(
+                    "key-5", 1L, "POST /tasks", request, TaskDTO.class, () -> {
+                        started.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return createTask();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> otherNode()
+                    .execute("key-5", 1L, "POST /tasks", request, TaskDTO.class, this::createTask));
+            assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+            release.countDown();
+
+            assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+            assertEquals(1, executions.get());
+            ResponseEntity<TaskDTO> retry = otherNode().execute(
+                    "key-5", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+            assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedOperationReleasesKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(
+                "key-6", 1L, "POST /tasks", request, TaskDTO.class, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertTrue(rows.isEmpty());
+
+        idempotencyService.execute("key-6", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testStaleClaimOfCrashedNodeIsTakenOver() {
+        idempotencyService.execute("key-7", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+        IdempotencyRecord completed = rows.get(rowKey(1L, "key-7"));
+        rows.put(rowKey(1L, "key-8"), IdempotencyRecord.builder()
+                .id(ids.incrementAndGet())
+                .userId(1L)
+                .idempotencyKey("key-8")
+                .requestFingerprint(completed.getRequestFingerprint())
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .claimToken("crashed")
+                .claimedAt(LocalDateTime.now().minusMinutes(5))
+                .expiresAt(LocalDateTime.now().plusHours(24))
+                .build());
+
+        ResponseEntity<TaskDTO> response = idempotencyService.execute(
+                "key-8", 1L, "POST /tasks", request, TaskDTO.class, this::createTask);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(IdempotencyRecord.Status.COMPLETED, rows.get(rowKey(1L, "key-8")).getStatus());
+    }
+
+    @Test
+    void testAttemptWhoseClaimWasTakenOverDoesNotComplete() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> idempotencyService.execute(
+                "key-9", 1L, "POST /tasks", request, TaskDTO.class, () -> {
+                    rows.get(rowKey(1L, "key-9")).setClaimToken("other-attempt");
+                    return createTask();
+                }));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals(IdempotencyRecord.Status.IN_PROGRESS, rows.get(rowKey(1L, "key-9")).getStatus());
+        assertEquals("other-attempt", rows.get(rowKey(1L, "key-9")).getClaimToken());
+    }
+
+    private IdempotencyService otherNode() {
+        IdempotencyService otherNode = new IdempotencyService();
+        ReflectionTestUtils.setField(otherNode, "idempotencyRecordRepository", idempotencyRecordRepository);
+        ReflectionTestUtils.setField(otherNode, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(otherNode, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(otherNode, "ttlHours", 24L);
+        ReflectionTestUtils.setField(otherNode, "memoryCapacity", 100);
+        ReflectionTestUtils.setField(otherNode, "claimTimeoutMs", 60000L);
+        return otherNode;
+    }
+
+    private int update(Long id, String token, Consumer<IdempotencyRecord> change) {
+        for (IdempotencyRecord record : rows.values()) {
+            if (record.getId().equals(id) && token.equals(record.getClaimToken())) {
+                change.accept(record);
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    private static String rowKey(Long userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+    private static IdempotencyRecord copy(IdempotencyRecord record) {
+        return IdempotencyRecord.builder()
+                .id(record.getId())
+                .userId(record.getUserId())
+                .idempotencyKey(record.getIdempotencyKey())
+                .requestFingerprint(record.getRequestFingerprint())
+                .status(record.getStatus())
+                .claimToken(record.getClaimToken())
+                .claimedAt(record.getClaimedAt())
+                .statusCode(record.getStatusCode())
+                .responseBody(record.getResponseBody())
+                .expiresAt(record.getExpiresAt())
+                .build();
+    }
+
+    private ResponseEntity<TaskDTO> createTask() {
+        int id = executions.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(TaskDTO.builder()
+                .id((long) id)
+                .name("New Task")
+                .status("PENDING")
+                .build());
+    }
+}
@@ -0,0 +1,104 @@
+package com.todoapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCoalescerTest {
+
+    private final ReadCoalescer<List<String>> coalescer = new ReadCoalescer<>();
+
+    @Test
+    void testConcurrentIdenticalReadsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<List<String>> leader = executor.submit(() -> coalescer.execute(1L, "ALL", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return List.of("task");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            Future<List<String>> follower = executor.submit(() -> coalescer.execute(1L, "ALL", () -> {
+                loads.incrementAndGet();
+                return List.of("other");
+            }));
+            waitForFollower();
+            release.countDown();
+
+            assertSame(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(0, coalescer.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidationStopsReadsFromJoiningOlderFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<List<String>> stale = executor.submit(() -> coalescer.execute(1L, "ALL", () -> {
+                loading.countDown();
+                await(release);
+                return List.of("before");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            coalescer.invalidate(1L);
+            List<String> fresh = coalescer.execute(1L, "ALL", () -> List.of("after"));
+            release.countDown();
+
+            assertEquals(List.of("after"), fresh);
+            assertEquals(List.of("before"), stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDifferentQueriesAndUsersAreNotCoalesced() {
+        assertEquals(List.of("a"), coalescer.execute(1L, "ALL", () -> List.of("a")));
+        assertEquals(List.of("b"), coalescer.execute(1L, "PENDING", () -> List.of("b")));
+        assertEquals(List.of("c"), coalescer.execute(2L, "ALL", () -> List.of("c")));
+    }
+
+    @Test
+    void testFailurePropagatesAndClearsFlight() {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute(1L, "ALL", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(0, coalescer.inFlightCount());
+        assertEquals(List.of("ok"), coalescer.execute(1L, "ALL", () -> List.of("ok")));
+    }
+
+    private void waitForFollower() throws InterruptedException {
+        // The follower has no observable "joined" signal; give it time to reach the shared future.
+        Thread.sleep(100);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
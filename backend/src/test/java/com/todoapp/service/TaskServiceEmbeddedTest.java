@@ -0,0 +1,223 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.MoveTaskRequest;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskFilter;
+import com.todoapp.dto.TaskTreeDTO;
+import com.todoapp.embedded.EmbeddedRepositories;
+import com.todoapp.embedded.EmbeddedStore;
+import com.todoapp.embedded.EmbeddedTaskRepository;
+import com.todoapp.embedded.EmbeddedUserRepository;
+import com.todoapp.entity.User;
+import com.todoapp.id.TimeOrderedIdSource;
+import com.todoapp.repository.TaskDescriptionRepository;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskIdReservationRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.tag.TaskTagIndex;
+import com.todoapp.tasklist.TaskListAccess;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * The TaskServiceTest flows with tasks and users in the embedded storage
+ * engine, wired as the embedded profile wires it, instead of mocked
+ * repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskServiceEmbeddedTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskTagIndex taskTagIndex;
+
+    @Mock
+    private TaskIdReservationRepository taskIdReservationRepository;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private TaskListAccess taskListAccess;
+
+    @Mock
+    private TaskDescriptionRepository taskDescriptionRepository;
+
+    @InjectMocks
+    private TaskService taskService;
+
+    private EmbeddedStore store;
+    private UserRepository userRepository;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = EmbeddedStore.open(directory, 1 << 16, Long.MAX_VALUE, Long.MAX_VALUE, 1000);
+        TimeOrderedIdSource idSource = TimeOrderedIdSource.forNode(0);
+        TaskRepository taskRepository = EmbeddedRepositories.create(TaskRepository.class,
+                new EmbeddedTaskRepository(store, idSource));
+        userRepository = EmbeddedRepositories.create(UserRepository.class,
+                new EmbeddedUserRepository(store, idSource));
+        ReflectionTestUtils.setField(taskService, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(taskService, "userRepository", userRepository);
+        userId = saveUser("test@example.com").getId();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testCreateReadUpdateToggleAndDeleteTask() {
+        TaskDTO created = taskService.createTask(TaskDTO.builder()
+                .name("New Task")
+                .description("New Description")
+                .tags(List.of(" Work ", "work", "Home"))
+                .build(), userId);
+
+        assertNotNull(created.getId());
+        assertEquals(List.of("New Task"), names(taskService.getUserTasks(userId)));
+        TaskDTO read = taskService.getTaskById(created.getId(), userId);
+        assertEquals("New Description", read.getDescription());
+        assertEquals(Set.of("work", "home"), Set.copyOf(read.getTags()));
+
+        taskService.updateTask(created.getId(), TaskDTO.builder().name("Renamed").build(), userId);
+        assertEquals("COMPLETED", taskService.toggleTaskStatus(created.getId(), userId).getStatus());
+
+        assertEquals(List.of("Renamed"), names(taskService.getUserTasksByStatus(userId, "COMPLETED")));
+        assertTrue(taskService.getUserTasksByStatus(userId, "PENDING").isEmpty());
+
+        taskService.deleteTask(created.getId(), userId);
+        assertThrows(RuntimeException.class, () -> taskService.getTaskById(created.getId(), userId));
+        assertTrue(taskService.getUserTasks(userId).isEmpty());
+    }
+
+    @Test
+    void testTasksOfAnotherUserAreNotFound() {
+        TaskDTO created = taskService.createTask(TaskDTO.builder().name("Private").build(), userId);
+        Long otherId = saveUser("other@example.com").getId();
+
+        assertThrows(RuntimeException.class, () -> taskService.getTaskById(created.getId(), otherId));
+        assertTrue(taskService.getUserTasks(otherId).isEmpty());
+    }
+
+    @Test
+    void testCreateTaskAppendsAndMoveTaskReorders() {
+        Long first = taskService.createTask(TaskDTO.builder().name("First").build(), userId).getId();
+        Long second = taskService.createTask(TaskDTO.builder().name("Second").build(), userId).getId();
+        Long third = taskService.createTask(TaskDTO.builder().name("Third").build(), userId).getId();
+        assertEquals(List.of("First", "Second", "Third"), names(taskService.getUserTasks(userId)));
+
+        taskService.moveTask(third, new MoveTaskRequest(first, second), userId);
+        assertEquals(List.of("First", "Third", "Second"), names(taskService.getUserTasks(userId)));
+
+        taskService.moveTask(second, new MoveTaskRequest(null, first), userId);
+        assertEquals(List.of("Second", "First", "Third"), names(taskService.getUserTasks(userId)));
+    }
+
+    @Test
+    void testRebalanceKeepsOrderAndUpdatedAt() {
+        taskService.createTask(TaskDTO.builder().name("First").build(), userId);
+        taskService.createTask(TaskDTO.builder().name("Second").build(), userId);
+        List<TaskDTO> before = taskService.getUserTasks(userId);
+
+        taskService.rebalancePositions(userId);
+
+        List<TaskDTO> after = taskService.getUserTasks(userId);
+        assertEquals(names(before), names(after));
+        assertEquals(before.stream().map(TaskDTO::getUpdatedAt).toList(),
+                after.stream().map(TaskDTO::getUpdatedAt).toList());
+    }
+
+    @Test
+    void testSubtasksAreCountedNestedAndDeletedWithTheirParent() {
+        Long parent = taskService.createTask(TaskDTO.builder().name("Parent").build(), userId).getId();
+        Long child = taskService.createTask(TaskDTO.builder().name("Child").parentId(parent).build(), userId).getId();
+        taskService.createTask(TaskDTO.builder().name("Grandchild").parentId(child).build(), userId);
+
+        taskService.toggleTaskStatus(child, userId);
+        assertEquals(50, taskService.getTaskById(parent, userId).getPercentDone());
+        TaskTreeDTO tree = taskService.getTaskTree(parent, userId, 2);
+        assertEquals("Child", tree.getSubtasks().get(0).getTask().getName());
+        assertEquals("Grandchild", tree.getSubtasks().get(0).getSubtasks().get(0).getTask().getName());
+
+        taskService.deleteTask(parent, userId);
+        assertTrue(taskService.getUserTasks(userId).isEmpty());
+    }
+
+    @Test
+    void testSearchTasks() {
+        taskService.createTask(TaskDTO.builder().name("beta").build(), userId);
+        taskService.createTask(TaskDTO.builder().name("Alpha").build(), userId);
+        Long done = taskService.createTask(TaskDTO.builder().name("Gamma").build(), userId).getId();
+        taskService.toggleTaskStatus(done, userId);
+
+        TaskFilter filter = TaskFilter.builder().status("pending").sort("name").direction("asc").build();
+        assertEquals(List.of("Alpha", "beta"), names(taskService.searchTasks(userId, filter)));
+    }
+
+    @Test
+    void testImportTasksAppendsInOrder() {
+        taskService.createTask(TaskDTO.builder().name("Existing").build(), userId);
+
+        taskService.importTasks(List.of(
+                TaskDTO.builder().name("Imported 1").build(),
+                TaskDTO.builder().name("Imported 2").status("COMPLETED").build()), userId);
+
+        assertEquals(List.of("Existing", "Imported 1", "Imported 2"), names(taskService.getUserTasks(userId)));
+        assertEquals(List.of("Imported 2"), names(taskService.getUserTasksByStatus(userId, "COMPLETED")));
+    }
+
+    @Test
+    void testCreateTaskWithReservedIdOnceOnly() {
+        long id = 361751757435855L;
+        when(taskIdReservationRepository.consume(id, userId)).thenReturn(1, 0);
+
+        taskService.createTask(TaskDTO.builder().id(id).name("Offline Task").build(), userId);
+        assertEquals("Offline Task", taskService.getTaskById(id, userId).getName());
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.createTask(TaskDTO.builder().id(id).name("Offline Task").build(), userId));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    private User saveUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Test User")
+                .email(email)
+                .password("password")
+                .build());
+    }
+
+    private static List<String> names(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getName).toList();
+    }
+}
@@ -1,25 +1,59 @@
 package com.todoapp.service;
 
+import com.todoapp.dto.MoveTaskRequest;
 import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskFilter;
+import com.todoapp.dto.TaskHistoryPageDTO;
+import com.todoapp.dto.TaskTreeDTO;
 import com.todoapp.entity.Task;
+import com.todoapp.entity.TaskHistory;
+import com.todoapp.entity.TaskIdReservation;
+import com.todoapp.entity.TaskListMember;
 import com.todoapp.entity.User;
+import com.todoapp.event.TaskEvent;
+import com.todoapp.repository.DeletedTaskRow;
+import com.todoapp.repository.TaskDayCount;
+import com.todoapp.repository.TaskDescriptionRepository;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskIdReservationRepository;
 import com.todoapp.repository.TaskRepository;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.tag.TagMatchMode;
+import com.todoapp.tag.TagQuery;
+import com.todoapp.tag.TaskTagIndex;
+import com.todoapp.tasklist.TaskListAccess;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.web.server.ResponseStatusException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 
@@ -32,6 +66,27 @@ class TaskServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskTagIndex taskTagIndex;
+
+    @Mock
+    private TaskIdReservationRepository taskIdReservationRepository;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private TaskListAccess taskListAccess;
+
+    @Mock
+    private TaskDescriptionRepository taskDescriptionRepository;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -82,6 +137,57 @@ class TaskServiceTest {
         assertEquals("PENDING", result.get(0).getStatus());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearchTasks() {
+        TaskFilter filter = TaskFilter.builder().status("pending").sort("createdAt").direction("desc").build();
+        when(taskRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(List.of(testTask));
+
+        List<TaskDTO> result = taskService.searchTasks(1L, filter);
+
+        assertEquals(1, result.size());
+        verify(taskRepository).findAll(any(Specification.class),
+                eq(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"))));
+    }
+
+    @Test
+    void testSearchTasksRejectsRangeNotServedByIndex() {
+        TaskFilter filter = TaskFilter.builder().sort("name").createdFrom(LocalDateTime.now()).build();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.searchTasks(1L, filter));
+        assertEquals(400, exception.getStatusCode().value());
+    }
+
+    @Test
+    void testGetUserTasksByTagsUsesIndexedIds() {
+        TagQuery query = new TagQuery(Set.of("work"), TagMatchMode.ALL, Set.of(), null);
+        when(taskTagIndex.findTaskIds(1L, query)).thenReturn(List.of(1L));
+        when(taskRepository.findByUserIdAndIdIn(1L, List.of(1L))).thenReturn(List.of(testTask));
+
+        List<TaskDTO> result = taskService.getUserTasksByTags(1L, query);
+
+        assertEquals(1, result.size());
+        assertEquals("Test Task", result.get(0).getName());
+    }
+
+    @Test
+    void testCreateTaskNormalizesTags() {
+        TaskDTO taskDTO = TaskDTO.builder()
+                .name("New Task")
+                .tags(List.of(" Work ", "work", "Home"))
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        taskService.createTask(taskDTO, 1L);
+
+        ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(captor.capture());
+        assertEquals(Set.of("work", "home"), captor.getValue().getTags());
+    }
+
     @Test
     void testGetTaskById() {
         when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
@@ -115,6 +221,45 @@ class TaskServiceTest {
         assertEquals("Test Task", result.getName());
     }
 
+    @Test
+    void testCreateSubtaskExtendsPathAndCountsIt() {
+        testTask.setTreePath("/5/");
+        testTask.setTreeDepth(1);
+        TaskDTO taskDTO = TaskDTO.builder()
+                .name("Subtask")
+                .parentId(1L)
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+
+        TaskDTO result = taskService.createTask(taskDTO, 1L);
+
+        assertEquals(1L, result.getParentId());
+        ArgumentCaptor<Task> saved = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(saved.capture());
+        assertEquals("/5/1/", saved.getValue().getTreePath());
+        assertEquals(2, saved.getValue().getTreeDepth());
+        verify(taskRepository).adjustDescendantCounts(List.of(5L, 1L), 1, 0);
+    }
+
+    @Test
+    void testCreateSubtaskBelowMaxDepthIsRejected() {
+        testTask.setTreeDepth(TaskService.MAX_TREE_DEPTH);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.createTask(TaskDTO.builder().name("Too deep").parentId(1L).build(), 1L));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
     @Test
     void testUpdateTask() {
         TaskDTO taskDTO = TaskDTO.builder()
@@ -141,11 +286,487 @@ class TaskServiceTest {
         assertNotNull(result);
     }
 
+    @Test
+    void testToggleTaskStatusRecordsCompletion() {
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        taskService.toggleTaskStatus(1L, 1L);
+
+        assertNotNull(testTask.getCompletedAt());
+        verify(taskStatsService).recordCompleted(1L, testTask.getCompletedAt());
+    }
+
+    @Test
+    void testToggleCompletedTaskReopensItInStats() {
+        LocalDateTime completedAt = LocalDateTime.of(2024, 1, 15, 10, 0);
+        testTask.setStatus(Task.TaskStatus.COMPLETED);
+        testTask.setCompletedAt(completedAt);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        taskService.toggleTaskStatus(1L, 1L);
+
+        assertNull(testTask.getCompletedAt());
+        verify(taskStatsService).recordReopened(1L, completedAt);
+    }
+
+    @Test
+    void testToggleSubtaskUpdatesAncestorRollup() {
+        testTask.setTreePath("/5/7/");
+        testTask.setTreeDepth(2);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        taskService.toggleTaskStatus(1L, 1L);
+        verify(taskRepository).adjustDescendantCounts(List.of(5L, 7L), 0, 1);
+
+        taskService.toggleTaskStatus(1L, 1L);
+        verify(taskRepository).adjustDescendantCounts(List.of(5L, 7L), 0, -1);
+    }
+
+    @Test
+    void testDeleteTaskDeletesSubtreeWithSetBasedStatements() {
+        testTask.setTreePath("/9/");
+        testTask.setTreeDepth(1);
+        testTask.setDescendantCount(3);
+        LocalDate monday = LocalDate.of(2024, 1, 15);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findDeletedRows(1L, "/9/1/%")).thenReturn(List.of(
+                new DeletedTaskRow(2L, "Child", 20L), new DeletedTaskRow(3L, "Grandchild", null),
+                new DeletedTaskRow(4L, "Other child", null)));
+        List<TaskDayCount> counts = List.of(
+                new TaskDayCount(Task.TaskStatus.PENDING, monday, null, 2),
+                new TaskDayCount(Task.TaskStatus.COMPLETED, monday, monday.plusDays(1), 1));
+        when(taskRepository.countDescendantsByDay(1L, "/9/1/%")).thenReturn(counts);
+
+        taskService.deleteTask(1L, 1L);
+
+        InOrder order = inOrder(taskRepository, taskDescriptionRepository);
+        order.verify(taskRepository).detachDescendants(1L, "/9/1/%");
+        order.verify(taskRepository).deleteDescendants(1L, "/9/1/%");
+        order.verify(taskDescriptionRepository).deleteAllByIdInBatch(List.of(20L));
+        order.verify(taskRepository).delete(testTask);
+        verify(taskRepository).adjustDescendantCounts(List.of(9L), -4, -1);
+        verify(taskStatsService).recordDeleted(1L, counts);
+        verify(taskStatsService).recordDeleted(1L, testTask.getCreatedAt(), null);
+        verify(eventPublisher, times(4)).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    void testGetTaskTreeNestsSubtasksUpToDepth() {
+        testTask.setDescendantCount(3);
+        Task second = subtask(2L, "/1/", "b");
+        Task first = subtask(3L, "/1/", "a");
+        first.setDescendantCount(1);
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findSubtree(1L, "/1/%", 1)).thenReturn(List.of(second, first));
+
+        TaskTreeDTO tree = taskService.getTaskTree(1L, 1L, 1);
+
+        assertEquals(1L, tree.getTask().getId());
+        assertFalse(tree.isTruncated());
+        assertEquals(List.of(3L, 2L), tree.getSubtasks().stream().map(node -> node.getTask().getId()).toList());
+        assertTrue(tree.getSubtasks().get(0).isTruncated());
+        assertFalse(tree.getSubtasks().get(1).isTruncated());
+        assertThrows(ResponseStatusException.class,
+                () -> taskService.getTaskTree(1L, 1L, TaskService.MAX_TREE_DEPTH + 1));
+    }
+
     @Test
     void testDeleteTask() {
         when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
 
         assertDoesNotThrow(() -> taskService.deleteTask(1L, 1L));
         verify(taskRepository).delete(testTask);
+        verify(taskStatsService).recordDeleted(1L, testTask.getCreatedAt(), null);
+        verify(eventPublisher).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    void testListMemberTogglesTaskOfAnotherUserOnTheirBehalf() {
+        User owner = User.builder().id(2L).name("Owner").email("owner@example.com").password("password").build();
+        Task shared = Task.builder()
+                .id(5L)
+                .name("Shared Task")
+                .status(Task.TaskStatus.PENDING)
+                .listId(7L)
+                .user(owner)
+                .build();
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+        when(taskListAccess.hasLists(1L)).thenReturn(true);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(shared));
+        when(taskListAccess.roleOf(1L, 7L)).thenReturn(TaskListMember.Role.EDITOR);
+        when(taskRepository.save(shared)).thenReturn(shared);
+
+        taskService.toggleTaskStatus(5L, 1L);
+
+        // Stats and events belong to the task's owner; the event names the member who changed it.
+        verify(taskStatsService).recordCompleted(2L, shared.getCompletedAt());
+        ArgumentCaptor<TaskEvent> event = ArgumentCaptor.forClass(TaskEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(2L, event.getValue().userId());
+        assertEquals(1L, event.getValue().actorId());
+    }
+
+    @Test
+    void testListViewerCanReadButNotChangeSharedTask() {
+        Task shared = Task.builder()
+                .id(5L)
+                .name("Shared Task")
+                .status(Task.TaskStatus.PENDING)
+                .listId(7L)
+                .user(User.builder().id(2L).build())
+                .build();
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+        when(taskListAccess.hasLists(1L)).thenReturn(true);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(shared));
+        when(taskListAccess.roleOf(1L, 7L)).thenReturn(TaskListMember.Role.VIEWER);
+
+        assertEquals("Shared Task", taskService.getTaskById(5L, 1L).getName());
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.deleteTask(5L, 1L));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(taskRepository, never()).delete(any(Task.class));
+    }
+
+    @Test
+    void testTaskOfListUserIsNotMemberOfIsNotFound() {
+        Task shared = Task.builder().id(5L).name("Shared Task").listId(8L).user(User.builder().id(2L).build()).build();
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+        when(taskListAccess.hasLists(1L)).thenReturn(true);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(shared));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> taskService.getTaskById(5L, 1L));
+        assertEquals("Task not found", exception.getMessage());
+    }
+
+    @Test
+    void testUserWithoutListsNeverLooksUpOtherUsersTasks() {
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> taskService.updateTask(5L, new TaskDTO(), 1L));
+        verify(taskRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testCreateTaskInListRequiresEditorRole() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskListAccess.roleOf(1L, 7L)).thenReturn(TaskListMember.Role.VIEWER);
+        TaskDTO taskDTO = TaskDTO.builder().name("In a list").listId(7L).build();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.createTask(taskDTO, 1L));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+    }
+
+    @Test
+    void testUpdateTaskWithNewDueDateResetsReminder() {
+        testTask.setDueAt(LocalDateTime.of(2024, 1, 15, 10, 0));
+        testTask.setReminderSentAt(LocalDateTime.of(2024, 1, 15, 10, 0));
+        TaskDTO taskDTO = TaskDTO.builder()
+                .name("Test Task")
+                .dueAt(LocalDateTime.of(2024, 1, 16, 9, 30, 15, 123_000_000))
+                .build();
+
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        taskService.updateTask(1L, taskDTO, 1L);
+
+        assertEquals(LocalDateTime.of(2024, 1, 16, 9, 30, 15), testTask.getDueAt());
+        assertNull(testTask.getReminderSentAt());
+        ArgumentCaptor<TaskEvent> captor = ArgumentCaptor.forClass(TaskEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(TaskEvent.Type.UPDATED, captor.getValue().type());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 0), captor.getValue().before().getDueAt());
+    }
+
+    @Test
+    void testCreateTaskAppendsAfterLastPosition() {
+        TaskDTO taskDTO = TaskDTO.builder().name("New Task").build();
+        Task last = Task.builder().id(2L).position("k").user(testUser).build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.findFirstByUserIdOrderByPositionDesc(1L)).thenReturn(Optional.of(last));
+        when(taskRepository.save(any(Task.class))).thenReturn(testTask);
+
+        taskService.createTask(taskDTO, 1L);
+
+        ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).save(captor.capture());
+        assertTrue(captor.getValue().getPosition().compareTo("k") > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportTasksAppendsInOrderAndRecordsStats() {
+        Task last = Task.builder().id(2L).position("k").user(testUser).build();
+        List<TaskDTO> rows = List.of(
+                TaskDTO.builder().name("First").tags(List.of(" Work ")).build(),
+                TaskDTO.builder().name("Second").status("completed").build(),
+                TaskDTO.builder().name("Third").build());
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.findFirstByUserIdOrderByPositionDesc(1L)).thenReturn(Optional.of(last));
+        when(taskRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskDTO> imported = taskService.importTasks(rows, 1L);
+
+        ArgumentCaptor<List<Task>> captor = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).saveAll(captor.capture());
+        List<Task> saved = captor.getValue();
+        assertEquals(3, saved.size());
+        assertTrue(saved.get(0).getPosition().compareTo("k") > 0);
+        assertTrue(saved.get(0).getPosition().compareTo(saved.get(1).getPosition()) < 0);
+        assertTrue(saved.get(1).getPosition().compareTo(saved.get(2).getPosition()) < 0);
+        assertEquals(Set.of("work"), saved.get(0).getTags());
+        assertEquals(Task.TaskStatus.COMPLETED, saved.get(1).getStatus());
+        assertNotNull(saved.get(1).getCompletedAt());
+        assertEquals(3, imported.size());
+        verify(taskStatsService).recordImported(eq(1L), any(LocalDateTime.class), eq(3), eq(1));
+        verify(eventPublisher, times(3)).publishEvent(any(TaskEvent.class));
+    }
+
+    @Test
+    void testImportTasksForDeletedAccountFails() {
+        testUser.setDeletedAt(LocalDateTime.now());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        assertThrows(RuntimeException.class,
+                () -> taskService.importTasks(List.of(TaskDTO.builder().name("Task").build()), 1L));
+        verify(taskRepository, times(0)).saveAll(any());
+    }
+
+    @Test
+    void testMoveTaskBetweenNeighboursSavesOnlyMovedTask() {
+        testTask.setPosition("z");
+        Task after = Task.builder().id(2L).position("b").user(testUser).build();
+        Task before = Task.builder().id(3L).position("c").user(testUser).build();
+
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findByIdAndUserId(2L, 1L)).thenReturn(Optional.of(after));
+        when(taskRepository.findByIdAndUserId(3L, 1L)).thenReturn(Optional.of(before));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.moveTask(1L, new MoveTaskRequest(2L, 3L), 1L);
+
+        assertTrue(testTask.getPosition().compareTo("b") > 0);
+        assertTrue(testTask.getPosition().compareTo("c") < 0);
+        verify(taskRepository, times(1)).save(testTask);
+    }
+
+    @Test
+    void testMoveTaskToTopLooksUpPredecessor() {
+        Task first = Task.builder().id(2L).position("i").user(testUser).build();
+
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testTask));
+        when(taskRepository.findByIdAndUserId(2L, 1L)).thenReturn(Optional.of(first));
+        when(taskRepository.findFirstByUserIdAndPositionLessThanOrderByPositionDesc(1L, "i")).thenReturn(Optional.empty());
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.moveTask(1L, new MoveTaskRequest(null, 2L), 1L);
+
+        assertTrue(testTask.getPosition().compareTo("i") < 0);
+    }
+
+    @Test
+    void testMoveTaskWithoutNeighboursIsRejected() {
+        assertThrows(ResponseStatusException.class,
+                () -> taskService.moveTask(1L, new MoveTaskRequest(null, null), 1L));
+        assertThrows(ResponseStatusException.class,
+                () -> taskService.moveTask(1L, new MoveTaskRequest(1L, null), 1L));
+    }
+
+    @Test
+    void testGetTaskHistoryReturnsPage() {
+        TaskHistory renamed = TaskHistory.builder()
+                .id(7L)
+                .taskId(1L)
+                .userId(1L)
+                .action(TaskHistory.Action.RENAMED)
+                .oldValue("Old")
+                .newValue("Test Task")
+                .occurredAt(LocalDateTime.now())
+                .build();
+        when(taskHistoryRepository.findByTaskIdAndUserIdOrderByIdDesc(1L, 1L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(renamed), PageRequest.of(0, 1), true));
+
+        TaskHistoryPageDTO page = taskService.getTaskHistory(1L, 1L, 0, 1);
+
+        assertEquals(1, page.getEntries().size());
+        assertEquals("RENAMED", page.getEntries().get(0).getAction());
+        assertTrue(page.isHasNext());
+    }
+
+    @Test
+    void testGetTaskHistoryOfUnknownTaskFails() {
+        when(taskHistoryRepository.findByTaskIdAndUserIdOrderByIdDesc(99L, 1L, PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false));
+        when(taskRepository.findByIdAndUserId(99L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> taskService.getTaskHistory(99L, 1L, 0, 20));
+        assertThrows(ResponseStatusException.class, () -> taskService.getTaskHistory(1L, 1L, 0, 500));
+    }
+
+    @Test
+    void testListViewerReadsTreeAndHistoryOfSharedTask() {
+        User owner = User.builder().id(2L).build();
+        Task shared = Task.builder().id(5L).name("Shared Task").status(Task.TaskStatus.PENDING).listId(7L).user(owner)
+                .descendantCount(1).build();
+        Task child = Task.builder().id(6L).name("Subtask").status(Task.TaskStatus.PENDING).user(owner).parentId(5L)
+                .treePath("/5/").treeDepth(1).build();
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+        when(taskListAccess.hasLists(1L)).thenReturn(true);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(shared));
+        when(taskListAccess.roleOf(1L, 7L)).thenReturn(TaskListMember.Role.VIEWER);
+        when(taskRepository.findSubtree(2L, "/5/%", 1)).thenReturn(List.of(child));
+        when(taskHistoryRepository.findByTaskIdAndUserIdOrderByIdDesc(5L, 2L, PageRequest.of(0, 20)))
+                .thenReturn(new SliceImpl<>(List.of(TaskHistory.builder().id(9L).taskId(5L).userId(2L)
+                        .action(TaskHistory.Action.CREATED).occurredAt(LocalDateTime.now()).build())));
+
+        TaskTreeDTO tree = taskService.getTaskTree(5L, 1L, 1);
+        TaskHistoryPageDTO history = taskService.getTaskHistory(5L, 1L, 0, 20);
+
+        assertEquals(List.of(6L), tree.getSubtasks().stream().map(node -> node.getTask().getId()).toList());
+        assertEquals(1, history.getEntries().size());
+    }
+
+    @Test
+    void testTreeHistoryAndMoveOfListUserIsNotMemberOfAreNotFound() {
+        Task shared = Task.builder().id(5L).name("Shared Task").listId(8L).user(User.builder().id(2L).build()).build();
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+        when(taskListAccess.hasLists(1L)).thenReturn(true);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(shared));
+
+        assertEquals("Task not found",
+                assertThrows(RuntimeException.class, () -> taskService.getTaskTree(5L, 1L, 1)).getMessage());
+        assertEquals("Task not found",
+                assertThrows(RuntimeException.class, () -> taskService.getTaskHistory(5L, 1L, 0, 20)).getMessage());
+        assertEquals("Task not found", assertThrows(RuntimeException.class,
+                () -> taskService.moveTask(5L, new MoveTaskRequest(null, 6L), 1L)).getMessage());
+        verify(taskHistoryRepository, never()).findByTaskIdAndUserIdOrderByIdDesc(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testListEditorMovesSharedTaskAmongOwnersTasks() {
+        User owner = User.builder().id(2L).build();
+        Task shared = Task.builder().id(5L).status(Task.TaskStatus.PENDING).listId(7L).position("z").user(owner).build();
+        Task next = Task.builder().id(6L).listId(7L).position("m").user(owner).build();
+        when(taskRepository.findByIdAndUserId(anyLong(), eq(1L))).thenReturn(Optional.empty());
+        when(taskListAccess.hasLists(1L)).thenReturn(true);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(shared));
+        when(taskRepository.findById(6L)).thenReturn(Optional.of(next));
+        when(taskListAccess.roleOf(1L, 7L)).thenReturn(TaskListMember.Role.EDITOR);
+        when(taskRepository.findFirstByUserIdAndPositionLessThanOrderByPositionDesc(2L, "m"))
+                .thenReturn(Optional.empty());
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.moveTask(5L, new MoveTaskRequest(null, 6L), 1L);
+
+        assertTrue(shared.getPosition().compareTo("m") < 0);
+    }
+
+    @Test
+    void testListViewerCannotMoveSharedTask() {
+        Task shared = Task.builder().id(5L).listId(7L).position("z").user(User.builder().id(2L).build()).build();
+        when(taskRepository.findByIdAndUserId(5L, 1L)).thenReturn(Optional.empty());
+        when(taskListAccess.hasLists(1L)).thenReturn(true);
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(shared));
+        when(taskListAccess.roleOf(1L, 7L)).thenReturn(TaskListMember.Role.VIEWER);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.moveTask(5L, new MoveTaskRequest(null, 6L), 1L));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void testCreateTaskWithReservedId() {
+        TaskDTO taskDTO = TaskDTO.builder().id(361751757435855L).name("Offline Task").build();
+
+        when(taskIdReservationRepository.consume(361751757435855L, 1L)).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.saveAndFlush(any(Task.class))).thenReturn(testTask);
+
+        taskService.createTask(taskDTO, 1L);
+
+        ArgumentCaptor<Task> captor = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).saveAndFlush(captor.capture());
+        assertEquals(361751757435855L, captor.getValue().getRequestedId());
+        assertNull(captor.getValue().getId());
+    }
+
+    @Test
+    void testCreateTaskWithUnreservedIdIsRejected() {
+        TaskDTO taskDTO = TaskDTO.builder().id(361751757435855L).name("Offline Task").build();
+
+        when(taskIdReservationRepository.consume(361751757435855L, 1L)).thenReturn(0);
+        when(taskRepository.findByIdAndUserId(361751757435855L, 1L)).thenReturn(Optional.empty());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.createTask(taskDTO, 1L));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    void testCreateTaskWithTakenIdIsRejected() {
+        TaskDTO taskDTO = TaskDTO.builder().id(361751757435855L).name("Offline Task").build();
+
+        when(taskIdReservationRepository.consume(361751757435855L, 1L)).thenReturn(0);
+        when(taskRepository.findByIdAndUserId(361751757435855L, 1L)).thenReturn(Optional.of(testTask));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.createTask(taskDTO, 1L));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(taskRepository, never()).saveAndFlush(any(Task.class));
+    }
+
+    @Test
+    void testCreateTaskWithIdTakenConcurrentlyIsAConflict() {
+        TaskDTO taskDTO = TaskDTO.builder().id(361751757435855L).name("Offline Task").build();
+
+        when(taskIdReservationRepository.consume(361751757435855L, 1L)).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(taskRepository.saveAndFlush(any(Task.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'PRIMARY'"));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskService.createTask(taskDTO, 1L));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    @Test
+    void testReserveTaskIdsRecordsThemForTheUser() {
+        when(taskIdReservationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TaskIdReservation> reservations = invocation.getArgument(0);
+            for (int i = 0; i < reservations.size(); i++) {
+                reservations.get(i).setId(10L + i);
+            }
+            return reservations;
+        });
+
+        assertEquals(List.of(10L, 11L, 12L), taskService.reserveTaskIds(3, 1L));
+        ArgumentCaptor<List<TaskIdReservation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(taskIdReservationRepository).saveAll(captor.capture());
+        assertTrue(captor.getValue().stream().allMatch(reservation -> reservation.getUserId().equals(1L)));
+        assertThrows(ResponseStatusException.class, () -> taskService.reserveTaskIds(1001, 1L));
+    }
+
+    private Task subtask(Long id, String treePath, String position) {
+        String[] ancestors = treePath.split("/");
+        return Task.builder()
+                .id(id)
+                .name("Subtask " + id)
+                .status(Task.TaskStatus.PENDING)
+                .user(testUser)
+                .parentId(Long.valueOf(ancestors[ancestors.length - 1]))
+                .treePath(treePath)
+                .treeDepth(ancestors.length - 1)
+                .position(position)
+                .build();
     }
 }
@@ -0,0 +1,140 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskStatsBucketDTO;
+import com.todoapp.dto.TaskStatsDTO;
+import com.todoapp.entity.Task;
+import com.todoapp.entity.User;
+import com.todoapp.repository.TaskDayCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(TaskStatsService.class)
+class TaskStatsServiceTest {
+
+    // A Monday.
+    private static final LocalDate START = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persistAndFlush(User.builder()
+                .name("Stats User")
+                .email("stats@example.com")
+                .password("password")
+                .statsRebuiltAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void testDailyBucketsFollowIncrementalUpdates() {
+        taskStatsService.recordCreated(user.getId(), START.atTime(9, 0));
+        taskStatsService.recordCreated(user.getId(), START.atTime(10, 0));
+        taskStatsService.recordCompleted(user.getId(), START.plusDays(1).atTime(9, 0));
+        taskStatsService.recordCreated(user.getId(), START.plusDays(2).atTime(9, 0));
+        taskStatsService.recordDeleted(user.getId(), START.plusDays(2).atTime(9, 0), null);
+
+        TaskStatsDTO stats = taskStatsService.getStats(user.getId(), START, START.plusDays(2), "day");
+
+        assertEquals(List.of(
+                bucket(START, 2, 0),
+                bucket(START.plusDays(1), 0, 1),
+                bucket(START.plusDays(2), 0, 0)), stats.getBuckets());
+        assertEquals(2, stats.getCreated());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(0.5, stats.getCompletionRate());
+    }
+
+    @Test
+    void testDeletedSubtreeIsSubtractedPerDay() {
+        for (int i = 0; i < 3; i++) {
+            taskStatsService.recordCreated(user.getId(), START.atTime(9, i));
+        }
+        taskStatsService.recordCompleted(user.getId(), START.plusDays(1).atTime(9, 0));
+
+        taskStatsService.recordDeleted(user.getId(), List.of(
+                new TaskDayCount(Task.TaskStatus.PENDING, START, null, 1),
+                new TaskDayCount(Task.TaskStatus.COMPLETED, START, START.plusDays(1), 1)));
+        TaskStatsDTO stats = taskStatsService.getStats(user.getId(), START, START.plusDays(1), "day");
+
+        assertEquals(List.of(bucket(START, 1, 0), bucket(START.plusDays(1), 0, 0)), stats.getBuckets());
+    }
+
+    @Test
+    void testWeeklyBucketsStartOnMonday() {
+        taskStatsService.recordCreated(user.getId(), START.plusDays(2).atStartOfDay());
+        taskStatsService.recordCreated(user.getId(), START.plusDays(8).atStartOfDay());
+        taskStatsService.recordCompleted(user.getId(), START.plusDays(9).atStartOfDay());
+        taskStatsService.recordReopened(user.getId(), START.plusDays(9).atStartOfDay());
+
+        TaskStatsDTO stats = taskStatsService.getStats(user.getId(), START.plusDays(1), START.plusDays(13), "week");
+
+        assertEquals(List.of(bucket(START, 1, 0), bucket(START.plusDays(7), 1, 0)), stats.getBuckets());
+    }
+
+    @Test
+    void testStatsAreRebuiltFromTasksOnFirstRead() {
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(Task.builder()
+                    .name("Task " + i)
+                    .status(i == 0 ? Task.TaskStatus.COMPLETED : Task.TaskStatus.PENDING)
+                    .user(user)
+                    .build());
+        }
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE tasks SET created_at = ?", START.atTime(8, 0));
+        jdbcTemplate.update("UPDATE tasks SET completed_at = ? WHERE status = 'COMPLETED'", START.plusDays(1).atTime(8, 0));
+        jdbcTemplate.update("UPDATE users SET stats_rebuilt_at = NULL");
+
+        assertEquals(List.of(user.getId()), taskStatsService.findUsersToRebuild(10));
+        TaskStatsDTO stats = taskStatsService.getStats(user.getId(), START, START.plusDays(1), "day");
+
+        assertEquals(List.of(bucket(START, 3, 0), bucket(START.plusDays(1), 0, 1)), stats.getBuckets());
+        assertTrue(taskStatsService.findUsersToRebuild(10).isEmpty());
+    }
+
+    @Test
+    void testInvalidPeriodIsRejected() {
+        ResponseStatusException reversed = assertThrows(ResponseStatusException.class,
+                () -> taskStatsService.getStats(user.getId(), START, START.minusDays(1), "day"));
+        ResponseStatusException tooLong = assertThrows(ResponseStatusException.class,
+                () -> taskStatsService.getStats(user.getId(), START, START.plusDays(400), "day"));
+        ResponseStatusException badBucket = assertThrows(ResponseStatusException.class,
+                () -> taskStatsService.getStats(user.getId(), START, START, "month"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, reversed.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, tooLong.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, badBucket.getStatusCode());
+    }
+
+    private static TaskStatsBucketDTO bucket(LocalDate start, long created, long completed) {
+        return TaskStatsBucketDTO.builder().start(start).created(created).completed(completed).build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.todoapp.tag;
+
+import com.todoapp.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTagIndexTest {
+
+    private final UserTagIndex index = UserTagIndex.build(
+            List.of(
+                    new TaskStatusRow(10L, Task.TaskStatus.PENDING),
+                    new TaskStatusRow(11L, Task.TaskStatus.COMPLETED),
+                    new TaskStatusRow(12L, Task.TaskStatus.PENDING)),
+            List.of(
+                    new TaskTagRow(10L, "work"),
+                    new TaskTagRow(10L, "urgent"),
+                    new TaskTagRow(11L, "work"),
+                    new TaskTagRow(12L, "home")));
+
+    @Test
+    void testAllAnyAndExcludedTags() {
+        assertEquals(List.of(10L), index.query(query(Set.of("work", "urgent"), TagMatchMode.ALL, Set.of(), null)));
+        assertEquals(List.of(10L, 11L, 12L), index.query(query(Set.of("work", "home"), TagMatchMode.ANY, Set.of(), null)));
+        assertEquals(List.of(11L), index.query(query(Set.of("work"), TagMatchMode.ALL, Set.of("urgent"), null)));
+        assertEquals(List.of(11L, 12L), index.query(query(Set.of(), TagMatchMode.ALL, Set.of("urgent"), null)));
+        assertEquals(List.of(), index.query(query(Set.of("work", "missing"), TagMatchMode.ALL, Set.of(), null)));
+    }
+
+    @Test
+    void testStatusIsCombinedWithTags() {
+        assertEquals(List.of(10L), index.query(query(Set.of("work"), TagMatchMode.ALL, Set.of(), Task.TaskStatus.PENDING)));
+        assertEquals(List.of(11L), index.query(query(Set.of(), TagMatchMode.ALL, Set.of(), Task.TaskStatus.COMPLETED)));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        assertTrue(index.upsert(13L, Task.TaskStatus.PENDING, Set.of("work")));
+        assertTrue(index.upsert(10L, Task.TaskStatus.COMPLETED, Set.of("home")));
+        index.remove(11L);
+
+        assertEquals(List.of(13L), index.query(query(Set.of("work"), TagMatchMode.ALL, Set.of(), null)));
+        assertEquals(List.of(10L, 12L), index.query(query(Set.of("home"), TagMatchMode.ALL, Set.of(), null)));
+        assertEquals(List.of(), index.query(query(Set.of("urgent"), TagMatchMode.ANY, Set.of(), null)));
+        assertEquals(3, index.taskCount());
+    }
+
+    @Test
+    void testOutOfOrderNewTaskRequiresRebuild() {
+        assertFalse(index.upsert(5L, Task.TaskStatus.PENDING, Set.of("work")));
+    }
+
+    @Test
+    void testMemoryPer100kTasks() {
+        Random random = new Random(1);
+        List<TaskStatusRow> tasks = new ArrayList<>();
+        List<TaskTagRow> tags = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            tasks.add(new TaskStatusRow(id, random.nextInt(3) == 0 ? Task.TaskStatus.COMPLETED : Task.TaskStatus.PENDING));
+            for (int i = 0; i < 3; i++) {
+                tags.add(new TaskTagRow(id, "tag-" + random.nextInt(50)));
+            }
+        }
+
+        UserTagIndex large = UserTagIndex.build(tasks, tags);
+
+        assertEquals(100_000, large.taskCount());
+        assertEquals(50, large.tagCount());
+        // 800 KB of id mapping plus the bitmaps; a HashMap of ids alone would be ~6 MB.
+        assertTrue(large.sizeInBytes() < 2_000_000, "tag index uses " + large.sizeInBytes() + " bytes");
+    }
+
+    private static TagQuery query(Set<String> tags, TagMatchMode mode, Set<String> excluded, Task.TaskStatus status) {
+        return new TagQuery(tags, mode, excluded, status);
+    }
+}
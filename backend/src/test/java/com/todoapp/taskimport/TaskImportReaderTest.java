@@ -0,0 +1,114 @@
+package com.todoapp.taskimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void testCsvRowsWithHeaderInAnyOrder() throws IOException {
+        List<TaskImportRecord> records = readAll(new CsvTaskImportReader(stream("""
+                Tags,Name,due_at,Description,Status,Owner
+                "work,finance",Pay invoices,2024-01-31T18:00:00,"Line one
+                line two",completed,alice
+
+                ,Call Bob,,,,bob
+                """)));
+
+        assertEquals(2, records.size());
+        TaskImportRecord first = records.get(0);
+        assertEquals(1, first.number());
+        assertEquals("Pay invoices", first.task().getName());
+        assertEquals("Line one\nline two", first.task().getDescription());
+        assertEquals("completed", first.task().getStatus());
+        assertEquals(LocalDateTime.of(2024, 1, 31, 18, 0), first.task().getDueAt());
+        assertEquals(List.of("work", "finance"), first.task().getTags());
+
+        TaskImportRecord second = records.get(1);
+        assertEquals(2, second.number());
+        assertEquals("Call Bob", second.task().getName());
+        assertNull(second.task().getDescription());
+        assertNull(second.task().getDueAt());
+        assertNull(second.task().getTags());
+    }
+
+    @Test
+    void testCsvRowWithInvalidDueDateIsRejected() throws IOException {
+        List<TaskImportRecord> records = readAll(new CsvTaskImportReader(stream("""
+                name,dueAt
+                Broken,tomorrow
+                Fine,
+                """)));
+
+        assertNull(records.get(0).task());
+        assertTrue(records.get(0).error().startsWith("dueAt"));
+        assertEquals("Fine", records.get(1).task().getName());
+    }
+
+    @Test
+    void testJsonArrayIgnoresIdsAndRejectsMistypedRows() throws IOException {
+        List<TaskImportRecord> records = readAll(new JsonTaskImportReader(objectMapper, stream("""
+                [
+                  {"id": 5, "parentId": 4, "name": "First", "tags": ["a"], "dueAt": "2024-01-31T18:00:00"},
+                  {"name": "Second", "dueAt": "not a date"},
+                  "not an object",
+                  {"name": "Fourth"}
+                ]
+                """)));
+
+        assertEquals(4, records.size());
+        assertEquals("First", records.get(0).task().getName());
+        assertNull(records.get(0).task().getId());
+        assertNull(records.get(0).task().getParentId());
+        assertEquals(LocalDateTime.of(2024, 1, 31, 18, 0), records.get(0).task().getDueAt());
+        assertNotNull(records.get(1).error());
+        assertEquals("Expected a JSON object", records.get(2).error());
+        assertEquals(4, records.get(3).number());
+        assertEquals("Fourth", records.get(3).task().getName());
+    }
+
+    @Test
+    void testNdjsonObjectsAreReadInSequence() throws IOException {
+        List<TaskImportRecord> records = readAll(new JsonTaskImportReader(objectMapper, stream("""
+                {"name": "First"}
+                {"name": "Second", "status": "PENDING"}
+                """)));
+
+        assertEquals(List.of("First", "Second"), records.stream().map(record -> record.task().getName()).toList());
+    }
+
+    @Test
+    void testMalformedJsonStopsTheReader() throws IOException {
+        TaskImportReader reader = new JsonTaskImportReader(objectMapper, stream("[{\"name\": \"First\"}, {\"name\": "));
+
+        assertEquals("First", reader.next().task().getName());
+        assertThrows(IOException.class, reader::next);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<TaskImportRecord> readAll(TaskImportReader reader) throws IOException {
+        List<TaskImportRecord> records = new ArrayList<>();
+        try (reader) {
+            TaskImportRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,90 @@
+package com.todoapp.tasklist;
+
+import com.todoapp.cluster.Invalidation;
+import com.todoapp.entity.TaskListMember;
+import com.todoapp.repository.TaskListMemberRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskListAccessTest {
+
+    @Mock
+    private TaskListMemberRepository taskListMemberRepository;
+
+    @InjectMocks
+    private TaskListAccess taskListAccess;
+
+    @Test
+    void testMembershipsAreLoadedOncePerUser() {
+        when(taskListMemberRepository.findByUserId(1L)).thenReturn(List.of(
+                member(10L, 1L, TaskListMember.Role.OWNER),
+                member(11L, 1L, TaskListMember.Role.VIEWER)));
+
+        assertEquals(TaskListMember.Role.OWNER, taskListAccess.roleOf(1L, 10L));
+        assertTrue(taskListAccess.allows(1L, 10L, TaskListMember.Role.EDITOR));
+        assertFalse(taskListAccess.allows(1L, 11L, TaskListMember.Role.EDITOR));
+        assertNull(taskListAccess.roleOf(1L, 12L));
+        assertTrue(taskListAccess.hasLists(1L));
+        assertEquals(Map.of(10L, TaskListMember.Role.OWNER, 11L, TaskListMember.Role.VIEWER),
+                taskListAccess.listsOf(1L));
+
+        verify(taskListMemberRepository, times(1)).findByUserId(1L);
+    }
+
+    @Test
+    void testUsersWithoutListsAreCachedToo() {
+        when(taskListMemberRepository.findByUserId(2L)).thenReturn(List.of());
+
+        assertFalse(taskListAccess.hasLists(2L));
+        assertFalse(taskListAccess.hasLists(2L));
+
+        verify(taskListMemberRepository, times(1)).findByUserId(2L);
+    }
+
+    @Test
+    void testMembershipChangeReloadsOnlyAffectedUsers() {
+        when(taskListMemberRepository.findByUserId(1L))
+                .thenReturn(List.of(member(10L, 1L, TaskListMember.Role.VIEWER)))
+                .thenReturn(List.of(member(10L, 1L, TaskListMember.Role.EDITOR)));
+        when(taskListMemberRepository.findByUserId(2L)).thenReturn(List.of());
+        taskListAccess.roleOf(1L, 10L);
+        taskListAccess.hasLists(2L);
+
+        taskListAccess.membershipsChanged(List.of(1L));
+
+        assertEquals(TaskListMember.Role.EDITOR, taskListAccess.roleOf(1L, 10L));
+        taskListAccess.hasLists(2L);
+        verify(taskListMemberRepository, times(2)).findByUserId(1L);
+        verify(taskListMemberRepository, times(1)).findByUserId(2L);
+    }
+
+    @Test
+    void testOnlyListAccessInvalidationsDropEntries() {
+        when(taskListMemberRepository.findByUserId(1L)).thenReturn(List.of(member(10L, 1L, TaskListMember.Role.OWNER)));
+        taskListAccess.roleOf(1L, 10L);
+
+        taskListAccess.invalidate(Invalidation.tasks(1L));
+        taskListAccess.roleOf(1L, 10L);
+        verify(taskListMemberRepository, times(1)).findByUserId(1L);
+
+        taskListAccess.invalidate(Invalidation.listAccess(1L));
+        taskListAccess.roleOf(1L, 10L);
+        verify(taskListMemberRepository, times(2)).findByUserId(1L);
+    }
+
+    private static TaskListMember member(Long listId, Long userId, TaskListMember.Role role) {
+        return TaskListMember.builder().listId(listId).userId(userId).role(role).build();
+    }
+}
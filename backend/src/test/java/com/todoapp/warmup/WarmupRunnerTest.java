@@ -0,0 +1,121 @@
+package com.todoapp.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.entity.Task;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.security.JwtTokenProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DataSource dataSource;
+
+    @InjectMocks
+    private WarmupRunner warmupRunner;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(warmupRunner, "enabled", true);
+        ReflectionTestUtils.setField(warmupRunner, "iterations", 40);
+        ReflectionTestUtils.setField(warmupRunner, "queryIterations", 3);
+        ReflectionTestUtils.setField(warmupRunner, "passwordIterations", 1);
+        ReflectionTestUtils.setField(warmupRunner, "maxDurationMillis", 60000L);
+    }
+
+    @Test
+    void testRunExercisesHotPathsWithoutWriting() throws Exception {
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikari);
+        when(hikari.getMinimumIdle()).thenReturn(2);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(jwtTokenProvider.generateTokenFromEmail(anyString())).thenReturn("token");
+        when(jwtTokenProvider.validateToken("token")).thenReturn(true);
+
+        warmupRunner.run(null);
+
+        verify(connection, times(2)).close();
+        verify(passwordEncoder).matches(anyString(), any());
+        verify(taskRepository, times(3)).findByUserId(-1L);
+        verify(userRepository, times(3)).findByEmail(anyString());
+        verify(jwtTokenProvider, times(40)).getUserIdFromToken("token");
+        verify(objectMapper, times(2)).writeValueAsBytes(any());
+        verify(taskRepository, never()).save(any());
+        verify(taskRepository, never()).delete(any(Task.class));
+    }
+
+    @Test
+    void testFailingStepDoesNotStopWarmup() throws Exception {
+        when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenThrow(new IllegalStateException("boom"));
+        when(jwtTokenProvider.generateTokenFromEmail(anyString())).thenReturn("token");
+
+        warmupRunner.run(null);
+
+        verify(taskRepository, times(3)).findByUserId(-1L);
+        verify(jwtTokenProvider, times(40)).validateToken("token");
+    }
+
+    @Test
+    void testDisabledWarmupDoesNothing() {
+        ReflectionTestUtils.setField(warmupRunner, "enabled", false);
+
+        warmupRunner.run(null);
+
+        verifyNoInteractions(jwtTokenProvider, passwordEncoder, taskRepository, dataSource);
+    }
+}
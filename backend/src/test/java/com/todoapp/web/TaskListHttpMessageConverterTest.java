@@ -0,0 +1,146 @@
+package com.todoapp.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoapp.dto.TaskDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TaskListHttpMessageConverterTest {
+
+    private static final Type TASK_LIST = new ParameterizedTypeReference<List<TaskDTO>>() {
+    }.getType();
+
+    // Same defaults as the ObjectMapper Spring Boot auto-configures.
+    private final ObjectMapper objectMapper = bootObjectMapper().build();
+
+    @Test
+    void testOutputMatchesObjectMapperByteForByte() throws IOException {
+        TaskListHttpMessageConverter converter = new TaskListHttpMessageConverter(objectMapper);
+        List<TaskDTO> tasks = randomTasks(2000, new Random(7));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.write(tasks, out);
+
+        assertTrue(converter.isEnabled());
+        assertArrayEquals(objectMapper.writeValueAsBytes(tasks), out.toByteArray());
+    }
+
+    @Test
+    void testEdgeCaseTimestampsMatchIsoFormat() throws IOException {
+        TaskListHttpMessageConverter converter = new TaskListHttpMessageConverter(objectMapper);
+        List<TaskDTO> tasks = List.of(
+                TaskDTO.builder().createdAt(LocalDateTime.of(2024, 1, 1, 0, 0)).build(),
+                TaskDTO.builder().createdAt(LocalDateTime.of(987, 12, 31, 23, 59, 59, 1)).build(),
+                TaskDTO.builder().createdAt(LocalDateTime.of(12345, 6, 7, 8, 9, 10, 100_000_000)).build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.write(tasks, out);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(tasks), out.toByteArray());
+    }
+
+    @Test
+    void testDisabledWhenObjectMapperIsConfiguredDifferently() {
+        ObjectMapper nonNull = bootObjectMapper()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+
+        TaskListHttpMessageConverter converter = new TaskListHttpMessageConverter(nonNull);
+
+        assertFalse(converter.isEnabled());
+        assertFalse(converter.canWrite(TASK_LIST, List.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testOnlyClaimsTaskListsAsJson() {
+        TaskListHttpMessageConverter converter = new TaskListHttpMessageConverter(objectMapper);
+        Type stringList = new ParameterizedTypeReference<List<String>>() {
+        }.getType();
+
+        assertTrue(converter.canWrite(TASK_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(TASK_LIST, List.class, null));
+        assertFalse(converter.canWrite(stringList, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(TASK_LIST, List.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canWrite(List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(TASK_LIST, null, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testAllocatesLessThanObjectMapper() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TaskListHttpMessageConverter converter = new TaskListHttpMessageConverter(objectMapper);
+        List<TaskDTO> tasks = randomTasks(5000, new Random(11));
+        // ObjectMapper closes the stream it writes to, as it would a response body.
+        OutputStream sink = StreamUtils.nonClosing(OutputStream.nullOutputStream());
+
+        for (int i = 0; i < 20; i++) {
+            objectMapper.writeValue(sink, tasks);
+            converter.write(tasks, sink);
+        }
+
+        long start = threads.getCurrentThreadAllocatedBytes();
+        long jacksonStart = System.nanoTime();
+        objectMapper.writeValue(sink, tasks);
+        long jacksonNanos = System.nanoTime() - jacksonStart;
+        long jacksonBytes = threads.getCurrentThreadAllocatedBytes() - start;
+
+        start = threads.getCurrentThreadAllocatedBytes();
+        long streamingStart = System.nanoTime();
+        converter.write(tasks, sink);
+        long streamingNanos = System.nanoTime() - streamingStart;
+        long streamingBytes = threads.getCurrentThreadAllocatedBytes() - start;
+
+        assertTrue(streamingBytes < jacksonBytes, String.format(
+                "5000 tasks: ObjectMapper allocated %d bytes in %d us, streaming writer %d bytes in %d us",
+                jacksonBytes, jacksonNanos / 1000, streamingBytes, streamingNanos / 1000));
+    }
+
+    private static Jackson2ObjectMapperBuilder bootObjectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+
+    private List<TaskDTO> randomTasks(int count, Random random) {
+        String[] names = {"Comprar leite", "Café \"forte\"", "Linha\nnova", "📝 Nota", "a\\b</c>", "\u0001"};
+        List<TaskDTO> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0)
+                    .plusSeconds(random.nextInt(50_000_000))
+                    .withNano(random.nextBoolean() ? 0 : random.nextInt(1_000_000) * 1000);
+            tasks.add(TaskDTO.builder()
+                    .id(random.nextBoolean() ? (long) i : 361751757435855L + i)
+                    .name(names[random.nextInt(names.length)] + i)
+                    .description(random.nextBoolean() ? null : "Descrição " + i)
+                    .status(random.nextBoolean() ? "PENDING" : "COMPLETED")
+                    .dueAt(random.nextBoolean() ? null : created.plusDays(3))
+                    .tags(random.nextInt(4) == 0 ? null : List.of("home", "work").subList(0, random.nextInt(3)))
+                    .parentId(random.nextBoolean() ? null : 361751757435855L + random.nextInt(i + 1))
+                    .listId(random.nextBoolean() ? null : 361751757435700L)
+                    .percentDone(random.nextBoolean() ? null : random.nextInt(101))
+                    .createdAt(created)
+                    .updatedAt(created.plusMinutes(random.nextInt(1000)))
+                    .build());
+        }
+        return tasks;
+    }
+}
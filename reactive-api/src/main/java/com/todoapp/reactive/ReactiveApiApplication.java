@@ -0,0 +1,26 @@
+package com.todoapp.reactive;
+
+import com.todoapp.core.JwtTokens;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Read side of the task API on WebFlux and R2DBC. It reads the schema owned by
+ * todo-api (which runs the Flyway migrations and all writes) and accepts the
+ * tokens todo-api issues.
+ */
+@SpringBootApplication
+public class ReactiveApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApiApplication.class, args);
+    }
+
+    @Bean
+    public JwtTokens jwtTokens(@Value("${app.jwt.secret}") String secret,
+                               @Value("${app.jwt.expiration}") long expirationMs) {
+        return new JwtTokens(secret, expirationMs);
+    }
+}
@@ -0,0 +1,109 @@
+package com.todoapp.reactive.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.core.JwtTokens;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Same rules as todo-api's JwtAuthenticationFilter: the token must verify, its
+ * email must belong to an account that is not deleted, and when the token
+ * carries a user id it must be that account's. The account id is stored in the
+ * exchange under {@link #USER_ID_ATTRIBUTE}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    public static final String USER_ID_ATTRIBUTE = "com.todoapp.reactive.security.JwtAuthenticationWebFilter.userId";
+
+    private static final String PROTECTED_PREFIX = "/tasks";
+
+    @Autowired
+    private JwtTokens jwtTokens;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!path.startsWith(PROTECTED_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        String jwt = getJwtFromRequest(exchange);
+        if (jwt == null) {
+            return unauthorized(exchange, "Full authentication is required to access this resource");
+        }
+        JwtTokens.TokenClaims claims;
+        try {
+            claims = jwtTokens.parse(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return unauthorized(exchange, "Invalid token");
+        }
+
+        return databaseClient.sql("SELECT id FROM users WHERE email = :email AND deleted_at IS NULL")
+                .bind("email", claims.email())
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .filter(userId -> claims.userId() == null || claims.userId().equals(userId))
+                .flatMap(userId -> {
+                    exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
+                    return chain.filter(exchange).then(Mono.just(true));
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("Token for {} does not match an active account", claims.email());
+                    return unauthorized(exchange, "Invalid token").then(Mono.just(true));
+                }))
+                .then();
+    }
+
+    private String getJwtFromRequest(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.UNAUTHORIZED.value());
+        body.put("error", "Unauthorized");
+        body.put("message", message);
+        body.put("path", exchange.getRequest().getPath().pathWithinApplication().value());
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(body))
+                .flatMap(bytes -> {
+                    DataBuffer buffer = response.bufferFactory().wrap(bytes);
+                    return response.writeWith(Mono.just(buffer));
+                });
+    }
+}
@@ -0,0 +1,58 @@
+package com.todoapp.reactive.task;
+
+import com.todoapp.reactive.security.JwtAuthenticationWebFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * The task reads of todo-api's TaskController, with the same paths and JSON.
+ */
+@RestController
+@RequestMapping("/tasks")
+@Slf4j
+public class TaskReadController {
+
+    private static final Set<String> STATUSES = Set.of("PENDING", "COMPLETED");
+
+    @Autowired
+    private TaskReadRepository taskReadRepository;
+
+    @GetMapping
+    public Flux<TaskResponse> getAllTasks(
+            @RequestAttribute(JwtAuthenticationWebFilter.USER_ID_ATTRIBUTE) Long userId) {
+        log.debug("Fetching all tasks for user: {}", userId);
+        return taskReadRepository.findByUserId(userId);
+    }
+
+    @GetMapping("/status/{status}")
+    public Flux<TaskResponse> getTasksByStatus(
+            @PathVariable String status,
+            @RequestAttribute(JwtAuthenticationWebFilter.USER_ID_ATTRIBUTE) Long userId) {
+        String taskStatus = status.toUpperCase();
+        if (!STATUSES.contains(taskStatus)) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown status: " + status));
+        }
+        log.debug("Fetching tasks for user: {} with status: {}", userId, taskStatus);
+        return taskReadRepository.findByUserIdAndStatus(userId, taskStatus);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<TaskResponse> getTaskById(
+            @PathVariable Long id,
+            @RequestAttribute(JwtAuthenticationWebFilter.USER_ID_ATTRIBUTE) Long userId) {
+        log.debug("Fetching task: {} for user: {}", id, userId);
+        return taskReadRepository.findReadableById(id, userId)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found")));
+    }
+}
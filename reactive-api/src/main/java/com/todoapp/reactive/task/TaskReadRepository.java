@@ -0,0 +1,132 @@
+package com.todoapp.reactive.task;
+
+import com.todoapp.core.DescriptionFormat;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads tasks with their descriptions and tags in two statements per request,
+ * whatever the number of tasks: one for the tasks joined to their descriptions,
+ * one for all of their tags.
+ */
+@Repository
+public class TaskReadRepository {
+
+    private static final String TASK_COLUMNS = "SELECT t.id, t.name, t.status, t.due_at, t.parent_id, t.list_id, "
+            + "t.descendant_count, t.completed_descendant_count, t.created_at, t.updated_at, d.content "
+            + "FROM tasks t LEFT JOIN task_descriptions d ON d.id = t.description_id ";
+
+    private static final String TAG_COLUMNS = "SELECT tt.task_id, tt.tag "
+            + "FROM task_tags tt JOIN tasks t ON t.id = tt.task_id ";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<TaskResponse> findByUserId(Long userId) {
+        return withTags(
+                databaseClient.sql(TASK_COLUMNS + "WHERE t.user_id = :userId ORDER BY t.sort_key, t.id")
+                        .bind("userId", userId)
+                        .map(TaskReadRepository::taskRow)
+                        .all(),
+                databaseClient.sql(TAG_COLUMNS + "WHERE t.user_id = :userId")
+                        .bind("userId", userId)
+                        .map(TaskReadRepository::tagRow)
+                        .all());
+    }
+
+    public Flux<TaskResponse> findByUserIdAndStatus(Long userId, String status) {
+        return withTags(
+                databaseClient.sql(TASK_COLUMNS + "WHERE t.user_id = :userId AND t.status = :status ORDER BY t.sort_key, t.id")
+                        .bind("userId", userId)
+                        .bind("status", status)
+                        .map(TaskReadRepository::taskRow)
+                        .all(),
+                databaseClient.sql(TAG_COLUMNS + "WHERE t.user_id = :userId AND t.status = :status")
+                        .bind("userId", userId)
+                        .bind("status", status)
+                        .map(TaskReadRepository::tagRow)
+                        .all());
+    }
+
+    /**
+     * The task if the user owns it or is a member of its list, like the
+     * backend's GET /tasks/{id}; every role may read.
+     */
+    public Mono<TaskResponse> findReadableById(Long taskId, Long userId) {
+        return withTags(
+                databaseClient.sql(TASK_COLUMNS + "WHERE t.id = :taskId AND (t.user_id = :userId "
+                                + "OR t.list_id IN (SELECT m.list_id FROM task_list_members m WHERE m.user_id = :userId))")
+                        .bind("taskId", taskId)
+                        .bind("userId", userId)
+                        .map(TaskReadRepository::taskRow)
+                        .all(),
+                databaseClient.sql("SELECT task_id, tag FROM task_tags WHERE task_id = :taskId")
+                        .bind("taskId", taskId)
+                        .map(TaskReadRepository::tagRow)
+                        .all())
+                .next();
+    }
+
+    // Both statements run concurrently on separate connections; tags are sorted
+    // like TaskDTO's.
+    private Flux<TaskResponse> withTags(Flux<TaskRow> tasks, Flux<TagRow> tags) {
+        Mono<Map<Long, List<String>>> tagsByTask = tags
+                .collect(HashMap::new, (map, row) -> map.computeIfAbsent(row.taskId(), id -> new ArrayList<>()).add(row.tag()));
+        return Mono.zip(tasks.collectList(), tagsByTask)
+                .flatMapIterable(result -> {
+                    Map<Long, List<String>> tagMap = result.getT2();
+                    List<TaskResponse> responses = new ArrayList<>(result.getT1().size());
+                    for (TaskRow task : result.getT1()) {
+                        List<String> taskTags = tagMap.getOrDefault(task.id(), List.of()).stream().sorted().toList();
+                        responses.add(task.toResponse(taskTags));
+                    }
+                    return responses;
+                });
+    }
+
+    private static TaskRow taskRow(Readable row) {
+        byte[] content = row.get("content", byte[].class);
+        return new TaskRow(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                content != null ? DescriptionFormat.decode(content) : null,
+                row.get("status", String.class),
+                row.get("due_at", LocalDateTime.class),
+                row.get("parent_id", Long.class),
+                row.get("list_id", Long.class),
+                row.get("descendant_count", Integer.class),
+                row.get("completed_descendant_count", Integer.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+
+    private static TagRow tagRow(Readable row) {
+        return new TagRow(row.get("task_id", Long.class), row.get("tag", String.class));
+    }
+
+    private record TaskRow(Long id, String name, String description, String status, LocalDateTime dueAt,
+                           Long parentId, Long listId, Integer descendantCount, Integer completedDescendantCount,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        TaskResponse toResponse(List<String> tags) {
+            Integer percentDone = descendantCount != null && descendantCount > 0
+                    ? completedDescendantCount * 100 / descendantCount
+                    : null;
+            return new TaskResponse(id, name, description, status, dueAt, tags, parentId, listId, percentDone,
+                    createdAt, updatedAt);
+        }
+    }
+
+    private record TagRow(Long taskId, String tag) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.todoapp.reactive.task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Same fields, in the same order, as todo-api's TaskDTO, so clients can read
+ * from either API.
+ */
+public record TaskResponse(
+        Long id,
+        String name,
+        String description,
+        String status,
+        LocalDateTime dueAt,
+        List<String> tags,
+        Long parentId,
+        Long listId,
+        Integer percentDone,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,192 @@
+package com.todoapp.reactive;
+
+import com.todoapp.core.DescriptionFormat;
+import com.todoapp.core.JwtTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-api;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.webflux.base-path="
+})
+@AutoConfigureWebTestClient
+class TaskReadApiTest {
+
+    private static final AtomicLong IDS = new AtomicLong(1000);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private JwtTokens jwtTokens;
+
+    private long userId;
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        userId = IDS.incrementAndGet();
+        email = "reader" + userId + "@example.com";
+        execute("INSERT INTO users (id, email) VALUES (" + userId + ", '" + email + "')");
+    }
+
+    @Test
+    void getAllTasks_ReturnsTasksInPositionOrderWithDescriptionsAndTags() {
+        long second = createTask("Second", "PENDING", "b", null);
+        long first = createTask("First", "COMPLETED", "a",
+                "Revisar o relatório trimestral e enviar ao financeiro. ".repeat(20));
+        execute("INSERT INTO task_tags (task_id, tag) VALUES (" + first + ", 'work'), (" + first + ", 'finance')");
+
+        webTestClient.get().uri("/tasks")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokens.generate(email, userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(first)
+                .jsonPath("$[0].description").isEqualTo(
+                        "Revisar o relatório trimestral e enviar ao financeiro. ".repeat(20))
+                .jsonPath("$[0].tags[0]").isEqualTo("finance")
+                .jsonPath("$[0].tags[1]").isEqualTo("work")
+                .jsonPath("$[0].createdAt").isEqualTo("2024-01-15T10:30:00")
+                .jsonPath("$[1].id").isEqualTo(second)
+                .jsonPath("$[1].description").isEmpty()
+                .jsonPath("$[1].tags.length()").isEqualTo(0);
+    }
+
+    @Test
+    void getTasksByStatus_FiltersAndRejectsUnknownStatus() {
+        createTask("Open", "PENDING", "a", null);
+        long done = createTask("Done", "COMPLETED", "b", null);
+        String token = jwtTokens.generate(email, userId);
+
+        webTestClient.get().uri("/tasks/status/completed")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(done);
+
+        webTestClient.get().uri("/tasks/status/archived")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTaskById_OtherUsersTask_ReturnsNotFound() {
+        long otherUser = IDS.incrementAndGet();
+        execute("INSERT INTO users (id, email) VALUES (" + otherUser + ", 'other" + otherUser + "@example.com')");
+        long task = createTask("Mine", "PENDING", "a", null);
+
+        webTestClient.get().uri("/tasks/" + task)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokens.generate(email, userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Mine")
+                .jsonPath("$.status").isEqualTo("PENDING");
+
+        webTestClient.get().uri("/tasks/" + task)
+                .header(HttpHeaders.AUTHORIZATION,
+                        "Bearer " + jwtTokens.generate("other" + otherUser + "@example.com", otherUser))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getTaskById_TaskInSharedList_ReturnsItToMembersOnly() {
+        long member = IDS.incrementAndGet();
+        long outsider = IDS.incrementAndGet();
+        long listId = IDS.incrementAndGet();
+        execute("INSERT INTO users (id, email) VALUES (" + member + ", 'member" + member + "@example.com'), ("
+                + outsider + ", 'outsider" + outsider + "@example.com')");
+        execute("INSERT INTO task_list_members (list_id, user_id, role) VALUES (" + listId + ", " + member
+                + ", 'VIEWER')");
+        long task = createTask("Shared", "PENDING", "a", null);
+        execute("UPDATE tasks SET list_id = " + listId + " WHERE id = " + task);
+
+        webTestClient.get().uri("/tasks/" + task)
+                .header(HttpHeaders.AUTHORIZATION,
+                        "Bearer " + jwtTokens.generate("member" + member + "@example.com", member))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Shared")
+                .jsonPath("$.listId").isEqualTo(listId);
+
+        webTestClient.get().uri("/tasks/" + task)
+                .header(HttpHeaders.AUTHORIZATION,
+                        "Bearer " + jwtTokens.generate("outsider" + outsider + "@example.com", outsider))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getAllTasks_WithoutValidToken_ReturnsUnauthorized() {
+        webTestClient.get().uri("/tasks")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Unauthorized");
+
+        webTestClient.get().uri("/tasks")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void getAllTasks_TokenForReplacedAccount_ReturnsUnauthorized() {
+        String token = jwtTokens.generate(email, userId + 100_000);
+
+        webTestClient.get().uri("/tasks")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private long createTask(String name, String status, String sortKey, String description) {
+        long id = IDS.incrementAndGet();
+        if (description != null) {
+            databaseClient.sql("INSERT INTO task_descriptions (id, content) VALUES (:id, :content)")
+                    .bind("id", id)
+                    .bind("content", DescriptionFormat.encode(description.getBytes(StandardCharsets.UTF_8), 512))
+                    .then()
+                    .block();
+        }
+        databaseClient.sql("INSERT INTO tasks (id, name, status, sort_key, user_id, description_id, "
+                        + "created_at, updated_at) VALUES (:id, :name, :status, :sortKey, :userId, "
+                        + (description != null ? ":id" : "NULL") + ", :createdAt, :createdAt)")
+                .bind("id", id)
+                .bind("name", name)
+                .bind("status", status)
+                .bind("sortKey", sortKey)
+                .bind("userId", userId)
+                .bind("createdAt", LocalDateTime.of(2024, 1, 15, 10, 30))
+                .then()
+                .block();
+        return id;
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
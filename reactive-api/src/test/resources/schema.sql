@@ -0,0 +1,42 @@
+-- The columns of todo-api's schema that the read API uses. In MySQL
+-- task_descriptions.content is a BLOB; H2's R2DBC driver only maps VARBINARY
+-- to byte[].
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    deleted_at TIMESTAMP NULL
+);
+
+CREATE TABLE task_descriptions (
+    id BIGINT PRIMARY KEY,
+    content VARBINARY(65535) NOT NULL
+);
+
+CREATE TABLE tasks (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    sort_key VARCHAR(255),
+    due_at TIMESTAMP NULL,
+    user_id BIGINT NOT NULL,
+    description_id BIGINT NULL,
+    parent_id BIGINT NULL,
+    list_id BIGINT NULL,
+    descendant_count INT NOT NULL DEFAULT 0,
+    completed_descendant_count INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE TABLE task_tags (
+    task_id BIGINT NOT NULL,
+    tag VARCHAR(50) NOT NULL,
+    PRIMARY KEY (task_id, tag)
+);
+
+CREATE TABLE task_list_members (
+    list_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    PRIMARY KEY (list_id, user_id)
+);
@@ -0,0 +1,127 @@
+#!/bin/bash
+
+# Compara o backend no perfil embedded (tarefas e usuários no motor de armazenamento
+# embutido) com o mesmo backend em JPA sobre um arquivo H2, sem MySQL nos dois casos.
+# Para cada variante mede requisições/s e latências de POST /tasks e de GET /tasks,
+# além do tamanho dos arquivos de dados ao fim da carga.
+# Requer wrk e o jar gerado por "mvn -Pembedded package" na raiz do repositório.
+# Uso: ./benchmark_embedded.sh [conexões] [duração] [tarefas antes do GET]
+
+CONNECTIONS=${1:-64}
+DURATION=${2:-30s}
+TASKS=${3:-200}
+JAR=$(realpath backend/target/todo-api-1.0.0.jar)
+URL=http://localhost:8080/api
+WORK_DIR=$(mktemp -d)
+
+if [ ! -f "$JAR" ]; then
+    echo "Jar não encontrado: $JAR (execute mvn -Pembedded package na raiz do repositório)"
+    exit 1
+fi
+if ! unzip -l "$JAR" | grep -q "BOOT-INF/lib/h2-"; then
+    echo "O jar não contém o driver H2 (execute mvn -Pembedded package)"
+    exit 1
+fi
+
+status_of() {
+    curl -s -o /dev/null -w "%{http_code}" "$@"
+}
+
+wait_for() {
+    local pid=$1 log=$2
+    until [ "$(status_of "$URL/auth/health")" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "A aplicação não iniciou, veja $log"
+            exit 1
+        fi
+        sleep 0.5
+    done
+}
+
+cleanup() {
+    [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null
+    rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+cat > "$WORK_DIR/post.lua" <<'EOF'
+wrk.method = "POST"
+wrk.headers["Content-Type"] = "application/json"
+local counter = 0
+request = function()
+    counter = counter + 1
+    return wrk.format(nil, nil, nil,
+        '{"name": "Carga ' .. counter .. '", "description": "Tarefa criada pelo benchmark", "tags": ["benchmark"]}')
+end
+EOF
+
+run_variant() {
+    local name=$1
+    shift
+    local data_dir="$WORK_DIR/$name"
+    mkdir -p "$data_dir"
+
+    echo
+    echo "== $name =="
+    # Sem o limite de requisições por usuário (toda a carga vem de um único usuário) e com
+    # o limite de concorrência fixo no número de conexões, para que nada seja descartado com 503
+    java -jar "$JAR" "$@" \
+        --logging.level.com.todoapp=INFO --logging.level.org.springframework.security=INFO \
+        --logging.level.org.hibernate.SQL=INFO \
+        --app.rate-limit.read.capacity=1000000000 --app.rate-limit.read.refill-per-second=1000000000 \
+        --app.rate-limit.write.capacity=1000000000 --app.rate-limit.write.refill-per-second=1000000000 \
+        --app.concurrency-limit.tasks.initial-limit="$CONNECTIONS" \
+        --app.concurrency-limit.tasks.min-limit="$CONNECTIONS" \
+        --app.concurrency-limit.tasks.max-limit="$CONNECTIONS" \
+        > "$WORK_DIR/$name.log" 2>&1 &
+    APP_PID=$!
+    wait_for "$APP_PID" "$WORK_DIR/$name.log"
+
+    local email="benchmark-$name-$(date +%s)@example.com"
+    TOKEN=$(curl -s -X POST "$URL/auth/register" \
+        -H "Content-Type: application/json" \
+        -d "{\"name\": \"Benchmark\", \"email\": \"$email\", \"password\": \"benchmark123\", \"passwordConfirm\": \"benchmark123\"}" \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    if [ -z "$TOKEN" ]; then
+        echo "Não foi possível obter um token, veja $WORK_DIR/$name.log"
+        exit 1
+    fi
+
+    # Cada POST confirma a escrita em disco antes de responder
+    echo "-- POST /tasks: $CONNECTIONS conexões por $DURATION"
+    wrk -t"$(nproc)" -c"$CONNECTIONS" -d"$DURATION" --latency -s "$WORK_DIR/post.lua" \
+        -H "Authorization: Bearer $TOKEN" "$URL/tasks" | tee "$WORK_DIR/$name-post.wrk"
+
+    # O GET usa um segundo usuário, com um número fixo de tarefas
+    email="benchmark-$name-get-$(date +%s)@example.com"
+    TOKEN=$(curl -s -X POST "$URL/auth/register" \
+        -H "Content-Type: application/json" \
+        -d "{\"name\": \"Benchmark\", \"email\": \"$email\", \"password\": \"benchmark123\", \"passwordConfirm\": \"benchmark123\"}" \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    for i in $(seq 1 "$TASKS"); do
+        curl -s -o /dev/null -X POST "$URL/tasks" \
+            -H "Authorization: Bearer $TOKEN" -H "Content-Type: application/json" \
+            -d "{\"name\": \"Tarefa $i\", \"description\": \"Descrição da tarefa $i\", \"tags\": [\"benchmark\"]}"
+    done
+    echo "-- GET /tasks ($TASKS tarefas): $CONNECTIONS conexões por $DURATION"
+    wrk -t"$(nproc)" -c"$CONNECTIONS" -d"$DURATION" --latency \
+        -H "Authorization: Bearer $TOKEN" "$URL/tasks" | tee "$WORK_DIR/$name-get.wrk"
+
+    echo "dados em disco: $(du -sh "$data_dir" | cut -f1)"
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null
+    APP_PID=
+}
+
+run_variant embedded \
+    --spring.profiles.active=embedded \
+    --app.embedded.data-dir="$WORK_DIR/embedded"
+
+# Mesmo H2 em arquivo do perfil embedded, mas com tarefas e usuários em tabelas JPA
+run_variant jpa \
+    --spring.datasource.url="jdbc:h2:file:$WORK_DIR/jpa/tables;MODE=MySQL;DATABASE_TO_LOWER=TRUE" \
+    --spring.datasource.username=sa --spring.datasource.password= \
+    --spring.datasource.driver-class-name=org.h2.Driver \
+    --spring.flyway.enabled=false \
+    --spring.jpa.hibernate.ddl-auto=update \
+    --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect
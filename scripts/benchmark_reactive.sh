@@ -0,0 +1,110 @@
+#!/bin/bash
+
+# Compara a API servlet (backend) com a API reativa (reactive-api) em GET /tasks
+# com 10.000 conexões simultâneas, usando um MySQL local em Docker como banco.
+# Para cada API mede requisições/s, latências, erros de socket, threads e memória
+# residente do processo ao fim da carga.
+# Requer docker, wrk e os jars gerados por "mvn package" na raiz do repositório.
+# Uso: ./benchmark_reactive.sh [conexões] [duração] [tarefas por usuário]
+
+CONNECTIONS=${1:-10000}
+DURATION=${2:-60s}
+TASKS=${3:-50}
+SERVLET_JAR=$(realpath backend/target/todo-api-1.0.0.jar)
+REACTIVE_JAR=$(realpath reactive-api/target/todo-reactive-api-1.0.0.jar)
+SERVLET_URL=http://localhost:8080/api
+REACTIVE_URL=http://localhost:8081/api
+MYSQL_CONTAINER=todo-benchmark-mysql
+WORK_DIR=$(mktemp -d)
+
+for jar in "$SERVLET_JAR" "$REACTIVE_JAR"; do
+    if [ ! -f "$jar" ]; then
+        echo "Jar não encontrado: $jar (execute mvn package na raiz do repositório)"
+        exit 1
+    fi
+done
+
+# Cada conexão usa um descritor no wrk e outro na aplicação
+ulimit -n $((CONNECTIONS * 2 + 1024)) || exit 1
+
+status_of() {
+    curl -s -o /dev/null -w "%{http_code}" "$@"
+}
+
+wait_for() {
+    local pid=$1 url=$2 log=$3
+    until [ "$(status_of "$url")" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "A aplicação não iniciou, veja $log"
+            exit 1
+        fi
+        sleep 0.5
+    done
+}
+
+cleanup() {
+    [ -n "$SERVLET_PID" ] && kill "$SERVLET_PID" 2>/dev/null
+    [ -n "$REACTIVE_PID" ] && kill "$REACTIVE_PID" 2>/dev/null
+    docker rm -f "$MYSQL_CONTAINER" > /dev/null 2>&1
+    rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+echo "Iniciando MySQL em Docker..."
+docker run -d --name "$MYSQL_CONTAINER" -p 3306:3306 \
+    -e MYSQL_ROOT_PASSWORD=root -e MYSQL_DATABASE=todo_db \
+    mysql:8.0 --max-connections=1000 > /dev/null || exit 1
+until docker exec "$MYSQL_CONTAINER" mysqladmin ping -h 127.0.0.1 -uroot -proot --silent 2>/dev/null; do
+    sleep 1
+done
+
+# O backend aplica as migrações Flyway; a API reativa só lê o schema
+echo "Iniciando backend (porta 8080)..."
+java -jar "$SERVLET_JAR" \
+    --spring.datasource.url="jdbc:mysql://localhost:3306/todo_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true" \
+    --logging.level.com.todoapp=INFO --logging.level.org.springframework.security=INFO \
+    --logging.level.org.hibernate.SQL=INFO > "$WORK_DIR/servlet.log" 2>&1 &
+SERVLET_PID=$!
+wait_for "$SERVLET_PID" "$SERVLET_URL/auth/health" "$WORK_DIR/servlet.log"
+
+echo "Iniciando reactive-api (porta 8081)..."
+java -jar "$REACTIVE_JAR" \
+    --spring.r2dbc.url="r2dbc:mysql://localhost:3306/todo_db?sslMode=DISABLED&serverZoneId=UTC" \
+    > "$WORK_DIR/reactive.log" 2>&1 &
+REACTIVE_PID=$!
+wait_for "$REACTIVE_PID" "$REACTIVE_URL/tasks" "$WORK_DIR/reactive.log"
+
+echo "Criando usuário e $TASKS tarefas..."
+EMAIL="benchmark-$(date +%s)@example.com"
+TOKEN=$(curl -s -X POST "$SERVLET_URL/auth/register" \
+    -H "Content-Type: application/json" \
+    -d "{\"name\": \"Benchmark\", \"email\": \"$EMAIL\", \"password\": \"benchmark123\", \"passwordConfirm\": \"benchmark123\"}" \
+    | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+if [ -z "$TOKEN" ]; then
+    echo "Não foi possível obter um token"
+    exit 1
+fi
+for i in $(seq 1 "$TASKS"); do
+    curl -s -o /dev/null -X POST "$SERVLET_URL/tasks" \
+        -H "Authorization: Bearer $TOKEN" -H "Content-Type: application/json" \
+        -d "{\"name\": \"Tarefa $i\", \"description\": \"Descrição da tarefa $i\", \"tags\": [\"benchmark\"]}"
+done
+
+# As duas APIs devem devolver o mesmo JSON
+if ! diff <(curl -s -H "Authorization: Bearer $TOKEN" "$SERVLET_URL/tasks") \
+        <(curl -s -H "Authorization: Bearer $TOKEN" "$REACTIVE_URL/tasks") > /dev/null; then
+    echo "Aviso: as respostas de GET /tasks diferem entre as APIs"
+fi
+
+run_load() {
+    local name=$1 url=$2 pid=$3
+    echo
+    echo "== $name: $CONNECTIONS conexões por $DURATION =="
+    wrk -t"$(nproc)" -c"$CONNECTIONS" -d"$DURATION" --timeout 30s --latency \
+        -H "Authorization: Bearer $TOKEN" "$url/tasks" | tee "$WORK_DIR/$name.wrk"
+    echo "threads: $(ls /proc/"$pid"/task | wc -l)"
+    echo "RSS: $(awk '/VmRSS/ {print $2 " " $3}' /proc/"$pid"/status)"
+}
+
+run_load servlet "$SERVLET_URL" "$SERVLET_PID"
+run_load reactive "$REACTIVE_URL" "$REACTIVE_PID"
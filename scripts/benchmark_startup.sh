@@ -0,0 +1,134 @@
+#!/bin/bash
+
+# Compara o tempo até a primeira resposta bem-sucedida de GET /auth/health e
+# GET /tasks para cada variante de inicialização:
+#   default   java -jar
+#   lazy      perfil fast-startup (inicialização preguiçosa de beans)
+#   aot       contexto processado pelo Spring AOT
+#   cds       AOT + lazy + arquivo de class-data sharing (como docker/Dockerfile.backend-cds)
+# Requer um MySQL acessível com a configuração do application.yml (ou variáveis
+# SPRING_DATASOURCE_*) e o jar gerado por "mvn package -Pstartup".
+# Uso: ./benchmark_startup.sh [caminho/do/app.jar] [execuções por variante]
+
+JAR=$(realpath "${1:-backend/target/todo-api-1.0.0.jar}")
+RUNS=${2:-5}
+BASE_URL=http://localhost:8080/api
+WORK_DIR=$(mktemp -d)
+
+if [ ! -f "$JAR" ]; then
+    echo "Jar não encontrado: $JAR (execute mvn package -Pstartup no backend)"
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+status_of() {
+    curl -s -o /dev/null -w "%{http_code}" "$@"
+}
+
+wait_for_stop() {
+    kill "$1" 2>/dev/null
+    wait "$1" 2>/dev/null
+}
+
+# Layout extraído e arquivo CDS, como na imagem Docker
+prepare_cds() {
+    echo "Preparando arquivo CDS em $WORK_DIR..."
+    (
+        cd "$WORK_DIR" || exit 1
+        mkdir fat && (cd fat && jar xf "$JAR")
+        mkdir lib && mv fat/BOOT-INF/lib/*.jar lib/
+        jar cf application.jar -C fat/BOOT-INF/classes .
+        echo "-cp application.jar:$(ls lib/*.jar | sort | tr '\n' ':' | sed 's/:$//')" > classpath.args
+        rm -rf fat
+        java -XX:ArchiveClassesAtExit=app.jsa -Dspring.context.exit=onRefresh \
+            @classpath.args com.todoapp.TodoApiApplication \
+            --spring.flyway.enabled=false \
+            --spring.jpa.hibernate.ddl-auto=none \
+            --spring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false \
+            --spring.datasource.hikari.initialization-fail-timeout=-1 > training.log 2>&1
+    )
+}
+
+# Sobe a aplicação uma vez para criar um usuário e obter um token JWT
+obtain_token() {
+    java -jar "$JAR" > "$WORK_DIR/token.log" 2>&1 &
+    local pid=$!
+    until [ "$(status_of "$BASE_URL/auth/health")" = "200" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "A aplicação não iniciou, veja $WORK_DIR/token.log"
+            exit 1
+        fi
+        sleep 0.5
+    done
+
+    local email="benchmark-$(date +%s)@example.com"
+    TOKEN=$(curl -s -X POST "$BASE_URL/auth/register" \
+        -H "Content-Type: application/json" \
+        -d "{\"name\": \"Benchmark\", \"email\": \"$email\", \"password\": \"benchmark123\", \"passwordConfirm\": \"benchmark123\"}" \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    wait_for_stop "$pid"
+
+    if [ -z "$TOKEN" ]; then
+        echo "Não foi possível obter um token"
+        exit 1
+    fi
+}
+
+# Executa uma variante e imprime "health_ms tasks_ms"
+measure() {
+    local start health="" tasks="" pid
+    start=$(now_ms)
+    "$@" > "$WORK_DIR/run.log" 2>&1 &
+    pid=$!
+
+    while [ -z "$health" ] || [ -z "$tasks" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "A aplicação terminou inesperadamente, veja $WORK_DIR/run.log" >&2
+            exit 1
+        fi
+        if [ -z "$health" ] && [ "$(status_of "$BASE_URL/auth/health")" = "200" ]; then
+            health=$(( $(now_ms) - start ))
+        fi
+        if [ -z "$tasks" ] && [ "$(status_of -H "Authorization: Bearer $TOKEN" "$BASE_URL/tasks")" = "200" ]; then
+            tasks=$(( $(now_ms) - start ))
+        fi
+        sleep 0.05
+    done
+
+    wait_for_stop "$pid"
+    echo "$health $tasks"
+}
+
+run_variant() {
+    local name=$1
+    shift
+    local health_total=0 tasks_total=0
+
+    for i in $(seq 1 "$RUNS"); do
+        read -r health tasks < <(measure "$@")
+        echo "$name #$i: /auth/health ${health}ms, /tasks ${tasks}ms"
+        health_total=$((health_total + health))
+        tasks_total=$((tasks_total + tasks))
+    done
+
+    RESULTS+=("$(printf "%-8s %12d %12d" "$name" $((health_total / RUNS)) $((tasks_total / RUNS)))")
+}
+
+RESULTS=()
+prepare_cds
+obtain_token
+
+run_variant default java -jar "$JAR"
+run_variant lazy java -jar "$JAR" --spring.profiles.active=fast-startup
+run_variant aot java -Dspring.aot.enabled=true -jar "$JAR"
+run_variant cds bash -c "cd '$WORK_DIR' && exec java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true \
+    @classpath.args com.todoapp.TodoApiApplication --spring.profiles.active=fast-startup"
+
+echo
+printf "%-8s %12s %12s\n" "variante" "health (ms)" "tasks (ms)"
+printf "%s\n" "${RESULTS[@]}"
+
+rm -rf "$WORK_DIR"
@@ -0,0 +1,20 @@
+#!/bin/bash
+
+# Resume uma gravação JFR baixada de POST /api/system/profiling/recordings:
+# eventos da aplicação agrupados (contagem, total, p50, p99, máximo) e os
+# métodos mais amostrados. Requer o backend compilado (mvn compile).
+# Uso: ./jfr_summary.sh arquivo.jfr [top]
+
+if [ -z "$1" ]; then
+    echo "Uso: $0 arquivo.jfr [top]"
+    exit 1
+fi
+
+CLASSES="$(dirname "$0")/../backend/target/classes"
+
+if [ ! -d "$CLASSES" ]; then
+    echo "Classes não encontradas em $CLASSES (execute mvn compile no backend)"
+    exit 1
+fi
+
+java -cp "$CLASSES" com.todoapp.profiling.JfrSummary "$1" "${2:-15}"
@@ -0,0 +1,55 @@
+#!/bin/bash
+
+# Mede o tempo de inicialização da API com o esquema gerenciado pelo Hibernate
+# (ddl-auto: update, comportamento anterior) e pelo Flyway (ddl-auto: validate).
+# Requer um MySQL acessível com a configuração do application.yml (ou variáveis
+# SPRING_DATASOURCE_*) e o jar gerado por "mvn package".
+# Uso: ./measure_startup.sh [caminho/do/app.jar] [execuções por variante]
+
+JAR=${1:-backend/target/todo-api-1.0.0.jar}
+RUNS=${2:-5}
+
+if [ ! -f "$JAR" ]; then
+    echo "Jar não encontrado: $JAR (execute mvn package no backend)"
+    exit 1
+fi
+
+run_variant() {
+    local name=$1
+    shift
+    local total=0
+
+    for i in $(seq 1 "$RUNS"); do
+        local log
+        log=$(mktemp)
+        java -jar "$JAR" "$@" > "$log" 2>&1 &
+        local pid=$!
+
+        # Aguarda a linha "Started TodoApiApplication in X seconds"
+        local seconds=""
+        for _ in $(seq 1 240); do
+            seconds=$(grep -oE "Started TodoApiApplication in [0-9.]+ seconds" "$log" | grep -oE "[0-9.]+" | head -1)
+            if [ -n "$seconds" ] || ! kill -0 "$pid" 2>/dev/null; then
+                break
+            fi
+            sleep 0.5
+        done
+
+        kill "$pid" 2>/dev/null
+        wait "$pid" 2>/dev/null
+
+        if [ -z "$seconds" ]; then
+            echo "$name: a aplicação não iniciou, veja $log"
+            exit 1
+        fi
+        rm -f "$log"
+        echo "$name #$i: ${seconds}s"
+        total=$(echo "$total + $seconds" | bc -l)
+    done
+
+    printf "%s: média %.2fs em %d execuções\n\n" "$name" "$(echo "$total / $RUNS" | bc -l)" "$RUNS"
+}
+
+run_variant "hibernate ddl-auto=update" \
+    --spring.flyway.enabled=false --spring.jpa.hibernate.ddl-auto=update
+run_variant "flyway + ddl-auto=validate"
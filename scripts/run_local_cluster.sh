@@ -0,0 +1,53 @@
+#!/bin/bash
+
+# Sobe várias instâncias do backend na mesma máquina, ligadas pelo barramento
+# de invalidação UDP, para testar a invalidação entre instâncias localmente.
+# A instância i escuta HTTP em 8080+i e UDP em 7600+i e usa node-id i.
+# Requer um MySQL acessível com a configuração do application.yml (ou variáveis
+# SPRING_DATASOURCE_*) e o jar gerado por "mvn package".
+# Uso: ./run_local_cluster.sh [instâncias] [caminho/do/app.jar]
+# Ctrl+C encerra todas as instâncias.
+
+INSTANCES=${1:-3}
+JAR=$(realpath "${2:-backend/target/todo-api-1.0.0.jar}")
+LOG_DIR=$(mktemp -d)
+
+if [ ! -f "$JAR" ]; then
+    echo "Jar não encontrado: $JAR (execute mvn package no backend)"
+    exit 1
+fi
+
+if [ "$INSTANCES" -gt 16 ]; then
+    echo "No máximo 16 instâncias (node-id de 0 a 15)"
+    exit 1
+fi
+
+peers_of() {
+    local self=$1
+    local peers=""
+    for ((j = 0; j < INSTANCES; j++)); do
+        if [ "$j" -ne "$self" ]; then
+            peers="${peers:+$peers,}127.0.0.1:$((7600 + j))"
+        fi
+    done
+    echo "$peers"
+}
+
+PIDS=()
+trap 'kill "${PIDS[@]}" 2>/dev/null; wait; exit 0' INT TERM
+
+for ((i = 0; i < INSTANCES; i++)); do
+    java -jar "$JAR" \
+        --server.port=$((8080 + i)) \
+        --app.ids.node-id="$i" \
+        --app.cluster.invalidation.transport=udp \
+        --app.cluster.invalidation.bind-address=127.0.0.1 \
+        --app.cluster.invalidation.port=$((7600 + i)) \
+        --app.cluster.invalidation.peers="$(peers_of "$i")" \
+        > "$LOG_DIR/instance-$i.log" 2>&1 &
+    PIDS+=($!)
+    echo "Instância $i: http://localhost:$((8080 + i))/api (log em $LOG_DIR/instance-$i.log)"
+done
+
+echo "Estatísticas do barramento: GET /api/system/invalidation-bus em cada instância (token de um e-mail em app.security.admin-emails)"
+wait
@@ -0,0 +1,81 @@
+package com.todoapp.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage format of task_descriptions.content: a format byte followed by the
+ * UTF-8 text, either as is or zlib compressed.
+ */
+public final class DescriptionFormat {
+
+    public static final byte PLAIN = 0;
+    public static final byte DEFLATE = 1;
+
+    private DescriptionFormat() {
+    }
+
+    /**
+     * Encodes {@code utf8}, compressing it when it is at least
+     * {@code compressionThresholdBytes} long and compression makes it smaller.
+     */
+    public static byte[] encode(byte[] utf8, int compressionThresholdBytes) {
+        byte[] stored = utf8.length >= compressionThresholdBytes ? deflate(utf8) : null;
+        if (stored == null) {
+            stored = new byte[utf8.length + 1];
+            stored[0] = PLAIN;
+            System.arraycopy(utf8, 0, stored, 1, utf8.length);
+        }
+        return stored;
+    }
+
+    public static String decode(byte[] stored) {
+        return switch (stored[0]) {
+            case PLAIN -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE -> inflate(stored);
+            default -> throw new IllegalStateException("Unknown task description format: " + stored[0]);
+        };
+    }
+
+    // Returns null when the compressed form would not be smaller than the text.
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            byte[] buffer = new byte[utf8.length];
+            buffer[0] = DEFLATE;
+            int length = 1 + deflater.deflate(buffer, 1, buffer.length - 1);
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            byte[] buffer = new byte[stored.length * 4];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int inflated = inflater.inflate(buffer, length, buffer.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated task description");
+                }
+                length += inflated;
+            }
+            return new String(buffer, 0, length, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt task description", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.todoapp.core;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Signs and verifies the API's access tokens: HS512, the email as subject and
+ * the user id in the {@code uid} claim. Shared by the servlet and reactive
+ * APIs so a token issued by one is accepted by the other.
+ */
+public class JwtTokens {
+
+    static final String USER_ID_CLAIM = "uid";
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long expirationMs;
+
+    public JwtTokens(String secret, long expirationMs) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.expirationMs = expirationMs;
+    }
+
+    // The user id pins the token to one account, so it stops working if that
+    // account is deleted and the email is registered again.
+    public String generate(String email, Long userId) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + expirationMs);
+
+        return Jwts.builder()
+                .subject(email)
+                .claim(USER_ID_CLAIM, userId)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    /**
+     * Verifies the signature and expiry of a token and returns its claims.
+     *
+     * @throws JwtException if the token is invalid or expired
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public TokenClaims parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        return new TokenClaims(claims.getSubject(), claims.get(USER_ID_CLAIM, Long.class));
+    }
+
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    /** {@code userId} is null for tokens issued before it was added. */
+    public record TokenClaims(String email, Long userId) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.todoapp.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptionFormatTest {
+
+    @Test
+    void encode_BelowThreshold_StoresPlainText() {
+        byte[] stored = DescriptionFormat.encode("short".getBytes(StandardCharsets.UTF_8), 512);
+
+        assertEquals(DescriptionFormat.PLAIN, stored[0]);
+        assertEquals("short", DescriptionFormat.decode(stored));
+    }
+
+    @Test
+    void encode_RepetitiveText_CompressesAndRoundTrips() {
+        String text = "Revisar o relatório trimestral e enviar ao financeiro. ".repeat(40);
+
+        byte[] stored = DescriptionFormat.encode(text.getBytes(StandardCharsets.UTF_8), 512);
+
+        assertEquals(DescriptionFormat.DEFLATE, stored[0]);
+        assertTrue(stored.length < text.length());
+        assertEquals(text, DescriptionFormat.decode(stored));
+    }
+
+    @Test
+    void decode_UnknownFormat_Throws() {
+        assertThrows(IllegalStateException.class, () -> DescriptionFormat.decode(new byte[]{7, 'a'}));
+    }
+}
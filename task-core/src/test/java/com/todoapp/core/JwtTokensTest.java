@@ -0,0 +1,41 @@
+package com.todoapp.core;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokensTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef";
+
+    private final JwtTokens tokens = new JwtTokens(SECRET, 60_000);
+
+    @Test
+    void parse_ReturnsEmailAndUserId() {
+        JwtTokens.TokenClaims claims = tokens.parse(tokens.generate("user@example.com", 42L));
+
+        assertEquals("user@example.com", claims.email());
+        assertEquals(42L, claims.userId());
+    }
+
+    @Test
+    void parse_TokenWithoutUserId_ReturnsNullUserId() {
+        assertNull(tokens.parse(tokens.generate("user@example.com", null)).userId());
+    }
+
+    @Test
+    void parse_TokenSignedWithOtherSecret_Throws() {
+        JwtTokens other = new JwtTokens(SECRET.replace('0', '1'), 60_000);
+
+        assertThrows(JwtException.class, () -> tokens.parse(other.generate("user@example.com", 42L)));
+    }
+
+    @Test
+    void parse_ExpiredToken_Throws() {
+        JwtTokens expired = new JwtTokens(SECRET, -1_000);
+
+        assertThrows(ExpiredJwtException.class, () -> tokens.parse(expired.generate("user@example.com", 42L)));
+    }
+}